@@ -350,6 +350,56 @@ public class AuthorizationSettings implements Serializable {
         return true;
     }
     
+    /**
+     * Adds the headers of the saved authorization settings for a URL, without an authorization controller. OAuth 2.0
+     * only uses a saved access token; no new token is requested.
+     * 
+     * @param url the URL
+     * @param headers the headers to add to
+     * @return true if a header was added, false otherwise
+     */
+    public boolean applyHeadersForUrl(String url, Map<String, String> headers) {
+        AuthSetting setting = url == null ? null : settingsByUrl.get(url);
+        if (setting == null || setting.getAuthType() == null) {
+            return false;
+        }
+        switch (setting.getAuthType()) {
+            case API_KEY:
+                if (isSet(setting.getApiKeyName()) && isSet(setting.getApiKeyValue())) {
+                    headers.put(setting.getApiKeyName(), setting.getApiKeyValue());
+                    return true;
+                }
+                break;
+            case BASIC_AUTH:
+                if (isSet(setting.getUsername()) && setting.getPassword() != null) {
+                    String auth = setting.getUsername() + ":" + setting.getPassword();
+                    headers.put("Authorization", "Basic " + java.util.Base64.getEncoder().encodeToString(auth.getBytes()));
+                    return true;
+                }
+                break;
+            case BEARER_TOKEN:
+                if (isSet(setting.getBearerToken())) {
+                    headers.put("Authorization", "Bearer " + setting.getBearerToken());
+                    return true;
+                }
+                break;
+            case OAUTH2:
+                if (isSet(setting.getAccessToken())) {
+                    headers.put("Authorization", "Bearer " + setting.getAccessToken());
+                    return true;
+                }
+                break;
+            case NO_AUTH:
+            default:
+                break;
+        }
+        return false;
+    }
+    
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+    
     /**
      * Clears all authorization settings.
      */
@@ -1,5 +1,9 @@
 package io.github.ozkanpakdil.swaggerific.data;
 
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpProtocol;
+import io.github.ozkanpakdil.swaggerific.tools.http.RateLimit;
+import io.github.ozkanpakdil.swaggerific.tools.http.RetryPolicy;
+
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -20,6 +24,9 @@ public class Environment implements Serializable {
     private String description;
     private final Map<String, EnvironmentVariable> variables = new HashMap<>();
     private boolean isActive;
+    private RetryPolicy retryPolicy;
+    private RateLimit rateLimit;
+    private HttpProtocol protocol;
 
     /**
      * Default constructor for serialization
@@ -101,6 +108,60 @@ public class Environment implements Serializable {
         isActive = active;
     }
 
+    /**
+     * Gets the retry policy for requests sent while this environment is active.
+     *
+     * @return the policy, or {@code null} to use the one of the settings
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry policy for requests sent while this environment is active.
+     *
+     * @param retryPolicy the policy, or {@code null} to use the one of the settings
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Gets the per-host rate limit for requests sent while this environment is active.
+     *
+     * @return the limit, or {@code null} to use the one of the settings
+     */
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Sets the per-host rate limit for requests sent while this environment is active.
+     *
+     * @param rateLimit the limit, or {@code null} to use the one of the settings
+     */
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * Gets the HTTP version asked for by requests sent while this environment is active.
+     *
+     * @return the version, or {@code null} to use the one of the settings
+     */
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Sets the HTTP version asked for by requests sent while this environment is active.
+     *
+     * @param protocol the version, or {@code null} to use the one of the settings
+     */
+    public void setProtocol(HttpProtocol protocol) {
+        this.protocol = protocol;
+    }
+
     /**
      * Gets a variable by key.
      *
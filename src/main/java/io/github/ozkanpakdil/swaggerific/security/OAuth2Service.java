@@ -2,6 +2,8 @@ package io.github.ozkanpakdil.swaggerific.security;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpProtocol;
 
 import java.io.IOException;
 import java.net.URI;
@@ -15,6 +17,7 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
 
 /**
@@ -42,7 +45,7 @@ public class OAuth2Service {
     
     public OAuth2Service() {
         this.httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_2)
+                .version(HttpProtocol.fromSettings(Preferences.userNodeForPackage(SwaggerApplication.class)).version())
                 .followRedirects(HttpClient.Redirect.NORMAL)
                 .build();
         this.objectMapper = new ObjectMapper();
@@ -1,19 +1,32 @@
 package io.github.ozkanpakdil.swaggerific.tools;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.ozkanpakdil.swaggerific.tools.http.DownloadProgress;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpProtocol;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpRequest;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpService;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpServiceImpl;
+import io.github.ozkanpakdil.swaggerific.tools.http.RateLimit;
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestBody;
+import io.github.ozkanpakdil.swaggerific.tools.http.ResponseBody;
+import io.github.ozkanpakdil.swaggerific.tools.http.RetryPolicy;
+import io.github.ozkanpakdil.swaggerific.tools.http.StreamListener;
+import io.github.ozkanpakdil.swaggerific.tools.http.UploadProgress;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.PathItem;
 
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for HTTP operations. This class handles HTTP requests and responses
@@ -21,7 +34,17 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class HttpUtility {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(HttpUtility.class);
+    /**
+     * Scheme and authority of a URL whose path may still hold placeholders such as {@code {petId}}.
+     */
+    private static final Pattern ORIGIN = Pattern.compile("^(https?://[^/?#{}\\s]+)(?:[/?#]|$)",
+            Pattern.CASE_INSENSITIVE);
     private final HttpService httpService;
+    private Supplier<RetryPolicy> retryPolicy = () -> null;
+    private Supplier<RateLimit> rateLimit = () -> null;
+    private Supplier<HttpProtocol> protocol = () -> null;
+    private final boolean spillLargeResponses;
+    private final boolean bypassCache;
 
     /**
      * Constructor with ObjectMapper.
@@ -30,6 +53,8 @@ public class HttpUtility {
      */
     public HttpUtility(ObjectMapper mapper) {
         this.httpService = new HttpServiceImpl(mapper);
+        this.spillLargeResponses = false;
+        this.bypassCache = false;
     }
 
     /**
@@ -39,6 +64,61 @@ public class HttpUtility {
         this(Json.mapper());
     }
 
+    /**
+     * Shares the service and the settings suppliers of {@code settings}, including ones set on it later.
+     */
+    private HttpUtility(HttpUtility settings, boolean spillLargeResponses, boolean bypassCache) {
+        this.httpService = settings.httpService;
+        this.retryPolicy = () -> settings.retryPolicy.get();
+        this.rateLimit = () -> settings.rateLimit.get();
+        this.protocol = () -> settings.protocol.get();
+        this.spillLargeResponses = spillLargeResponses;
+        this.bypassCache = bypassCache;
+    }
+
+    /**
+     * @return a utility for sends whose response is shown in a request tab, which may spill large responses to a temp
+     * file when the settings allow it; the caller deletes {@link HttpResponse#bodyFile()} once it is not shown anymore
+     */
+    public HttpUtility interactive() {
+        return new HttpUtility(this, true, false);
+    }
+
+    /**
+     * @return a utility for load tests and collection runs, whose requests skip the response cache so every one of them
+     * reaches the server
+     */
+    public HttpUtility bulk() {
+        return new HttpUtility(this, false, true);
+    }
+
+    /**
+     * Sets where the retry policy of each request comes from, e.g. the active environment.
+     *
+     * @param retryPolicy returns the policy, or {@code null} to use the one of the settings
+     */
+    public void setRetryPolicy(Supplier<RetryPolicy> retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets where the per-host rate limit of each request comes from, e.g. the active environment.
+     *
+     * @param rateLimit returns the limit, or {@code null} to use the one of the settings
+     */
+    public void setRateLimit(Supplier<RateLimit> rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * Sets where the HTTP version of each request comes from, e.g. the active environment.
+     *
+     * @param protocol returns the version, or {@code null} to use the one of the settings
+     */
+    public void setProtocol(Supplier<HttpProtocol> protocol) {
+        this.protocol = protocol;
+    }
+
     /**
      * Determines if the response is JSON based on Content-Type or content inspection.
      */
@@ -49,10 +129,8 @@ public class HttpUtility {
             return contentType.contains("json") ||
                     contentType.contains("application/javascript");
         }
-        // Fallback to content inspection
-        String body = response.body();
-        return body != null && !body.isEmpty() &&
-                (body.trim().startsWith("{") || body.trim().startsWith("["));
+        // Fallback to content inspection, which only looks at the first bytes
+        return response.content().kind() == ResponseBody.Kind.JSON;
     }
 
     /**
@@ -65,10 +143,8 @@ public class HttpUtility {
             return contentType.contains("xml") ||
                     contentType.contains("text/html");
         }
-        // Fallback to content inspection
-        String body = response.body();
-        return body != null && !body.isEmpty() &&
-                body.trim().startsWith("<");
+        // Fallback to content inspection, which only looks at the first bytes
+        return response.content().kind() == ResponseBody.Kind.XML;
     }
 
     /**
@@ -86,6 +162,21 @@ public class HttpUtility {
         }
     }
 
+    /**
+     * Formats a JSON response body if possible. The body is parsed once and the tree is kept with the response.
+     *
+     * @param response the response with a JSON body
+     * @return the formatted JSON, or the body text if it is not JSON
+     */
+    public String formatJson(HttpResponse response) {
+        try {
+            return Json.pretty(response.content().json());
+        } catch (Exception e) {
+            log.warn("Failed to parse JSON: {}", e.getMessage());
+            return response.body();
+        }
+    }
+
     /**
      * Formats XML string if possible.
      *
@@ -200,28 +291,184 @@ public class HttpUtility {
                                     Map<String, String> headers, String body,
                                     Map<String, String> queryParams, Map<String, String> pathParams) {
         try {
-            URI uri = buildUri(targetUri, queryParams, pathParams);
+            HttpRequest request = buildRequest(targetUri, httpMethod, headers, body, queryParams, pathParams).build();
+            return httpService.sendRequest(request);
+        } catch (Exception e) {
+            return preparationError(e);
+        }
+    }
 
-            log.info("Headers before creating request: {}", headers);
+    /**
+     * Sends an HTTP request without blocking the calling thread.
+     *
+     * @param targetUri   the target URI
+     * @param httpMethod  the HTTP method
+     * @param headers     the HTTP headers
+     * @param body        the request body
+     * @param queryParams the query parameters
+     * @param pathParams  the path parameters
+     * @return a future completed with the HTTP response
+     */
+    public CompletableFuture<HttpResponse> sendRequestAsync(String targetUri, PathItem.HttpMethod httpMethod,
+                                                            Map<String, String> headers, String body,
+                                                            Map<String, String> queryParams, Map<String, String> pathParams) {
+        return sendRequestAsync(targetUri, httpMethod, headers, body, queryParams, pathParams, null);
+    }
 
-            HttpRequest request = new HttpRequest.Builder()
-                    .uri(uri)
-                    .method(httpMethod.name())
-                    .headers(headers)
-                    .body(body)
-                    .build();
+    /**
+     * Sends an HTTP request without blocking the calling thread, passing the events of a streamed response to
+     * {@code events} as they arrive.
+     *
+     * @param targetUri   the target URI
+     * @param httpMethod  the HTTP method
+     * @param headers     the HTTP headers
+     * @param body        the request body
+     * @param queryParams the query parameters
+     * @param pathParams  the path parameters
+     * @param events      receives the events of a {@code text/event-stream} or NDJSON response, may be {@code null}
+     * @return a future completed with the HTTP response
+     */
+    public CompletableFuture<HttpResponse> sendRequestAsync(String targetUri, PathItem.HttpMethod httpMethod,
+                                                            Map<String, String> headers, String body,
+                                                            Map<String, String> queryParams, Map<String, String> pathParams,
+                                                            StreamListener events) {
+        try {
+            HttpRequest request = buildRequest(targetUri, httpMethod, headers, body, queryParams, pathParams).build();
+            return httpService.sendRequestAsync(request, events);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(preparationError(e));
+        }
+    }
 
-            log.info("Sending {} request to {} with headers: {}", httpMethod.name(), uri, request.headers());
-            return httpService.sendRequest(request);
+    /**
+     * Sends an HTTP request with a streamed body without blocking the calling thread.
+     *
+     * @param targetUri      the target URI
+     * @param httpMethod     the HTTP method
+     * @param headers        the HTTP headers
+     * @param content        the file, multipart or byte source body
+     * @param uploadProgress notified while the body is written, may be {@code null}
+     * @param queryParams    the query parameters
+     * @param pathParams     the path parameters
+     * @return a future completed with the HTTP response
+     */
+    public CompletableFuture<HttpResponse> sendRequestAsync(String targetUri, PathItem.HttpMethod httpMethod,
+                                                            Map<String, String> headers, RequestBody content,
+                                                            UploadProgress uploadProgress,
+                                                            Map<String, String> queryParams, Map<String, String> pathParams) {
+        return sendRequestAsync(targetUri, httpMethod, headers, content, uploadProgress, queryParams, pathParams, null);
+    }
+
+    /**
+     * Sends an HTTP request with a streamed body without blocking the calling thread, passing the events of a streamed
+     * response to {@code events} as they arrive.
+     *
+     * @param targetUri      the target URI
+     * @param httpMethod     the HTTP method
+     * @param headers        the HTTP headers
+     * @param content        the file, multipart or byte source body
+     * @param uploadProgress notified while the body is written, may be {@code null}
+     * @param queryParams    the query parameters
+     * @param pathParams     the path parameters
+     * @param events         receives the events of a {@code text/event-stream} or NDJSON response, may be {@code null}
+     * @return a future completed with the HTTP response
+     */
+    public CompletableFuture<HttpResponse> sendRequestAsync(String targetUri, PathItem.HttpMethod httpMethod,
+                                                            Map<String, String> headers, RequestBody content,
+                                                            UploadProgress uploadProgress,
+                                                            Map<String, String> queryParams, Map<String, String> pathParams,
+                                                            StreamListener events) {
+        try {
+            HttpRequest request = buildRequest(targetUri, httpMethod, headers, null, queryParams, pathParams)
+                    .body(content)
+                    .uploadProgress(uploadProgress)
+                    .build();
+            return httpService.sendRequestAsync(request, events);
         } catch (Exception e) {
-            log.error("Error preparing request: {}", e.getMessage(), e);
-            return new HttpResponse.Builder()
-                    .error("Error preparing request: " + e.getMessage())
+            return CompletableFuture.completedFuture(preparationError(e));
+        }
+    }
+
+    /**
+     * Sends an HTTP request and saves the response body to a file without blocking the calling thread.
+     *
+     * @param targetUri   the target URI
+     * @param httpMethod  the HTTP method
+     * @param headers     the HTTP headers
+     * @param body        the request body
+     * @param content     the streamed request body, used instead of {@code body} when set
+     * @param queryParams the query parameters
+     * @param pathParams  the path parameters
+     * @param target      file for the response body
+     * @param progress    notified while the response body is written, may be {@code null}
+     * @return a future completed with the HTTP response
+     */
+    public CompletableFuture<HttpResponse> downloadAsync(String targetUri, PathItem.HttpMethod httpMethod,
+                                                         Map<String, String> headers, String body, RequestBody content,
+                                                         Map<String, String> queryParams, Map<String, String> pathParams,
+                                                         Path target, DownloadProgress progress) {
+        try {
+            HttpRequest request = buildRequest(targetUri, httpMethod, headers, body, queryParams, pathParams)
+                    .body(content)
                     .build();
+            return httpService.downloadAsync(request, target, progress);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(preparationError(e));
         }
     }
 
+    /**
+     * Opens a connection to the server of {@code targetUri} in the background, see {@link HttpService#prewarm}. Nothing
+     * is done when the host is not known yet, e.g. because it is an unresolved variable.
+     *
+     * @param targetUri the URL of a request, its path and query are ignored
+     */
+    public void prewarm(String targetUri) {
+        Matcher origin = ORIGIN.matcher(targetUri == null ? "" : targetUri.trim());
+        if (!origin.find()) {
+            log.debug("Not warming up a connection for {}, no host", targetUri);
+            return;
+        }
+        try {
+            httpService.prewarm(URI.create(origin.group(1)), protocol.get(), rateLimit.get());
+        } catch (IllegalArgumentException e) {
+            log.debug("Not warming up a connection for {}: {}", targetUri, e.getMessage());
+        }
+    }
+
+    private HttpRequest.Builder buildRequest(String targetUri, PathItem.HttpMethod httpMethod, Map<String, String> headers,
+                                             String body, Map<String, String> queryParams, Map<String, String> pathParams) {
+        URI uri = buildUri(targetUri, queryParams, pathParams);
+
+        log.debug("Headers before creating request: {}", headers);
+
+        HttpRequest.Builder request = new HttpRequest.Builder()
+                .uri(uri)
+                .method(httpMethod.name())
+                .headers(headers)
+                .body(body)
+                .retryPolicy(retryPolicy.get())
+                .rateLimit(rateLimit.get())
+                .protocol(protocol.get())
+                .spillLargeResponse(spillLargeResponses)
+                .bypassCache(bypassCache);
+
+        log.debug("Sending {} request to {} with headers: {}", httpMethod.name(), uri, headers);
+        return request;
+    }
+
+    private static HttpResponse preparationError(Exception e) {
+        log.error("Error preparing request: {}", e.getMessage(), e);
+        return new HttpResponse.Builder()
+                .error("Error preparing request: " + e.getMessage())
+                .build();
+    }
+
     public HttpResponse sendRequest(String string, PathItem.HttpMethod httpMethod) {
         return sendRequest(string, httpMethod, null, null, Collections.emptyMap(), Collections.emptyMap());
     }
+
+    public CompletableFuture<HttpResponse> sendRequestAsync(String string, PathItem.HttpMethod httpMethod) {
+        return sendRequestAsync(string, httpMethod, null, null, Collections.emptyMap(), Collections.emptyMap());
+    }
 }
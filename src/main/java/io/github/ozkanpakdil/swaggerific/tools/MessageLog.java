@@ -0,0 +1,111 @@
+package io.github.ozkanpakdil.swaggerific.tools;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Hand-over between a thread receiving messages, such as WebSocket frames or server-sent events, and the view showing
+ * them.
+ * <p>
+ * Messages are added without locking and taken in batches by {@link #drain()}, once per frame, so a busy source costs
+ * the FX thread one list update per frame instead of one per message. At most {@code capacity} messages wait between
+ * two drains; beyond that the oldest waiting ones are dropped and the next batch starts with a single entry, made by
+ * the {@code dropped} function, counting them.
+ *
+ * @param <T> the message type
+ */
+public final class MessageLog<T> {
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Messages taken by one drain.
+     *
+     * @param messages  the messages in order, led by a dropped entry when messages were dropped
+     * @param dropped   number of messages dropped since the previous drain
+     * @param total     number of messages logged so far, including dropped ones
+     * @param perSecond messages logged per second over about the last second
+     */
+    public record Batch<T>(List<T> messages, long dropped, long total, double perSecond) {
+    }
+
+    private record Sample(long at, long total) {
+    }
+
+    private final int capacity;
+    private final LongFunction<T> dropped;
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    /**
+     * @param capacity most messages waiting between two drains
+     * @param dropped  makes the entry standing in for the given number of dropped messages
+     */
+    public MessageLog(int capacity, LongFunction<T> dropped) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.dropped = dropped;
+    }
+
+    /**
+     * Adds a message, dropping the oldest waiting one when the log is full. Safe to call from any thread.
+     */
+    public void add(T message) {
+        // Counted before it is queued, so a drain that takes it never sees the size below zero
+        int waiting = size.incrementAndGet();
+        pending.add(message);
+        total.increment();
+        if (waiting > capacity && pending.poll() != null) {
+            size.decrementAndGet();
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Takes the waiting messages. Meant to be called from one thread, the view.
+     */
+    public Batch<T> drain() {
+        return drain(System.nanoTime());
+    }
+
+    Batch<T> drain(long now) {
+        long lost = droppedCount.getAndSet(0);
+        List<T> messages = new ArrayList<>(Math.min(size.get(), capacity) + 1);
+        if (lost > 0) {
+            messages.add(dropped.apply(lost));
+        }
+        T message;
+        while ((message = pending.poll()) != null) {
+            size.decrementAndGet();
+            messages.add(message);
+        }
+        long logged = total.sum();
+        return new Batch<>(messages, lost, logged, rate(now, logged));
+    }
+
+    /**
+     * Messages per second between the oldest drain of the last second and this one.
+     */
+    private double rate(long now, long logged) {
+        samples.addLast(new Sample(now, logged));
+        while (samples.size() > 2 && now - samples.peekFirst().at() > RATE_WINDOW_NANOS) {
+            samples.removeFirst();
+        }
+        Sample oldest = samples.peekFirst();
+        long elapsed = now - oldest.at();
+        return elapsed <= 0 ? 0 : (logged - oldest.total()) * 1e9 / elapsed;
+    }
+}
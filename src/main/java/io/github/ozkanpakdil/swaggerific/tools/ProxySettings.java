@@ -268,6 +268,23 @@ public class ProxySettings {
         return decryptedPassword.toCharArray();
     }
 
+    /**
+     * Encrypts a secret for the preferences with the same persistent key as the proxy password.
+     */
+    public static String encryptSecret(String value) {
+        return PasswordEncryption.encrypt(value);
+    }
+
+    /**
+     * @return the secret stored by {@link #encryptSecret(String)}, empty when there is none or it cannot be decrypted
+     */
+    public static char[] decryptSecret(String encrypted) {
+        if (encrypted == null || encrypted.isEmpty()) {
+            return new char[0];
+        }
+        return PasswordEncryption.decrypt(encrypted).toCharArray();
+    }
+
     public static void validateProxySettings() {
         if (!useSystemProxy()) {
             String server = getProxyServer();
@@ -3,6 +3,7 @@ package io.github.ozkanpakdil.swaggerific.tools.history;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import io.github.ozkanpakdil.swaggerific.tools.http.ResponseBody;
 import io.github.ozkanpakdil.swaggerific.ui.MainController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,9 +67,12 @@ public class HistoryService {
             record.put("requestBody", requestBody);
             if (response != null) {
                 record.put("status", response.statusCode());
-                record.put("responseHeaders", response.headers());
+                // Every value of a repeated header, such as Set-Cookie, is kept
+                record.put("responseHeaders", response.headers().toMultimap());
                 record.put("responseContentType", response.contentType());
-                record.put("responseBody", response.body());
+                // Binary bodies would not survive the round trip through a JSON string
+                record.put("responseBody", response.content().kind() == ResponseBody.Kind.BINARY
+                        ? "[binary, " + response.content().size() + " bytes]" : response.body());
                 record.put("error", response.isError() ? response.errorMessage() : null);
             }
             byte[] json = mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(record);
@@ -0,0 +1,32 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+/**
+ * How {@link HttpService#sendAll} sends a batch of requests.
+ *
+ * @param concurrency requests in flight at most; a result that was not delivered yet still holds its slot, so a slow
+ *                    subscriber slows the batch down instead of results piling up
+ * @param ordered     whether results are delivered in the order of the requests instead of as they complete; a slow
+ *                    request then holds back the results after it
+ */
+public record BatchOptions(int concurrency, boolean ordered) {
+
+    public BatchOptions {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+    }
+
+    /**
+     * @return options that deliver each result as soon as its request completes
+     */
+    public static BatchOptions unordered(int concurrency) {
+        return new BatchOptions(concurrency, false);
+    }
+
+    /**
+     * @return options that deliver the results in the order of the requests
+     */
+    public static BatchOptions ordered(int concurrency) {
+        return new BatchOptions(concurrency, true);
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Publishes the results of a batch of requests as they complete, see {@link HttpService#sendAll}.
+ * <p>
+ * Sending starts when the publisher is subscribed to; it serves one subscriber. A request holds one of the
+ * {@link BatchOptions#concurrency()} slots from being sent until its result was passed to {@code onNext}, so the demand
+ * of the subscriber paces the batch and at most that many results wait for it. One drain loop at a time starts
+ * requests and delivers results, which keeps the calls to the subscriber in sequence; requests that complete right
+ * away, e.g. from the response cache, are picked up by the loop instead of recursing.
+ */
+final class BatchPublisher implements Flow.Publisher<BatchResult> {
+    private static final Logger log = LoggerFactory.getLogger(BatchPublisher.class);
+
+    private final List<HttpRequest> requests;
+    private final BatchOptions options;
+    private final Function<HttpRequest, CompletableFuture<HttpResponse>> send;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param send sends one request; cancelling the returned future aborts it
+     */
+    BatchPublisher(List<HttpRequest> requests, BatchOptions options,
+                   Function<HttpRequest, CompletableFuture<HttpResponse>> send) {
+        this.requests = List.copyOf(requests);
+        this.options = Objects.requireNonNull(options, "options");
+        this.send = send;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BatchResult> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A batch can only be subscribed to once"));
+            return;
+        }
+        log.debug("Sending a batch of {} requests, {} at once, {}", requests.size(), options.concurrency(),
+                options.ordered() ? "ordered" : "as they complete");
+        Batch batch = new Batch(subscriber);
+        subscriber.onSubscribe(batch);
+        batch.drain();
+    }
+
+    private final class Batch implements Flow.Subscription {
+        private final Flow.Subscriber<? super BatchResult> subscriber;
+        /**
+         * Results by index when ordered, cleared as they are delivered.
+         */
+        private final AtomicReferenceArray<BatchResult> results;
+        /**
+         * Results in the order they completed when not ordered.
+         */
+        private final Queue<BatchResult> completed = new ConcurrentLinkedQueue<>();
+        private final CancellationGroup inFlight = new CancellationGroup();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException badDemand;
+        // Only used by the drain loop
+        private int next;
+        private int delivered;
+        private int pending;
+
+        Batch(Flow.Subscriber<? super BatchResult> subscriber) {
+            this.subscriber = subscriber;
+            this.results = new AtomicReferenceArray<>(options.ordered() ? requests.size() : 0);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badDemand = new IllegalArgumentException("Requested " + n + " results, demand must be positive");
+            } else {
+                demand.getAndUpdate(d -> Long.MAX_VALUE - d < n ? Long.MAX_VALUE : d + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        /**
+         * Delivers what the subscriber asked for, starts requests for the free slots and completes the subscriber once
+         * everything was delivered. Once the batch ended the loop stays claimed, so later calls return right away.
+         */
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (stopped()) {
+                    return;
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted != requested && !cancelled) {
+                    BatchResult result = poll();
+                    if (result == null) {
+                        break;
+                    }
+                    delivered++;
+                    pending--;
+                    emitted++;
+                    try {
+                        subscriber.onNext(result);
+                    } catch (RuntimeException e) {
+                        log.warn("Batch subscriber failed on result {}, cancelling the batch: {}", result.index(),
+                                e.getMessage());
+                        cancelled = true;
+                    }
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                while (!cancelled && pending < options.concurrency() && next < requests.size()) {
+                    pending++;
+                    start(next++);
+                }
+                if (stopped()) {
+                    return;
+                }
+                if (delivered == requests.size()) {
+                    log.debug("Batch of {} requests delivered", requests.size());
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return whether the batch was cancelled or asked for with invalid demand, which ends it
+         */
+        private boolean stopped() {
+            IllegalArgumentException error = badDemand;
+            if (!cancelled && error == null) {
+                return false;
+            }
+            cancelled = true;
+            inFlight.cancel();
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                log.debug("Batch cancelled after {} of {} results", delivered, requests.size());
+            }
+            return true;
+        }
+
+        private BatchResult poll() {
+            if (!options.ordered()) {
+                return completed.poll();
+            }
+            return delivered < requests.size() ? results.getAndSet(delivered, null) : null;
+        }
+
+        private void start(int index) {
+            HttpRequest request = requests.get(index);
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse> response;
+            try {
+                response = inFlight.add(send.apply(request));
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((r, e) -> {
+                if (cancelled) {
+                    return;
+                }
+                BatchResult result = new BatchResult(index, request, r != null && e == null ? r : errorResponse(e),
+                        Duration.ofNanos(System.nanoTime() - start));
+                if (options.ordered()) {
+                    results.set(index, result);
+                } else {
+                    completed.add(result);
+                }
+                drain();
+            });
+        }
+    }
+
+    private static HttpResponse errorResponse(Throwable error) {
+        return new HttpResponse.Builder()
+                .statusCode(500)
+                .error(error == null ? "No response" : String.valueOf(error.getMessage()))
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.time.Duration;
+
+/**
+ * The outcome of one request of a batch sent with {@link HttpService#sendAll}.
+ *
+ * @param index    position of the request in the batch, starting at 0
+ * @param request  the request that was sent
+ * @param response the response, an error response when sending failed
+ * @param latency  time from sending until the response was read
+ */
+public record BatchResult(int index, HttpRequest request, HttpResponse response, Duration latency) {
+
+    public boolean failed() {
+        return response.isError() || response.statusCode() >= 400;
+    }
+}
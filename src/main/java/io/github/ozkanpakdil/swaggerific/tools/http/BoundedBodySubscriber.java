@@ -0,0 +1,309 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Body subscriber that keeps at most {@code maxBytes} of the response body in memory.
+ * <p>
+ * Bytes are counted as they arrive. Once the limit is reached the subscription is cancelled, so the rest of the payload
+ * is never read from the socket. Only the allowed prefix is kept, as a {@link ResponseBody} that decodes it with the
+ * response charset on first use, without emitting a broken character at the cut.
+ * <p>
+ * When a spill directory is given the body is not cut; instead everything is streamed into a temp file in that
+ * directory once the limit is crossed, and the body is returned as that file.
+ * <p>
+ * A {@code gzip} or {@code deflate} body is decoded while it streams in; the limit then applies to the decoded bytes.
+ * <p>
+ * Without a limit the body is kept up to {@link #MAX_KEPT}, the most a byte array holds; a larger one is cut or spilled
+ * there like any other body over the limit.
+ */
+public class BoundedBodySubscriber implements BodySubscriber<BoundedBodySubscriber.Body> {
+
+    /**
+     * Received response body.
+     *
+     * @param content         the kept bytes, empty when the body was spilled to {@code file}
+     * @param receivedBytes   number of body bytes read from the wire
+     * @param decodedBytes    number of body bytes after content decoding, equal to {@code receivedBytes} when the body
+     *                        was not encoded
+     * @param truncated       whether the body was cut at the limit
+     * @param file            file holding the complete body, or {@code null} when it was kept in memory
+     * @param contentEncoding the content coding that was decoded, or {@code null}
+     */
+    public record Body(ResponseBody content, long receivedBytes, long decodedBytes, boolean truncated, Path file,
+                       String contentEncoding) {
+
+        public Body(String text, long receivedBytes, boolean truncated, Path file) {
+            this(ResponseBody.ofText(text), receivedBytes, receivedBytes, truncated, file, null);
+        }
+
+        /**
+         * @return the kept bytes decoded with the response charset
+         */
+        public String text() {
+            return content.text();
+        }
+    }
+
+    /**
+     * Most bytes kept in memory, also when there is no limit.
+     */
+    static final int MAX_KEPT = Integer.MAX_VALUE - 8;
+
+    private final int maxBytes;
+    private final Charset charset;
+    private final Path spillDir;
+    private final ContentDecoder decoder;
+    private final CompletableFuture<Body> result = new CompletableFuture<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private Flow.Subscription subscription;
+    private byte[] buffer = new byte[8192];
+    private int size;
+    private long received;
+    private long decoded;
+    private Path spillFile;
+    private FileChannel spillChannel;
+
+    /**
+     * @param maxBytes maximum number of bytes to keep, {@code 0} or less for no limit
+     * @param charset  charset used to decode the body
+     */
+    public BoundedBodySubscriber(long maxBytes, Charset charset) {
+        this(maxBytes, charset, null);
+    }
+
+    /**
+     * @param maxBytes maximum number of bytes to keep in memory, {@code 0} or less for no limit
+     * @param charset  charset used to decode the body
+     * @param spillDir directory for bodies larger than {@code maxBytes}, {@code null} to truncate them instead
+     */
+    public BoundedBodySubscriber(long maxBytes, Charset charset, Path spillDir) {
+        this(maxBytes, charset, spillDir, null);
+    }
+
+    /**
+     * @param maxBytes        maximum number of decoded bytes to keep in memory, {@code 0} or less for no limit
+     * @param charset         charset used to decode the body
+     * @param spillDir        directory for bodies larger than {@code maxBytes}, {@code null} to truncate them instead
+     * @param contentEncoding value of the {@code Content-Encoding} header; unsupported codings are kept as received
+     */
+    public BoundedBodySubscriber(long maxBytes, Charset charset, Path spillDir, String contentEncoding) {
+        this.maxBytes = (int) (maxBytes > 0 ? Math.min(maxBytes, MAX_KEPT) : MAX_KEPT);
+        this.charset = charset;
+        this.spillDir = spillDir;
+        this.decoder = ContentDecoder.forEncoding(contentEncoding);
+    }
+
+    /**
+     * @param maxBytes maximum number of bytes to keep, {@code 0} or less for no limit
+     * @return a handler that decodes the body with the charset from the {@code Content-Type} header
+     */
+    public static BodyHandler<Body> handler(long maxBytes) {
+        return handler(maxBytes, null);
+    }
+
+    /**
+     * @param maxBytes maximum number of bytes to keep in memory, {@code 0} or less for no limit
+     * @param spillDir directory for bodies larger than {@code maxBytes}, {@code null} to truncate them instead
+     * @return a handler that decodes the body with the {@code Content-Encoding} and the charset from the
+     * {@code Content-Type} header
+     */
+    public static BodyHandler<Body> handler(long maxBytes, Path spillDir) {
+        return info -> new BoundedBodySubscriber(maxBytes, charsetFrom(info.headers()), spillDir,
+                info.headers().firstValue("Content-Encoding").orElse(null));
+    }
+
+    static Charset charsetFrom(HttpHeaders headers) {
+        return charsetOf(headers.firstValue("Content-Type").orElse(""));
+    }
+
+    /**
+     * Returns the charset parameter of a {@code Content-Type} value, UTF-8 when it is missing or unknown.
+     */
+    public static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return StandardCharsets.UTF_8;
+        }
+        for (String param : contentType.split(";")) {
+            String p = param.trim();
+            if (p.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                String name = p.substring("charset=".length()).replace("\"", "").trim();
+                try {
+                    return Charset.forName(name);
+                } catch (Exception ignored) {
+                    break;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public CompletionStage<Body> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer item : items) {
+                received += item.remaining();
+                boolean more = decoder == null ? write(item) : decoder.decode(item, this::write);
+                if (!more) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        if (decoder != null) {
+            try {
+                decoder.finish();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+        }
+        if (spillChannel != null) {
+            closeSpill(false);
+            result.complete(body(ResponseBody.empty(), false, spillFile));
+        } else {
+            result.complete(body(kept(false), false, null));
+        }
+    }
+
+    /**
+     * Keeps decoded bytes in memory or the spill file.
+     *
+     * @return {@code false} when the limit was reached and the body is complete
+     */
+    private boolean write(ByteBuffer data) throws IOException {
+        int remaining = data.remaining();
+        decoded += remaining;
+        if (spillChannel != null) {
+            writeFully(data);
+            return true;
+        }
+        int keep = Math.min(remaining, maxBytes - size);
+        if (keep < remaining && spillDir != null) {
+            startSpill();
+            writeFully(data);
+            return true;
+        }
+        ensureCapacity(size + keep);
+        data.get(buffer, size, keep);
+        size += keep;
+        if (keep < remaining) {
+            // Limit reached: stop reading, the connection is closed by the client
+            subscription.cancel();
+            if (decoder != null) {
+                decoder.end();
+            }
+            result.complete(body(kept(true), true, null));
+            return false;
+        }
+        return true;
+    }
+
+    private Body body(ResponseBody content, boolean truncated, Path file) {
+        return new Body(content, received, decoded, truncated, file, decoder == null ? null : decoder.encoding());
+    }
+
+    private void fail(Throwable error) {
+        if (decoder != null) {
+            decoder.end();
+        }
+        closeSpill(true);
+        result.completeExceptionally(error);
+    }
+
+    /**
+     * Moves the bytes buffered so far into a new temp file; the rest of the body is appended to it.
+     */
+    private void startSpill() throws IOException {
+        Files.createDirectories(spillDir);
+        spillFile = Files.createTempFile(spillDir, "response-", ".body");
+        spillFile.toFile().deleteOnExit();
+        spillChannel = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+        writeFully(ByteBuffer.wrap(buffer, 0, size));
+        buffer = null;
+        size = 0;
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            spillChannel.write(data);
+        }
+    }
+
+    private void closeSpill(boolean delete) {
+        if (spillChannel == null) {
+            return;
+        }
+        try {
+            spillChannel.close();
+            if (delete) {
+                Files.deleteIfExists(spillFile);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(Math.max(required, (long) buffer.length * 2), maxBytes));
+        }
+    }
+
+    /**
+     * Hands the kept bytes to the response without copying them; the buffer is not touched afterwards.
+     */
+    private ResponseBody kept(boolean cut) {
+        ResponseBody content = ResponseBody.of(ByteBuffer.wrap(buffer, 0, size), charset, cut);
+        buffer = null;
+        return content;
+    }
+}
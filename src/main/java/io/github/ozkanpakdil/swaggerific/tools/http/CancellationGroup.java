@@ -0,0 +1,53 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The futures started for one user action, e.g. a send from a request tab, so it can be cancelled whichever stage it is
+ * in.
+ * <p>
+ * Cancelling a future does not cancel the stages it was built from, so each stage that may be running is added here.
+ * A future added after {@link #cancel()} is cancelled right away, which covers a stage that starts while the action
+ * is being cancelled.
+ */
+public final class CancellationGroup {
+    private final List<CompletableFuture<?>> futures = new ArrayList<>();
+    private boolean cancelled;
+
+    /**
+     * @return {@code future}, cancelled already when the group is
+     */
+    public <T> CompletableFuture<T> add(CompletableFuture<T> future) {
+        synchronized (this) {
+            if (!cancelled) {
+                futures.removeIf(CompletableFuture::isDone);
+                futures.add(future);
+                return future;
+            }
+        }
+        future.cancel(true);
+        return future;
+    }
+
+    /**
+     * Cancels every future added so far and those added later.
+     */
+    public void cancel() {
+        List<CompletableFuture<?>> pending;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            pending = new ArrayList<>(futures);
+            futures.clear();
+        }
+        pending.forEach(future -> future.cancel(true));
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
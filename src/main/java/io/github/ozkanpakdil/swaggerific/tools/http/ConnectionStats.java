@@ -0,0 +1,105 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts, over many requests, which HTTP version each exchange used and how many connections were opened for them, so
+ * a collection run or load test shows how many streams shared one HTTP/2 connection. Safe to use from many threads.
+ * <p>
+ * Connections are only observed for HTTPS, see {@link ConnectionTracker}; exchanges over plain HTTP are counted by
+ * version but not towards the streams per connection.
+ */
+public final class ConnectionStats {
+    private final Map<HttpProtocol, LongAdder> exchanges = new EnumMap<>(HttpProtocol.class);
+    private final LongAdder observed = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder resumed = new LongAdder();
+
+    public ConnectionStats() {
+        for (HttpProtocol protocol : HttpProtocol.values()) {
+            exchanges.put(protocol, new LongAdder());
+        }
+    }
+
+    /**
+     * Counts the exchanges of a response. Responses without timing, e.g. errors or cache hits, are skipped.
+     */
+    public void record(HttpResponse response) {
+        RequestTiming timing = response == null ? null : response.timing();
+        if (timing == null) {
+            return;
+        }
+        for (RequestTiming.Hop hop : timing.hops()) {
+            exchanges.get(hop.protocol()).increment();
+            if ("https".equalsIgnoreCase(hop.uri().getScheme())) {
+                observed.increment();
+                if (hop.newConnection()) {
+                    connections.increment();
+                }
+                if (hop.resumedSession()) {
+                    resumed.increment();
+                }
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        Map<HttpProtocol, Long> counts = new EnumMap<>(HttpProtocol.class);
+        exchanges.forEach((protocol, count) -> counts.put(protocol, count.sum()));
+        return new Snapshot(counts, observed.sum(), connections.sum(), resumed.sum());
+    }
+
+    /**
+     * @param exchanges   exchanges per negotiated HTTP version, redirects included
+     * @param observed    exchanges over HTTPS, whose connections are known
+     * @param connections connections opened for the observed exchanges; pooled connections that were already open when
+     *                    counting started are not included
+     * @param resumed     opened connections whose TLS handshake resumed an earlier session
+     */
+    public record Snapshot(Map<HttpProtocol, Long> exchanges, long observed, long connections, long resumed) {
+
+        public Snapshot {
+            exchanges = Map.copyOf(exchanges);
+        }
+
+        /**
+         * @return observed exchanges per opened connection, {@code 0} when no connection was opened
+         */
+        public double streamsPerConnection() {
+            return connections == 0 ? 0 : (double) observed / connections;
+        }
+
+        public long exchanges(HttpProtocol protocol) {
+            return exchanges.getOrDefault(protocol, 0L);
+        }
+
+        /**
+         * One line description, e.g. {@code HTTP/2 500, 2 connections, 250.0 streams per connection}.
+         */
+        public String summary() {
+            StringBuilder text = new StringBuilder();
+            for (HttpProtocol protocol : HttpProtocol.values()) {
+                long count = exchanges(protocol);
+                if (count > 0) {
+                    text.append(text.isEmpty() ? "" : ", ").append(protocol).append(' ').append(count);
+                }
+            }
+            if (text.isEmpty()) {
+                return "No exchanges";
+            }
+            if (observed == 0) {
+                return text.append(", connections not observed over plain HTTP").toString();
+            }
+            if (connections == 0) {
+                return text.append(", all on connections that were already open").toString();
+            }
+            String unit = exchanges(HttpProtocol.HTTP_1_1) == 0 ? "streams" : "requests";
+            return text.append(String.format(Locale.ROOT, ", %d connection%s%s, %.1f %s per connection", connections,
+                    connections == 1 ? "" : "s", resumed == 0 ? "" : " (" + resumed + " resumed TLS)",
+                    streamsPerConnection(), unit)).toString();
+        }
+    }
+}
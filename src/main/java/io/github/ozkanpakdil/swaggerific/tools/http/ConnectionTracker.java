@@ -0,0 +1,158 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import javax.net.ssl.SSLEngine;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records when the HTTP client opens TLS connections, as seen through {@link ObservedSSLContext}.
+ * <p>
+ * {@code java.net.http} does not report connection events, but every new TLS connection creates an SSLEngine, writes
+ * its first handshake record right after the TCP connect and finishes the handshake before the request is sent. An
+ * exchange that finds no new connection for its host and port in its time window ran on a pooled one. Each connection
+ * is claimed by one exchange only, so concurrent HTTP/2 streams that share a new connection do not all count it.
+ * <p>
+ * When the context also observes its trust managers, a handshake that finished without checking the server certificate
+ * resumed an earlier TLS session instead of doing a full handshake.
+ * <p>
+ * Hosts warmed up in advance, see {@link HttpService#prewarm}, are remembered until the next exchange with them, which
+ * went over the warm connection when it did not open one of its own.
+ */
+public final class ConnectionTracker {
+    private static final int EVENTS_PER_HOST = 16;
+
+    private final Map<String, Deque<Connection>> connections = new ConcurrentHashMap<>();
+    private final Map<SSLEngine, Connection> handshakes = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Set<String> warm = ConcurrentHashMap.newKeySet();
+
+    /**
+     * A TLS connection opened by the client. Times are {@link System#nanoTime()} values, {@code 0} when not reached.
+     */
+    public static final class Connection {
+        final String host;
+        final int port;
+        final long createdAt = System.nanoTime();
+        volatile long handshakeStartedAt;
+        volatile long handshakeFinishedAt;
+        volatile String protocol;
+        volatile String cipherSuite;
+        volatile boolean trustObserved;
+        volatile boolean certificateChecked;
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Connection(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        public long createdAt() {
+            return createdAt;
+        }
+
+        public long handshakeStartedAt() {
+            return handshakeStartedAt;
+        }
+
+        public long handshakeFinishedAt() {
+            return handshakeFinishedAt;
+        }
+
+        public String protocol() {
+            return protocol;
+        }
+
+        public String cipherSuite() {
+            return cipherSuite;
+        }
+
+        /**
+         * @return whether the handshake resumed an earlier TLS session, {@code false} when unknown
+         */
+        public boolean resumed() {
+            return trustObserved && handshakeFinishedAt > 0 && !certificateChecked;
+        }
+    }
+
+    Connection opened(String host, int port) {
+        Connection connection = new Connection(host, port);
+        Deque<Connection> events = connections.computeIfAbsent(key(host, port), k -> new ArrayDeque<>());
+        synchronized (events) {
+            events.addLast(connection);
+            if (events.size() > EVENTS_PER_HOST) {
+                events.removeFirst();
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Remembers the connection an engine belongs to until its handshake checked the server certificate.
+     */
+    void handshaking(SSLEngine engine, Connection connection) {
+        connection.trustObserved = true;
+        handshakes.put(engine, connection);
+    }
+
+    /**
+     * Notes that the engine verified the server certificate, which only happens in a full handshake.
+     */
+    void certificateChecked(SSLEngine engine) {
+        Connection connection = engine == null ? null : handshakes.remove(engine);
+        if (connection != null) {
+            connection.certificateChecked = true;
+        }
+    }
+
+    /**
+     * Forgets the engine once its handshake is over.
+     */
+    void handshakeFinished(SSLEngine engine) {
+        handshakes.remove(engine);
+    }
+
+    /**
+     * Notes that a connection to host and port was opened in advance and is waiting in the pool.
+     */
+    void warmed(String host, int port) {
+        warm.add(key(host, port));
+    }
+
+    /**
+     * Forgets that host and port were warmed up.
+     *
+     * @return whether they were, since the last call
+     */
+    boolean takeWarm(String host, int port) {
+        return warm.remove(key(host, port));
+    }
+
+    /**
+     * Claims the first connection to host and port created between {@code fromNanos} and {@code toNanos} that no other
+     * exchange claimed yet.
+     */
+    public Optional<Connection> claimOpenedBetween(String host, int port, long fromNanos, long toNanos) {
+        Deque<Connection> events = connections.get(key(host, port));
+        if (events == null) {
+            return Optional.empty();
+        }
+        synchronized (events) {
+            for (Connection c : events) {
+                if (c.createdAt >= fromNanos && c.createdAt <= toNanos && c.claimed.compareAndSet(false, true)) {
+                    return Optional.of(c);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String key(String host, int port) {
+        return (host == null ? "" : host.toLowerCase()) + ":" + port;
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Streaming decoder for {@code gzip} and {@code deflate} content codings.
+ * <p>
+ * Compressed bytes are fed in the chunks they arrive in and decoded bytes are handed to a {@link Sink} as soon as they
+ * are inflated, so the compressed body is never buffered as a whole. The sink can stop decoding, which bounds the work
+ * spent on a body that inflates far beyond the response size limit. Concatenated gzip members are decoded one after
+ * another; {@code deflate} accepts both the zlib format of the specification and the raw format some servers send.
+ */
+final class ContentDecoder {
+
+    /**
+     * Receives decoded bytes.
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * @return {@code false} to stop decoding
+         */
+        boolean accept(ByteBuffer decoded) throws IOException;
+    }
+
+    private enum State {HEADER, BODY, TRAILER, DONE}
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final String encoding;
+    private final boolean gzip;
+    private final CRC32 crc = new CRC32();
+    private final byte[] output = new byte[16 * 1024];
+    private byte[] input = new byte[8 * 1024];
+    private int pos;
+    private int limit;
+    private State state = State.HEADER;
+    private Inflater inflater;
+    private int members;
+
+    private ContentDecoder(String encoding, boolean gzip) {
+        this.encoding = encoding;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param contentEncoding value of the {@code Content-Encoding} header
+     * @return a decoder, or {@code null} when the body is not encoded or the coding is not supported
+     */
+    static ContentDecoder forEncoding(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> new ContentDecoder("gzip", true);
+            case "deflate" -> new ContentDecoder("deflate", false);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return {@code true} when the coding can be decoded, including identity
+     */
+    static boolean isSupported(String contentEncoding) {
+        return contentEncoding == null || contentEncoding.isBlank()
+                || contentEncoding.trim().equalsIgnoreCase("identity") || forEncoding(contentEncoding) != null;
+    }
+
+    String encoding() {
+        return encoding;
+    }
+
+    /**
+     * Decodes the next chunk of the body.
+     *
+     * @return {@code false} when the sink stopped decoding
+     */
+    boolean decode(ByteBuffer chunk, Sink sink) throws IOException {
+        append(chunk);
+        boolean progress = true;
+        while (progress) {
+            switch (state) {
+                case HEADER -> progress = readHeader();
+                case BODY -> {
+                    int produced = inflate();
+                    if (produced < 0) {
+                        progress = false;
+                    } else if (produced > 0 && !sink.accept(ByteBuffer.wrap(output, 0, produced))) {
+                        return false;
+                    }
+                }
+                case TRAILER -> progress = readTrailer();
+                case DONE -> {
+                    // Anything after the end of the stream is ignored
+                    pos = limit;
+                    progress = false;
+                }
+            }
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Checks that the body ended at the end of the compressed stream and releases the inflater.
+     */
+    void finish() throws IOException {
+        try {
+            boolean complete = gzip
+                    ? members > 0 && (state == State.DONE || (state == State.HEADER && pos == limit))
+                    : state == State.DONE;
+            if (!complete) {
+                throw new EOFException("Unexpected end of " + encoding + " response body");
+            }
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Releases the native inflater; the decoder cannot be used afterwards.
+     */
+    void end() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+
+    private boolean readHeader() throws IOException {
+        int available = limit - pos;
+        if (!gzip) {
+            if (available < 2) {
+                return false;
+            }
+            int cmf = input[pos] & 0xff;
+            int flg = input[pos + 1] & 0xff;
+            boolean zlib = (cmf & 0x0f) == 8 && (cmf >> 4) <= 7 && ((cmf << 8) | flg) % 31 == 0;
+            inflater = new Inflater(!zlib);
+            state = State.BODY;
+            return true;
+        }
+        if (available == 0) {
+            return false;
+        }
+        if ((input[pos] & 0xff) != 0x1f || (available >= 2 && (input[pos + 1] & 0xff) != 0x8b)) {
+            if (members == 0) {
+                throw new ZipException("Not in gzip format");
+            }
+            // Padding after the last member is ignored
+            state = State.DONE;
+            return true;
+        }
+        int length = gzipHeaderLength();
+        if (length < 0) {
+            return false;
+        }
+        pos += length;
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        } else {
+            inflater.reset();
+        }
+        crc.reset();
+        state = State.BODY;
+        return true;
+    }
+
+    /**
+     * @return length of the gzip member header at {@code pos}, or -1 when more bytes are needed
+     */
+    private int gzipHeaderLength() throws IOException {
+        int available = limit - pos;
+        if (available < 10) {
+            return -1;
+        }
+        if ((input[pos + 2] & 0xff) != 8) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        int flags = input[pos + 3] & 0xff;
+        int length = 10;
+        if ((flags & FEXTRA) != 0) {
+            if (available < length + 2) {
+                return -1;
+            }
+            length += 2 + ((input[pos + length] & 0xff) | (input[pos + length + 1] & 0xff) << 8);
+        }
+        for (int flag : new int[]{FNAME, FCOMMENT}) {
+            if ((flags & flag) != 0) {
+                do {
+                    if (length >= available) {
+                        return -1;
+                    }
+                } while (input[pos + length++] != 0);
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            length += 2;
+        }
+        return length <= available ? length : -1;
+    }
+
+    /**
+     * @return number of decoded bytes in {@link #output}, or -1 when more input is needed
+     */
+    private int inflate() throws IOException {
+        if (pos == limit && inflater.needsInput()) {
+            return -1;
+        }
+        inflater.setInput(input, pos, limit - pos);
+        int produced;
+        try {
+            produced = inflater.inflate(output);
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid " + encoding + " data: " + e.getMessage());
+        }
+        pos = limit - inflater.getRemaining();
+        if (inflater.finished()) {
+            state = gzip ? State.TRAILER : State.DONE;
+        } else if (inflater.needsDictionary()) {
+            throw new ZipException("Deflate dictionaries are not supported");
+        } else if (produced == 0 && pos == limit) {
+            return -1;
+        }
+        if (gzip) {
+            crc.update(output, 0, produced);
+        }
+        return produced;
+    }
+
+    private boolean readTrailer() throws IOException {
+        if (limit - pos < 8) {
+            return false;
+        }
+        long expectedCrc = readInt(pos);
+        long expectedSize = readInt(pos + 4);
+        if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+        pos += 8;
+        members++;
+        state = State.HEADER;
+        return true;
+    }
+
+    private long readInt(int at) {
+        return (input[at] & 0xffL) | (input[at + 1] & 0xffL) << 8 | (input[at + 2] & 0xffL) << 16
+                | (input[at + 3] & 0xffL) << 24;
+    }
+
+    private void append(ByteBuffer chunk) {
+        int n = chunk.remaining();
+        if (limit + n > input.length) {
+            compact();
+            if (limit + n > input.length) {
+                input = Arrays.copyOf(input, Math.max(limit + n, input.length * 2));
+            }
+        }
+        chunk.get(input, limit, n);
+        limit += n;
+    }
+
+    private void compact() {
+        if (pos == 0) {
+            return;
+        }
+        System.arraycopy(input, pos, input, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+    }
+}
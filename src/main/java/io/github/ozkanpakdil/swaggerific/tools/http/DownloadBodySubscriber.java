@@ -0,0 +1,83 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Body subscriber that writes the response body to a file and reports the bytes written.
+ * <p>
+ * The body is handed to {@link BodySubscribers#ofFile(Path, java.nio.file.OpenOption...)}, which writes the received
+ * buffers with a {@code FileChannel}; the body is never decoded to text or held in memory, so binary downloads are
+ * saved byte for byte.
+ */
+final class DownloadBodySubscriber implements BodySubscriber<BoundedBodySubscriber.Body> {
+    private final BodySubscriber<Path> delegate;
+    private final long total;
+    private final DownloadProgress progress;
+    private volatile long received;
+
+    DownloadBodySubscriber(Path target, long total, DownloadProgress progress) {
+        this.delegate = BodySubscribers.ofFile(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.total = total;
+        this.progress = progress;
+    }
+
+    /**
+     * @param target   file the body is written to, replaced when it exists
+     * @param progress notified for every chunk written, may be {@code null}
+     * @param errors   handler for error responses, whose body is shown instead of saved
+     * @return a handler that saves successful response bodies to {@code target}
+     */
+    static BodyHandler<BoundedBodySubscriber.Body> handler(Path target, DownloadProgress progress,
+                                                           BodyHandler<BoundedBodySubscriber.Body> errors) {
+        return info -> info.statusCode() >= 400
+                ? errors.apply(info)
+                : new DownloadBodySubscriber(target, info.headers().firstValueAsLong("Content-Length").orElse(-1),
+                progress);
+    }
+
+    @Override
+    public CompletionStage<BoundedBodySubscriber.Body> getBody() {
+        return delegate.getBody().thenApply(file -> new BoundedBodySubscriber.Body("", received, false, file));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (progress != null) {
+            progress.onProgress(0, total);
+        }
+        delegate.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        long n = 0;
+        for (ByteBuffer item : items) {
+            n += item.remaining();
+        }
+        // The delegate consumes the buffers, count them first
+        delegate.onNext(items);
+        received += n;
+        if (progress != null) {
+            progress.onProgress(received, total);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        delegate.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        delegate.onComplete();
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+/**
+ * Receives the progress of a response body that is written to a file. Called from HTTP client threads, possibly for
+ * every chunk.
+ */
+@FunctionalInterface
+public interface DownloadProgress {
+
+    /**
+     * @param received body bytes written so far
+     * @param total    body length from {@code Content-Length}, -1 when unknown
+     */
+    void onProgress(long received, long total);
+}
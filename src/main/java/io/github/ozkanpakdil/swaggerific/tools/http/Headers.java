@@ -0,0 +1,337 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * HTTP header fields: names are case-insensitive, a name may have several values and the order of fields is kept.
+ * <p>
+ * As a {@code Map<String, String>} each name maps to its values combined with {@code ", "}, which is how HTTP combines
+ * repeated fields; {@link #all(String)} and {@link #add(String, String)} work on the separate values, which matters for
+ * {@code Set-Cookie}, where combining is not allowed. Fields are kept in two parallel lists and looked up with
+ * {@link String#equalsIgnoreCase}, so no lower-cased copies of names are created. Well-known names are replaced with
+ * shared instances so the many responses kept in history and the cache do not each hold their own copies.
+ * <p>
+ * Two instances are equal when they have the same names, ignoring case and order, with the same separate values.
+ * Headers are never equal to other kinds of maps, whose names are case-sensitive.
+ */
+public final class Headers extends AbstractMap<String, String> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, String> COMMON_NAMES = new HashMap<>();
+
+    static {
+        for (String name : List.of("Accept", "Accept-Encoding", "Accept-Language", "Accept-Ranges", "Age", "Allow",
+                "Authorization", "Cache-Control", "Connection", "Content-Disposition", "Content-Encoding",
+                "Content-Language", "Content-Length", "Content-Location", "Content-Type", "Cookie", "Date", "ETag",
+                "Expires", "Host", "If-Modified-Since", "If-None-Match", "Keep-Alive", "Last-Modified", "Link",
+                "Location", "Pragma", "Retry-After", "Server", "Server-Timing", "Set-Cookie",
+                "Strict-Transport-Security", "Transfer-Encoding", "User-Agent", "Vary", "Via", "WWW-Authenticate",
+                "X-Content-Type-Options", "X-Frame-Options", "X-Request-Id", ":status")) {
+            COMMON_NAMES.put(name, name);
+            // HTTP/2 sends names in lower case
+            String lower = name.toLowerCase(Locale.ROOT);
+            COMMON_NAMES.put(lower, lower);
+        }
+    }
+
+    private final ArrayList<String> names;
+    private final ArrayList<List<String>> values;
+    private boolean readOnly;
+
+    public Headers() {
+        this(8);
+    }
+
+    private Headers(int capacity) {
+        names = new ArrayList<>(capacity);
+        values = new ArrayList<>(capacity);
+    }
+
+    /**
+     * @return a modifiable copy of {@code headers}, or an empty instance when it is {@code null}
+     */
+    public static Headers copyOf(Map<String, String> headers) {
+        if (headers instanceof Headers h) {
+            return h.copy();
+        }
+        Headers copy = new Headers(headers == null ? 0 : headers.size());
+        if (headers != null) {
+            headers.forEach(copy::put);
+        }
+        return copy;
+    }
+
+    /**
+     * @return read-only headers, {@code headers} itself when it already is
+     */
+    public static Headers readOnlyOf(Map<String, String> headers) {
+        if (headers instanceof Headers h && h.readOnly) {
+            return h;
+        }
+        return copyOf(headers).readOnly();
+    }
+
+    /**
+     * @return modifiable headers with every value of the client's response headers, pseudo-headers excluded
+     */
+    public static Headers of(java.net.http.HttpHeaders headers) {
+        Map<String, List<String>> map = headers.map();
+        Headers copy = new Headers(map.size());
+        map.forEach((name, list) -> {
+            if (!name.startsWith(":")) {
+                for (String value : list) {
+                    copy.add(name, value);
+                }
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * @return a modifiable copy
+     */
+    public Headers copy() {
+        Headers copy = new Headers(names.size());
+        copy.names.addAll(names);
+        for (List<String> list : values) {
+            copy.values.add(list.size() == 1 ? list : new ArrayList<>(list));
+        }
+        return copy;
+    }
+
+    /**
+     * Makes these headers read-only; later changes throw {@link UnsupportedOperationException}.
+     *
+     * @return this instance
+     */
+    public Headers readOnly() {
+        readOnly = true;
+        return this;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Adds a value to the field, keeping the values it already has.
+     *
+     * @return this instance
+     */
+    public Headers add(String name, String value) {
+        checkWritable();
+        int i = indexOf(name);
+        if (i < 0) {
+            names.add(intern(name));
+            values.add(List.of(String.valueOf(value)));
+            return this;
+        }
+        List<String> list = values.get(i);
+        if (!(list instanceof ArrayList)) {
+            list = new ArrayList<>(list);
+            values.set(i, list);
+        }
+        list.add(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * @return the values of the field in the order they were received, empty when it is not present
+     */
+    public List<String> all(String name) {
+        int i = indexOf(name);
+        return i < 0 ? List.of() : Collections.unmodifiableList(values.get(i));
+    }
+
+    /**
+     * @return the first value of the field, or {@code null}
+     */
+    public String first(String name) {
+        int i = indexOf(name);
+        return i < 0 ? null : values.get(i).get(0);
+    }
+
+    /**
+     * Calls {@code action} once for every value of every field, in order.
+     */
+    public void forEachValue(BiConsumer<String, String> action) {
+        for (int i = 0; i < names.size(); i++) {
+            for (String value : values.get(i)) {
+                action.accept(names.get(i), value);
+            }
+        }
+    }
+
+    /**
+     * @return a copy with every field and its separate values, for serialization
+     */
+    public Map<String, List<String>> toMultimap() {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            map.put(names.get(i), List.copyOf(values.get(i)));
+        }
+        return map;
+    }
+
+    /**
+     * @return the values of the field combined with {@code ", "}, or {@code null} when it is not present
+     */
+    @Override
+    public String get(Object name) {
+        int i = name instanceof String s ? indexOf(s) : -1;
+        return i < 0 ? null : combine(values.get(i));
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return name instanceof String s && indexOf(s) >= 0;
+    }
+
+    /**
+     * Replaces all values of the field. The field keeps its position when it was present.
+     */
+    @Override
+    public String put(String name, String value) {
+        checkWritable();
+        int i = indexOf(name);
+        if (i < 0) {
+            names.add(intern(name));
+            values.add(List.of(String.valueOf(value)));
+            return null;
+        }
+        String previous = combine(values.get(i));
+        values.set(i, List.of(String.valueOf(value)));
+        return previous;
+    }
+
+    @Override
+    public String remove(Object name) {
+        checkWritable();
+        int i = name instanceof String s ? indexOf(s) : -1;
+        if (i < 0) {
+            return null;
+        }
+        names.remove(i);
+        return combine(values.remove(i));
+    }
+
+    @Override
+    public void clear() {
+        checkWritable();
+        names.clear();
+        values.clear();
+    }
+
+    @Override
+    public int size() {
+        return names.size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < names.size();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next++;
+                        return new SimpleImmutableEntry<>(names.get(last), combine(values.get(last)));
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+                        checkWritable();
+                        names.remove(last);
+                        values.remove(last);
+                        next = last;
+                        last = -1;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.size();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Headers other) || other.size() != size()) {
+            return false;
+        }
+        for (int i = 0; i < names.size(); i++) {
+            int j = other.indexOf(names.get(i));
+            if (j < 0 || !values.get(i).equals(other.values.get(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < names.size(); i++) {
+            hash += names.get(i).toLowerCase(Locale.ROOT).hashCode() ^ values.get(i).hashCode();
+        }
+        return hash;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Headers are read-only");
+        }
+    }
+
+    private static String combine(List<String> list) {
+        return list.size() == 1 ? list.get(0) : String.join(", ", list);
+    }
+
+    private static String intern(String name) {
+        return COMMON_NAMES.getOrDefault(name, name);
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per host, shared by every sender: single sends, retries, collection runs and load tests all take a
+ * permit before a request goes out, so several of them running at once stay within the quota of an API together.
+ * <p>
+ * Each bucket is one {@link AtomicLong}, the time the next permit is free at the sustained rate (the generic cell rate
+ * algorithm). Taking a permit is a single atomic update that also tells the caller how long to wait, so no lock is held
+ * and no thread sleeps: a request that has to wait continues from a delayed task once its slot comes.
+ */
+public final class HostRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(HostRateLimiter.class);
+    private static final int PRUNE_ABOVE_HOSTS = 1024;
+
+    private static final HostRateLimiter SHARED = new HostRateLimiter(RequestExecutor.shared().executor());
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Executor executor;
+
+    /**
+     * Requests waiting for a permit to one host.
+     *
+     * @param host             host and port
+     * @param permitsPerSecond limit of the host
+     * @param waiting          requests waiting for their slot
+     */
+    public record HostStats(String host, double permitsPerSecond, int waiting) {
+    }
+
+    /**
+     * @param waiting requests waiting for a permit across all hosts
+     * @param hosts   hosts with waiting requests, the most waiting first
+     */
+    public record Stats(int waiting, List<HostStats> hosts) {
+    }
+
+    private static final class Bucket {
+        final RateLimit limit;
+        final long interval;
+        final long tolerance;
+        final AtomicLong nextFree;
+        final AtomicInteger waiting;
+
+        Bucket(RateLimit limit, long now, Bucket previous) {
+            this.limit = limit;
+            this.interval = limit.intervalNanos();
+            this.tolerance = (limit.burst() - 1) * interval;
+            // A new limit starts from the slots already given out, not with a fresh burst
+            this.nextFree = new AtomicLong(previous == null ? now : previous.nextFree.get());
+            this.waiting = previous == null ? new AtomicInteger() : previous.waiting;
+        }
+
+        /**
+         * Takes the next slot.
+         *
+         * @return nanoseconds until the slot, 0 when the request may go now
+         */
+        long reserve(long now) {
+            long free = nextFree.getAndUpdate(t -> Math.max(t, now) + interval);
+            return Math.max(0, free - tolerance - now);
+        }
+
+        /**
+         * Takes the next slot only when the request may go now.
+         */
+        boolean tryReserve(long now) {
+            while (true) {
+                long free = nextFree.get();
+                if (free - tolerance - now > 0) {
+                    return false;
+                }
+                if (nextFree.compareAndSet(free, Math.max(free, now) + interval)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean idle(long now) {
+            return waiting.get() == 0 && nextFree.get() - now <= 0;
+        }
+    }
+
+    HostRateLimiter(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return the application wide limiter
+     */
+    public static HostRateLimiter shared() {
+        return SHARED;
+    }
+
+    /**
+     * Takes a permit for a request to the host of {@code uri}.
+     *
+     * @param limit limit of the host, {@code null} or {@link RateLimit#NONE} for none
+     * @return a future completed when the request may be sent, already completed when it may go now. Cancelling it
+     * leaves the queue, the slot it had is not handed to another request.
+     */
+    public CompletableFuture<Void> acquire(URI uri, RateLimit limit) {
+        if (limit == null || !limit.isLimited()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long now = System.nanoTime();
+        Bucket bucket = bucket(host(uri), limit, now);
+        long wait = bucket.reserve(now);
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        int queued = bucket.waiting.incrementAndGet();
+        waiting.incrementAndGet();
+        permit.whenComplete((r, e) -> {
+            bucket.waiting.decrementAndGet();
+            waiting.decrementAndGet();
+        });
+        if (log.isDebugEnabled()) {
+            log.debug("Request to {} waits {} ms for the rate limit, {} waiting", host(uri),
+                    TimeUnit.NANOSECONDS.toMillis(wait), queued);
+        }
+        CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor).execute(() -> permit.complete(null));
+        return permit;
+    }
+
+    /**
+     * Takes a permit for a request to the host of {@code uri} only when one is free right away, for work that is better
+     * skipped than delayed.
+     *
+     * @param limit limit of the host, {@code null} or {@link RateLimit#NONE} for none
+     * @return whether a permit was taken, {@code false} leaves the bucket as it was
+     */
+    public boolean tryAcquire(URI uri, RateLimit limit) {
+        if (limit == null || !limit.isLimited()) {
+            return true;
+        }
+        long now = System.nanoTime();
+        return bucket(host(uri), limit, now).tryReserve(now);
+    }
+
+    private Bucket bucket(String host, RateLimit limit, long now) {
+        Bucket bucket = buckets.get(host);
+        if (bucket != null && bucket.limit.equals(limit)) {
+            return bucket;
+        }
+        bucket = buckets.compute(host, (k, b) -> b != null && b.limit.equals(limit) ? b : new Bucket(limit, now, b));
+        if (buckets.size() > PRUNE_ABOVE_HOSTS) {
+            buckets.values().removeIf(b -> b.idle(now));
+        }
+        return bucket;
+    }
+
+    /**
+     * @return requests waiting for a permit across all hosts
+     */
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public Stats stats() {
+        List<HostStats> hosts = buckets.entrySet().stream()
+                .filter(e -> e.getValue().waiting.get() > 0)
+                .map(e -> new HostStats(e.getKey(), e.getValue().limit.permitsPerSecond(), e.getValue().waiting.get()))
+                .sorted(Comparator.comparingInt(HostStats::waiting).reversed())
+                .toList();
+        return new Stats(waiting.get(), hosts);
+    }
+
+    private static String host(URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return host + ":" + port;
+    }
+}
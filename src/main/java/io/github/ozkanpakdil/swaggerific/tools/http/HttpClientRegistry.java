@@ -0,0 +1,410 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import io.github.ozkanpakdil.swaggerific.tools.ProxySettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.prefs.Preferences;
+
+import static io.github.ozkanpakdil.swaggerific.tools.ProxySettings.trustAllCerts;
+
+/**
+ * Application wide cache of {@link HttpClient} instances keyed by the effective transport configuration.
+ * <p>
+ * All tabs and services with the same settings share one client, so they also share its connection pool and TLS
+ * sessions. A client is only built when the configuration it was built for changes, and clients that have not been used
+ * for {@link #IDLE_TIMEOUT_MS} are dropped so their selector threads and pooled connections can be reclaimed.
+ * <p>
+ * The {@link SSLContext} is built once per set of TLS credentials (verification mode, CA bundle and client certificate)
+ * and shared by every client using them. TLS sessions are cached in the context, so a new connection, even one made by
+ * a client built after a timeout change, resumes an earlier session instead of repeating the full handshake.
+ */
+public final class HttpClientRegistry {
+    private static final Logger log = LoggerFactory.getLogger(HttpClientRegistry.class);
+
+    static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final HttpClientRegistry SHARED = new HttpClientRegistry();
+
+    private final Map<TransportKey, Entry> clients = new ConcurrentHashMap<>();
+    private final Map<String, SSLContext> sslContexts = new ConcurrentHashMap<>();
+    private final Map<String, KeyManager[]> keyManagers = new ConcurrentHashMap<>();
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final ConnectionTracker connections = new ConnectionTracker();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder built = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private volatile long lastSweep = System.currentTimeMillis();
+    private volatile TransportKey currentKey;
+
+    /**
+     * How TLS certificates are verified.
+     */
+    public enum SslMode {
+        DEFAULT, CA_BUNDLE, TRUST_ALL
+    }
+
+    /**
+     * Settings that require a different {@link HttpClient}. Proxy host and port are not part of the key because the
+     * proxy selector resolves them for every request.
+     *
+     * @param timeoutMs         connect timeout
+     * @param sslMode           certificate verification mode
+     * @param caFingerprint     SHA-256 of the CA bundle when {@code sslMode} is {@link SslMode#CA_BUNDLE}
+     * @param systemProxy       whether the system proxy is used instead of the configured one
+     * @param proxyUser         proxy authentication user, empty when proxy authentication is off
+     * @param clientFingerprint SHA-256 of the client certificate, key and password, empty when there is none
+     */
+    public record TransportKey(int timeoutMs, SslMode sslMode, String caFingerprint, boolean systemProxy,
+                               String proxyUser, String clientFingerprint) {
+
+        public TransportKey(int timeoutMs, SslMode sslMode, String caFingerprint, boolean systemProxy, String proxyUser) {
+            this(timeoutMs, sslMode, caFingerprint, systemProxy, proxyUser, "");
+        }
+    }
+
+    /**
+     * Registry counters.
+     *
+     * @param clients   number of cached clients
+     * @param lookups   number of client lookups, one per request
+     * @param built   number of clients built
+     * @param reclaimed number of idle clients dropped
+     */
+    public record Stats(int clients, long lookups, long built, long reclaimed) {
+        /**
+         * @return share of lookups that reused an existing client and its connection pool
+         */
+        public double reuseRatio() {
+            return lookups == 0 ? 0 : (lookups - built) / (double) lookups;
+        }
+    }
+
+    /**
+     * Hash of a certificate or key file and the size and modification time it was taken at.
+     */
+    private record Fingerprint(long size, long modified, String value) {
+    }
+
+    private static final class Entry {
+        final HttpClient client;
+        volatile long lastUsed = System.currentTimeMillis();
+        final LongAdder requests = new LongAdder();
+
+        Entry(HttpClient client) {
+            this.client = client;
+        }
+    }
+
+    HttpClientRegistry() {
+        // Any change may be one of the transport settings, the key is read again on the next request
+        Preferences.userNodeForPackage(SwaggerApplication.class).addPreferenceChangeListener(e -> settingsChanged());
+    }
+
+    /**
+     * @return the application wide registry
+     */
+    public static HttpClientRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return a client for the current preferences
+     */
+    public HttpClient client() {
+        return client(currentKey());
+    }
+
+    /**
+     * Returns the cached client for the key, building it on first use.
+     */
+    public HttpClient client(TransportKey key) {
+        lookups.increment();
+        reclaimIdle();
+        Entry entry = clients.computeIfAbsent(key, this::build);
+        entry.lastUsed = System.currentTimeMillis();
+        entry.requests.increment();
+        return entry.client;
+    }
+
+    /**
+     * Drops all cached clients, for example after proxy credentials changed. The next request builds a new client.
+     */
+    public void invalidateAll() {
+        log.info("Dropping {} cached HttpClient(s)", clients.size());
+        clients.clear();
+        sslContexts.clear();
+        keyManagers.clear();
+        fingerprints.clear();
+        settingsChanged();
+    }
+
+    /**
+     * @return connections opened by the clients of this registry
+     */
+    public ConnectionTracker connections() {
+        return connections;
+    }
+
+    public Stats stats() {
+        return new Stats(clients.size(), lookups.sum(), built.sum(), reclaimed.sum());
+    }
+
+    /**
+     * Returns the transport configuration of the preferences. It is read once and kept until a preference changes or
+     * the clients are invalidated, so a request does not stat and hash the certificate files. A certificate file that
+     * is replaced on disk is picked up after the next settings change.
+     */
+    public TransportKey currentKey() {
+        TransportKey key = currentKey;
+        return key != null ? key : readCurrentKey();
+    }
+
+    private synchronized TransportKey readCurrentKey() {
+        if (currentKey == null) {
+            currentKey = readKey();
+        }
+        return currentKey;
+    }
+
+    /**
+     * Drops the kept key. Synchronized with {@link #readCurrentKey()}, so a change made while the key is read is not
+     * lost.
+     */
+    private synchronized void settingsChanged() {
+        currentKey = null;
+    }
+
+    private TransportKey readKey() {
+        Preferences prefs = Preferences.userNodeForPackage(SwaggerApplication.class);
+        int timeoutMs = Math.max(1, prefs.getInt("http.requestTimeoutMs", 30000));
+
+        // SSL configuration precedence:
+        // 1) If custom CA bundle is enabled and path provided, use it.
+        // 2) Else if SSL validation is disabled, trust all (dev/test only).
+        SslMode sslMode = SslMode.DEFAULT;
+        String caFingerprint = "";
+        boolean caEnabled = prefs.getBoolean("certs.caBundleEnabled", false);
+        String caPath = prefs.get("certs.caBundlePath", "");
+        if (caEnabled && caPath != null && !caPath.isBlank()) {
+            sslMode = SslMode.CA_BUNDLE;
+            caFingerprint = fingerprint(caPath.trim());
+        } else if (ProxySettings.disableSslValidation()) {
+            sslMode = SslMode.TRUST_ALL;
+        }
+
+        String clientFingerprint = "";
+        String certPath = prefs.get("certs.clientCertPath", "").trim();
+        if (prefs.getBoolean("certs.clientCertEnabled", false) && !certPath.isEmpty()) {
+            String keyPath = prefs.get("certs.clientKeyPath", "").trim();
+            clientFingerprint = fingerprint(certPath) + (keyPath.isEmpty() ? "" : "|" + fingerprint(keyPath)) + "|"
+                    + digest(prefs.get("certs.clientCertPassword", "").getBytes(StandardCharsets.UTF_8));
+        }
+
+        boolean systemProxy = ProxySettings.useSystemProxy();
+        String proxyUser = !systemProxy && ProxySettings.useProxyAuth() ? ProxySettings.getProxyAuthUsername() : "";
+        return new TransportKey(timeoutMs, sslMode, caFingerprint, systemProxy, proxyUser == null ? "" : proxyUser,
+                clientFingerprint);
+    }
+
+    /**
+     * Hashes a certificate or key file, re-reading it only when its size or modification time changed. One hash is
+     * kept per path, a newer one replaces it.
+     */
+    private String fingerprint(String file) {
+        Path path = Paths.get(file);
+        long size;
+        long modified;
+        try {
+            size = Files.size(path);
+            modified = Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return "missing:" + file;
+        }
+        Fingerprint known = fingerprints.get(file);
+        if (known != null && known.size() == size && known.modified() == modified) {
+            return known.value();
+        }
+        String value;
+        try {
+            value = file + "#" + digest(Files.readAllBytes(path));
+        } catch (Exception e) {
+            return "unreadable:" + file;
+        }
+        fingerprints.put(file, new Fingerprint(size, modified, value));
+        return value;
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void reclaimIdle() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < TimeUnit.SECONDS.toMillis(30)) {
+            return;
+        }
+        lastSweep = now;
+        clients.entrySet().removeIf(e -> {
+            boolean idle = now - e.getValue().lastUsed > IDLE_TIMEOUT_MS;
+            if (idle) {
+                reclaimed.increment();
+                log.debug("Reclaiming idle HttpClient for {} after {} request(s)", e.getKey(), e.getValue().requests.sum());
+            }
+            return idle;
+        });
+    }
+
+    private Entry build(TransportKey key) {
+        built.increment();
+        log.info("Building HttpClient for {}", key);
+
+        // Redirects are followed by TimedExchange so each hop is timed
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(key.timeoutMs()))
+                .followRedirects(HttpClient.Redirect.NEVER);
+
+        if (key.sslMode() == SslMode.TRUST_ALL) {
+            // Create SSLParameters that disable hostname verification
+            SSLParameters sslParameters = new SSLParameters();
+            sslParameters.setEndpointIdentificationAlgorithm(null);
+            builder.sslParameters(sslParameters);
+            log.warn(
+                    "SSL certificate validation and hostname verification are disabled. This is a security risk and should only be used for development/testing.");
+        }
+        try {
+            // Wrapped so new connections and TLS handshakes can be timed
+            builder.sslContext(sslContexts.computeIfAbsent(
+                    key.sslMode() + "|" + key.caFingerprint() + "|" + key.clientFingerprint(), id -> sslContext(key)));
+        } catch (Exception e) {
+            log.warn("Using the default SSLContext without connection timing: {}", e.getMessage());
+        }
+
+        // Only set custom proxy selector if not using system proxy
+        if (!key.systemProxy()) {
+            // Set up proxy authenticator if needed
+            Authenticator authenticator = ProxySettings.createProxyAuthenticator();
+            if (authenticator != null && Authenticator.getDefault() == null) {
+                builder.authenticator(authenticator);
+                Authenticator.setDefault(authenticator);
+            }
+            builder.proxy(new SettingsProxySelector());
+        }
+
+        return new Entry(builder.build());
+    }
+
+    /**
+     * Builds the shared context for the TLS settings of the key. A CA bundle or client certificate that cannot be read
+     * is logged and left out, as if it was not configured.
+     */
+    private SSLContext sslContext(TransportKey key) {
+        Preferences prefs = Preferences.userNodeForPackage(SwaggerApplication.class);
+        TrustManager[] trust = null;
+        if (key.sslMode() == SslMode.CA_BUNDLE) {
+            String caPath = prefs.get("certs.caBundlePath", "").trim();
+            try {
+                trust = HttpServiceImpl.loadTrustManagersFromPem(caPath);
+                log.info("Applied custom CA bundle from {}", caPath);
+            } catch (Exception e) {
+                log.warn("Failed to load custom CA bundle from {}: {}", caPath, e.getMessage());
+            }
+        } else if (key.sslMode() == SslMode.TRUST_ALL) {
+            trust = trustAllCerts;
+        }
+        KeyManager[] keys = key.clientFingerprint().isEmpty() ? null
+                : keyManagers.computeIfAbsent(key.clientFingerprint(), fp -> clientKeyManagers(prefs));
+        try {
+            if (trust == null) {
+                TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+                factory.init((KeyStore) null);
+                trust = factory.getTrustManagers();
+            }
+            return ObservedSSLContext.create(keys == null || keys.length == 0 ? null : keys, trust, connections);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not build SSLContext: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the key managers of the configured client certificate, empty when it cannot be read
+     */
+    private static KeyManager[] clientKeyManagers(Preferences prefs) {
+        String certPath = prefs.get("certs.clientCertPath", "").trim();
+        String keyPath = prefs.get("certs.clientKeyPath", "").trim();
+        char[] password = ProxySettings.decryptSecret(prefs.get("certs.clientCertPassword", ""));
+        try {
+            KeyManager[] keys = ClientCertificate.keyManagers(Paths.get(certPath),
+                    keyPath.isEmpty() ? null : Paths.get(keyPath), password);
+            log.info("Applied client certificate from {}", certPath);
+            return keys;
+        } catch (Exception e) {
+            log.warn("Failed to load client certificate from {}: {}", certPath, e.getMessage());
+            return new KeyManager[0];
+        } finally {
+            Arrays.fill(password, '\0');
+        }
+    }
+
+    /**
+     * Proxy selector that resolves the proxy settings for every request, so host and port changes apply without a new
+     * client.
+     */
+    private static final class SettingsProxySelector extends ProxySelector {
+        @Override
+        public List<Proxy> select(URI uri) {
+            if (uri != null && ProxySettings.shouldBypassProxy(uri.getHost())) {
+                log.debug("Bypassing proxy for host: {}", uri.getHost());
+                return Collections.singletonList(Proxy.NO_PROXY);
+            }
+
+            // Dynamically create proxy instance each time
+            Proxy currentProxy = ProxySettings.createProxy();
+            if (currentProxy != null) {
+                log.debug("Using proxy for host: {}", uri != null ? uri.getHost() : "unknown");
+                return Collections.singletonList(currentProxy);
+            }
+
+            log.debug("No proxy configured, using direct connection for: {}",
+                    uri != null ? uri.getHost() : "unknown");
+            return Collections.singletonList(Proxy.NO_PROXY);
+        }
+
+        @Override
+        public void connectFailed(URI uri, SocketAddress sa, IOException ioe) {
+            log.error("Proxy connection failed for URI: {}", uri, ioe);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.net.http.HttpClient;
+import java.util.Locale;
+import java.util.prefs.Preferences;
+
+/**
+ * HTTP version a request asks for. The version actually used is negotiated per connection and shown in the timing of
+ * each response, see {@link RequestTiming.Hop#protocol()}.
+ * <p>
+ * {@link #HTTP_2} is offered through ALPN on HTTPS. On plain HTTP the client sends the first request of a connection
+ * as HTTP/1.1 with an {@code Upgrade: h2c} header; the JDK client cannot start h2c with prior knowledge, so a server
+ * that only speaks h2c without the upgrade cannot be reached.
+ */
+public enum HttpProtocol {
+    HTTP_1_1("HTTP/1.1", HttpClient.Version.HTTP_1_1),
+    HTTP_2("HTTP/2", HttpClient.Version.HTTP_2);
+
+    private final String label;
+    private final HttpClient.Version version;
+
+    HttpProtocol(String label, HttpClient.Version version) {
+        this.label = label;
+        this.version = version;
+    }
+
+    public HttpClient.Version version() {
+        return version;
+    }
+
+    /**
+     * @return the protocol of a negotiated version
+     */
+    public static HttpProtocol of(HttpClient.Version version) {
+        return version == HttpClient.Version.HTTP_1_1 ? HTTP_1_1 : HTTP_2;
+    }
+
+    /**
+     * @return the version of the settings, used for requests that do not set their own
+     */
+    public static HttpProtocol fromSettings(Preferences prefs) {
+        HttpProtocol protocol = parse(prefs.get("http.version", null));
+        return protocol != null ? protocol : HTTP_2;
+    }
+
+    /**
+     * @param value a name as stored in the settings, e.g. {@code HTTP_1_1}, or a label such as {@code HTTP/1.1}
+     * @return the protocol, or {@code null} when {@code value} is blank or unknown
+     */
+    public static HttpProtocol parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT);
+        for (HttpProtocol protocol : values()) {
+            if (protocol.name().equals(normalized) || protocol.label.equals(normalized)) {
+                return protocol;
+            }
+        }
+        return normalized.equals("H2") || normalized.equals("HTTP/2.0") ? HTTP_2 : null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
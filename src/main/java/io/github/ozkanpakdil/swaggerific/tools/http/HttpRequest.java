@@ -1,22 +1,68 @@
 package io.github.ozkanpakdil.swaggerific.tools.http;
 
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
-public record HttpRequest(URI uri, String method, Map<String, String> headers, String body) {
+/**
+ * @param uri            request URI
+ * @param method         HTTP method
+ * @param headers        request headers, read-only
+ * @param body           text body, {@code null} when there is none or {@code content} is set
+ * @param content        streamed body, used instead of {@code body} when set
+ * @param uploadProgress notified while the body is written, may be {@code null}
+ * @param retryPolicy    retries and hedging for this request, {@code null} to use the settings
+ * @param rateLimit      limit of the host this request goes to, {@code null} to use the settings
+ * @param protocol       HTTP version to ask for, {@code null} to use the settings
+ * @param spillLargeResponse whether a response over the size limit may go to a temp file when the settings allow it,
+ *                       only for sends whose caller shows the file and deletes it
+ * @param bypassCache    whether the response cache is neither read nor written, for load tests and runs that have to
+ *                       reach the server with every request
+ */
+public record HttpRequest(URI uri, String method, Headers headers, String body, RequestBody content,
+                          UploadProgress uploadProgress, RetryPolicy retryPolicy, RateLimit rateLimit,
+                          HttpProtocol protocol, boolean spillLargeResponse,
+                          boolean bypassCache) {
+    public HttpRequest {
+        // Headers that are already read-only are shared instead of copied
+        headers = Headers.readOnlyOf(headers);
+    }
+
     public HttpRequest(URI uri, String method, Map<String, String> headers, String body) {
-        this.uri = uri;
-        this.method = method;
-        this.headers = headers != null ? Map.copyOf(headers) : Map.of();
-        this.body = body;
+        this(uri, method, Headers.readOnlyOf(headers), body, null, null, null, null, null, false, false);
+    }
+
+    public HttpRequest(URI uri, String method, Headers headers, String body, RequestBody content,
+                       UploadProgress uploadProgress) {
+        this(uri, method, headers, body, content, uploadProgress, null, null, null, false, false);
+    }
+
+    /**
+     * @return whether the request has a text or streamed body
+     */
+    public boolean hasBody() {
+        return body != null || content != null;
+    }
+
+    /**
+     * @return a copy of this request with other headers
+     */
+    public HttpRequest withHeaders(Map<String, String> headers) {
+        return new HttpRequest(uri, method, Headers.readOnlyOf(headers), body, content, uploadProgress, retryPolicy,
+                rateLimit, protocol, spillLargeResponse, bypassCache);
     }
 
     public static final class Builder {
         private URI uri;
         private String method;
-        private Map<String, String> headers = new HashMap<>();
+        private Headers headers = new Headers();
         private String body;
+        private RequestBody content;
+        private UploadProgress uploadProgress;
+        private RetryPolicy retryPolicy;
+        private RateLimit rateLimit;
+        private HttpProtocol protocol;
+        private boolean spillLargeResponse;
+        private boolean bypassCache;
 
         public Builder uri(URI uri) {
             this.uri = uri;
@@ -29,7 +75,19 @@ public record HttpRequest(URI uri, String method, Map<String, String> headers, S
         }
 
         public Builder headers(Map<String, String> headers) {
-            this.headers = headers != null ? new HashMap<>(headers) : new HashMap<>();
+            this.headers = Headers.copyOf(headers);
+            return this;
+        }
+
+        /**
+         * Adds a header value, keeping the values the header already has.
+         */
+        public Builder header(String name, String value) {
+            if (headers.isReadOnly()) {
+                // Handed to a request by build(), which still uses it
+                headers = headers.copy();
+            }
+            this.headers.add(name, value);
             return this;
         }
 
@@ -38,15 +96,72 @@ public record HttpRequest(URI uri, String method, Map<String, String> headers, S
             return this;
         }
 
+        /**
+         * Sets a streamed body, which replaces the text body.
+         */
+        public Builder body(RequestBody content) {
+            this.content = content;
+            return this;
+        }
+
+        public Builder uploadProgress(UploadProgress uploadProgress) {
+            this.uploadProgress = uploadProgress;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy retries and hedging for this request, {@code null} to use the settings
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param rateLimit limit of the host this request goes to, {@code null} to use the settings
+         */
+        public Builder rateLimit(RateLimit rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+
+        /**
+         * @param protocol HTTP version to ask for, {@code null} to use the settings
+         */
+        public Builder protocol(HttpProtocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * @param spillLargeResponse whether a response over the size limit may go to a temp file when the settings
+         *                           allow it, the caller then has to delete {@link HttpResponse#bodyFile()}
+         */
+        public Builder spillLargeResponse(boolean spillLargeResponse) {
+            this.spillLargeResponse = spillLargeResponse;
+            return this;
+        }
+
+        /**
+         * @param bypassCache whether the response cache is neither read nor written for this request
+         */
+        public Builder bypassCache(boolean bypassCache) {
+            this.bypassCache = bypassCache;
+            return this;
+        }
+
         public HttpRequest build() {
             if (uri == null || method == null) {
                 throw new IllegalStateException("URI and method must be set");
             }
-            return new HttpRequest(uri, method, headers, body);
+            // Frozen in place instead of copied, the request shares it with this builder
+            return new HttpRequest(uri, method, headers.readOnly(), content != null ? null : body, content,
+                    uploadProgress, retryPolicy, rateLimit, protocol, spillLargeResponse,
+                    bypassCache);
         }
     }
 
     public static Builder builder() {
         return new Builder();
     }
-}
\ No newline at end of file
+}
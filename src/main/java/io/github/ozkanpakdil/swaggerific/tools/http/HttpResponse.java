@@ -1,23 +1,35 @@
 package io.github.ozkanpakdil.swaggerific.tools.http;
 
-import java.util.HashMap;
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
  * Model record for HTTP responses.
- * This record encapsulates all the information received in an HTTP response.
+ * This record encapsulates all the information received in an HTTP response. The body is kept as the received bytes;
+ * see {@link ResponseBody} for the text and JSON views of it.
  */
 public record HttpResponse(
         int statusCode,
-        Map<String, String> headers,
-        String body,
+        Headers headers,
+        ResponseBody content,
         String contentType,
         boolean isError,
-        String errorMessage
+        String errorMessage,
+        boolean truncated,
+        Path bodyFile,
+        RequestTiming timing
 ) {
     public HttpResponse {
         // Ensure headers is never null
-        headers = headers != null ? headers : new HashMap<>();
+        headers = headers != null ? headers : new Headers();
+        content = content != null ? content : ResponseBody.empty();
+    }
+
+    /**
+     * @return the body decoded as text, decoded once and shared by all callers
+     */
+    public String body() {
+        return content.text();
     }
 
     /**
@@ -25,11 +37,14 @@ public record HttpResponse(
      */
     public static class Builder {
         private int statusCode;
-        private Map<String, String> headers = new HashMap<>();
-        private String body;
+        private Headers headers = new Headers();
+        private ResponseBody content;
         private String contentType;
         private boolean isError;
         private String errorMessage;
+        private boolean truncated;
+        private Path bodyFile;
+        private RequestTiming timing;
 
         public Builder statusCode(int statusCode) {
             this.statusCode = statusCode;
@@ -37,7 +52,7 @@ public record HttpResponse(
         }
 
         public Builder headers(Map<String, String> headers) {
-            this.headers = headers != null ? headers : new HashMap<>();
+            this.headers = headers instanceof Headers h ? h : Headers.copyOf(headers);
             return this;
         }
 
@@ -47,7 +62,12 @@ public record HttpResponse(
         }
 
         public Builder body(String body) {
-            this.body = body;
+            this.content = ResponseBody.ofText(body);
+            return this;
+        }
+
+        public Builder body(ResponseBody content) {
+            this.content = content;
             return this;
         }
 
@@ -62,8 +82,33 @@ public record HttpResponse(
             return this;
         }
 
+        /**
+         * Marks the body as cut at the configured max response size.
+         */
+        public Builder truncated(boolean truncated) {
+            this.truncated = truncated;
+            return this;
+        }
+
+        /**
+         * Sets the file holding a body that was too large to keep in memory.
+         */
+        public Builder bodyFile(Path bodyFile) {
+            this.bodyFile = bodyFile;
+            return this;
+        }
+
+        /**
+         * Sets the phase timing of the exchange, including redirect hops.
+         */
+        public Builder timing(RequestTiming timing) {
+            this.timing = timing;
+            return this;
+        }
+
         public HttpResponse build() {
-            return new HttpResponse(statusCode, headers, body, contentType, isError, errorMessage);
+            return new HttpResponse(statusCode, headers, content, contentType, isError, errorMessage, truncated, bodyFile,
+                    timing);
         }
     }
 }
\ No newline at end of file
@@ -1,13 +1,22 @@
 package io.github.ozkanpakdil.swaggerific.tools.http;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 /**
  * Interface for HTTP operations.
  * This interface defines the contract for sending HTTP requests and receiving responses.
  */
 public interface HttpService {
+    /**
+     * Response header set on a response whose body was saved by {@link #downloadAsync}.
+     */
+    String DOWNLOAD_HEADER = "x-swaggerific-download";
+
     /**
      * Sends an HTTP request and returns the response.
      *
@@ -16,6 +25,74 @@ public interface HttpService {
      */
     HttpResponse sendRequest(HttpRequest request);
 
+    /**
+     * Sends an HTTP request without blocking the caller. Failures are reported as an error {@link HttpResponse}, the
+     * returned future only completes exceptionally when it is cancelled. Cancelling it aborts the exchange and closes
+     * its stream, so the connection does not stay busy until the request timeout.
+     *
+     * @param request the HTTP request to send
+     * @return a future completed with the HTTP response
+     */
+    CompletableFuture<HttpResponse> sendRequestAsync(HttpRequest request);
+
+    /**
+     * Sends an HTTP request like {@link #sendRequestAsync(HttpRequest)}, passing the events of a
+     * {@code text/event-stream} or NDJSON response to {@code events} as they arrive instead of only returning the body
+     * once the server ends the stream. Other responses are read as usual. The returned future completes when the
+     * stream ends; cancelling it closes the stream.
+     *
+     * @param request the HTTP request to send
+     * @param events  receives the events of a streamed response
+     * @return a future completed with the HTTP response, its body holds the start of the stream
+     */
+    default CompletableFuture<HttpResponse> sendRequestAsync(HttpRequest request, StreamListener events) {
+        return sendRequestAsync(request);
+    }
+
+    /**
+     * Sends many requests like {@link #sendRequestAsync(HttpRequest)}, over the shared connections and with at most
+     * {@link BatchOptions#concurrency()} of them in flight, and publishes each result as it completes, or in the order
+     * of the requests when the options ask for it. Sending starts when the publisher is subscribed to, it serves one
+     * subscriber. Failed requests are published as error responses, the publisher does not signal {@code onError} for
+     * them. Cancelling the subscription stops the batch and aborts the requests in flight. Requests go through the
+     * response cache unless they have {@link HttpRequest#bypassCache()} set.
+     *
+     * @param requests the requests to send
+     * @param options  concurrency and order of the results
+     * @return a publisher of one result per request
+     */
+    default Flow.Publisher<BatchResult> sendAll(List<HttpRequest> requests, BatchOptions options) {
+        return new BatchPublisher(requests, options, this::sendRequestAsync);
+    }
+
+    /**
+     * Sends an HTTP request and writes the response body to a file instead of keeping it as text. The response cache is
+     * not used and compressed responses are not asked for, so the file holds the bytes as the server sent them. The
+     * body of an error response (4xx, 5xx) is returned as text instead. Cancelling the returned future aborts the
+     * download; the partly written file is left as it is.
+     *
+     * @param request  the HTTP request to send
+     * @param target   file for the response body, replaced when it exists
+     * @param progress notified while the body is written, may be {@code null}
+     * @return a future completed with the HTTP response, its {@link HttpResponse#bodyFile()} is {@code target}
+     */
+    CompletableFuture<HttpResponse> downloadAsync(HttpRequest request, Path target, DownloadProgress progress);
+
+    /**
+     * Opens a connection to the origin of {@code uri} in the background with a {@code HEAD} request to its root, so the
+     * first real request to it skips the lookup, connect and TLS handshake. The next exchange with the host reports
+     * whether it used the warm connection, see {@link RequestTiming.Hop#warmConnection()}. Only the scheme, host and
+     * port of {@code uri} are used, no headers or credentials are sent. The warm-up request counts against the rate
+     * limit of the host and is skipped when no permit is free right away. The work is done on a worker thread, so this
+     * returns at once.
+     *
+     * @param uri       any URI of the server
+     * @param protocol  HTTP version to open the connection for, {@code null} to use the one of the settings
+     * @param rateLimit limit of the host, {@code null} to use the one of the settings
+     * @return a future completed once the connection is open or the attempt failed, it never completes exceptionally
+     */
+    CompletableFuture<Void> prewarm(URI uri, HttpProtocol protocol, RateLimit rateLimit);
+
     /**
      * Convenience method to send a GET request.
      *
@@ -2,8 +2,8 @@ package io.github.ozkanpakdil.swaggerific.tools.http;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
-import io.github.ozkanpakdil.swaggerific.tools.ProxySettings;
 import io.github.ozkanpakdil.swaggerific.tools.exceptions.XmlFormattingException;
+import io.github.ozkanpakdil.swaggerific.ui.MainController;
 import io.swagger.v3.core.util.Json;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +11,7 @@ import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLParameters;
+import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -23,10 +23,12 @@ import javax.xml.transform.stream.StreamResult;
 import java.io.*;
 import java.net.*;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
-import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.KeyStore;
 import java.security.SecureRandom;
@@ -34,19 +36,37 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
 import java.time.Duration;
 import java.util.*;
-
-import static io.github.ozkanpakdil.swaggerific.tools.ProxySettings.trustAllCerts;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+import java.util.function.Function;
 
 /**
  * Implementation of the HttpService interface. This class provides methods for making HTTP requests without UI dependencies.
  */
 public class HttpServiceImpl implements HttpService {
     private static final Logger log = LoggerFactory.getLogger(HttpServiceImpl.class);
+    private static final Path SPILL_DIR = Paths.get(MainController.APP_SETTINGS_HOME, "responses");
+    /**
+     * Recent latencies per origin, the hedge delay is their p95.
+     */
+    private static final LatencyTracker LATENCIES = new LatencyTracker();
+    /**
+     * Codings {@link BoundedBodySubscriber} decodes. Brotli is not offered because the JDK has no decoder for it.
+     */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final Duration PREWARM_TIMEOUT = Duration.ofSeconds(10);
+    /**
+     * Warm-ups in flight per origin, so opening several tabs of one server opens one connection.
+     */
+    private static final Map<URI, CompletableFuture<Void>> WARMING = new ConcurrentHashMap<>();
     private final ObjectMapper mapper;
-    private HttpClient client;
-
-    // List of all active HttpServiceImpl instances
-    private static final List<HttpServiceImpl> instances = Collections.synchronizedList(new ArrayList<>());
+    private final RequestExecutor executor = RequestExecutor.shared();
+    private final HttpClientRegistry clients = HttpClientRegistry.shared();
+    private final HostRateLimiter limiter = HostRateLimiter.shared();
 
     /**
      * Constructor with ObjectMapper.
@@ -55,9 +75,6 @@ public class HttpServiceImpl implements HttpService {
      */
     public HttpServiceImpl(ObjectMapper mapper) {
         this.mapper = mapper;
-        this.client = createHttpClient();
-        // Register this instance
-        instances.add(this);
     }
 
     /**
@@ -68,115 +85,28 @@ public class HttpServiceImpl implements HttpService {
     }
 
     /**
-     * Recreates the HttpClient for all instances. This method should be called when proxy settings change.
+     * Drops the shared HttpClients. This method should be called when proxy settings change; other settings are part of
+     * the {@link HttpClientRegistry} key and pick up a matching client on the next request.
      */
     public static void recreateAllHttpClients() {
-        log.info("Recreating HttpClient for all instances due to proxy settings change");
-        synchronized (instances) {
-            for (HttpServiceImpl instance : instances) {
-                instance.client = instance.createHttpClient();
-            }
-        }
+        log.info("Recreating HttpClients due to settings change");
+        HttpClientRegistry.shared().invalidateAll();
     }
 
     /**
-     * Creates an HttpClient with the appropriate proxy configuration.
-     *
-     * @return a configured HttpClient
+     * Loads an SSLContext that trusts certificates from a PEM bundle file.
+     * The PEM may contain one or more X.509 certificates (-----BEGIN CERTIFICATE----- blocks).
      */
-    private HttpClient createHttpClient() {
-        // Load preferences
-        var prefs = java.util.prefs.Preferences.userNodeForPackage(SwaggerApplication.class);
-        int timeoutMs = prefs.getInt("http.requestTimeoutMs", 30000);
-        boolean followRedirects = prefs.getBoolean("http.followRedirects", true);
-
-        // Create HttpClient builder
-        HttpClient.Builder builder = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMillis(Math.max(1, timeoutMs)))
-                .followRedirects(followRedirects ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
-
-        // SSL configuration precedence:
-        // 1) If custom CA bundle is enabled and path provided, use it.
-        // 2) Else if SSL validation is disabled, trust all (dev/test only).
-        boolean caEnabled = prefs.getBoolean("certs.caBundleEnabled", false);
-        String caPath = prefs.get("certs.caBundlePath", "");
-        if (caEnabled && caPath != null && !caPath.isBlank()) {
-            try {
-                SSLContext sslContext = loadSslContextFromPem(caPath.trim());
-                if (sslContext != null) {
-                    builder.sslContext(sslContext);
-                    log.info("Applied custom CA bundle from {}", caPath);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to load custom CA bundle from {}: {}", caPath, e.getMessage());
-            }
-        } else if (ProxySettings.disableSslValidation()) {
-            try {
-                SSLContext sslContext = SSLContext.getInstance("TLS");
-                sslContext.init(null, trustAllCerts, new SecureRandom());
-
-                // Create SSLParameters that disable hostname verification
-                SSLParameters sslParameters = new SSLParameters();
-                sslParameters.setEndpointIdentificationAlgorithm(null);
-
-                // Set the SSLContext and SSLParameters
-                builder.sslContext(sslContext)
-                        .sslParameters(sslParameters);
-
-                log.warn(
-                        "SSL certificate validation and hostname verification are disabled. This is a security risk and should only be used for development/testing.");
-            } catch (Exception e) {
-                log.error("Failed to create trust-all SSLContext", e);
-            }
-        }
-
-        // Only set custom proxy selector if not using system proxy
-        if (!ProxySettings.useSystemProxy()) {
-            // Set up proxy authenticator if needed
-            Authenticator authenticator = ProxySettings.createProxyAuthenticator();
-            if (authenticator != null && Authenticator.getDefault() == null) {
-                builder.authenticator(authenticator);
-                Authenticator.setDefault(authenticator);
-            }
-
-            // Create a custom proxy selector that dynamically resolves proxy settings
-            ProxySelector proxySelector = new ProxySelector() {
-                @Override
-                public List<Proxy> select(URI uri) {
-                    if (uri != null && ProxySettings.shouldBypassProxy(uri.getHost())) {
-                        log.debug("Bypassing proxy for host: {}", uri.getHost());
-                        return Collections.singletonList(Proxy.NO_PROXY);
-                    }
-
-                    // Dynamically create proxy instance each time
-                    Proxy currentProxy = ProxySettings.createProxy();
-                    if (currentProxy != null) {
-                        log.debug("Using proxy for host: {}", uri != null ? uri.getHost() : "unknown");
-                        return Collections.singletonList(currentProxy);
-                    }
-
-                    log.debug("No proxy configured, using direct connection for: {}",
-                            uri != null ? uri.getHost() : "unknown");
-                    return Collections.singletonList(Proxy.NO_PROXY);
-                }
-
-                @Override
-                public void connectFailed(URI uri, SocketAddress sa, IOException ioe) {
-                    log.error("Proxy connection failed for URI: {}", uri, ioe);
-                }
-            };
-
-            builder.proxy(proxySelector);
-        }
-
-        return builder.build();
+    static SSLContext loadSslContextFromPem(String pemPath) throws Exception {
+        SSLContext ctx = SSLContext.getInstance("TLS");
+        ctx.init(null, loadTrustManagersFromPem(pemPath), new SecureRandom());
+        return ctx;
     }
 
     /**
-     * Loads an SSLContext that trusts certificates from a PEM bundle file.
-     * The PEM may contain one or more X.509 certificates (-----BEGIN CERTIFICATE----- blocks).
+     * @return trust managers that trust the certificates of the PEM bundle, and only those
      */
-    static SSLContext loadSslContextFromPem(String pemPath) throws Exception {
+    static TrustManager[] loadTrustManagersFromPem(String pemPath) throws Exception {
         byte[] allBytes = Files.readAllBytes(Paths.get(pemPath));
         String pem = new String(allBytes, java.nio.charset.StandardCharsets.US_ASCII);
         List<Certificate> certs = new ArrayList<>();
@@ -206,143 +136,358 @@ public class HttpServiceImpl implements HttpService {
         }
         TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
         tmf.init(ks);
-        SSLContext ctx = SSLContext.getInstance("TLS");
-        ctx.init(null, tmf.getTrustManagers(), new SecureRandom());
-        return ctx;
+        return tmf.getTrustManagers();
     }
 
     @Override
     public HttpResponse sendRequest(HttpRequest request) {
         try {
-            log.info("HttpServiceImpl received request with headers: {}", request.headers());
+            return sendRequestAsync(request).get();
+        } catch (InterruptedException e) {
+            log.error("Thread interrupted during request", e);
+            Thread.currentThread().interrupt();
+            return new HttpResponse.Builder()
+                    .statusCode(500)
+                    .error("Request interrupted: " + e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return toErrorResponse(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendRequestAsync(HttpRequest request) {
+        return sendRequestAsync(request, null);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendRequestAsync(HttpRequest request, StreamListener events) {
+        var prefs = java.util.prefs.Preferences.userNodeForPackage(SwaggerApplication.class);
+        ResponseCache.Lookup cached = null;
+        if (!request.bypassCache() && prefs.getBoolean("http.cache.enabled", false)) {
+            ResponseCache cache = ResponseCache.shared();
+            cache.setDiskEnabled(prefs.getBoolean("http.cache.disk", false));
+            cached = cache.lookup(request);
+        }
+        if (cached == null) {
+            return send(request, prefs, null, null, events);
+        }
+        HttpResponse fresh = cached.fresh();
+        if (fresh != null) {
+            return CompletableFuture.completedFuture(fresh);
+        }
+        ResponseCache.Lookup lookup = cached;
+        CompletableFuture<HttpResponse> revalidation = send(lookup.request(), prefs, null, null, events);
+        return cancelling(revalidation.thenApply(lookup::complete), revalidation);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> downloadAsync(HttpRequest request, Path target, DownloadProgress progress) {
+        return send(request, java.util.prefs.Preferences.userNodeForPackage(SwaggerApplication.class),
+                Objects.requireNonNull(target, "target"), progress, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> prewarm(URI uri, HttpProtocol protocol, RateLimit rateLimit) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (uri.getHost() == null || !(scheme.equals("http") || scheme.equals("https"))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        URI origin = URI.create(scheme + "://" + uri.getRawAuthority() + "/");
+        // Resolving the client reads the certificate files and may build the SSLContext, so none of it runs on the
+        // calling thread, which is usually the FX thread
+        CompletableFuture<Void> warming = WARMING.computeIfAbsent(origin,
+                o -> executor.supply(() -> warmUp(o, protocol, rateLimit))
+                        .thenCompose(Function.identity())
+                        .exceptionally(e -> {
+                            log.debug("Could not warm up a connection to {}: {}", o, e.getMessage());
+                            return null;
+                        }));
+        warming.whenComplete((r, e) -> WARMING.remove(origin, warming));
+        return warming;
+    }
+
+    private CompletableFuture<Void> warmUp(URI origin, HttpProtocol protocol, RateLimit rateLimit) {
+        var prefs = java.util.prefs.Preferences.userNodeForPackage(SwaggerApplication.class);
+        // A warm-up is only worth it while it costs no waiting, a later real request should get the slot instead
+        if (!limiter.tryAcquire(origin, rateLimit != null ? rateLimit : rateLimit(prefs))) {
+            log.debug("Not warming up a connection to {}, the rate limit has no permit free", origin);
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpProtocol version = protocol != null ? protocol : HttpProtocol.fromSettings(prefs);
+        java.net.http.HttpRequest head = java.net.http.HttpRequest.newBuilder(origin)
+                .version(version.version())
+                .method("HEAD", BodyPublishers.noBody())
+                .timeout(PREWARM_TIMEOUT)
+                .build();
+        ConnectionTracker connections = clients.connections();
+        log.debug("Warming up a connection to {}", origin);
+        return clients.client().sendAsync(head, java.net.http.HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        log.debug("Could not warm up a connection to {}: {}", origin, error.getMessage());
+                    } else {
+                        // Any status will do, the connection is open and back in the pool
+                        connections.warmed(origin.getHost(), TimedExchange.port(origin));
+                        log.debug("Connection to {} warmed up ({}, {})", origin, response.version(),
+                                response.statusCode());
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * @param downloadTo file the response body is saved to, {@code null} to keep it as text
+     * @param events     receives the events of a streamed response, {@code null} to read it like any other
+     */
+    private CompletableFuture<HttpResponse> send(HttpRequest request, java.util.prefs.Preferences prefs,
+                                                 Path downloadTo, DownloadProgress downloadProgress,
+                                                 StreamListener events) {
+        java.net.http.HttpRequest httpRequest;
+        try {
+            log.debug("HttpServiceImpl received request with headers: {}", request.headers());
 
             // Check if we're accessing localhost
             URI uri = request.uri();
             String host = uri.getHost();
             int port = uri.getPort();
             String path = uri.getPath();
-            log.info("Request host: {}, port: {}, path: {}", host, port, path);
+            log.debug("Request host: {}, port: {}, path: {}", host, port, path);
 
-            // Force recreate the client to ensure we have the latest proxy settings
             if (host != null && (host.equals("localhost") || host.equals("127.0.0.1"))) {
-                log.info("Localhost connection detected, ensuring direct connection");
+                log.debug("Localhost connection detected, ensuring direct connection");
                 // For localhost connections, ensure we're not using a proxy
                 System.setProperty("http.proxyHost", "");
                 System.setProperty("http.proxyPort", "");
                 System.setProperty("https.proxyHost", "");
                 System.setProperty("https.proxyPort", "");
 
-                // Special handling for test environment
-                if (isTestEnvironment()) {
-                    log.info("Test environment detected, using special handling for localhost");
-
-                    // If this is a test for the pet/findByStatus endpoint, return a mock response
-                    if (path != null && path.endsWith("/pet/findByStatus")) {
-                        log.info("Returning mock response for pet/findByStatus endpoint");
-                        return new HttpResponse.Builder()
-                                .statusCode(200)
-                                .body("[{\"id\":1,\"name\":\"doggie\",\"status\":\"sold\"}]")
-                                .contentType("application/json")
-                                .build();
-                    }
+                // Special handling for test environment: a test for the pet/findByStatus endpoint gets a mock
+                // response. The path is checked first, the test detection walks the stack.
+                if (path != null && path.endsWith("/pet/findByStatus") && isTestEnvironment()) {
+                    log.info("Returning mock response for pet/findByStatus endpoint");
+                    return CompletableFuture.completedFuture(new HttpResponse.Builder()
+                            .statusCode(200)
+                            .body("[{\"id\":1,\"name\":\"doggie\",\"status\":\"sold\"}]")
+                            .contentType("application/json")
+                            .build());
                 }
+            }
 
-                // Recreate the client to apply these settings
-                client = createHttpClient();
+            Headers headers = request.headers().copy();
+            // Response bodies are decoded while they stream in, so compressed responses can always be asked for.
+            // Downloads are saved as received, so they are not.
+            if (downloadTo == null && prefs.getBoolean("http.acceptCompressed", true)
+                    && !headers.containsKey("Accept-Encoding")) {
+                headers.put("Accept-Encoding", ACCEPT_ENCODING);
+            }
+            BodyPublisher bodyPublisher = BodyPublishers.noBody();
+            if (request.content() != null) {
+                RequestBody content = request.content();
+                // The multipart boundary is only known here, a Content-Type from the headers table would not match
+                if (content instanceof RequestBody.Multipart || !headers.containsKey("Content-Type")) {
+                    headers.put("Content-Type", content.contentType());
+                }
+                log.debug("Streaming request body {}", content.describe());
+                bodyPublisher = content.publisher();
+            } else if (request.body() != null) {
+                byte[] body = request.body().getBytes(StandardCharsets.UTF_8);
+                if (prefs.getBoolean("http.gzipRequestBody", false) && body.length > 0
+                        && !headers.containsKey("Content-Encoding")) {
+                    byte[] compressed = gzip(body);
+                    log.debug("Request body compressed from {} to {} bytes", body.length, compressed.length);
+                    body = compressed;
+                    headers.put("Content-Encoding", "gzip");
+                }
+                bodyPublisher = BodyPublishers.ofByteArray(body);
             }
 
-            String[] headerArray = new String[request.headers().size() * 2];
-            int i = 0;
-            for (Map.Entry<String, String> entry : request.headers().entrySet()) {
-                headerArray[i++] = entry.getKey();
-                headerArray[i++] = entry.getValue();
-                log.info("Adding header: {} = {}", entry.getKey(), entry.getValue());
+            List<String> headerList = new ArrayList<>(headers.size() * 2);
+            // Every value is sent as its own field, so repeated headers keep their values
+            headers.forEachValue((name, value) -> {
+                headerList.add(name);
+                headerList.add(value);
+                log.debug("Adding header: {} = {}", name, value);
+            });
+            String[] headerArray = headerList.toArray(String[]::new);
+
+            if (request.uploadProgress() != null) {
+                bodyPublisher = new ProgressBodyPublisher(bodyPublisher, request.uploadProgress());
             }
 
+            HttpProtocol protocol = request.protocol() != null ? request.protocol() : HttpProtocol.fromSettings(prefs);
             java.net.http.HttpRequest.Builder requestBuilder = java.net.http.HttpRequest.newBuilder()
                     .uri(request.uri())
-                    .method(request.method(),
-                            request.body() != null ? BodyPublishers.ofString(request.body()) : BodyPublishers.noBody());
+                    .version(protocol.version())
+                    .method(request.method(), bodyPublisher);
 
             if (headerArray.length > 0) {
                 requestBuilder.headers(headerArray);
-                log.info("Added {} headers to the request", headerArray.length / 2);
+                log.debug("Added {} headers to the request", headerArray.length / 2);
             }
 
-            java.net.http.HttpRequest httpRequest = requestBuilder.build();
-            log.info("{} headers:{} , uri:{}", httpRequest.method(), mapper.writeValueAsString(headerArray), request.uri());
-            log.info("Sending request to: {}", request.uri());
-            java.net.http.HttpResponse<String> httpResponse = client.send(httpRequest, BodyHandlers.ofString());
-
-            String contentType = httpResponse.headers().firstValue("Content-Type").orElse("application/json");
-
-            Map<String, String> responseHeaders = httpResponse.headers().map().entrySet().stream()
-                    .collect(java.util.stream.Collectors.toMap(
-                            Map.Entry::getKey,
-                            e -> String.join(", ", e.getValue())
-                    ));
-
-            // Enforce Max Response Size if configured
-            String body = httpResponse.body();
-            try {
-                int maxBytes = java.util.prefs.Preferences.userNodeForPackage(io.github.ozkanpakdil.swaggerific.SwaggerApplication.class)
-                        .getInt("http.maxResponseSizeBytes", 2_000_000);
-                if (body != null) {
-                    // Use UTF-8 byte length for enforcement
-                    byte[] bytes = body.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-                    if (bytes.length > maxBytes && maxBytes > 0) {
-                        // Truncate by bytes to avoid splitting multi-byte characters incorrectly
-                        byte[] truncated = java.util.Arrays.copyOf(bytes, maxBytes);
-                        String truncatedBody = new String(truncated, java.nio.charset.StandardCharsets.UTF_8);
-                        // Note: new String may end mid-character; best-effort fix by dropping last partial char
-                        // Find last valid boundary by re-encoding
-                        byte[] reencoded = truncatedBody.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-                        if (reencoded.length > maxBytes) {
-                            // Drop last char
-                            truncatedBody = truncatedBody.substring(0, Math.max(0, truncatedBody.length() - 1));
-                        }
-                        body = truncatedBody + "\n\n[Response truncated to " + maxBytes + " bytes. Configure in Settings > General > Max response size]";
-                        responseHeaders.put("x-swaggerific-truncated", "true");
-                    }
-                }
-            } catch (Exception ex) {
-                log.warn("Failed enforcing max response size: {}", ex.getMessage());
+            httpRequest = requestBuilder.build();
+            if (log.isDebugEnabled()) {
+                log.debug("{} headers:{} , uri:{}", httpRequest.method(), mapper.writeValueAsString(headerArray), request.uri());
             }
-
-            return new HttpResponse.Builder()
-                    .statusCode(httpResponse.statusCode())
-                    .headers(responseHeaders)
-                    .body(body)
-                    .contentType(contentType)
-                    .build();
-
-        } catch (InterruptedException e) {
-            log.error("Thread interrupted during request", e);
-            Thread.currentThread().interrupt();
-            return new HttpResponse.Builder()
-                    .statusCode(500)
-                    .error("Request interrupted: " + e.getMessage())
-                    .build();
         } catch (Exception e) {
-            if (e.getCause() instanceof ConnectException &&
-                    e.getCause().getCause() instanceof ClosedChannelException) {
-                log.error("Closed channel error during request (target is not listening check ports and address)", e);
-                return new HttpResponse.Builder()
-                        .statusCode(500)
-                        .error("Closed channel error: " + e.getMessage())
-                        .build();
+            return CompletableFuture.completedFuture(toErrorResponse(e));
+        }
+
+        log.debug("Sending request to: {}", request.uri());
+        int maxBytes = prefs.getInt("http.maxResponseSizeBytes", 2_000_000);
+        // Larger bodies either go to a temp file or are cut at the limit; only requests whose caller deletes the file
+        // may spill, load tests and runs would leave one behind per response
+        Path spillDir = request.spillLargeResponse() && prefs.getBoolean("http.spillLargeResponses", false)
+                ? SPILL_DIR : null;
+        boolean followRedirects = prefs.getBoolean("http.followRedirects", true);
+        var handler = BoundedBodySubscriber.handler(maxBytes, spillDir);
+        if (downloadTo != null) {
+            handler = DownloadBodySubscriber.handler(downloadTo, downloadProgress, handler);
+        } else if (events != null) {
+            handler = StreamBodySubscriber.handler(events, maxBytes, handler);
+        }
+        RetryPolicy policy = request.retryPolicy() != null ? request.retryPolicy() : retryPolicy(prefs);
+        boolean repeatable = policy.allowsRepeat(request.method(), request.headers());
+        if (policy.sendsAgain() && !repeatable) {
+            log.debug("{} {} is sent once, it is not idempotent", request.method(), request.uri());
+        }
+        RateLimit rateLimit = request.rateLimit() != null ? request.rateLimit() : rateLimit(prefs);
+        HttpClient client = clients.client();
+        ConnectionTracker connections = clients.connections();
+        var bodyHandler = handler;
+        // Two attempts must not write the same download file, or interleave their events, at once
+        RetryingExchange timedExchange = new RetryingExchange(policy, repeatable ? policy.maxAttempts() : 1,
+                repeatable && policy.hedge() && downloadTo == null && events == null,
+                origin -> new TimedExchange(client, connections, bodyHandler, followRedirects, executor.executor(),
+                        origin),
+                () -> limiter.acquire(httpRequest.uri(), rateLimit), httpRequest, LATENCIES, executor.executor());
+        CompletableFuture<TimedExchange.Result> exchange = executor.track(timedExchange.send());
+        log.debug("HttpClient registry: {}", clients.stats());
+        CompletableFuture<HttpResponse> response = exchange.handle((result, error) -> error != null
+                ? toErrorResponse(error)
+                : toResponse(result.response(), result.timing(), downloadTo));
+        // Futures do not pass cancellation back to the stages they were built from, so the exchange is aborted here
+        response.whenComplete((r, e) -> {
+            if (response.isCancelled()) {
+                log.info("Request to {} cancelled", request.uri());
+                timedExchange.cancel();
             }
+        });
+        return response;
+    }
 
-            String errorMessage = e.getMessage();
-            if (errorMessage == null) {
-                errorMessage = "Connection failed - " + e.getClass().getSimpleName();
+    /**
+     * @return the retry policy of the settings, used for requests that do not set their own
+     */
+    static RetryPolicy retryPolicy(java.util.prefs.Preferences prefs) {
+        int attempts = prefs.getInt("http.retry.maxAttempts", 1);
+        boolean hedge = prefs.getBoolean("http.retry.hedge", false);
+        if (attempts <= 1 && !hedge) {
+            return RetryPolicy.NONE;
+        }
+        return RetryPolicy.builder().maxAttempts(Math.max(1, attempts)).hedge(hedge).build();
+    }
+
+    /**
+     * @return the per-host rate limit of the settings, used for requests that do not set their own
+     */
+    static RateLimit rateLimit(java.util.prefs.Preferences prefs) {
+        double perSecond = prefs.getDouble("http.rateLimit.perSecond", 0);
+        if (!(perSecond > 0) || Double.isInfinite(perSecond)) {
+            return RateLimit.NONE;
+        }
+        int burst = prefs.getInt("http.rateLimit.burst", 0);
+        return burst < 1 ? RateLimit.perSecond(perSecond) : new RateLimit(perSecond, burst);
+    }
+
+    /**
+     * @return {@code derived}, cancelling {@code source} when it is cancelled
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((r, e) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
             }
-            log.error("Error in request: {}", errorMessage, e);
+        });
+        return derived;
+    }
+
+    private HttpResponse toResponse(java.net.http.HttpResponse<BoundedBodySubscriber.Body> httpResponse,
+                                    RequestTiming timing, Path downloadTo) {
+        String contentType = httpResponse.headers().firstValue("Content-Type").orElse("application/json");
+
+        // Every value is kept, Set-Cookie values cannot be combined into one
+        Headers responseHeaders = Headers.of(httpResponse.headers());
+
+        // The body subscriber stopped reading at the max response size, only the prefix is kept
+        BoundedBodySubscriber.Body body = httpResponse.body();
+        String contentEncoding = httpResponse.headers().firstValue("Content-Encoding").orElse(null);
+        if (body.contentEncoding() != null) {
+            log.debug("Decoded {} response body from {} to {} bytes", body.contentEncoding(), body.receivedBytes(),
+                    body.decodedBytes());
+        } else if (!ContentDecoder.isSupported(contentEncoding)) {
+            log.warn("Response from {} uses unsupported Content-Encoding {}, body is shown as received",
+                    httpResponse.uri(), contentEncoding);
+        }
+        ResponseBody content = body.content();
+        if (body.file() != null && body.file().equals(downloadTo)) {
+            log.info("Response from {} ({} bytes) downloaded to {}", httpResponse.uri(), body.receivedBytes(), body.file());
+            responseHeaders.put(DOWNLOAD_HEADER, body.file().toString());
+        } else if (body.file() != null) {
+            log.info("Response from {} ({} bytes) saved to {}", httpResponse.uri(), body.receivedBytes(), body.file());
+        } else if (body.truncated()) {
+            log.info("Response from {} truncated after {} bytes", httpResponse.uri(), body.receivedBytes());
+            responseHeaders.put("x-swaggerific-truncated", "true");
+        }
+
+        return new HttpResponse.Builder()
+                .statusCode(httpResponse.statusCode())
+                .headers(responseHeaders)
+                .body(content)
+                .contentType(contentType)
+                .truncated(body.truncated())
+                .bodyFile(body.file())
+                .timing(timing)
+                .build();
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static HttpResponse toErrorResponse(Throwable error) {
+        Throwable e = error;
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        if (e instanceof CancellationException) {
+            log.debug("Request was cancelled");
+            return new HttpResponse.Builder()
+                    .error("Request cancelled")
+                    .build();
+        }
+        if (e instanceof ConnectException && e.getCause() instanceof ClosedChannelException) {
+            log.error("Closed channel error during request (target is not listening check ports and address)", e);
             return new HttpResponse.Builder()
                     .statusCode(500)
-                    .error(errorMessage)
+                    .error("Closed channel error: " + e.getMessage())
                     .build();
         }
+
+        String errorMessage = e.getMessage();
+        if (errorMessage == null) {
+            errorMessage = "Connection failed - " + e.getClass().getSimpleName();
+        }
+        log.error("Error in request: {}", errorMessage, e);
+        return new HttpResponse.Builder()
+                .statusCode(500)
+                .error(errorMessage)
+                .build();
     }
 
     @Override
@@ -0,0 +1,57 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latencies of the most recent exchanges per origin, used to tell when an attempt is slow enough to hedge.
+ */
+final class LatencyTracker {
+    static final int WINDOW = 64;
+    static final int MIN_SAMPLES = 10;
+    private static final int MAX_ORIGINS = 256;
+
+    private final Map<String, Window> windows = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > MAX_ORIGINS;
+        }
+    };
+
+    /**
+     * Ring of the last {@link #WINDOW} latencies in nanoseconds.
+     */
+    private static final class Window {
+        final long[] samples = new long[WINDOW];
+        int count;
+    }
+
+    /**
+     * Records how long an exchange with the origin of {@code uri} took.
+     */
+    synchronized void record(URI uri, Duration latency) {
+        Window window = windows.computeIfAbsent(origin(uri), k -> new Window());
+        window.samples[window.count++ % WINDOW] = latency.toNanos();
+    }
+
+    /**
+     * @return the 95th percentile of the recent latencies of the origin, or {@code null} with fewer than
+     * {@value #MIN_SAMPLES} samples
+     */
+    synchronized Duration p95(URI uri) {
+        Window window = windows.get(origin(uri));
+        if (window == null || window.count < MIN_SAMPLES) {
+            return null;
+        }
+        long[] samples = Arrays.copyOf(window.samples, Math.min(window.count, WINDOW));
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[(int) Math.ceil(samples.length * 0.95) - 1]);
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+}
@@ -0,0 +1,374 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * {@link SSLContext} that delegates everything to another context and reports the engines it creates to a
+ * {@link ConnectionTracker}. This is how TCP connect and TLS handshake times are observed for {@code java.net.http}.
+ */
+final class ObservedSSLContext extends SSLContext {
+
+    ObservedSSLContext(SSLContext delegate, ConnectionTracker tracker) {
+        this(delegate, tracker, false);
+    }
+
+    private ObservedSSLContext(SSLContext delegate, ConnectionTracker tracker, boolean observesTrust) {
+        super(new Spi(delegate, tracker, observesTrust), delegate.getProvider(), delegate.getProtocol());
+    }
+
+    /**
+     * Builds a context whose trust managers also report when they check a server certificate, so full handshakes can
+     * be told apart from resumed sessions.
+     *
+     * @param keys  client certificates to present, {@code null} for none
+     * @param trust trust managers deciding which servers are trusted
+     */
+    static ObservedSSLContext create(KeyManager[] keys, TrustManager[] trust, ConnectionTracker tracker)
+            throws GeneralSecurityException {
+        TrustManager[] observed = new TrustManager[trust.length];
+        for (int i = 0; i < trust.length; i++) {
+            observed[i] = trust[i] instanceof X509TrustManager x509 ? new ObservedTrustManager(x509, tracker) : trust[i];
+        }
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keys, observed, new SecureRandom());
+        return new ObservedSSLContext(context, tracker, true);
+    }
+
+    private static final class Spi extends SSLContextSpi {
+        private final SSLContext delegate;
+        private final ConnectionTracker tracker;
+        private final boolean observesTrust;
+
+        Spi(SSLContext delegate, ConnectionTracker tracker, boolean observesTrust) {
+            this.delegate = delegate;
+            this.tracker = tracker;
+            this.observesTrust = observesTrust;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) {
+            throw new UnsupportedOperationException("Observed SSLContext is initialized by its delegate");
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            SSLEngine engine = delegate.createSSLEngine(host, port);
+            ConnectionTracker.Connection connection = tracker.opened(host, port);
+            if (observesTrust) {
+                tracker.handshaking(engine, connection);
+            }
+            return new ObservedSSLEngine(engine, connection, tracker);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+
+    /**
+     * Engine wrapper that records the first handshake write (TCP connected) and the end of the handshake.
+     */
+    private static final class ObservedSSLEngine extends SSLEngine {
+        private final SSLEngine delegate;
+        private final ConnectionTracker.Connection connection;
+        private final ConnectionTracker tracker;
+
+        ObservedSSLEngine(SSLEngine delegate, ConnectionTracker.Connection connection, ConnectionTracker tracker) {
+            super(delegate.getPeerHost(), delegate.getPeerPort());
+            this.delegate = delegate;
+            this.connection = connection;
+            this.tracker = tracker;
+        }
+
+        private SSLEngineResult observe(SSLEngineResult result) {
+            if (connection.handshakeFinishedAt == 0 && result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+                connection.handshakeFinishedAt = System.nanoTime();
+                SSLSession session = delegate.getSession();
+                connection.protocol = session.getProtocol();
+                connection.cipherSuite = session.getCipherSuite();
+                tracker.handshakeFinished(delegate);
+            }
+            return result;
+        }
+
+        @Override
+        public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+            if (connection.handshakeStartedAt == 0) {
+                connection.handshakeStartedAt = System.nanoTime();
+            }
+            return observe(delegate.wrap(srcs, offset, length, dst));
+        }
+
+        @Override
+        public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+            return observe(delegate.unwrap(src, dsts, offset, length));
+        }
+
+        @Override
+        public Runnable getDelegatedTask() {
+            return delegate.getDelegatedTask();
+        }
+
+        @Override
+        public void closeInbound() throws SSLException {
+            delegate.closeInbound();
+        }
+
+        @Override
+        public boolean isInboundDone() {
+            return delegate.isInboundDone();
+        }
+
+        @Override
+        public void closeOutbound() {
+            delegate.closeOutbound();
+        }
+
+        @Override
+        public boolean isOutboundDone() {
+            return delegate.isOutboundDone();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public String[] getEnabledCipherSuites() {
+            return delegate.getEnabledCipherSuites();
+        }
+
+        @Override
+        public void setEnabledCipherSuites(String[] suites) {
+            delegate.setEnabledCipherSuites(suites);
+        }
+
+        @Override
+        public String[] getSupportedProtocols() {
+            return delegate.getSupportedProtocols();
+        }
+
+        @Override
+        public String[] getEnabledProtocols() {
+            return delegate.getEnabledProtocols();
+        }
+
+        @Override
+        public void setEnabledProtocols(String[] protocols) {
+            delegate.setEnabledProtocols(protocols);
+        }
+
+        @Override
+        public SSLSession getSession() {
+            return delegate.getSession();
+        }
+
+        @Override
+        public SSLSession getHandshakeSession() {
+            return delegate.getHandshakeSession();
+        }
+
+        @Override
+        public void beginHandshake() throws SSLException {
+            delegate.beginHandshake();
+        }
+
+        @Override
+        public SSLEngineResult.HandshakeStatus getHandshakeStatus() {
+            return delegate.getHandshakeStatus();
+        }
+
+        @Override
+        public void setUseClientMode(boolean mode) {
+            delegate.setUseClientMode(mode);
+        }
+
+        @Override
+        public boolean getUseClientMode() {
+            return delegate.getUseClientMode();
+        }
+
+        @Override
+        public void setNeedClientAuth(boolean need) {
+            delegate.setNeedClientAuth(need);
+        }
+
+        @Override
+        public boolean getNeedClientAuth() {
+            return delegate.getNeedClientAuth();
+        }
+
+        @Override
+        public void setWantClientAuth(boolean want) {
+            delegate.setWantClientAuth(want);
+        }
+
+        @Override
+        public boolean getWantClientAuth() {
+            return delegate.getWantClientAuth();
+        }
+
+        @Override
+        public void setEnableSessionCreation(boolean flag) {
+            delegate.setEnableSessionCreation(flag);
+        }
+
+        @Override
+        public boolean getEnableSessionCreation() {
+            return delegate.getEnableSessionCreation();
+        }
+
+        @Override
+        public SSLParameters getSSLParameters() {
+            return delegate.getSSLParameters();
+        }
+
+        @Override
+        public void setSSLParameters(SSLParameters params) {
+            delegate.setSSLParameters(params);
+        }
+
+        @Override
+        public String getApplicationProtocol() {
+            return delegate.getApplicationProtocol();
+        }
+
+        @Override
+        public String getHandshakeApplicationProtocol() {
+            return delegate.getHandshakeApplicationProtocol();
+        }
+
+        @Override
+        public void setHandshakeApplicationProtocolSelector(BiFunction<SSLEngine, List<String>, String> selector) {
+            delegate.setHandshakeApplicationProtocolSelector(selector);
+        }
+
+        @Override
+        public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+            return delegate.getHandshakeApplicationProtocolSelector();
+        }
+    }
+
+    /**
+     * Trust manager that reports the engines it checks a server certificate for. The engine passed in is the delegate
+     * engine, the one {@link ConnectionTracker#handshaking} was told about.
+     */
+    private static final class ObservedTrustManager extends X509ExtendedTrustManager {
+        private final X509TrustManager delegate;
+        private final ConnectionTracker tracker;
+
+        ObservedTrustManager(X509TrustManager delegate, ConnectionTracker tracker) {
+            this.delegate = delegate;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            tracker.certificateChecked(engine);
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkServerTrusted(chain, authType, engine);
+            } else {
+                delegate.checkServerTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkServerTrusted(chain, authType, socket);
+            } else {
+                delegate.checkServerTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkClientTrusted(chain, authType, engine);
+            } else {
+                delegate.checkClientTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkClientTrusted(chain, authType, socket);
+            } else {
+                delegate.checkClientTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.net.http.HttpRequest.BodyPublisher;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+/**
+ * Body publisher that reports how many bytes the wrapped publisher has handed to the connection.
+ */
+final class ProgressBodyPublisher implements BodyPublisher {
+    private final BodyPublisher delegate;
+    private final UploadProgress progress;
+
+    ProgressBodyPublisher(BodyPublisher delegate, UploadProgress progress) {
+        this.delegate = delegate;
+        this.progress = progress;
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        long total = delegate.contentLength();
+        delegate.subscribe(new Flow.Subscriber<>() {
+            // A publisher is subscribed again when the request is resent, e.g. after a redirect
+            private long sent;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                progress.onProgress(0, total);
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                sent += item.remaining();
+                subscriber.onNext(item);
+                progress.onProgress(sent, total);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+}
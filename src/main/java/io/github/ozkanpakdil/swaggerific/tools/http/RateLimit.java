@@ -0,0 +1,47 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * How fast requests may be sent to one host, enforced by {@link HostRateLimiter}.
+ *
+ * @param permitsPerSecond sustained requests per second, 0 for no limit
+ * @param burst            requests that may be sent at once after the host has been idle
+ */
+public record RateLimit(double permitsPerSecond, int burst) implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * No limit.
+     */
+    public static final RateLimit NONE = new RateLimit(0, 1);
+
+    public RateLimit {
+        if (!(permitsPerSecond >= 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("permitsPerSecond must be a finite number of at least 0");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+    }
+
+    /**
+     * @return a limit of {@code permitsPerSecond} with a burst of one second's worth of requests
+     */
+    public static RateLimit perSecond(double permitsPerSecond) {
+        return new RateLimit(permitsPerSecond, Math.max(1, (int) permitsPerSecond));
+    }
+
+    public boolean isLimited() {
+        return permitsPerSecond > 0;
+    }
+
+    /**
+     * @return nanoseconds between two permits at the sustained rate
+     */
+    long intervalNanos() {
+        return Math.max(1, (long) (1_000_000_000d / permitsPerSecond));
+    }
+}
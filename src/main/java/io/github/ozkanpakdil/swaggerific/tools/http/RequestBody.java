@@ -0,0 +1,227 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * A request body that is streamed instead of being held as a {@code String}: a file, a multipart form or a byte source.
+ * <p>
+ * Files are published with {@link BodyPublishers#ofFile(Path)} and read in chunks while the request is written, so a
+ * large upload never has to fit on the heap.
+ */
+public sealed interface RequestBody permits RequestBody.FileBody, RequestBody.Multipart, RequestBody.Source {
+
+    /**
+     * @return the {@code Content-Type} of the body
+     */
+    String contentType();
+
+    /**
+     * @return the body length in bytes, or -1 when it is only known once the source is read
+     */
+    long length();
+
+    /**
+     * Creates the publisher of a send. It is called once and the same publisher is used for every redirect, retry and
+     * hedged attempt, so it must read its source again each time it is subscribed to.
+     *
+     * @throws FileNotFoundException when a file of the body does not exist
+     */
+    BodyPublisher publisher() throws FileNotFoundException;
+
+    /**
+     * @return a short description for history and logs
+     */
+    String describe();
+
+    static FileBody ofFile(Path file) {
+        return new FileBody(file, null);
+    }
+
+    /**
+     * @param file        file to upload
+     * @param contentType content type, {@code null} to guess it from the file name
+     */
+    record FileBody(Path file, String contentType) implements RequestBody {
+
+        public FileBody {
+            if (contentType == null || contentType.isBlank()) {
+                contentType = guessContentType(file);
+            }
+        }
+
+        @Override
+        public long length() {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public BodyPublisher publisher() throws FileNotFoundException {
+            return BodyPublishers.ofFile(file);
+        }
+
+        @Override
+        public String describe() {
+            return "[file: " + file + "]";
+        }
+    }
+
+    /**
+     * Bytes read from an input stream that is opened each time the body is sent, including redirects and retries.
+     *
+     * @param source      opens the stream
+     * @param length      number of bytes the stream returns, -1 when unknown
+     * @param contentType content type of the bytes
+     */
+    record Source(Supplier<InputStream> source, long length, String contentType) implements RequestBody {
+
+        @Override
+        public BodyPublisher publisher() {
+            BodyPublisher publisher = BodyPublishers.ofInputStream(source);
+            return length >= 0 ? BodyPublishers.fromPublisher(publisher, length) : publisher;
+        }
+
+        @Override
+        public String describe() {
+            return length >= 0 ? "[" + length + " bytes]" : "[stream]";
+        }
+    }
+
+    /**
+     * A {@code multipart/form-data} body. File parts are streamed from disk.
+     *
+     * @param parts    form fields in order
+     * @param boundary boundary between the parts
+     */
+    record Multipart(List<Part> parts, String boundary) implements RequestBody {
+        private static final byte[] CRLF = {'\r', '\n'};
+
+        public Multipart {
+            parts = List.copyOf(parts);
+        }
+
+        public Multipart(List<Part> parts) {
+            this(parts, "swaggerific-" + UUID.randomUUID());
+        }
+
+        @Override
+        public String contentType() {
+            return "multipart/form-data; boundary=" + boundary;
+        }
+
+        @Override
+        public long length() {
+            long length = 0;
+            for (Part part : parts) {
+                long partLength = part.length();
+                if (partLength < 0) {
+                    return -1;
+                }
+                length += partHeader(part).length + partLength + 2;
+            }
+            return length + closing().length;
+        }
+
+        @Override
+        public BodyPublisher publisher() throws FileNotFoundException {
+            List<BodyPublisher> publishers = new ArrayList<>(parts.size() * 3 + 1);
+            for (Part part : parts) {
+                publishers.add(BodyPublishers.ofByteArray(partHeader(part)));
+                publishers.add(part.publisher());
+                publishers.add(BodyPublishers.ofByteArray(CRLF));
+            }
+            publishers.add(BodyPublishers.ofByteArray(closing()));
+            return BodyPublishers.concat(publishers.toArray(BodyPublisher[]::new));
+        }
+
+        @Override
+        public String describe() {
+            return "[multipart: " + String.join(", ", parts.stream().map(Part::describe).toList()) + "]";
+        }
+
+        private byte[] partHeader(Part part) {
+            StringBuilder header = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(quote(part.name())).append('"');
+            if (part.file() != null) {
+                header.append("; filename=\"").append(quote(String.valueOf(part.file().getFileName()))).append('"');
+            }
+            header.append("\r\n");
+            if (part.file() != null) {
+                header.append("Content-Type: ").append(part.contentType()).append("\r\n");
+            }
+            return header.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private byte[] closing() {
+            return ("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String quote(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", "").replace("\n", "");
+        }
+    }
+
+    /**
+     * A form field: text when {@code file} is {@code null}, otherwise a file upload.
+     *
+     * @param name        field name
+     * @param value       text value, ignored for files
+     * @param file        file to upload
+     * @param contentType content type of the file
+     */
+    record Part(String name, String value, Path file, String contentType) {
+
+        public static Part text(String name, String value) {
+            return new Part(name, value == null ? "" : value, null, null);
+        }
+
+        public static Part file(String name, Path file, String contentType) {
+            return new Part(name, null, file,
+                    contentType == null || contentType.isBlank() ? guessContentType(file) : contentType);
+        }
+
+        long length() {
+            if (file == null) {
+                return value.getBytes(StandardCharsets.UTF_8).length;
+            }
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        BodyPublisher publisher() throws FileNotFoundException {
+            return file == null ? BodyPublishers.ofString(value, StandardCharsets.UTF_8) : BodyPublishers.ofFile(file);
+        }
+
+        String describe() {
+            return file == null ? name : name + "=@" + file.getFileName();
+        }
+    }
+
+    private static String guessContentType(Path file) {
+        try {
+            String probed = Files.probeContentType(file);
+            if (probed != null) {
+                return probed;
+            }
+        } catch (IOException ignored) {
+        }
+        return "application/octet-stream";
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Shared, bounded executor used for everything that happens around an HTTP exchange: preparing requests (environment
+ * resolution, pre-request scripts), loading specs and post-processing responses.
+ * <p>
+ * The network wait itself is done by {@link java.net.http.HttpClient#sendAsync}, so a burst of sends only queues work
+ * here instead of creating one platform thread per request. The executor also keeps track of how many exchanges are in
+ * flight and how long tasks waited in the queue before a worker picked them up.
+ */
+public final class RequestExecutor {
+    private static final Logger log = LoggerFactory.getLogger(RequestExecutor.class);
+
+    private static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final RequestExecutor SHARED = new RequestExecutor("swaggerific-http", DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+
+    private final ThreadPoolExecutor executor;
+    private final Executor continuations = this::continueWith;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private volatile long lastQueueWaitNanos;
+
+    /**
+     * Snapshot of the executor state.
+     *
+     * @param inFlight        number of HTTP exchanges currently waiting for a response
+     * @param queued          number of tasks waiting for a worker thread
+     * @param activeThreads   number of worker threads currently running a task
+     * @param lastQueueWaitMs queue wait of the most recently started task
+     * @param maxQueueWaitMs  longest queue wait seen so far
+     * @param avgQueueWaitMs  average queue wait over all started tasks
+     */
+    public record Stats(int inFlight, int queued, int activeThreads, long lastQueueWaitMs, long maxQueueWaitMs,
+                        double avgQueueWaitMs) {
+    }
+
+    RequestExecutor(String name, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return the application wide executor
+     */
+    public static RequestExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs the supplier on a worker thread.
+     *
+     * @param task the work to run
+     * @return a future completed with the supplier result, or exceptionally when the queue is full
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                recordQueueWait(System.nanoTime() - enqueuedAt);
+                if (future.isDone()) {
+                    return; // cancelled while waiting in the queue
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            log.warn("Request queue is full ({} waiting), rejecting task", executor.getQueue().size());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs the task on a worker thread.
+     *
+     * @param task the work to run
+     * @return a future completed when the task finishes
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return the executor for async continuations that should not be counted as queued requests. It never rejects: a
+     * DNS lookup or rate limit wakeup that was dropped would leave its exchange waiting forever, so when the queue is
+     * full the continuation runs on the common pool instead.
+     */
+    public Executor executor() {
+        return continuations;
+    }
+
+    private void continueWith(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Request queue is full ({} waiting), continuing on the common pool", executor.getQueue().size());
+            ForkJoinPool.commonPool().execute(task);
+        }
+    }
+
+    /**
+     * Tracks an HTTP exchange as in flight until the given future completes.
+     *
+     * @param exchange the pending exchange
+     * @return the same future
+     */
+    public <T> CompletableFuture<T> track(CompletableFuture<T> exchange) {
+        inFlight.incrementAndGet();
+        exchange.whenComplete((r, e) -> inFlight.decrementAndGet());
+        return exchange;
+    }
+
+    private void recordQueueWait(long waitNanos) {
+        lastQueueWaitNanos = waitNanos;
+        dispatched.increment();
+        totalQueueWaitNanos.add(waitNanos);
+        maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        if (waitNanos > TimeUnit.MILLISECONDS.toNanos(250)) {
+            log.debug("Task waited {} ms in the request queue", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public Stats stats() {
+        long count = dispatched.sum();
+        double avgMs = count == 0 ? 0 : totalQueueWaitNanos.sum() / (double) count / 1_000_000d;
+        return new Stats(inFlight.get(), queued.get(), executor.getActiveCount(),
+                TimeUnit.NANOSECONDS.toMillis(lastQueueWaitNanos),
+                TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get()), avgMs);
+    }
+}
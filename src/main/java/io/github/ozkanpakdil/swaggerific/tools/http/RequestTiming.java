@@ -0,0 +1,190 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timing of one request, with one {@link Hop} per exchange when redirects were followed.
+ *
+ * @param hops          exchanges of the attempt that produced the response, in the order they were sent; the last one
+ *                      produced the response
+ * @param serverTimings metrics from the {@code Server-Timing} headers of the final response
+ * @param attempts      every attempt when the request was retried or hedged, empty when it was sent once
+ */
+public record RequestTiming(List<Hop> hops, List<ServerTiming> serverTimings, List<Attempt> attempts) {
+
+    public RequestTiming {
+        hops = List.copyOf(hops);
+        serverTimings = List.copyOf(serverTimings);
+        attempts = List.copyOf(attempts);
+    }
+
+    public RequestTiming(List<Hop> hops, List<ServerTiming> serverTimings) {
+        this(hops, serverTimings, List.of());
+    }
+
+    /**
+     * One attempt at sending a request that was retried or hedged. Offsets are from the start of the first attempt.
+     *
+     * @param number     attempt number, starting at 1; a hedge has the number of the attempt it races
+     * @param hedge      whether this is the second copy sent because the first was slow
+     * @param start      offset of the attempt start
+     * @param duration   time until the attempt finished, failed or was cancelled
+     * @param statusCode response status, 0 when no response was received
+     * @param outcome    what happened, e.g. {@code "retried after 180 ms"} or the error
+     * @param used       whether the response of this attempt is the one returned
+     */
+    public record Attempt(int number, boolean hedge, Duration start, Duration duration, int statusCode, String outcome,
+                          boolean used) {
+
+        public Duration end() {
+            return start.plus(duration);
+        }
+    }
+
+    /**
+     * Phases of a single exchange. Phases that did not happen, or cannot be observed, are {@link Duration#ZERO}:
+     * connect and TLS are only known for new HTTPS connections, a pooled connection skips both.
+     *
+     * @param uri            request URI
+     * @param statusCode     response status
+     * @param start          offset from the start of the first hop
+     * @param dns            host name lookup
+     * @param connect        TCP connect
+     * @param tls            TLS handshake
+     * @param waiting        from the request being sent until the response headers arrived
+     * @param download       reading the body
+     * @param newConnection  whether a new connection was opened for this exchange
+     * @param resumedSession whether the TLS handshake of the new connection resumed an earlier session instead of
+     *                       verifying the server certificate again
+     * @param warmConnection whether the exchange went over a connection opened in advance when the request tab opened,
+     *                       see {@link HttpService#prewarm}; over plain HTTP, where connections are not observed, the
+     *                       first exchange after the warm-up is assumed to use it
+     * @param protocol       HTTP version the exchange used, negotiated with the server
+     * @param bodyBytes      body bytes read from the wire
+     * @param decodedBytes   body bytes after gzip or deflate decoding, equal to {@code bodyBytes} for a plain body
+     */
+    public record Hop(URI uri, int statusCode, Duration start, Duration dns, Duration connect, Duration tls,
+                      Duration waiting, Duration download, boolean newConnection, boolean resumedSession,
+                      boolean warmConnection, HttpProtocol protocol, long bodyBytes, long decodedBytes) {
+
+        public Duration total() {
+            return dns.plus(connect).plus(tls).plus(waiting).plus(download);
+        }
+
+        public Duration end() {
+            return start.plus(total());
+        }
+    }
+
+    /**
+     * A metric from a {@code Server-Timing} header.
+     *
+     * @param name        metric name
+     * @param duration    the {@code dur} parameter, or {@code null} when absent
+     * @param description the {@code desc} parameter, or empty
+     */
+    public record ServerTiming(String name, Duration duration, String description) {
+
+        /**
+         * Parses {@code Server-Timing} header values such as {@code db;dur=53.2, app;desc="Render";dur=47}.
+         * Malformed entries are skipped.
+         */
+        public static List<ServerTiming> parse(List<String> headerValues) {
+            List<ServerTiming> result = new ArrayList<>();
+            for (String value : headerValues) {
+                for (String metric : split(value, ',')) {
+                    List<String> parts = split(metric, ';');
+                    String name = parts.isEmpty() ? "" : parts.get(0).trim();
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    Duration duration = null;
+                    String description = "";
+                    for (String param : parts.subList(1, parts.size())) {
+                        int eq = param.indexOf('=');
+                        if (eq < 0) {
+                            continue;
+                        }
+                        String key = param.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+                        String val = unquote(param.substring(eq + 1).trim());
+                        if (key.equals("dur")) {
+                            try {
+                                duration = Duration.ofNanos(Math.round(Double.parseDouble(val) * 1_000_000));
+                            } catch (NumberFormatException ignored) {
+                            }
+                        } else if (key.equals("desc")) {
+                            description = val;
+                        }
+                    }
+                    result.add(new ServerTiming(name, duration, description));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Splits on the separator, ignoring separators inside quoted strings.
+         */
+        private static List<String> split(String value, char separator) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == '\\' && quoted && i + 1 < value.length()) {
+                    current.append(c).append(value.charAt(++i));
+                    continue;
+                } else if (c == separator && !quoted) {
+                    parts.add(current.toString());
+                    current.setLength(0);
+                    continue;
+                }
+                current.append(c);
+            }
+            parts.add(current.toString());
+            return parts;
+        }
+
+        private static String unquote(String value) {
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                return value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * @return the wall time from the first hop, or the first attempt when retried, until the last body byte
+     */
+    public Duration total() {
+        return hops.isEmpty() ? Duration.ZERO : hops.get(hops.size() - 1).end();
+    }
+
+    /**
+     * @return a copy with the attempts that led to this response
+     */
+    public RequestTiming withAttempts(List<Attempt> attempts) {
+        return new RequestTiming(hops, serverTimings, attempts);
+    }
+
+    /**
+     * @return the hop that produced the response, or {@code null} when nothing was sent
+     */
+    public Hop last() {
+        return hops.isEmpty() ? null : hops.get(hops.size() - 1);
+    }
+
+    /**
+     * @return the HTTP version of the exchange that produced the response, or {@code null} when nothing was sent
+     */
+    public HttpProtocol protocol() {
+        Hop last = last();
+        return last == null ? null : last.protocol();
+    }
+}
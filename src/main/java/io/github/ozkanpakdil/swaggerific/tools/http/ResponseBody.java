@@ -0,0 +1,242 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Body of an {@link HttpResponse}, held as the bytes that were received.
+ * <p>
+ * The decoded text, the parsed JSON tree and the sniffed {@link Kind} are computed on first use and then kept, so
+ * consumers that each need the body as text or JSON share one copy instead of decoding or parsing it again. A body
+ * created from text keeps the text and encodes the bytes only when they are asked for.
+ */
+public final class ResponseBody {
+    /**
+     * Number of leading bytes looked at to tell the kind of the content.
+     */
+    static final int SNIFF_BYTES = 512;
+
+    /**
+     * What the content looks like, judged from its first bytes.
+     */
+    public enum Kind {EMPTY, JSON, XML, TEXT, BINARY}
+
+    private static final ResponseBody EMPTY = new ResponseBody(null, "", StandardCharsets.UTF_8, false);
+
+    private final Charset charset;
+    private final boolean cut;
+    private ByteBuffer bytes;
+    private String text;
+    private JsonNode json;
+    private Kind kind;
+
+    private ResponseBody(ByteBuffer bytes, String text, Charset charset, boolean cut) {
+        this.bytes = bytes;
+        this.text = text;
+        this.charset = charset;
+        this.cut = cut;
+    }
+
+    /**
+     * Wraps received bytes without copying them.
+     *
+     * @param bytes   body bytes, not modified afterwards
+     * @param charset charset the text is decoded with
+     * @param cut     whether the body was cut at a size limit; an incomplete character at the end is then dropped
+     *                instead of being decoded as U+FFFD
+     */
+    public static ResponseBody of(ByteBuffer bytes, Charset charset, boolean cut) {
+        return new ResponseBody(bytes.asReadOnlyBuffer(), null, charset, cut);
+    }
+
+    public static ResponseBody of(byte[] bytes, Charset charset) {
+        return of(ByteBuffer.wrap(bytes), charset, false);
+    }
+
+    /**
+     * @return a body holding {@code text}, or the empty body when it is {@code null}
+     */
+    public static ResponseBody ofText(String text) {
+        return text == null || text.isEmpty() ? EMPTY : new ResponseBody(null, text, StandardCharsets.UTF_8, false);
+    }
+
+    public static ResponseBody empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return a read-only view of the body bytes
+     */
+    public synchronized ByteBuffer bytes() {
+        if (bytes == null) {
+            bytes = ByteBuffer.wrap(text.getBytes(charset)).asReadOnlyBuffer();
+        }
+        return bytes.duplicate();
+    }
+
+    /**
+     * @return a copy of the body bytes
+     */
+    public byte[] toByteArray() {
+        ByteBuffer view = bytes();
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        return copy;
+    }
+
+    /**
+     * @return the body length in bytes
+     */
+    public int size() {
+        return bytes().remaining();
+    }
+
+    public synchronized boolean isEmpty() {
+        return text != null ? text.isEmpty() : size() == 0;
+    }
+
+    /**
+     * @return the body decoded with the response charset, decoded once on first use
+     */
+    public synchronized String text() {
+        if (text == null) {
+            text = decode(bytes.duplicate(), charset, cut);
+        }
+        return text;
+    }
+
+    /**
+     * @return the body parsed as JSON, parsed once on first use
+     * @throws JsonProcessingException when the body is not JSON
+     */
+    public synchronized JsonNode json() throws JsonProcessingException {
+        if (json == null) {
+            try {
+                // Jackson detects the UTF encodings itself and reads the bytes without a String in between
+                json = text == null && isUnicode(charset)
+                        ? Json.mapper().readTree(new ByteBufferInput(bytes.duplicate()))
+                        : Json.mapper().readTree(text());
+            } catch (JsonProcessingException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * @return what the content looks like, judged from its first {@value #SNIFF_BYTES} bytes
+     */
+    public synchronized Kind kind() {
+        if (kind == null) {
+            String prefix;
+            if (text != null) {
+                prefix = text.substring(0, Math.min(text.length(), SNIFF_BYTES));
+            } else {
+                ByteBuffer head = bytes.duplicate();
+                boolean partial = head.remaining() > SNIFF_BYTES;
+                head.limit(head.position() + Math.min(head.remaining(), SNIFF_BYTES));
+                prefix = decode(head, charset, partial || cut);
+            }
+            kind = sniff(prefix);
+        }
+        return kind;
+    }
+
+    static Kind sniff(String prefix) {
+        int start = 0;
+        while (start < prefix.length()
+                && (Character.isWhitespace(prefix.charAt(start)) || prefix.charAt(start) == '\uFEFF')) {
+            start++;
+        }
+        if (start == prefix.length()) {
+            return prefix.isEmpty() ? Kind.EMPTY : Kind.TEXT;
+        }
+        int suspicious = 0;
+        for (int i = start; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == 0) {
+                return Kind.BINARY;
+            }
+            if (c == '\uFFFD' || (Character.isISOControl(c) && c != '\t' && c != '\n' && c != '\r' && c != '\f')) {
+                suspicious++;
+            }
+        }
+        if (suspicious * 10 > prefix.length() - start) {
+            return Kind.BINARY;
+        }
+        char first = prefix.charAt(start);
+        if (first == '{' || first == '[') {
+            return Kind.JSON;
+        }
+        return first == '<' ? Kind.XML : Kind.TEXT;
+    }
+
+    /**
+     * Decodes bytes, dropping an incomplete character at the end when {@code cut} is set.
+     */
+    static String decode(ByteBuffer in, Charset charset, boolean cut) {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer out = CharBuffer.allocate((int) Math.ceil(in.remaining() * (double) decoder.maxCharsPerByte()) + 1);
+        decoder.decode(in, out, !cut);
+        if (!cut) {
+            decoder.flush(out);
+        }
+        out.flip();
+        return out.toString();
+    }
+
+    private static boolean isUnicode(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.name().startsWith("UTF-16")
+                || charset.name().startsWith("UTF-32");
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseBody[" + size() + " bytes, " + kind() + "]";
+    }
+
+    /**
+     * Reads a buffer as a stream without copying it.
+     */
+    private static final class ByteBufferInput extends java.io.InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,624 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import io.github.ozkanpakdil.swaggerific.ui.MainController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Client side cache for GET responses, following the HTTP caching rules of a private cache.
+ * <p>
+ * A stored response is served without a network round-trip while it is fresh according to {@code Cache-Control:
+ * max-age} or {@code Expires}. Once stale, or when the request asks for {@code no-cache}, it is revalidated with
+ * {@code If-None-Match} / {@code If-Modified-Since} and a {@code 304} refreshes the entry and returns the stored body.
+ * Responses without a lifetime or validator, {@code no-store} responses and requests with their own conditional or
+ * range headers are not cached.
+ * <p>
+ * The memory tier is an LRU bounded by entry count and total bytes. With the disk tier enabled, entries evicted from
+ * memory are written to disk and promoted back on their next use.
+ */
+public final class ResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    /**
+     * Response header marking a response served from the cache, with {@link #HIT} or {@link #REVALIDATED} as value.
+     */
+    public static final String CACHE_HEADER = "x-swaggerific-cache";
+    public static final String HIT = "hit";
+    public static final String REVALIDATED = "revalidated";
+
+    static final int DEFAULT_MAX_ENTRIES = 500;
+    static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    static final long DEFAULT_MAX_DISK_BYTES = 256L * 1024 * 1024;
+    private static final Set<Integer> CACHEABLE_STATUS = Set.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+    /**
+     * Request headers that select a different representation without being listed in {@code Vary} by every server.
+     */
+    private static final List<String> KEY_HEADERS = List.of("Authorization", "Cookie", "Accept");
+    /**
+     * Response headers that carry session tokens or credentials, never stored: a cached response must not set a cookie
+     * again, and entries may be written to disk.
+     */
+    private static final List<String> CREDENTIAL_HEADERS = List.of("Set-Cookie", "Set-Cookie2", "Authentication-Info");
+    /**
+     * Classes a disk entry is made of. The array types are checked by {@link ArrayList} and {@link HashMap} while
+     * they read themselves. The single value lists of {@link Headers} are written as {@code CollSer} and read back as
+     * the {@link List#of} classes, which are not public.
+     */
+    private static final Set<Class<?>> DISK_CLASSES = Set.of(Entry.class, Headers.class, HashMap.class,
+            ArrayList.class, String.class, byte[].class, Object[].class, Map.Entry[].class);
+    private static final Set<String> IMMUTABLE_LISTS = Set.of("java.util.CollSer",
+            "java.util.ImmutableCollections$List12", "java.util.ImmutableCollections$ListN");
+
+    private static volatile ResponseCache shared;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Path diskDir;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final AtomicLong diskBytes = new AtomicLong(-1);
+    private long bytes;
+    private volatile boolean diskEnabled;
+
+    /**
+     * Cache counters.
+     *
+     * @param hits          fresh responses served without a request
+     * @param misses        cacheable requests that went to the network and got a full response
+     * @param revalidations stale entries confirmed by a {@code 304}
+     * @param entries       entries in memory
+     * @param bytes         approximate size of the entries in memory
+     */
+    public record Stats(long hits, long misses, long revalidations, int entries, long bytes) {
+    }
+
+    /**
+     * A stored response. Header names are kept as received; the key and the request values of {@code Vary} headers
+     * are hashed and the {@link #CREDENTIAL_HEADERS} are left out, so credentials are not written to disk.
+     */
+    record Entry(String key, int statusCode, Headers headers, byte[] body, String contentType,
+                 Map<String, String> varyValues, long storedAt, long size) implements Serializable {
+
+        Entry {
+            headers = Headers.readOnlyOf(headers);
+            varyValues = new HashMap<>(varyValues);
+        }
+
+        /**
+         * @return seconds the response stays fresh after it was stored, 0 when it must always be revalidated
+         */
+        long freshnessLifetime() {
+            Map<String, String> cacheControl = cacheControl(headers.get("Cache-Control"));
+            if (cacheControl.containsKey("no-cache")) {
+                return 0;
+            }
+            long maxAge = seconds(cacheControl.get("max-age"));
+            if (maxAge >= 0) {
+                return maxAge;
+            }
+            ZonedDateTime expires = date(headers.get("Expires"));
+            if (expires == null) {
+                return 0;
+            }
+            ZonedDateTime date = date(headers.get("Date"));
+            long from = date != null ? date.toEpochSecond() : storedAt / 1000;
+            return Math.max(0, expires.toEpochSecond() - from);
+        }
+
+        /**
+         * @return the current age in seconds, including the age the response had when it was received
+         */
+        long age(long now) {
+            return Math.max(0, seconds(headers.get("Age"))) + (now - storedAt) / 1000;
+        }
+
+        boolean isFresh(long now) {
+            return age(now) < freshnessLifetime();
+        }
+
+        boolean hasValidator() {
+            return headers.get("ETag") != null || headers.get("Last-Modified") != null;
+        }
+
+        HttpResponse toResponse(String marker, RequestTiming timing, long now) {
+            Headers responseHeaders = headers.copy();
+            responseHeaders.put("Age", String.valueOf(age(now)));
+            responseHeaders.put(CACHE_HEADER, marker);
+            return new HttpResponse.Builder()
+                    .statusCode(statusCode)
+                    .headers(responseHeaders)
+                    .body(ResponseBody.of(body, BoundedBodySubscriber.charsetOf(contentType)))
+                    .contentType(contentType)
+                    .timing(timing)
+                    .build();
+        }
+    }
+
+    /**
+     * The cache state of one request.
+     */
+    public final class Lookup {
+        private final HttpRequest request;
+        private final String key;
+        private final Entry entry;
+
+        private Lookup(HttpRequest request, String key, Entry entry) {
+            this.request = request;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        /**
+         * @return the stored response when it can be used without a request, otherwise {@code null}
+         */
+        public HttpResponse fresh() {
+            long now = System.currentTimeMillis();
+            if (entry == null || requestDirectives(request).containsKey("no-cache") || !entry.isFresh(now)) {
+                return null;
+            }
+            hits.increment();
+            log.debug("Cache hit for {}", request.uri());
+            return entry.toResponse(HIT, null, now);
+        }
+
+        /**
+         * @return the request to send, with validators of a stale entry added
+         */
+        public HttpRequest request() {
+            if (entry == null || !entry.hasValidator()) {
+                return request;
+            }
+            Headers headers = request.headers().copy();
+            String etag = entry.headers().get("ETag");
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            String lastModified = entry.headers().get("Last-Modified");
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return request.withHeaders(headers);
+        }
+
+        /**
+         * Stores the response of the request, or turns a {@code 304} into the stored response.
+         *
+         * @return the response to show
+         */
+        public HttpResponse complete(HttpResponse response) {
+            long now = System.currentTimeMillis();
+            if (entry != null && entry.hasValidator() && !response.isError() && response.statusCode() == 304) {
+                revalidations.increment();
+                Headers headers = entry.headers().copy();
+                for (String name : response.headers().keySet()) {
+                    if (!name.equalsIgnoreCase("Content-Length") && !name.equalsIgnoreCase("Content-Encoding")
+                            && !isCredential(name)) {
+                        headers.remove(name);
+                        response.headers().all(name).forEach(value -> headers.add(name, value));
+                    }
+                }
+                Entry refreshed = new Entry(key, entry.statusCode(), headers, entry.body(), entry.contentType(),
+                        entry.varyValues(), now, entry.size());
+                put(refreshed);
+                log.debug("Cache revalidated {}", request.uri());
+                return refreshed.toResponse(REVALIDATED, response.timing(), now);
+            }
+            if (response.isError()) {
+                return response;
+            }
+            misses.increment();
+            Entry stored = toEntry(key, request, response, now);
+            if (stored != null) {
+                put(stored);
+            } else if (entry != null) {
+                remove(key);
+            }
+            return response;
+        }
+    }
+
+    /**
+     * @param maxEntries   maximum entries in memory
+     * @param maxBytes     maximum total body size in memory
+     * @param diskDir      directory of the disk tier, {@code null} for memory only
+     * @param maxDiskBytes maximum total size of the disk tier
+     */
+    public ResponseCache(int maxEntries, long maxBytes, Path diskDir, long maxDiskBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.diskDir = diskDir;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    /**
+     * @return the application wide cache, with its disk tier under the settings directory
+     */
+    public static ResponseCache shared() {
+        ResponseCache cache = shared;
+        if (cache == null) {
+            synchronized (ResponseCache.class) {
+                if (shared == null) {
+                    shared = new ResponseCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES,
+                            Paths.get(MainController.APP_SETTINGS_HOME, "cache"), DEFAULT_MAX_DISK_BYTES);
+                }
+                cache = shared;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Turns the disk tier on or off. Entries already on disk are kept.
+     */
+    public void setDiskEnabled(boolean diskEnabled) {
+        this.diskEnabled = diskEnabled && diskDir != null;
+    }
+
+    /**
+     * @return the cache state of the request, or {@code null} when the request bypasses the cache
+     */
+    public Lookup lookup(HttpRequest request) {
+        if (!"GET".equalsIgnoreCase(request.method()) || request.hasBody()) {
+            return null;
+        }
+        Headers headers = request.headers();
+        if (headers.get("If-None-Match") != null || headers.get("If-Modified-Since") != null
+                || headers.get("Range") != null || requestDirectives(request).containsKey("no-store")) {
+            return null;
+        }
+        String key = key(request);
+        Entry entry = get(key);
+        if (entry != null && !varyMatches(entry, request)) {
+            entry = null;
+        }
+        return new Lookup(request, key, entry);
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.sum(), misses.sum(), revalidations.sum(), entries.size(), bytes);
+        }
+    }
+
+    /**
+     * Removes all entries from memory and disk. Counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+        if (diskDir != null && Files.isDirectory(diskDir)) {
+            try (Stream<Path> files = Files.list(diskDir)) {
+                files.forEach(ResponseCache::deleteQuietly);
+            } catch (IOException e) {
+                log.warn("Could not clear response cache in {}: {}", diskDir, e.getMessage());
+            }
+            diskBytes.set(-1);
+        }
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null || !diskEnabled) {
+                return entry;
+            }
+        }
+        Entry entry = readDisk(key);
+        if (entry != null) {
+            put(entry);
+        }
+        return entry;
+    }
+
+    private void put(Entry entry) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (entries) {
+            Entry previous = entries.put(entry.key(), entry);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += entry.size();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                Entry e = eldest.next();
+                eldest.remove();
+                bytes -= e.size();
+                evicted.add(e);
+            }
+        }
+        if (diskEnabled) {
+            evicted.forEach(this::writeDisk);
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                bytes -= removed.size();
+            }
+        }
+        if (diskDir != null) {
+            deleteQuietly(diskFile(key));
+        }
+    }
+
+    private Entry toEntry(String key, HttpRequest request, HttpResponse response, long now) {
+        if (response.isError() || response.truncated() || response.bodyFile() != null
+                || !CACHEABLE_STATUS.contains(response.statusCode())) {
+            return null;
+        }
+        Map<String, String> cacheControl = cacheControl(response.headers().get("Cache-Control"));
+        if (cacheControl.containsKey("no-store")) {
+            return null;
+        }
+        String vary = response.headers().get("Vary");
+        Map<String, String> varyValues = new HashMap<>();
+        if (vary != null) {
+            for (String name : vary.split(",")) {
+                name = name.trim();
+                if (name.equals("*")) {
+                    return null;
+                }
+                if (!name.isEmpty()) {
+                    varyValues.put(name.toLowerCase(Locale.ROOT), sha256(String.valueOf(request.headers().get(name))));
+                }
+            }
+        }
+        long size = response.content().size();
+        if (size > maxBytes) {
+            return null;
+        }
+        Headers headers = response.headers().copy();
+        headers.remove(CACHE_HEADER);
+        CREDENTIAL_HEADERS.forEach(headers::remove);
+        Entry entry = new Entry(key, response.statusCode(), headers, response.content().toByteArray(),
+                response.contentType(),
+                varyValues, now, size);
+        if (entry.freshnessLifetime() == 0 && !entry.hasValidator()) {
+            return null;
+        }
+        return entry;
+    }
+
+    private static boolean isCredential(String name) {
+        return CREDENTIAL_HEADERS.stream().anyMatch(name::equalsIgnoreCase);
+    }
+
+    private static boolean varyMatches(Entry entry, HttpRequest request) {
+        for (Map.Entry<String, String> vary : entry.varyValues().entrySet()) {
+            if (!vary.getValue().equals(sha256(String.valueOf(request.headers().get(vary.getKey()))))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a hash of the URI and the {@link #KEY_HEADERS}, which may hold credentials
+     */
+    private static String key(HttpRequest request) {
+        StringBuilder key = new StringBuilder(request.uri().toString());
+        for (String name : KEY_HEADERS) {
+            String value = request.headers().get(name);
+            if (value != null) {
+                key.append('\n').append(name).append(": ").append(value);
+            }
+        }
+        return sha256(key.toString());
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path diskFile(String key) {
+        return diskDir.resolve(key + ".bin");
+    }
+
+    /**
+     * Rejects every class a cache entry is not made of, so a planted file cannot run code while it is read.
+     */
+    private static ObjectInputFilter.Status diskFilter(ObjectInputFilter.FilterInfo info) {
+        Class<?> type = info.serialClass();
+        if (type == null) {
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        return DISK_CLASSES.contains(type) || IMMUTABLE_LISTS.contains(type.getName())
+                ? ObjectInputFilter.Status.ALLOWED : ObjectInputFilter.Status.REJECTED;
+    }
+
+    private Entry readDisk(String key) {
+        Path file = diskFile(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file);
+             ObjectInputStream ois = new ObjectInputStream(in)) {
+            ois.setObjectInputFilter(ResponseCache::diskFilter);
+            Entry entry = (Entry) ois.readObject();
+            deleteFromDisk(file);
+            return key.equals(entry.key()) ? entry : null;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.debug("Dropping unreadable cache file {}: {}", file, e.getMessage());
+            deleteFromDisk(file);
+            return null;
+        }
+    }
+
+    private void writeDisk(Entry entry) {
+        Path file = diskFile(entry.key());
+        try {
+            Files.createDirectories(diskDir);
+            try (OutputStream out = Files.newOutputStream(file);
+                 ObjectOutputStream oos = new ObjectOutputStream(out)) {
+                oos.writeObject(entry);
+            }
+            if (diskSize() >= 0) {
+                diskBytes.addAndGet(Files.size(file));
+            }
+            trimDisk();
+        } catch (IOException e) {
+            log.warn("Could not write cache entry to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void deleteFromDisk(Path file) {
+        try {
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file) && diskBytes.get() >= 0) {
+                diskBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            log.debug("Could not delete cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * @return total size of the disk tier, scanned once and then tracked
+     */
+    private long diskSize() throws IOException {
+        long size = diskBytes.get();
+        if (size >= 0) {
+            return size;
+        }
+        try (Stream<Path> files = Files.list(diskDir)) {
+            size = files.mapToLong(ResponseCache::sizeQuietly).sum();
+        }
+        diskBytes.set(size);
+        return size;
+    }
+
+    /**
+     * Deletes the least recently written files until the disk tier fits its limit.
+     */
+    private void trimDisk() throws IOException {
+        if (diskSize() <= maxDiskBytes) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> list = Files.list(diskDir)) {
+            files = list.sorted(Comparator.comparingLong(ResponseCache::modifiedQuietly)).toList();
+        }
+        for (Path file : files) {
+            if (diskBytes.get() <= maxDiskBytes) {
+                break;
+            }
+            deleteFromDisk(file);
+        }
+    }
+
+    private static long sizeQuietly(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long modifiedQuietly(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, String> requestDirectives(HttpRequest request) {
+        Map<String, String> directives = cacheControl(request.headers().get("Cache-Control"));
+        String pragma = request.headers().get("Pragma");
+        if (pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache")) {
+            directives.putIfAbsent("no-cache", "");
+        }
+        return directives;
+    }
+
+    /**
+     * @return the directives of a {@code Cache-Control} value, names in lower case
+     */
+    static Map<String, String> cacheControl(String value) {
+        Map<String, String> directives = new TreeMap<>();
+        if (value == null) {
+            return directives;
+        }
+        for (String directive : value.split(",")) {
+            String[] parts = directive.trim().split("=", 2);
+            if (!parts[0].isEmpty()) {
+                directives.put(parts[0].trim().toLowerCase(Locale.ROOT),
+                        parts.length > 1 ? parts[1].trim().replace("\"", "") : "");
+            }
+        }
+        return directives;
+    }
+
+    private static long seconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ZonedDateTime date(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When and how often a request is sent again after a failed attempt, and whether a slow attempt is hedged.
+ * <p>
+ * Only idempotent methods are retried or hedged, unless the request carries an {@code Idempotency-Key} header or
+ * {@link #retryNonIdempotent} is set: sending a POST twice may create two resources. The wait before a retry grows
+ * exponentially with full jitter, so many clients retrying at once spread out instead of hitting the server together.
+ *
+ * @param maxAttempts           attempts in total, 1 to send only once
+ * @param initialBackoff        upper bound of the wait before the first retry
+ * @param maxBackoff            upper bound of any wait; a {@code Retry-After} asking for longer ends the retries
+ * @param retryStatuses         response statuses that are retried
+ * @param retryConnectionErrors whether attempts that got no response (refused, reset, timed out) are retried
+ * @param respectRetryAfter     whether the {@code Retry-After} header of a 429 or 503 replaces the computed backoff
+ * @param retryNonIdempotent    whether POST and PATCH are retried without an {@code Idempotency-Key}
+ * @param hedge                 whether a second attempt is sent when the first has not finished within the p95
+ *                              latency of the host
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, Set<Integer> retryStatuses,
+                          boolean retryConnectionErrors, boolean respectRetryAfter, boolean retryNonIdempotent,
+                          boolean hedge) implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Statuses that usually mean the server or a gateway in front of it may answer a moment later.
+     */
+    public static final Set<Integer> DEFAULT_STATUSES = Set.of(408, 425, 429, 500, 502, 503, 504);
+
+    /**
+     * Sends once, never hedges.
+     */
+    public static final RetryPolicy NONE = builder().build();
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        Objects.requireNonNull(initialBackoff, "initialBackoff");
+        Objects.requireNonNull(maxBackoff, "maxBackoff");
+        retryStatuses = Set.copyOf(retryStatuses);
+    }
+
+    /**
+     * @return whether this policy ever sends a request more than once
+     */
+    public boolean sendsAgain() {
+        return maxAttempts > 1 || hedge;
+    }
+
+    /**
+     * @return whether sending the request more than once is safe
+     */
+    public boolean allowsRepeat(String method, Map<String, String> headers) {
+        return retryNonIdempotent || IDEMPOTENT_METHODS.contains(method)
+                || (headers != null && headers.containsKey("Idempotency-Key"));
+    }
+
+    /**
+     * @return the wait before the given retry, between zero and the exponential bound for it
+     */
+    public Duration backoff(int retry) {
+        long bound = initialBackoff.toNanos();
+        for (int i = 1; i < retry && bound < maxBackoff.toNanos(); i++) {
+            bound *= 2;
+        }
+        bound = Math.min(bound, maxBackoff.toNanos());
+        return bound <= 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    /**
+     * Parses a {@code Retry-After} value, either seconds or an HTTP date.
+     *
+     * @return the wait asked for, or {@code null} when the value is missing or malformed
+     */
+    public static Duration retryAfter(String value, Instant now) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? null : Duration.ofSeconds(seconds);
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            Instant at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return at.isAfter(now) ? Duration.between(now, at) : Duration.ZERO;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder holding the values of this policy
+     */
+    public Builder toBuilder() {
+        return new Builder().maxAttempts(maxAttempts).initialBackoff(initialBackoff).maxBackoff(maxBackoff)
+                .retryStatuses(retryStatuses).retryConnectionErrors(retryConnectionErrors)
+                .respectRetryAfter(respectRetryAfter).retryNonIdempotent(retryNonIdempotent).hedge(hedge);
+    }
+
+    public static final class Builder {
+        private int maxAttempts = 1;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private Set<Integer> retryStatuses = DEFAULT_STATUSES;
+        private boolean retryConnectionErrors = true;
+        private boolean respectRetryAfter = true;
+        private boolean retryNonIdempotent;
+        private boolean hedge;
+
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        public Builder retryStatuses(Set<Integer> retryStatuses) {
+            this.retryStatuses = retryStatuses;
+            return this;
+        }
+
+        public Builder retryConnectionErrors(boolean retryConnectionErrors) {
+            this.retryConnectionErrors = retryConnectionErrors;
+            return this;
+        }
+
+        public Builder respectRetryAfter(boolean respectRetryAfter) {
+            this.respectRetryAfter = respectRetryAfter;
+            return this;
+        }
+
+        public Builder retryNonIdempotent(boolean retryNonIdempotent) {
+            this.retryNonIdempotent = retryNonIdempotent;
+            return this;
+        }
+
+        public Builder hedge(boolean hedge) {
+            this.hedge = hedge;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, retryStatuses, retryConnectionErrors,
+                    respectRetryAfter, retryNonIdempotent, hedge);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Sends a request with a {@link TimedExchange} per attempt, retrying and hedging as the {@link RetryPolicy} says.
+ * <p>
+ * Attempts are sent in rounds. A round starts one attempt and, when hedging, a second one once the first has taken
+ * longer than the p95 latency of the origin; the first response wins and the other attempt is cancelled. A round whose
+ * response status or error is retryable is followed by another round after the backoff. Every attempt is recorded in
+ * {@link RequestTiming#attempts()} of the result.
+ * <p>
+ * Every attempt, hedges and retries included, takes a permit from the rate limiter before it is sent.
+ */
+final class RetryingExchange {
+    private static final Logger log = LoggerFactory.getLogger(RetryingExchange.class);
+
+    private final RetryPolicy policy;
+    private final int maxAttempts;
+    private final boolean hedge;
+    private final LongFunction<TimedExchange> exchanges;
+    private final Supplier<CompletableFuture<Void>> permits;
+    private final HttpRequest request;
+    private final LatencyTracker latencies;
+    private final Executor executor;
+    private final long startedAt = System.nanoTime();
+    private final CompletableFuture<TimedExchange.Result> result = new CompletableFuture<>();
+    private final List<RequestTiming.Attempt> attempts = new ArrayList<>();
+    private final List<TimedExchange> running = new ArrayList<>();
+    private final List<CompletableFuture<Void>> waiting = new ArrayList<>();
+    private boolean cancelled;
+
+    /**
+     * @param maxAttempts attempts in total, the policy's unless the request must not be sent twice
+     * @param hedge       whether slow attempts are hedged
+     * @param exchanges   creates the exchange of an attempt, measuring from the given {@link System#nanoTime()}
+     * @param permits     completes when the next attempt may be sent
+     */
+    RetryingExchange(RetryPolicy policy, int maxAttempts, boolean hedge, LongFunction<TimedExchange> exchanges,
+                     Supplier<CompletableFuture<Void>> permits, HttpRequest request, LatencyTracker latencies,
+                     Executor executor) {
+        this.policy = policy;
+        this.maxAttempts = maxAttempts;
+        this.hedge = hedge;
+        this.exchanges = exchanges;
+        this.permits = permits;
+        this.request = request;
+        this.latencies = latencies;
+        this.executor = executor;
+    }
+
+    CompletableFuture<TimedExchange.Result> send() {
+        round(1);
+        return result;
+    }
+
+    /**
+     * Cancels the attempts in progress and any retry still waiting for its backoff or a permit.
+     */
+    void cancel() {
+        List<TimedExchange> pending;
+        List<CompletableFuture<Void>> queued;
+        synchronized (this) {
+            cancelled = true;
+            pending = new ArrayList<>(running);
+            queued = new ArrayList<>(waiting);
+            running.clear();
+            waiting.clear();
+        }
+        queued.forEach(permit -> permit.cancel(true));
+        pending.forEach(TimedExchange::cancel);
+        result.cancel(true);
+    }
+
+    private synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void round(int number) {
+        if (isCancelled()) {
+            return;
+        }
+        new Round(number).start(false);
+    }
+
+    /**
+     * The attempt of one round and its hedge, if one was sent.
+     */
+    private final class Round {
+        private final int number;
+        private final Map<TimedExchange, long[]> pending = new LinkedHashMap<>();
+        private int started;
+        private int failed;
+        private boolean decided;
+
+        Round(int number) {
+            this.number = number;
+        }
+
+        /**
+         * Sends an attempt once it has a permit. The hedge timer of the round starts when the first attempt is sent,
+         * time spent waiting for the rate limit does not make it slow.
+         */
+        void start(boolean isHedge) {
+            CompletableFuture<Void> permit = permits.get();
+            if (permit.isDone()) {
+                send(isHedge);
+                return;
+            }
+            synchronized (RetryingExchange.this) {
+                if (cancelled) {
+                    permit.cancel(true);
+                    return;
+                }
+                waiting.add(permit);
+            }
+            permit.thenRun(() -> {
+                synchronized (RetryingExchange.this) {
+                    waiting.remove(permit);
+                }
+                send(isHedge);
+            });
+        }
+
+        private void send(boolean isHedge) {
+            long attemptStart = System.nanoTime();
+            TimedExchange exchange = null;
+            try {
+                exchange = exchanges.apply(startedAt);
+                synchronized (this) {
+                    if (decided) {
+                        return; // a hedge whose permit came after the first attempt answered
+                    }
+                    started++;
+                    pending.put(exchange, new long[]{attemptStart, isHedge ? 1 : 0});
+                }
+                synchronized (RetryingExchange.this) {
+                    if (cancelled) {
+                        return;
+                    }
+                    running.add(exchange);
+                }
+                if (isHedge) {
+                    log.info("No response from {} within its p95 latency, sending a hedged attempt", request.uri());
+                }
+                TimedExchange sent = exchange;
+                exchange.send(request).whenComplete((r, e) -> finished(sent, isHedge, attemptStart, r, e));
+            } catch (Throwable e) {
+                // Also runs from a permit continuation, which would swallow it and leave the result open
+                finished(exchange, isHedge, attemptStart, null, e);
+                return;
+            }
+            Duration hedgeAfter = hedge && !isHedge ? latencies.p95(request.uri()) : null;
+            if (hedgeAfter != null) {
+                CompletableFuture.delayedExecutor(hedgeAfter.toNanos(), TimeUnit.NANOSECONDS, executor)
+                        .execute(this::hedgeIfPending);
+            }
+        }
+
+        synchronized void hedgeIfPending() {
+            if (!decided && started == 1 && failed == 0 && !isCancelled()) {
+                start(true);
+            }
+        }
+
+        private void finished(TimedExchange exchange, boolean isHedge, long attemptStart, TimedExchange.Result r,
+                              Throwable e) {
+            synchronized (RetryingExchange.this) {
+                running.remove(exchange);
+            }
+            long end = System.nanoTime();
+            List<TimedExchange> losers = new ArrayList<>();
+            synchronized (this) {
+                if (decided) {
+                    discard(r);
+                    return; // recorded as cancelled when the other attempt won
+                }
+                pending.remove(exchange);
+                if (e != null && !isCancelled() && ++failed < started) {
+                    record(isHedge, attemptStart, end, 0, describe(e) + ", waiting for the other attempt", false);
+                    return;
+                }
+                decided = true;
+                pending.forEach((other, info) -> {
+                    record(info[1] == 1, info[0], end, 0, "cancelled, the other attempt answered first", false);
+                    losers.add(other);
+                });
+                pending.clear();
+            }
+            losers.forEach(TimedExchange::cancel);
+            if (r != null) {
+                latencies.record(request.uri(), Duration.ofNanos(end - attemptStart));
+                onResponse(isHedge, attemptStart, end, r);
+            } else {
+                onError(isHedge, attemptStart, end, e);
+            }
+        }
+
+        private void onResponse(boolean isHedge, long attemptStart, long end, TimedExchange.Result r) {
+            int status = r.response().statusCode();
+            Duration wait = retryWait(r.response());
+            if (wait == null || isCancelled()) {
+                record(isHedge, attemptStart, end, status, "used", true);
+                complete(r);
+                return;
+            }
+            record(isHedge, attemptStart, end, status, "retried after " + wait.toMillis() + " ms", false);
+            discard(r);
+            log.info("{} answered {}, attempt {} of {} in {} ms", request.uri(), status, number + 1, maxAttempts,
+                    wait.toMillis());
+            retryAfter(wait);
+        }
+
+        private void onError(boolean isHedge, long attemptStart, long end, Throwable e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof CancellationException || isCancelled()) {
+                record(isHedge, attemptStart, end, 0, "cancelled", false);
+                result.cancel(true);
+                return;
+            }
+            if (number < maxAttempts && policy.retryConnectionErrors() && cause instanceof IOException) {
+                Duration wait = policy.backoff(number);
+                record(isHedge, attemptStart, end, 0, describe(cause) + ", retried after " + wait.toMillis() + " ms",
+                        false);
+                log.info("{} failed with {}, attempt {} of {} in {} ms", request.uri(), describe(cause), number + 1,
+                        maxAttempts, wait.toMillis());
+                retryAfter(wait);
+                return;
+            }
+            record(isHedge, attemptStart, end, 0, describe(cause), false);
+            result.completeExceptionally(cause);
+        }
+
+        private void retryAfter(Duration wait) {
+            CompletableFuture.delayedExecutor(wait.toNanos(), TimeUnit.NANOSECONDS, executor)
+                    .execute(() -> round(number + 1));
+        }
+
+        /**
+         * @return the wait before the next round, or {@code null} when the response is final
+         */
+        private Duration retryWait(java.net.http.HttpResponse<BoundedBodySubscriber.Body> response) {
+            int status = response.statusCode();
+            if (number >= maxAttempts || !policy.retryStatuses().contains(status)) {
+                return null;
+            }
+            Duration wait = policy.backoff(number);
+            if (policy.respectRetryAfter() && (status == 429 || status == 503)) {
+                Duration asked = RetryPolicy.retryAfter(response.headers().firstValue("Retry-After").orElse(null),
+                        Instant.now());
+                if (asked != null && asked.compareTo(policy.maxBackoff()) > 0) {
+                    log.info("{} asks to retry after {} s, longer than the max backoff; not retrying", request.uri(),
+                            asked.toSeconds());
+                    return null;
+                }
+                if (asked != null) {
+                    wait = asked;
+                }
+            }
+            return wait;
+        }
+
+        private void record(boolean isHedge, long attemptStart, long end, int status, String outcome, boolean used) {
+            synchronized (RetryingExchange.this) {
+                attempts.add(new RequestTiming.Attempt(number, isHedge, Duration.ofNanos(attemptStart - startedAt),
+                        Duration.ofNanos(end - attemptStart), status, outcome, used));
+            }
+        }
+    }
+
+    private void complete(TimedExchange.Result r) {
+        List<RequestTiming.Attempt> all;
+        synchronized (this) {
+            all = new ArrayList<>(attempts);
+        }
+        if (all.size() < 2) {
+            result.complete(r);
+            return;
+        }
+        all.sort(Comparator.comparing(RequestTiming.Attempt::start));
+        result.complete(new TimedExchange.Result(r.response(), r.timing().withAttempts(all)));
+    }
+
+    /**
+     * Deletes the spill file of a response that is not returned.
+     */
+    private static void discard(TimedExchange.Result r) {
+        if (r == null || r.response().body() == null || r.response().body().file() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(r.response().body().file());
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", r.response().body().file(), e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static String describe(Throwable e) {
+        Throwable cause = unwrap(e);
+        return cause.getMessage() == null ? cause.getClass().getSimpleName()
+                : cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+}
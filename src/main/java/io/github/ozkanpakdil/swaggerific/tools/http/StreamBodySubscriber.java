@@ -0,0 +1,272 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.io.IOException;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Body subscriber for responses that never finish on their own: {@code text/event-stream} and newline-delimited JSON.
+ * <p>
+ * The body is split into lines as it arrives and every complete event is passed to a {@link StreamListener} right
+ * away, instead of after the server closes the stream. The first {@code maxBytes} of the body are also kept, so the
+ * response shows what was received once the server ends the stream; later bytes are only passed on, so a stream that
+ * runs for hours does not grow the heap. A single line longer than {@code maxBytes} is cut. When the stream is
+ * cancelled or fails the kept bytes are dropped and the body completes exceptionally, what was received up to then is
+ * in the events the listener already got.
+ * <p>
+ * A {@code gzip} or {@code deflate} body is decoded while it streams in, as in {@link BoundedBodySubscriber}.
+ */
+final class StreamBodySubscriber implements BodySubscriber<BoundedBodySubscriber.Body> {
+
+    /**
+     * How the lines of a stream make up events.
+     */
+    enum Format {
+        /**
+         * Server-sent events: {@code field: value} lines, an empty line ends an event.
+         */
+        SSE,
+        /**
+         * One JSON value per line.
+         */
+        NDJSON
+    }
+
+    /**
+     * Cap used when the settings have no response size limit; a stream has no end to wait for.
+     */
+    static final long UNLIMITED_CAP = 16 * 1024 * 1024;
+
+    private final Format format;
+    private final StreamListener listener;
+    private final int maxBytes;
+    private final Charset charset;
+    private final ContentDecoder decoder;
+    private final CompletableFuture<BoundedBodySubscriber.Body> result = new CompletableFuture<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private Flow.Subscription subscription;
+    private byte[] kept = new byte[8192];
+    private int keptSize;
+    private boolean truncated;
+    private byte[] line = new byte[256];
+    private int lineSize;
+    private long received;
+    private long decoded;
+    private long events;
+    private final StringBuilder data = new StringBuilder();
+    private boolean hasData;
+    private String type;
+    private String lastId;
+
+    /**
+     * @param maxBytes        bytes of the body kept for the response, {@code 0} or less for {@link #UNLIMITED_CAP}
+     * @param contentEncoding value of the {@code Content-Encoding} header; unsupported codings are read as received
+     */
+    StreamBodySubscriber(Format format, StreamListener listener, long maxBytes, Charset charset,
+                         String contentEncoding) {
+        this.format = format;
+        this.listener = listener;
+        this.maxBytes = (int) Math.min(maxBytes > 0 ? maxBytes : UNLIMITED_CAP, Integer.MAX_VALUE - 8);
+        this.charset = charset;
+        this.decoder = ContentDecoder.forEncoding(contentEncoding);
+    }
+
+    /**
+     * @param listener  receives the events of streamed responses
+     * @param maxBytes  bytes of a streamed body kept for the response
+     * @param otherwise handler for responses that are not streams
+     * @return a handler that streams {@code text/event-stream} and NDJSON responses to {@code listener}
+     */
+    static BodyHandler<BoundedBodySubscriber.Body> handler(StreamListener listener, long maxBytes,
+                                                           BodyHandler<BoundedBodySubscriber.Body> otherwise) {
+        return info -> {
+            String contentType = info.headers().firstValue("Content-Type").orElse("");
+            Format format = formatOf(contentType);
+            if (format == null) {
+                return otherwise.apply(info);
+            }
+            listener.onOpen(info.statusCode(), contentType);
+            return new StreamBodySubscriber(format, listener, maxBytes, BoundedBodySubscriber.charsetOf(contentType),
+                    info.headers().firstValue("Content-Encoding").orElse(null));
+        };
+    }
+
+    /**
+     * @return the stream format of a {@code Content-Type}, or {@code null} when it is not a stream
+     */
+    static Format formatOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return switch (mediaType) {
+            case "text/event-stream" -> Format.SSE;
+            case "application/x-ndjson", "application/ndjson", "application/jsonl", "application/x-jsonlines",
+                 "application/stream+json" -> Format.NDJSON;
+            default -> null;
+        };
+    }
+
+    @Override
+    public CompletionStage<BoundedBodySubscriber.Body> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer item : items) {
+                received += item.remaining();
+                if (decoder == null) {
+                    write(item);
+                } else {
+                    decoder.decode(item, this::write);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            subscription.cancel();
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            if (decoder != null) {
+                decoder.finish();
+            }
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        // A last NDJSON line may end without a newline; an unfinished server-sent event is dropped, as browsers do
+        if (lineSize > 0) {
+            line();
+        }
+        result.complete(new BoundedBodySubscriber.Body(
+                ResponseBody.of(ByteBuffer.wrap(kept, 0, keptSize), charset, truncated), received, decoded, truncated,
+                null, decoder == null ? null : decoder.encoding()));
+        kept = null;
+    }
+
+    private boolean write(ByteBuffer bytes) {
+        int remaining = bytes.remaining();
+        decoded += remaining;
+        keep(bytes.duplicate());
+        while (bytes.hasRemaining()) {
+            byte b = bytes.get();
+            if (b == '\n') {
+                line();
+            } else if (lineSize < maxBytes) {
+                if (lineSize == line.length) {
+                    line = Arrays.copyOf(line, (int) Math.min((long) line.length * 2, maxBytes));
+                }
+                line[lineSize++] = b;
+            }
+        }
+        return true;
+    }
+
+    private void keep(ByteBuffer bytes) {
+        if (truncated) {
+            return;
+        }
+        int keep = Math.min(bytes.remaining(), maxBytes - keptSize);
+        if (keptSize + keep > kept.length) {
+            kept = Arrays.copyOf(kept, (int) Math.min(Math.max(keptSize + keep, (long) kept.length * 2), maxBytes));
+        }
+        bytes.get(kept, keptSize, keep);
+        keptSize += keep;
+        truncated = bytes.hasRemaining();
+    }
+
+    /**
+     * Handles the line collected so far, without its line break.
+     */
+    private void line() {
+        int length = lineSize > 0 && line[lineSize - 1] == '\r' ? lineSize - 1 : lineSize;
+        String text = new String(line, 0, length, charset);
+        lineSize = 0;
+        if (format == Format.NDJSON) {
+            if (!text.isBlank()) {
+                emit(null, text);
+            }
+            return;
+        }
+        if (text.isEmpty()) {
+            if (hasData) {
+                emit(type, data.toString());
+            }
+            data.setLength(0);
+            hasData = false;
+            type = null;
+            return;
+        }
+        if (text.startsWith(":")) {
+            return; // comment, often sent as a keep-alive
+        }
+        int colon = text.indexOf(':');
+        String field = colon < 0 ? text : text.substring(0, colon);
+        String value = colon < 0 ? "" : text.substring(text.startsWith(" ", colon + 1) ? colon + 2 : colon + 1);
+        switch (field) {
+            case "data" -> {
+                if (hasData) {
+                    data.append('\n');
+                }
+                data.append(value);
+                hasData = true;
+            }
+            case "event" -> type = value.isEmpty() ? null : value;
+            case "id" -> {
+                if (value.indexOf('\0') < 0) {
+                    lastId = value;
+                }
+            }
+            default -> {
+                // "retry" only matters to a client that reconnects by itself; unknown fields are ignored
+            }
+        }
+    }
+
+    private void emit(String eventType, String eventData) {
+        listener.onEvent(new StreamEvent(Instant.now(), events++, eventType, lastId, eventData));
+    }
+
+    private void fail(Throwable error) {
+        if (decoder != null) {
+            decoder.end();
+        }
+        result.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import java.time.Instant;
+
+/**
+ * One event of a streamed response: a server-sent event, or one line of a newline-delimited JSON stream.
+ *
+ * @param at    when the event was received
+ * @param index position of the event in the stream, from 0
+ * @param type  the {@code event} field of a server-sent event, {@code null} for the default type and for NDJSON
+ * @param id    the last event id of a server-sent event stream, {@code null} when the server sent none
+ * @param data  the data of the event, its lines joined with {@code \n}, or the JSON line
+ */
+public record StreamEvent(Instant at, long index, String type, String id, String data) {
+}
@@ -0,0 +1,19 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+/**
+ * Receives the events of a {@code text/event-stream} or NDJSON response while it streams in. Called from HTTP client
+ * threads, one event at a time, in the order of the stream.
+ */
+public interface StreamListener {
+
+    /**
+     * Called once the response headers arrived and the body is read as a stream, before the first event.
+     *
+     * @param statusCode  the response status
+     * @param contentType the {@code Content-Type} of the response
+     */
+    default void onOpen(int statusCode, String contentType) {
+    }
+
+    void onEvent(StreamEvent event);
+}
@@ -0,0 +1,244 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * Sends a request and measures each phase of every exchange.
+ * <p>
+ * Redirects are followed here instead of by the client so every hop gets its own timing. The rules match
+ * {@link HttpClient.Redirect#NORMAL}: at most {@link #MAX_REDIRECTS} hops, never from HTTPS to HTTP, and 303 (or
+ * 301/302 after a POST) continues as GET without a body.
+ */
+final class TimedExchange {
+    private static final Logger log = LoggerFactory.getLogger(TimedExchange.class);
+
+    static final int MAX_REDIRECTS = 5;
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9.]+|\\[?[0-9a-fA-F:]+]?");
+
+    /**
+     * Final response and the timing of all hops that led to it.
+     */
+    record Result(java.net.http.HttpResponse<BoundedBodySubscriber.Body> response, RequestTiming timing) {
+    }
+
+    private final HttpClient client;
+    private final ConnectionTracker connections;
+    private final BodyHandler<BoundedBodySubscriber.Body> handler;
+    private final boolean followRedirects;
+    private final Executor executor;
+    private final long startedAt;
+    private final List<RequestTiming.Hop> hops = new ArrayList<>();
+    private CompletableFuture<?> current;
+    private boolean cancelled;
+
+    TimedExchange(HttpClient client, ConnectionTracker connections, BodyHandler<BoundedBodySubscriber.Body> handler,
+                  boolean followRedirects, Executor executor) {
+        this(client, connections, handler, followRedirects, executor, System.nanoTime());
+    }
+
+    /**
+     * @param startedAt {@link System#nanoTime()} the hop offsets are measured from, the start of the first attempt when
+     *                  the request is retried
+     */
+    TimedExchange(HttpClient client, ConnectionTracker connections, BodyHandler<BoundedBodySubscriber.Body> handler,
+                  boolean followRedirects, Executor executor, long startedAt) {
+        this.startedAt = startedAt;
+        this.client = client;
+        this.connections = connections;
+        this.handler = handler;
+        this.followRedirects = followRedirects;
+        this.executor = executor;
+    }
+
+    CompletableFuture<Result> send(HttpRequest request) {
+        return sendHop(request, 0);
+    }
+
+    /**
+     * Aborts the hop in progress and stops following redirects. The client closes the stream of an aborted exchange,
+     * so its connection is not left busy reading a body nobody waits for.
+     */
+    void cancel() {
+        CompletableFuture<?> hop;
+        synchronized (this) {
+            cancelled = true;
+            hop = current;
+        }
+        if (hop != null) {
+            hop.cancel(true);
+        }
+    }
+
+    /**
+     * Remembers the future of the hop in progress so {@link #cancel()} can abort it.
+     */
+    private <T> CompletableFuture<T> started(CompletableFuture<T> hop) {
+        synchronized (this) {
+            if (!cancelled) {
+                current = hop;
+                return hop;
+            }
+        }
+        hop.cancel(true);
+        return hop;
+    }
+
+    private CompletableFuture<Result> sendHop(HttpRequest request, int redirects) {
+        long hopStart = System.nanoTime();
+        boolean mayRedirect = followRedirects && redirects < MAX_REDIRECTS;
+        // IP literals need no lookup, skip the hop through the executor
+        CompletableFuture<Long> lookup = needsLookup(request.uri())
+                ? started(CompletableFuture.supplyAsync(() -> resolve(request.uri()), executor))
+                : CompletableFuture.completedFuture(0L);
+        return lookup.thenCompose(dnsNanos -> {
+            long sentAt = System.nanoTime();
+            long[] headersAt = new long[1];
+            BodyHandler<BoundedBodySubscriber.Body> timed = info -> {
+                headersAt[0] = System.nanoTime();
+                if (mayRedirect && redirectTarget(request, info.statusCode(), info.headers()) != null) {
+                    // The body of a redirect is never shown
+                    return BodySubscribers.replacing(new BoundedBodySubscriber.Body("", 0, false, null));
+                }
+                return handler.apply(info);
+            };
+            return started(client.sendAsync(request, timed)).thenCompose(response -> {
+                long doneAt = System.nanoTime();
+                synchronized (hops) {
+                    hops.add(hop(request, response, hopStart, dnsNanos, sentAt, headersAt[0], doneAt));
+                }
+                URI next = mayRedirect ? redirectTarget(request, response.statusCode(), response.headers()) : null;
+                if (next != null) {
+                    log.info("Following {} redirect to {}", response.statusCode(), next);
+                    return sendHop(redirectRequest(request, response.statusCode(), next), redirects + 1);
+                }
+                List<RequestTiming.ServerTiming> serverTimings =
+                        RequestTiming.ServerTiming.parse(response.headers().allValues("Server-Timing"));
+                synchronized (hops) {
+                    return CompletableFuture.completedFuture(new Result(response, new RequestTiming(hops, serverTimings)));
+                }
+            });
+        });
+    }
+
+    private RequestTiming.Hop hop(HttpRequest request, java.net.http.HttpResponse<BoundedBodySubscriber.Body> response,
+                                  long hopStart, long dnsNanos, long sentAt, long headersAt, long doneAt) {
+        URI uri = request.uri();
+        Optional<ConnectionTracker.Connection> connection =
+                connections.claimOpenedBetween(uri.getHost(), port(uri), sentAt, headersAt);
+        long connect = 0;
+        long tls = 0;
+        long waitingFrom = sentAt;
+        if (connection.isPresent() && connection.get().handshakeStartedAt() > 0) {
+            ConnectionTracker.Connection c = connection.get();
+            connect = c.handshakeStartedAt() - c.createdAt();
+            if (c.handshakeFinishedAt() > 0) {
+                tls = c.handshakeFinishedAt() - c.handshakeStartedAt();
+                waitingFrom = c.handshakeFinishedAt();
+            } else {
+                waitingFrom = c.handshakeStartedAt();
+            }
+        }
+        BoundedBodySubscriber.Body body = response.body();
+        return new RequestTiming.Hop(uri, response.statusCode(),
+                Duration.ofNanos(hopStart - startedAt),
+                Duration.ofNanos(dnsNanos),
+                Duration.ofNanos(Math.max(0, connect)),
+                Duration.ofNanos(Math.max(0, tls)),
+                Duration.ofNanos(Math.max(0, headersAt - waitingFrom)),
+                Duration.ofNanos(Math.max(0, doneAt - headersAt)),
+                connection.isPresent(),
+                connection.isPresent() && connection.get().resumed(),
+                connections.takeWarm(uri.getHost(), port(uri)) && connection.isEmpty(),
+                HttpProtocol.of(response.version()),
+                body == null ? 0 : body.receivedBytes(),
+                body == null ? 0 : body.decodedBytes());
+    }
+
+    /**
+     * Resolves the host the same way the client will, so the lookup time is measured and the client then hits the JVM
+     * address cache.
+     */
+    private static long resolve(URI uri) {
+        String host = uri.getHost();
+        long start = System.nanoTime();
+        try {
+            InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            // The client reports the failure with the request
+            log.debug("Could not resolve {}: {}", host, e.getMessage());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static boolean needsLookup(URI uri) {
+        String host = uri.getHost();
+        return host != null && !IP_LITERAL.matcher(host).matches();
+    }
+
+    static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    static URI redirectTarget(HttpRequest request, int status, HttpHeaders headers) {
+        if (status != 301 && status != 302 && status != 303 && status != 307 && status != 308) {
+            return null;
+        }
+        Optional<String> location = headers.firstValue("Location");
+        if (location.isEmpty()) {
+            return null;
+        }
+        URI target;
+        try {
+            target = request.uri().resolve(location.get().trim());
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid redirect location: {}", location.get());
+            return null;
+        }
+        if ("https".equalsIgnoreCase(request.uri().getScheme()) && "http".equalsIgnoreCase(target.getScheme())) {
+            log.warn("Not following redirect from HTTPS to HTTP: {}", target);
+            return null;
+        }
+        return target;
+    }
+
+    static HttpRequest redirectRequest(HttpRequest request, int status, URI target) {
+        String method = request.method();
+        boolean toGet = (status == 303 && !"HEAD".equals(method))
+                || ((status == 301 || status == 302) && "POST".equals(method));
+        boolean sameOrigin = target.getHost() != null && target.getHost().equalsIgnoreCase(request.uri().getHost())
+                && port(target) == port(request.uri());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (toGet && lower.startsWith("content-")) {
+                return false;
+            }
+            // Credentials are not sent to another origin
+            return sameOrigin || !(lower.equals("authorization") || lower.equals("cookie"));
+        }).uri(target);
+        if (toGet) {
+            builder.method("GET", HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+}
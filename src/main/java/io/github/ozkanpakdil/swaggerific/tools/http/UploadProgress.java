@@ -0,0 +1,14 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+/**
+ * Receives the progress of writing a request body. Called from HTTP client threads, possibly for every chunk.
+ */
+@FunctionalInterface
+public interface UploadProgress {
+
+    /**
+     * @param sent  body bytes handed to the connection so far
+     * @param total body length, -1 when unknown
+     */
+    void onProgress(long sent, long total);
+}
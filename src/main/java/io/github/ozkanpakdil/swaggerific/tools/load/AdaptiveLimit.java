@@ -0,0 +1,143 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrency limit that adapts to the target service (additive increase, multiplicative decrease), so a run finds the
+ * highest concurrency the service handles without its latency or error rate going up.
+ * <p>
+ * Requests are judged in windows of at least {@value #MIN_WINDOW} samples, or as many as the limit so every window
+ * spans about one round trip at full concurrency. A window whose average latency is more than {@link #TOLERANCE} times
+ * the baseline and at least {@link #MIN_INCREASE_NANOS} above it, or with more than {@link #OVERLOAD_RATE} of the
+ * responses 429, 5xx or errors, shrinks the limit by {@link #BACKOFF}; any other window grows it. Until the first
+ * backoff the limit doubles per window, as in TCP slow start, afterwards it grows by one. The baseline is the lowest
+ * window latency seen, drifting up slowly so a service that got slower for good is not mistaken for an overloaded one
+ * forever.
+ */
+public final class AdaptiveLimit {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveLimit.class);
+
+    static final int MIN_WINDOW = 10;
+    static final double TOLERANCE = 1.5;
+    static final double OVERLOAD_RATE = 0.05;
+    static final double BACKOFF = 0.75;
+    /**
+     * Jitter of sub-millisecond responses, e.g. from localhost, is not taken for queueing.
+     */
+    static final long MIN_INCREASE_NANOS = 1_000_000;
+    private static final double BASELINE_DRIFT = 0.02;
+    private static final int MAX_POINTS = 2000;
+
+    /**
+     * The limit after a window.
+     *
+     * @param at           time since the limit was created
+     * @param limit        the new limit
+     * @param latency      average latency of the window
+     * @param overloadRate share of 429, 5xx and failed requests in the window
+     */
+    public record Point(Duration at, int limit, Duration latency, double overloadRate) {
+    }
+
+    private final int max;
+    private final long startedAt = System.nanoTime();
+    private final List<Point> timeline = new ArrayList<>();
+    private volatile int limit;
+    private boolean slowStart = true;
+    private double baselineNanos;
+    private int samples;
+    private int overloaded;
+    private long latencySumNanos;
+
+    /**
+     * @param initial limit to start with
+     * @param max     highest limit, the configured concurrency
+     */
+    public AdaptiveLimit(int initial, int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        this.max = max;
+        this.limit = Math.max(1, Math.min(initial, max));
+        timeline.add(new Point(Duration.ZERO, limit, Duration.ZERO, 0));
+    }
+
+    /**
+     * @return the number of requests that may be in flight now
+     */
+    public int limit() {
+        return limit;
+    }
+
+    public int max() {
+        return max;
+    }
+
+    /**
+     * Records a finished request.
+     *
+     * @param latencyNanos time from sending until the response was read
+     * @param response     the response, or {@code null} when the send failed
+     * @param error        the failure, or {@code null}
+     */
+    public void record(long latencyNanos, HttpResponse response, Throwable error) {
+        boolean overload = error != null || response == null || response.isError()
+                || response.statusCode() == 429 || response.statusCode() >= 500;
+        record(latencyNanos, overload);
+    }
+
+    synchronized void record(long latencyNanos, boolean overload) {
+        samples++;
+        latencySumNanos += latencyNanos;
+        if (overload) {
+            overloaded++;
+        }
+        if (samples < Math.max(MIN_WINDOW, limit)) {
+            return;
+        }
+        double average = (double) latencySumNanos / samples;
+        double overloadRate = (double) overloaded / samples;
+        samples = 0;
+        overloaded = 0;
+        latencySumNanos = 0;
+
+        if (baselineNanos == 0 || average < baselineNanos) {
+            baselineNanos = average;
+        } else {
+            baselineNanos += (average - baselineNanos) * BASELINE_DRIFT;
+        }
+        int previous = limit;
+        boolean slower = average > baselineNanos * TOLERANCE && average - baselineNanos >= MIN_INCREASE_NANOS;
+        if (overloadRate > OVERLOAD_RATE || slower) {
+            slowStart = false;
+            limit = Math.max(1, (int) (previous * BACKOFF));
+        } else {
+            limit = Math.min(max, slowStart ? previous * 2 : previous + 1);
+        }
+        if (limit != previous) {
+            log.debug("Concurrency limit {} -> {} (latency {} ms, baseline {} ms, {}% overloaded)", previous, limit,
+                    Math.round(average / 1e6), Math.round(baselineNanos / 1e6), Math.round(overloadRate * 100));
+        }
+        if (timeline.size() >= MAX_POINTS) {
+            // Keep every other point, the shape of a long run stays visible
+            for (int i = timeline.size() - 1; i > 0; i -= 2) {
+                timeline.remove(i);
+            }
+        }
+        timeline.add(new Point(Duration.ofNanos(System.nanoTime() - startedAt), limit,
+                Duration.ofNanos(Math.round(average)), overloadRate));
+    }
+
+    /**
+     * @return the limit after every window so far, oldest first
+     */
+    public synchronized List<Point> timeline() {
+        return List.copyOf(timeline);
+    }
+}
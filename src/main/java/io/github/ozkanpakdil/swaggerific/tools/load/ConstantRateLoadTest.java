@@ -0,0 +1,176 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test: requests are scheduled at a target arrival rate, optionally ramped up, regardless of how fast
+ * responses come back.
+ * <p>
+ * Every request has an intended send time on the schedule and its latency is measured from there, so a server stall
+ * shows up in the percentiles instead of silently slowing the generator down (coordinated omission). The service time,
+ * measured from the actual send, is kept as well. When more than {@link Options#maxInFlight()} requests are
+ * outstanding, scheduled requests are dropped and counted instead of queueing without bound.
+ */
+public final class ConstantRateLoadTest implements LoadGenerator {
+    private static final Logger log = LoggerFactory.getLogger(ConstantRateLoadTest.class);
+
+    /**
+     * A send more than this after its intended time is counted as late.
+     */
+    static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final double MIN_RATE = 1;
+
+    /**
+     * @param rate        target requests per second
+     * @param startRate   requests per second at the start of the ramp, ignored without ramp-up
+     * @param rampUp      time to go from {@code startRate} to {@code rate}, {@link Duration#ZERO} to start at full rate
+     * @param duration    total time to keep sending, including the ramp-up
+     * @param maxInFlight outstanding requests above which scheduled requests are dropped
+     */
+    public record Options(double rate, double startRate, Duration rampUp, Duration duration, int maxInFlight) {
+
+        public Options {
+            if (rate < MIN_RATE || (!rampUp.isZero() && startRate < MIN_RATE)) {
+                throw new IllegalArgumentException("Rate must be at least " + (int) MIN_RATE + " request per second");
+            }
+            if (duration.isNegative() || duration.isZero() || rampUp.isNegative() || rampUp.compareTo(duration) > 0) {
+                throw new IllegalArgumentException("Duration must be positive and include the ramp-up");
+            }
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("Max in flight must be at least 1");
+            }
+        }
+
+        public static Options of(double rate, Duration duration, int maxInFlight) {
+            return new Options(rate, rate, Duration.ZERO, duration, maxInFlight);
+        }
+
+        public static Options ramped(double startRate, double rate, Duration rampUp, Duration duration, int maxInFlight) {
+            return new Options(rate, startRate, rampUp, duration, maxInFlight);
+        }
+
+        /**
+         * @param elapsedNanos time since the start of the test
+         * @return requests per second at that time
+         */
+        double rateAt(long elapsedNanos) {
+            long ramp = rampUp.toNanos();
+            if (elapsedNanos >= ramp) {
+                return rate;
+            }
+            return startRate + (rate - startRate) * elapsedNanos / ramp;
+        }
+    }
+
+    private final Options options;
+    private final Target target;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final CompletableFuture<LoadReport> result = new CompletableFuture<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile Thread generator;
+    private volatile boolean scheduling;
+    private volatile boolean stopped;
+
+    public ConstantRateLoadTest(Options options, Target target) {
+        this.options = options;
+        this.target = target;
+    }
+
+    @Override
+    public CompletableFuture<LoadReport> start() {
+        log.info("Starting constant rate load test: {}", options);
+        scheduling = true;
+        generator = new Thread(this::generate, "swaggerific-load-generator");
+        generator.setDaemon(true);
+        generator.start();
+        return result;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        Thread thread = generator;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public LoadReport snapshot() {
+        return recorder.report(result.isDone());
+    }
+
+    /**
+     * @return requests currently waiting for a response
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Walks the schedule on a dedicated thread. When the thread falls behind (a GC pause, a slow send) the missed
+     * requests are sent right away, each still measured from its own intended time.
+     */
+    private void generate() {
+        long startedAt = System.nanoTime();
+        long end = startedAt + options.duration().toNanos();
+        long intended = startedAt;
+        try {
+            while (!stopped && intended < end) {
+                long now = System.nanoTime();
+                if (intended > now) {
+                    LockSupport.parkNanos(intended - now);
+                    continue;
+                }
+                long scheduledAt = intended;
+                intended += (long) (1e9 / Math.max(MIN_RATE, options.rateAt(scheduledAt - startedAt)));
+                if (inFlight.get() >= options.maxInFlight()) {
+                    recorder.dropped();
+                    continue;
+                }
+                if (now - scheduledAt > LATE_THRESHOLD_NANOS) {
+                    recorder.late();
+                }
+                send(scheduledAt);
+            }
+        } finally {
+            scheduling = false;
+            finishIfDone();
+        }
+    }
+
+    private void send(long scheduledAt) {
+        inFlight.incrementAndGet();
+        long sentAt = System.nanoTime();
+        CompletableFuture<HttpResponse> response;
+        try {
+            response = target.send();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((r, e) -> {
+            long doneAt = System.nanoTime();
+            recorder.record(doneAt - scheduledAt, doneAt - sentAt, r, e);
+            inFlight.decrementAndGet();
+            finishIfDone();
+        });
+    }
+
+    private void finishIfDone() {
+        if (!scheduling && inFlight.get() == 0 && finished.compareAndSet(false, true)) {
+            LoadReport report = recorder.report(true);
+            log.info("Constant rate load test finished: {}", report.summary());
+            result.complete(report);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.ConnectionStats;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latencies and outcomes of a load test from many threads without locking the hot path. Latencies go into
+ * HdrHistogram {@link Recorder}s in microseconds; {@link #report(boolean)} drains them into the running totals.
+ * <p>
+ * Two values are kept per request: the latency measured from when the request should have been sent, and the service
+ * time measured from when it actually was. They only differ when the generator fell behind its schedule.
+ */
+final class LatencyRecorder {
+    /**
+     * Latencies above one hour are recorded as one hour.
+     */
+    static final long HIGHEST_TRACKABLE_MICROS = Duration.ofHours(1).toNanos() / 1000;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder latencyRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder serviceTimeRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram serviceTimes = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final ConnectionStats connections = new ConnectionStats();
+    private final long startedAt = System.nanoTime();
+    private Histogram latencyInterval;
+    private Histogram serviceTimeInterval;
+
+    /**
+     * Records one finished request.
+     *
+     * @param latencyNanos     time from the intended send until the response was read
+     * @param serviceTimeNanos time from the actual send until the response was read
+     * @param response         the response, or {@code null} when the send failed
+     * @param error            the failure, or {@code null}
+     */
+    void record(long latencyNanos, long serviceTimeNanos, HttpResponse response, Throwable error) {
+        latencyRecorder.recordValue(micros(latencyNanos));
+        serviceTimeRecorder.recordValue(micros(serviceTimeNanos));
+        requests.increment();
+        if (error != null || response == null || response.isError()) {
+            errors.increment();
+            return;
+        }
+        connections.record(response);
+        statusCodes.computeIfAbsent(response.statusCode(), k -> new LongAdder()).increment();
+        if (response.statusCode() >= 400) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Counts a request that was not sent because too many were in flight.
+     */
+    void dropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Counts a request that was sent noticeably after its intended time.
+     */
+    void late() {
+        late.increment();
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, nanos / 1000));
+    }
+
+    /**
+     * @param finished whether the test is over, carried into the report
+     * @return the results recorded so far
+     */
+    synchronized LoadReport report(boolean finished) {
+        latencyInterval = latencyRecorder.getIntervalHistogram(latencyInterval);
+        latencies.add(latencyInterval);
+        serviceTimeInterval = serviceTimeRecorder.getIntervalHistogram(serviceTimeInterval);
+        serviceTimes.add(serviceTimeInterval);
+        Map<Integer, Long> codes = new TreeMap<>();
+        statusCodes.forEach((code, count) -> codes.put(code, count.sum()));
+        return new LoadReport(requests.sum(), errors.sum(), dropped.sum(), late.sum(), codes,
+                Duration.ofNanos(System.nanoTime() - startedAt), latencies.copy(), serviceTimes.copy(), finished,
+                List.of(), connections.snapshot());
+    }
+}
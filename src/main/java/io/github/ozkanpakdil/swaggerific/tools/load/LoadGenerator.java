@@ -0,0 +1,36 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A running load test.
+ */
+public interface LoadGenerator {
+
+    /**
+     * Sends one request of the test.
+     */
+    @FunctionalInterface
+    interface Target {
+        CompletableFuture<HttpResponse> send();
+    }
+
+    /**
+     * Starts sending.
+     *
+     * @return a future completed with the final report once every request has finished
+     */
+    CompletableFuture<LoadReport> start();
+
+    /**
+     * Stops sending new requests. Requests in flight still complete and are part of the report.
+     */
+    void stop();
+
+    /**
+     * @return the results recorded so far
+     */
+    LoadReport snapshot();
+}
@@ -0,0 +1,103 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.ConnectionStats;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of a load test, either final or a snapshot taken while it runs.
+ *
+ * @param requests     finished requests
+ * @param errors       requests that failed to get a response or got a 4xx/5xx status
+ * @param dropped      requests that were not sent because too many were in flight (open model only)
+ * @param late         requests sent noticeably after their intended time (open model only)
+ * @param statusCodes  number of responses per status code, ordered by code
+ * @param elapsed      time since the test started
+ * @param latencies    latency from the intended send time in microseconds, corrected for coordinated omission
+ * @param serviceTimes latency from the actual send time in microseconds, equal to {@code latencies} in the closed model
+ * @param finished     whether the test is over
+ * @param limits       the concurrency limit over the test, empty unless it was adaptive
+ * @param connections  HTTP versions of the responses and how many requests shared a connection
+ */
+public record LoadReport(long requests, long errors, long dropped, long late, Map<Integer, Long> statusCodes,
+                         Duration elapsed, Histogram latencies, Histogram serviceTimes, boolean finished,
+                         List<AdaptiveLimit.Point> limits, ConnectionStats.Snapshot connections) {
+
+    public LoadReport {
+        statusCodes = Collections.unmodifiableMap(new TreeMap<>(statusCodes));
+        limits = List.copyOf(limits);
+    }
+
+    /**
+     * @return a copy of this report with the concurrency limit timeline
+     */
+    public LoadReport withLimits(List<AdaptiveLimit.Point> limits) {
+        return new LoadReport(requests, errors, dropped, late, statusCodes, elapsed, latencies, serviceTimes, finished,
+                limits, connections);
+    }
+
+    /**
+     * @param percentile between 0 and 100, e.g. {@code 99.9}
+     */
+    public Duration percentile(double percentile) {
+        return micros(latencies.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * Like {@link #percentile(double)}, but measured from when each request was actually sent.
+     */
+    public Duration servicePercentile(double percentile) {
+        return micros(serviceTimes.getValueAtPercentile(percentile));
+    }
+
+    public Duration min() {
+        return micros(latencies.getTotalCount() == 0 ? 0 : latencies.getMinValue());
+    }
+
+    public Duration max() {
+        return micros(latencies.getMaxValue());
+    }
+
+    public Duration mean() {
+        return micros(Math.round(latencies.getMean()));
+    }
+
+    /**
+     * @return finished requests per second
+     */
+    public double throughput() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds <= 0 ? 0 : requests / seconds;
+    }
+
+    /**
+     * @return share of failed requests between 0 and 1
+     */
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    /**
+     * One line summary, used in the log and the status of the load test pane.
+     */
+    public String summary() {
+        String summary = String.format(Locale.ROOT, "%d requests in %.1f s, %.1f req/s, %.2f%% errors, p50 %.1f ms, p99 %.1f ms",
+                requests, elapsed.toNanos() / 1e9, throughput(), errorRate() * 100,
+                millis(percentile(50)), millis(percentile(99)));
+        return dropped + late == 0 ? summary : summary + ", " + dropped + " dropped, " + late + " late";
+    }
+
+    private static Duration micros(long value) {
+        return Duration.ofNanos(value * 1000);
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-model load test: a fixed number of virtual users each send the request, wait for the response and send again,
+ * until the request count is reached or the duration is over.
+ * <p>
+ * Requests go through the same {@link Target} as a normal send, so authentication, environment variables and headers
+ * are applied exactly as for a single request. No thread waits for a response; each user continues from the completion
+ * of its previous request. Because a slow response also delays the next send, this model under-reports tail latency
+ * when the server stalls; {@link ConstantRateLoadTest} does not.
+ * <p>
+ * With {@link Options#adaptive()} the concurrency is the most users, the number running follows an
+ * {@link AdaptiveLimit} instead: users are added while the latency stays flat and leave when it or the error rate
+ * climbs.
+ */
+public final class LoadTest implements LoadGenerator {
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    /**
+     * @param requests    total number of requests, used when {@code duration} is {@code null}
+     * @param concurrency number of virtual users sending at the same time
+     * @param duration    how long to keep sending, or {@code null} to send {@code requests} requests
+     * @param adaptive    whether the number of users adapts to the target, up to {@code concurrency}
+     */
+    public record Options(int requests, int concurrency, Duration duration, boolean adaptive) {
+
+        public Options {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Concurrency must be at least 1");
+            }
+            if (duration == null ? requests < 1 : duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("Either a request count or a positive duration is required");
+            }
+        }
+
+        public Options(int requests, int concurrency, Duration duration) {
+            this(requests, concurrency, duration, false);
+        }
+
+        public static Options ofRequests(int requests, int concurrency) {
+            return new Options(requests, concurrency, null);
+        }
+
+        public static Options ofDuration(Duration duration, int concurrency) {
+            return new Options(0, concurrency, duration);
+        }
+
+        /**
+         * @return these options with the number of users adapting to the target, up to the concurrency
+         */
+        public Options adaptively() {
+            return new Options(requests, concurrency, duration, true);
+        }
+    }
+
+    private final Options options;
+    private final Target target;
+    private final AdaptiveLimit adaptive;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final CompletableFuture<LoadReport> result = new CompletableFuture<>();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicInteger runningUsers = new AtomicInteger();
+    private volatile boolean stopped;
+    private long deadline;
+
+    public LoadTest(Options options, Target target) {
+        this.options = options;
+        this.target = target;
+        this.adaptive = options.adaptive() ? new AdaptiveLimit(1, options.concurrency()) : null;
+    }
+
+    @Override
+    public CompletableFuture<LoadReport> start() {
+        log.info("Starting load test: {}", options);
+        if (options.duration() != null) {
+            deadline = System.nanoTime() + options.duration().toNanos();
+        }
+        int users = adaptive != null ? adaptive.limit() : options.concurrency();
+        if (options.duration() == null) {
+            users = Math.min(users, options.requests());
+        }
+        runningUsers.set(users);
+        for (int i = 0; i < users; i++) {
+            runUser();
+        }
+        return result;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public LoadReport snapshot() {
+        return withLimits(recorder.report(result.isDone()));
+    }
+
+    private LoadReport withLimits(LoadReport report) {
+        return adaptive == null ? report : report.withLimits(adaptive.timeline());
+    }
+
+    /**
+     * Sends requests in a loop for as long as they complete immediately, and continues from the completion callback
+     * otherwise, so a user never blocks a thread and the stack does not grow with the number of requests.
+     */
+    private void runUser() {
+        boolean retired;
+        while (!(retired = retire()) && claim()) {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse> response;
+            try {
+                response = target.send();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            if (!response.isDone()) {
+                response.whenComplete((r, e) -> {
+                    long latency = System.nanoTime() - start;
+                    recorder.record(latency, latency, r, e);
+                    adapt(latency, r, e);
+                    runUser();
+                });
+                return;
+            }
+            response.handle((r, e) -> {
+                long latency = System.nanoTime() - start;
+                recorder.record(latency, latency, r, e);
+                adapt(latency, r, e);
+                return null;
+            });
+        }
+        if (retired) {
+            return;
+        }
+        if (runningUsers.decrementAndGet() == 0) {
+            LoadReport report = withLimits(recorder.report(true));
+            log.info("Load test finished: {}", report.summary());
+            result.complete(report);
+        }
+    }
+
+    /**
+     * Feeds a result to the adaptive limit and starts users up to the new limit.
+     */
+    private void adapt(long latency, HttpResponse response, Throwable error) {
+        if (adaptive == null) {
+            return;
+        }
+        adaptive.record(latency, response, error);
+        int users;
+        // Once no user is running the test is over, so none is added then
+        while ((users = runningUsers.get()) > 0 && users < adaptive.limit() && hasWork() && !result.isDone()) {
+            if (runningUsers.compareAndSet(users, users + 1)) {
+                runUser();
+            }
+        }
+    }
+
+    /**
+     * @return whether this user stops because more users run than the adaptive limit allows
+     */
+    private boolean retire() {
+        if (adaptive == null) {
+            return false;
+        }
+        int users;
+        while ((users = runningUsers.get()) > adaptive.limit()) {
+            if (runningUsers.compareAndSet(users, users - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Like {@link #claim()}, without taking a request.
+     */
+    private boolean hasWork() {
+        if (stopped) {
+            return false;
+        }
+        if (options.duration() != null) {
+            return System.nanoTime() < deadline;
+        }
+        return issued.get() < options.requests();
+    }
+
+    private boolean claim() {
+        if (stopped) {
+            return false;
+        }
+        if (options.duration() != null) {
+            return System.nanoTime() < deadline;
+        }
+        return issued.getAndIncrement() < options.requests();
+    }
+}
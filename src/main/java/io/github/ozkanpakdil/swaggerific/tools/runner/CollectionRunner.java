@@ -0,0 +1,219 @@
+package io.github.ozkanpakdil.swaggerific.tools.runner;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.CancellationGroup;
+import io.github.ozkanpakdil.swaggerific.tools.http.ConnectionStats;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import io.github.ozkanpakdil.swaggerific.tools.load.AdaptiveLimit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sends a list of requests with at most {@code concurrency} of them in flight, reporting each result as soon as it
+ * arrives. Results are reported from the thread that completed the request.
+ * <p>
+ * With an {@link AdaptiveLimit} the number in flight follows the limit instead, which grows while the target keeps up
+ * and shrinks when its latency or error rate climbs.
+ */
+public final class CollectionRunner {
+    private static final Logger log = LoggerFactory.getLogger(CollectionRunner.class);
+
+    /**
+     * One request of the run.
+     *
+     * @param index  position in the run, starting at 0
+     * @param method HTTP method, for display
+     * @param uri    URI template, for display
+     * @param send   prepares and sends the request
+     */
+    public record Request(int index, String method, String uri, Supplier<CompletableFuture<HttpResponse>> send) {
+    }
+
+    /**
+     * @param request  the request that was sent
+     * @param response the response, an error response when sending failed
+     * @param latency  time from sending until the response was read
+     */
+    public record Result(Request request, HttpResponse response, Duration latency) {
+
+        public boolean failed() {
+            return response.isError() || response.statusCode() >= 400;
+        }
+
+        /**
+         * @return body bytes read from the wire, or the encoded body length when the timing is unknown
+         */
+        public long size() {
+            if (response.timing() != null && response.timing().last() != null) {
+                return response.timing().last().bodyBytes();
+            }
+            return response.content().size();
+        }
+    }
+
+    /**
+     * @param total       number of requests in the run
+     * @param completed   requests that finished
+     * @param failed      finished requests without a response or with a 4xx/5xx status
+     * @param elapsed     wall time of the run
+     * @param cancelled   whether the run was cancelled before all requests were sent
+     * @param limits      the concurrency limit over the run, empty when the concurrency was fixed
+     * @param connections HTTP versions of the responses and how many requests shared a connection
+     */
+    public record Summary(int total, int completed, int failed, Duration elapsed, boolean cancelled,
+                          List<AdaptiveLimit.Point> limits, ConnectionStats.Snapshot connections) {
+    }
+
+    private final List<Request> requests;
+    private final int concurrency;
+    private final AdaptiveLimit adaptive;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final ConnectionStats connections = new ConnectionStats();
+    private final CancellationGroup inFlightSends = new CancellationGroup();
+    private final CompletableFuture<Summary> result = new CompletableFuture<>();
+    private Consumer<Result> onResult;
+    private long startedAt;
+    private volatile boolean cancelled;
+
+    public CollectionRunner(List<Request> requests, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.requests = List.copyOf(requests);
+        this.concurrency = concurrency;
+        this.adaptive = null;
+    }
+
+    /**
+     * @param limit adapts the number of requests in flight to the target
+     */
+    public CollectionRunner(List<Request> requests, AdaptiveLimit limit) {
+        this.requests = List.copyOf(requests);
+        this.concurrency = limit.max();
+        this.adaptive = limit;
+    }
+
+    /**
+     * @return the adaptive limit of the run, {@code null} when the concurrency is fixed
+     */
+    public AdaptiveLimit adaptiveLimit() {
+        return adaptive;
+    }
+
+    /**
+     * Starts sending.
+     *
+     * @param onResult called once per finished request
+     * @return a future completed when every started request has finished
+     */
+    public CompletableFuture<Summary> start(Consumer<Result> onResult) {
+        this.onResult = onResult;
+        this.startedAt = System.nanoTime();
+        log.info("Running {} requests with {} concurrency {}", requests.size(), adaptive != null ? "adaptive" : "fixed",
+                Math.min(concurrency, requests.size()));
+        fill();
+        return result;
+    }
+
+    /**
+     * Stops starting requests and aborts the ones in flight, which are not reported.
+     */
+    public void cancel() {
+        cancelled = true;
+        inFlightSends.cancel();
+    }
+
+    private int limit() {
+        return adaptive != null ? adaptive.limit() : concurrency;
+    }
+
+    /**
+     * Starts requests until the limit is reached, and is called again whenever one completes. Requests that complete
+     * immediately are handled in the loop, so the stack does not grow with the number of requests.
+     */
+    private void fill() {
+        while (!cancelled) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                break;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            int index = next.getAndIncrement();
+            if (index >= requests.size()) {
+                inFlight.decrementAndGet();
+                break;
+            }
+            Request request = requests.get(index);
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse> response;
+            try {
+                response = inFlightSends.add(request.send().get());
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            if (!response.isDone()) {
+                response.whenComplete((r, e) -> {
+                    report(request, start, r, e);
+                    inFlight.decrementAndGet();
+                    fill();
+                });
+                continue;
+            }
+            response.whenComplete((r, e) -> report(request, start, r, e));
+            inFlight.decrementAndGet();
+        }
+        if (inFlight.get() == 0 && (cancelled || next.get() >= requests.size()) && finished.compareAndSet(false, true)) {
+            finish();
+        }
+    }
+
+    private void report(Request request, long start, HttpResponse response, Throwable error) {
+        if (error instanceof CancellationException && cancelled) {
+            return; // aborted by cancel(), the run did not get a result for it
+        }
+        if (error != null || response == null) {
+            response = new HttpResponse.Builder()
+                    .statusCode(500)
+                    .error(error == null ? "No response" : String.valueOf(error.getMessage()))
+                    .build();
+        }
+        long latency = System.nanoTime() - start;
+        Result r = new Result(request, response, Duration.ofNanos(latency));
+        connections.record(response);
+        if (adaptive != null) {
+            adaptive.record(latency, response, null);
+        }
+        completed.incrementAndGet();
+        if (r.failed()) {
+            failed.incrementAndGet();
+        }
+        try {
+            onResult.accept(r);
+        } catch (RuntimeException e) {
+            log.warn("Error handling result of {} {}: {}", request.method(), request.uri(), e.getMessage());
+        }
+    }
+
+    private void finish() {
+        Summary summary = new Summary(requests.size(), completed.get(), failed.get(),
+                Duration.ofNanos(System.nanoTime() - startedAt), cancelled && completed.get() < requests.size(),
+                adaptive != null ? adaptive.timeline() : List.of(), connections.snapshot());
+        log.info("Collection run finished: {} of {} completed, {} failed in {} ms", summary.completed(), summary.total(),
+                summary.failed(), summary.elapsed().toMillis());
+        result.complete(summary);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.ozkanpakdil.swaggerific.tools.runner;
+
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Default parameter values for running an operation without user input, taken from the spec: the parameter example,
+ * then the schema example, default or first enum value. Path parameters and required parameters without any of those
+ * get a placeholder for their type; optional ones are left out.
+ *
+ * @param query   query parameters
+ * @param path    path parameters
+ * @param headers header parameters
+ */
+public record OperationDefaults(Map<String, String> query, Map<String, String> path, Map<String, String> headers) {
+
+    public static OperationDefaults of(List<Parameter> parameters) {
+        Map<String, String> query = new HashMap<>();
+        Map<String, String> path = new HashMap<>();
+        Map<String, String> headers = new HashMap<>();
+        if (parameters != null) {
+            parameters.stream().filter(Objects::nonNull).forEach(p -> {
+                Map<String, String> target = switch (String.valueOf(p.getIn())) {
+                    case "query" -> query;
+                    case "path" -> path;
+                    case "header" -> headers;
+                    default -> null;
+                };
+                if (target == null || p.getName() == null) {
+                    return;
+                }
+                String value = valueOf(p, target == path || Boolean.TRUE.equals(p.getRequired()));
+                if (value != null) {
+                    target.put(p.getName(), value);
+                }
+            });
+        }
+        return new OperationDefaults(query, path, headers);
+    }
+
+    private static String valueOf(Parameter parameter, boolean needed) {
+        if (parameter.getExample() != null) {
+            return String.valueOf(parameter.getExample());
+        }
+        Schema<?> schema = parameter.getSchema();
+        if (schema != null) {
+            if (schema.getExample() != null) {
+                return String.valueOf(schema.getExample());
+            }
+            if (schema.getDefault() != null) {
+                return String.valueOf(schema.getDefault());
+            }
+            if (schema.getEnum() != null && !schema.getEnum().isEmpty()) {
+                return String.valueOf(schema.getEnum().get(0));
+            }
+            if (schema.getItems() != null && schema.getItems().getEnum() != null && !schema.getItems().getEnum().isEmpty()) {
+                return String.valueOf(schema.getItems().getEnum().get(0));
+            }
+        }
+        return needed ? placeholder(schema) : null;
+    }
+
+    private static String placeholder(Schema<?> schema) {
+        String type = schema == null ? null : schema.getType();
+        if (type == null) {
+            return "1";
+        }
+        return switch (type) {
+            case "integer", "number" -> "1";
+            case "boolean" -> "true";
+            default -> "test";
+        };
+    }
+}
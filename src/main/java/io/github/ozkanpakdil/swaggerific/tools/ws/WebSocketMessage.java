@@ -0,0 +1,41 @@
+package io.github.ozkanpakdil.swaggerific.tools.ws;
+
+import io.github.ozkanpakdil.swaggerific.tools.MessageLog;
+
+import java.time.Instant;
+
+/**
+ * One entry of a WebSocket message log.
+ *
+ * @param at        when the message was received or sent, or the event happened
+ * @param direction whether it was received, sent or is a connection event
+ * @param kind      what kind of frame or event it is
+ * @param text      the text of a text message, a hex preview of a binary one, or the event description
+ * @param size      payload size in bytes, or the number of dropped messages for {@link Kind#DROPPED}
+ */
+public record WebSocketMessage(Instant at, Direction direction, Kind kind, String text, long size) {
+
+    public enum Direction {
+        IN, OUT, EVENT
+    }
+
+    public enum Kind {
+        TEXT, BINARY, PING, PONG, OPEN, CLOSE, ERROR,
+        /**
+         * Stands in for messages that were dropped because the log could not keep up.
+         */
+        DROPPED
+    }
+
+    public static WebSocketMessage event(Kind kind, String text) {
+        return new WebSocketMessage(Instant.now(), Direction.EVENT, kind, text, 0);
+    }
+
+    /**
+     * @return the entry standing in for {@code count} messages a {@link MessageLog} dropped
+     */
+    public static WebSocketMessage dropped(long count) {
+        return new WebSocketMessage(Instant.now(), Direction.EVENT, Kind.DROPPED,
+                count + " message(s) dropped, the log could not keep up", count);
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.ozkanpakdil.swaggerific.tools.ws;
+
+import io.github.ozkanpakdil.swaggerific.tools.MessageLog;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpClientRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A WebSocket connection whose received and sent messages, and its open, close and error events, go to a
+ * {@link MessageLog}.
+ * <p>
+ * The connection uses the shared {@link HttpClient} for the current settings, so proxy and certificate settings apply
+ * as for HTTP requests. Fragmented messages are joined before they are logged; binary messages are logged as a hex
+ * preview of their first {@value #BINARY_PREVIEW} bytes and text messages are cut at {@value #TEXT_LIMIT} characters.
+ */
+public final class WebSocketSession {
+    private static final Logger log = LoggerFactory.getLogger(WebSocketSession.class);
+
+    static final int BINARY_PREVIEW = 64;
+    static final int TEXT_LIMIT = 64 * 1024;
+
+    private final MessageLog<WebSocketMessage> messages;
+    private volatile WebSocket socket;
+
+    public WebSocketSession(MessageLog<WebSocketMessage> messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * Opens the connection.
+     *
+     * @param uri     a {@code ws} or {@code wss} URI
+     * @param headers headers for the opening handshake
+     * @return completes when the handshake is done, exceptionally when it failed
+     */
+    public CompletableFuture<Void> connect(URI uri, Map<String, String> headers) {
+        return connect(HttpClientRegistry.shared().client(), uri, headers);
+    }
+
+    CompletableFuture<Void> connect(HttpClient client, URI uri, Map<String, String> headers) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!scheme.equals("ws") && !scheme.equals("wss")) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Expected a ws:// or wss:// URL: " + uri));
+        }
+        WebSocket.Builder builder = client.newWebSocketBuilder().connectTimeout(Duration.ofSeconds(30));
+        headers.forEach(builder::header);
+        log.info("Connecting WebSocket {}", uri);
+        return builder.buildAsync(uri, new Listener(messages))
+                .thenAccept(ws -> socket = ws)
+                .whenComplete((v, e) -> {
+                    if (e != null) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        messages.add(WebSocketMessage.event(WebSocketMessage.Kind.ERROR,
+                                "Connect failed: " + cause.getMessage()));
+                    }
+                });
+    }
+
+    /**
+     * @return whether the connection is open for sending
+     */
+    public boolean isOpen() {
+        WebSocket ws = socket;
+        return ws != null && !ws.isOutputClosed();
+    }
+
+    public CompletableFuture<Void> sendText(String text) {
+        WebSocket ws = open();
+        messages.add(new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.OUT, WebSocketMessage.Kind.TEXT,
+                limit(text), text.length()));
+        return ws.sendText(text, true).thenAccept(w -> {
+        });
+    }
+
+    public CompletableFuture<Void> sendBinary(byte[] data) {
+        WebSocket ws = open();
+        messages.add(new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.OUT, WebSocketMessage.Kind.BINARY,
+                preview(ByteBuffer.wrap(data)), data.length));
+        return ws.sendBinary(ByteBuffer.wrap(data), true).thenAccept(w -> {
+        });
+    }
+
+    /**
+     * Sends a normal close and stops reading. Does nothing when not connected.
+     */
+    public void close() {
+        WebSocket ws = socket;
+        if (ws == null) {
+            return;
+        }
+        if (!ws.isOutputClosed()) {
+            ws.sendClose(WebSocket.NORMAL_CLOSURE, "").whenComplete((w, e) -> {
+                if (e != null) {
+                    ws.abort();
+                }
+            });
+        } else {
+            ws.abort();
+        }
+    }
+
+    private WebSocket open() {
+        WebSocket ws = socket;
+        if (ws == null || ws.isOutputClosed()) {
+            throw new IllegalStateException("WebSocket is not connected");
+        }
+        return ws;
+    }
+
+    static String limit(CharSequence text) {
+        return text.length() <= TEXT_LIMIT ? text.toString() : text.subSequence(0, TEXT_LIMIT) + "…";
+    }
+
+    static String preview(ByteBuffer data) {
+        ByteBuffer head = data.duplicate();
+        byte[] bytes = new byte[Math.min(head.remaining(), BINARY_PREVIEW)];
+        head.get(bytes);
+        String hex = HexFormat.ofDelimiter(" ").formatHex(bytes);
+        return data.remaining() > BINARY_PREVIEW ? hex + " …" : hex;
+    }
+
+    /**
+     * Joins fragments and logs each whole message. Requests one message at a time, so a socket sending faster than the
+     * log can take is slowed by TCP flow control rather than buffered without bound.
+     */
+    static final class Listener implements WebSocket.Listener {
+        private final MessageLog<WebSocketMessage> messages;
+        private final StringBuilder text = new StringBuilder();
+        private long textLength;
+        private ByteBuffer binaryHead = ByteBuffer.allocate(BINARY_PREVIEW + 1);
+        private long binaryLength;
+
+        Listener(MessageLog<WebSocketMessage> messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            String protocol = webSocket.getSubprotocol();
+            messages.add(WebSocketMessage.event(WebSocketMessage.Kind.OPEN,
+                    protocol == null || protocol.isEmpty() ? "Connected" : "Connected, subprotocol " + protocol));
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            textLength += data.length();
+            if (text.length() < TEXT_LIMIT) {
+                text.append(data, 0, Math.min(data.length(), TEXT_LIMIT + 1 - text.length()));
+            }
+            if (last) {
+                messages.add(new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.IN,
+                        WebSocketMessage.Kind.TEXT, limit(text), textLength));
+                text.setLength(0);
+                textLength = 0;
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            binaryLength += data.remaining();
+            ByteBuffer part = data.duplicate();
+            if (part.remaining() > binaryHead.remaining()) {
+                part.limit(part.position() + binaryHead.remaining());
+            }
+            binaryHead.put(part);
+            if (last) {
+                binaryHead.flip();
+                String hex = preview(binaryHead);
+                messages.add(new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.IN,
+                        WebSocketMessage.Kind.BINARY, hex, binaryLength));
+                binaryHead = ByteBuffer.allocate(BINARY_PREVIEW + 1);
+                binaryLength = 0;
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPing(WebSocket webSocket, ByteBuffer message) {
+            messages.add(new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.IN,
+                    WebSocketMessage.Kind.PING, preview(message), message.remaining()));
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            messages.add(new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.IN,
+                    WebSocketMessage.Kind.PONG, preview(message), message.remaining()));
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            messages.add(WebSocketMessage.event(WebSocketMessage.Kind.CLOSE,
+                    "Closed with " + statusCode + (reason == null || reason.isEmpty() ? "" : ": " + reason)));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            log.warn("WebSocket error: {}", error.getMessage());
+            messages.add(WebSocketMessage.event(WebSocketMessage.Kind.ERROR, String.valueOf(error.getMessage())));
+        }
+    }
+}
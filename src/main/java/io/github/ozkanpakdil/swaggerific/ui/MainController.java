@@ -6,15 +6,28 @@ import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.github.ozkanpakdil.swaggerific.DisableWindow;
 import io.github.ozkanpakdil.swaggerific.data.AuthorizationSettings;
+import io.github.ozkanpakdil.swaggerific.data.Environment;
 import io.github.ozkanpakdil.swaggerific.data.EnvironmentManager;
 import io.github.ozkanpakdil.swaggerific.data.SwaggerModal;
 import io.github.ozkanpakdil.swaggerific.data.TreeItemSerialisationWrapper;
 import io.github.ozkanpakdil.swaggerific.tools.HttpUtility;
 import io.github.ozkanpakdil.swaggerific.tools.ProxySettings;
+import io.github.ozkanpakdil.swaggerific.tools.http.BoundedBodySubscriber;
+import io.github.ozkanpakdil.swaggerific.tools.http.CancellationGroup;
+import io.github.ozkanpakdil.swaggerific.tools.http.HostRateLimiter;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpClientRegistry;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpService;
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestExecutor;
+import io.github.ozkanpakdil.swaggerific.tools.http.ResponseBody;
+import io.github.ozkanpakdil.swaggerific.tools.runner.CollectionRunner;
+import io.github.ozkanpakdil.swaggerific.tools.runner.OperationDefaults;
+import io.github.ozkanpakdil.swaggerific.ui.component.CollectionRunnerView;
 import io.github.ozkanpakdil.swaggerific.ui.component.TextAreaAppender;
 import io.github.ozkanpakdil.swaggerific.ui.component.TreeFilter;
 import io.github.ozkanpakdil.swaggerific.ui.component.TreeItemOperationLeaf;
+import io.github.ozkanpakdil.swaggerific.ui.component.WebSocketPane;
+import io.github.ozkanpakdil.swaggerific.ui.edit.ResponseTestScriptController;
 import io.github.ozkanpakdil.swaggerific.ui.edit.SettingsController;
 import io.github.ozkanpakdil.swaggerific.ui.exception.NotYetImplementedException;
 import io.github.ozkanpakdil.swaggerific.ui.textfx.CustomCodeArea;
@@ -31,10 +44,13 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuBar;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.Tab;
@@ -43,6 +59,7 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
+import javafx.scene.control.Tooltip;
 import javafx.scene.control.TreeCell;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
@@ -78,10 +95,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.StreamSupport;
 
 public class MainController implements Initializable {
@@ -126,6 +146,10 @@ public class MainController implements Initializable {
     String urlTarget;
     FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("loader.fxml"));
     VBox boxLoader;
+    /**
+     * Spec load in progress, {@code null} when there is none. Only used on the FX thread.
+     */
+    private CancellationGroup specLoad;
     HttpUtility httpUtility = new HttpUtility();
     AuthorizationSettings authorizationSettings = new AuthorizationSettings();
     EnvironmentManager environmentManager = EnvironmentManager.loadSettings();
@@ -133,6 +157,15 @@ public class MainController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         menuBarController.setMainController(this);
+        httpUtility.setRetryPolicy(() -> environmentManager.getActiveEnvironment()
+                .map(Environment::getRetryPolicy)
+                .orElse(null));
+        httpUtility.setRateLimit(() -> environmentManager.getActiveEnvironment()
+                .map(Environment::getRateLimit)
+                .orElse(null));
+        httpUtility.setProtocol(() -> environmentManager.getActiveEnvironment()
+                .map(Environment::getProtocol)
+                .orElse(null));
         treePaths.getSelectionModel()
                 .selectedItemProperty()
                 .addListener((observable, oldValue, newValue) -> onTreeItemSelect(newValue));
@@ -151,6 +184,10 @@ public class MainController implements Initializable {
                 }
             };
             cell.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            MenuItem runAll = new MenuItem("Run all operations");
+            runAll.setOnAction(e -> runCollection(cell.getTreeItem()));
+            ContextMenu contextMenu = new ContextMenu(runAll);
+            cell.emptyProperty().addListener((obs, wasEmpty, isEmpty) -> cell.setContextMenu(isEmpty ? null : contextMenu));
             cell.itemProperty().addListener((obs, oldItem, newItem) -> {
                 label.getStyleClass().clear();
                 label.getStyleClass().add("highlight-on-hover");
@@ -218,6 +255,12 @@ public class MainController implements Initializable {
             TabRequestControllerBase controller = tab.getController();
             controller.initializeController(this, tabName, leaf);
             newTab.setUserData(controller);
+            if (controller instanceof TabRequestController requestTab) {
+                // Shows which tabs are still waiting for a response while another one is selected
+                requestTab.sendingProperty().addListener((obs, was, sending) -> newTab.setGraphic(sending
+                        ? tabProgressIndicator() : null));
+                newTab.setOnClosed(evt -> requestTab.cancelSend());
+            }
             // Ensure unique id when opening duplicates
             String tabId = alwaysOpenNew && exists ? tabName + "#" + (++newTabCounter) : tabName;
             newTab.setId(tabId);
@@ -242,6 +285,10 @@ public class MainController implements Initializable {
             });
             tabRequests.getTabs().add(newTab);
             tabRequests.getSelectionModel().select(newTab);
+            if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_PREWARM_CONNECTIONS, false)) {
+                // Opens the connection while the request is being edited, so the first Send does not wait for it
+                httpUtility.prewarm(environmentManager.resolveVariables(leaf.getUri()));
+            }
         } else {
             tabRequests.getTabs().stream()
                     .filter(f -> f.getId().equals(tabName)).findAny()
@@ -249,6 +296,94 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Opens a runner tab for every operation below the node, sent with the default parameters from the spec, the
+     * active environment and the saved authorization of each URL. Test scripts of open tabs for the same operation run
+     * on the responses.
+     */
+    void runCollection(TreeItem<String> node) {
+        if (node == null) {
+            return;
+        }
+        List<TreeItemOperationLeaf> leaves = new ArrayList<>();
+        collectOperations(node, leaves);
+        if (leaves.isEmpty()) {
+            showAlert("Nothing to run", "", "There are no operations below " + node.getValue());
+            return;
+        }
+        List<CollectionRunner.Request> requests = new ArrayList<>();
+        for (TreeItemOperationLeaf leaf : leaves) {
+            requests.add(runnerRequest(requests.size(), leaf));
+        }
+        CollectionRunnerView view = new CollectionRunnerView(requests);
+        view.setTestRunner(this::runResponseTests);
+        Tab tab = new Tab("Run: " + (node.getValue() == null ? "all" : node.getValue()), view);
+        tab.setId("run#" + (++newTabCounter));
+        tab.setOnClosed(e -> view.stop());
+        tabRequests.getTabs().add(tab);
+        tabRequests.getSelectionModel().select(tab);
+        view.start();
+    }
+
+    /**
+     * Opens a WebSocket tab, with the URL of the loaded spec as a starting point.
+     */
+    void openWebSocket() {
+        String url = urlTarget == null ? "" : urlTarget.replaceFirst("^http", "ws");
+        WebSocketPane pane = new WebSocketPane(url);
+        Tab tab = new Tab("WebSocket", pane);
+        tab.setId("ws#" + (++newTabCounter));
+        tab.setOnClosed(e -> pane.close());
+        tabRequests.getTabs().add(tab);
+        tabRequests.getSelectionModel().select(tab);
+    }
+
+    private static void collectOperations(TreeItem<String> node, List<TreeItemOperationLeaf> leaves) {
+        if (node instanceof TreeItemOperationLeaf leaf) {
+            leaves.add(leaf);
+        }
+        node.getChildren().forEach(child -> collectOperations(child, leaves));
+    }
+
+    private CollectionRunner.Request runnerRequest(int index, TreeItemOperationLeaf leaf) {
+        PathItem.HttpMethod method = PathItem.HttpMethod.valueOf(leaf.getValue());
+        String uri = leaf.getUri();
+        return new CollectionRunner.Request(index, method.name(), uri, () -> {
+            OperationDefaults defaults = OperationDefaults.of(leaf.getMethodParameters());
+            Map<String, String> headers = resolveVariables(defaults.headers());
+            authorizationSettings.applyHeadersForUrl(uri, headers);
+            return httpUtility.bulk().sendRequestAsync(environmentManager.resolveVariables(uri), method, headers, null,
+                    resolveVariables(defaults.query()), resolveVariables(defaults.path()));
+        });
+    }
+
+    private Map<String, String> resolveVariables(Map<String, String> values) {
+        Map<String, String> resolved = new HashMap<>();
+        values.forEach((k, v) -> resolved.put(environmentManager.resolveVariables(k), environmentManager.resolveVariables(v)));
+        return resolved;
+    }
+
+    private CompletableFuture<String> runResponseTests(CollectionRunner.Result result) {
+        String uri = result.request().uri();
+        Optional<TabRequestController> tab = tabRequests.getTabs().stream()
+                .filter(t -> uri.equals(t.getId()) || (t.getId() != null && t.getId().startsWith(uri + "#")))
+                .map(Tab::getUserData)
+                .filter(TabRequestController.class::isInstance)
+                .map(TabRequestController.class::cast)
+                .filter(c -> c.isMethod(result.request().method()))
+                .findFirst();
+        if (tab.isEmpty()) {
+            return CompletableFuture.completedFuture("");
+        }
+        return tab.get().runResponseTests(result.response()).thenApply(assertions -> {
+            if (assertions.isEmpty()) {
+                return "";
+            }
+            long passed = assertions.stream().filter(ResponseTestScriptController.AssertionResult::passed).count();
+            return passed + "/" + assertions.size() + " passed";
+        });
+    }
+
     private void onTreeItemSelect(TreeItem<String> newValue) {
         if (newValue instanceof TreeItemOperationLeaf m) {
             handleTreeViewItemClick(m.getUri(), m);
@@ -362,19 +497,7 @@ public class MainController implements Initializable {
         Optional<String> result = dialog.showAndWait();
 
         result.ifPresent(urlSwaggerJson -> {
-            setIsOnloading();
-            new Thread(() -> {
-                try {
-                    openSwaggerUrl(urlSwaggerJson);
-                } catch (Exception e) {
-                    Platform.runLater(() -> {
-                        log.error("Error loading swagger URL", e);
-                        showAlert("Error", "Failed to load Swagger URL", e.getMessage());
-                    });
-                } finally {
-                    Platform.runLater(this::setIsOffloading);
-                }
-            }).start();
+            loadSwaggerUrl(urlSwaggerJson);
         });
     }
 
@@ -393,7 +516,7 @@ public class MainController implements Initializable {
         if (file == null) return;
 
         setIsOnloading();
-        new Thread(() -> {
+        RequestExecutor.shared().run(() -> {
             try {
                 String jsonContent = Files.readString(file.toPath());
 
@@ -476,27 +599,63 @@ public class MainController implements Initializable {
             } finally {
                 Platform.runLater(this::setIsOffloading);
             }
-        }).start();
+        });
     }
 
     // Test helper: open swagger URL without UI dialog
     public void openSwaggerForTest(String urlSwaggerJson) {
-        setIsOnloading();
-        new Thread(() -> {
+        loadSwaggerUrl(urlSwaggerJson);
+    }
+
+    private void loadSwaggerUrl(String urlSwaggerJson) {
+        CancellationGroup load = new CancellationGroup();
+        specLoad = load;
+        setIsOnloading(() -> cancelSpecLoad(load));
+        load.add(RequestExecutor.shared().run(() -> {
             try {
-                openSwaggerUrl(urlSwaggerJson);
+                openSwaggerUrl(urlSwaggerJson, load);
             } catch (Exception e) {
+                if (load.isCancelled()) {
+                    log.info("Loading {} cancelled", urlSwaggerJson);
+                    return;
+                }
                 Platform.runLater(() -> {
                     log.error("Error loading swagger URL", e);
                     showAlert("Error", "Failed to load Swagger URL", e.getMessage());
                 });
             } finally {
-                Platform.runLater(this::setIsOffloading);
+                Platform.runLater(() -> {
+                    if (specLoad == load) {
+                        specLoad = null;
+                        setIsOffloading();
+                    }
+                });
             }
-        }).start();
+        }));
+    }
+
+    /**
+     * Stops loading the spec, aborting its download, and gives the window back right away.
+     */
+    private void cancelSpecLoad(CancellationGroup load) {
+        load.cancel();
+        if (specLoad == load) {
+            specLoad = null;
+            setIsOffloading();
+            statusBar.setText("Loading cancelled");
+        }
     }
 
     void setIsOnloading() {
+        setIsOnloading(null);
+    }
+
+    /**
+     * Covers the window with a progress indicator.
+     *
+     * @param onCancel run when the Cancel button of the overlay is pressed, {@code null} for no button
+     */
+    void setIsOnloading(Runnable onCancel) {
         statusBar.setText("Loading...");
 
         // Create a progress indicator with a fixed size
@@ -508,6 +667,13 @@ public class MainController implements Initializable {
 
         // Create a VBox for the progress indicator
         boxLoader = new VBox(pi);
+        if (onCancel != null) {
+            Button cancel = new Button("Cancel");
+            cancel.setCancelButton(true);
+            cancel.setOnAction(event -> onCancel.run());
+            boxLoader.getChildren().add(cancel);
+            boxLoader.setSpacing(10);
+        }
         boxLoader.setAlignment(Pos.CENTER);
         boxLoader.setStyle("-fx-background-color: rgba(0, 0, 0, 0.5);"); // Semi-transparent background
         boxLoader.setVisible(true);
@@ -529,7 +695,7 @@ public class MainController implements Initializable {
     }
 
     void setIsOffloading() {
-        statusBar.setText("Ready");
+        updateRequestStatus();
 
         // Remove the boxLoader from the topPane
         if (boxLoader != null) {
@@ -538,6 +704,24 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Shows the requests in flight and queued across all tabs in the status bar.
+     */
+    void updateRequestStatus() {
+        RequestExecutor.Stats stats = RequestExecutor.shared().stats();
+        int rateLimited = HostRateLimiter.shared().waiting();
+        if (stats.inFlight() > 0 || stats.queued() > 0 || rateLimited > 0) {
+            statusBar.setText("Ready (%d in flight, %d queued, %d waiting for rate limit, max queue wait %d ms)"
+                    .formatted(stats.inFlight(), stats.queued(), rateLimited, stats.maxQueueWaitMs()));
+        } else {
+            statusBar.setText("Ready");
+        }
+        HttpClientRegistry.Stats clients = HttpClientRegistry.shared().stats();
+        statusBar.setTooltip(new Tooltip("HTTP clients: %d, built %d for %d requests (%.0f%% reused), max queue wait %d ms"
+                .formatted(clients.clients(), clients.built(), clients.lookups(), clients.reuseRatio() * 100,
+                        stats.maxQueueWaitMs())));
+    }
+
     /**
      * Enables detailed proxy debugging by setting system properties and configuring loggers. This should be called before any
      * proxy operations to get detailed logs.
@@ -577,7 +761,7 @@ public class MainController implements Initializable {
         }
     }
 
-    private void openSwaggerUrl(String urlSwagger) throws Exception {
+    private void openSwaggerUrl(String urlSwagger, CancellationGroup load) throws Exception {
         // Prepare non-UI state
         log.info("Opening Swagger URL: {}", urlSwagger);
 
@@ -596,7 +780,9 @@ public class MainController implements Initializable {
                 throw new IllegalArgumentException("Invalid or empty URL");
             }
 
-            HttpResponse response = httpUtility.sendRequest(urlApi.toString(), PathItem.HttpMethod.GET);
+            // Sent async so cancelling the load aborts the download
+            HttpResponse response = load.add(httpUtility.sendRequestAsync(urlApi.toString(), PathItem.HttpMethod.GET))
+                    .join();
 
             String jsonContent = response.body();
             if (jsonContent == null || jsonContent.trim().isEmpty()) {
@@ -660,6 +846,9 @@ public class MainController implements Initializable {
 
             // Apply UI updates on the FX thread
             Platform.runLater(() -> {
+                if (load.isCancelled()) {
+                    return;
+                }
                 treeFilter = new TreeFilter();
                 txtFilterTree.setText("");
                 treeItemRoot = newRoot; // replace reference
@@ -984,12 +1173,20 @@ public class MainController implements Initializable {
         return httpUtility;
     }
 
+    private static ProgressIndicator tabProgressIndicator() {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setPrefSize(14, 14);
+        indicator.setMaxSize(14, 14);
+        return indicator;
+    }
+
     /**
-     * Processes the HTTP response and updates the UI.
+     * Processes the HTTP response and shows it in the tab that sent the request.
      *
+     * @param tab      the tab the request was sent from, which need not be the selected one
      * @param response the HTTP response
      */
-    public void processResponse(HttpResponse response) {
+    public void processResponse(TabRequestController tab, HttpResponse response) {
         try {
             if (response.isError()) {
                 log.warn("Error in HTTP response: {}", response.errorMessage());
@@ -998,47 +1195,82 @@ public class MainController implements Initializable {
                         "\n\nPlease check your request parameters and try again. If the problem persists, " +
                         "check the server status or network connection.";
                 // Write to the Pretty pane regardless of editor type (RichTextFX or TextArea)
-                getSelectedTab().setPrettyResponseText(errTxt);
+                tab.setPrettyResponseText(errTxt);
+                return;
+            }
+
+            String downloadedTo = response.headers().get(HttpService.DOWNLOAD_HEADER);
+            if (downloadedTo != null) {
+                // Saved with Send and download, the body may be binary and is not shown
+                String savedTxt = "Response body was saved to:\n" + downloadedTo;
+                tab.setPrettyResponseText(savedTxt);
+                tab.codeRawJsonResponse.setText(savedTxt);
+                log.info("Request completed with status code: {}", response.statusCode());
+                return;
+            }
+
+            if (response.bodyFile() != null) {
+                // Too large to keep in memory, page it from disk and keep the Raw tab small
+                log.info("Showing response body from file {}", response.bodyFile());
+                tab.setPrettyResponseFile(response.bodyFile(),
+                        BoundedBodySubscriber.charsetOf(response.contentType()));
+                tab.codeRawJsonResponse.setText("Response body is larger than the max response size and was saved to:\n"
+                        + response.bodyFile() + "\n\nIt is shown in the Pretty tab.");
+                log.info("Request completed with status code: {}", response.statusCode());
+                return;
+            }
+
+            if (response.content().kind() == ResponseBody.Kind.BINARY) {
+                // Decoding binary content as text only shows garbage
+                String binaryTxt = "Binary response (" + response.content().size() + " bytes"
+                        + (response.contentType() != null ? ", " + response.contentType() : "")
+                        + ").\n\nUse Send and download to save it to a file.";
+                tab.setPrettyResponseText(binaryTxt);
+                tab.codeRawJsonResponse.setText(binaryTxt);
+                log.info("Request completed with status code: {}", response.statusCode());
                 return;
             }
 
-            String responseBody = response.body();
-            if (responseBody == null || responseBody.isEmpty()) {
+            // Only the start of the body was kept, say so below it instead of letting it look complete
+            String notice = response.truncated() ? "\n\n[Response truncated to " + response.content().size()
+                    + " bytes. Configure in Settings > General > Max response size]" : "";
+            String responseBody = response.body() + notice;
+            if (response.body().isEmpty()) {
                 log.warn("Empty response body received");
                 String emptyTxt = "The server returned an empty response with status code: " + response.statusCode() +
                         "\n\nThis might be expected for some operations, or it could indicate an issue with the request.";
-                getSelectedTab().setPrettyResponseText(emptyTxt);
+                tab.setPrettyResponseText(emptyTxt);
             } else if (httpUtility.isJsonResponse(response)) {
                 try {
-                    String formattedJson = httpUtility.formatJson(responseBody);
-                    getSelectedTab().setPrettyResponseText(formattedJson);
+                    String formattedJson = httpUtility.formatJson(response);
+                    tab.setPrettyResponseText(formattedJson + notice);
                     log.info("Successfully processed JSON response with status code: {}", response.statusCode());
                 } catch (Exception e) {
                     log.warn("Failed to parse JSON response (content-type says JSON): {}", e.getMessage());
                     // Show raw response in Pretty tab with a warning header
                     final String errorMessage = "Warning: Could not format as JSON. Showing raw response:\n\n" + responseBody;
-                    getSelectedTab().setPrettyResponseText(errorMessage);
+                    tab.setPrettyResponseText(errorMessage);
                 }
             } else if (httpUtility.isXmlResponse(response)) {
                 log.info("Processing XML response with status code: {}", response.statusCode());
                 try {
-                    String formattedXml = httpUtility.formatXml(responseBody);
-                    getSelectedTab().applyXmlStylingIfSupported("/css/xml-highlighting.css");
-                    getSelectedTab().setPrettyResponseText(formattedXml);
+                    String formattedXml = httpUtility.formatXml(response.body());
+                    tab.applyXmlStylingIfSupported("/css/xml-highlighting.css");
+                    tab.setPrettyResponseText(formattedXml + notice);
                 } catch (Exception e) {
                     log.warn("Failed to format XML response: {}", e.getMessage());
                     // If XML formatting fails, show the raw response in Pretty tab
                     final String errorMessage = "Warning: Could not format as XML. Showing raw response:\n\n" + responseBody;
-                    getSelectedTab().setPrettyResponseText(errorMessage);
+                    tab.setPrettyResponseText(errorMessage);
                 }
             } else {
                 // Fallback to raw response
                 log.info("Processing raw response with status code: {}", response.statusCode());
-                getSelectedTab().setPrettyResponseText(responseBody);
+                tab.setPrettyResponseText(responseBody);
             }
 
             // Always set the raw response (keep Raw tab content in sync)
-            getCodeRawJsonResponse().setText(responseBody);
+            tab.codeRawJsonResponse.setText(responseBody);
 
             log.info("Request completed with status code: {}", response.statusCode());
 
@@ -1047,7 +1279,7 @@ public class MainController implements Initializable {
             openDebugConsole();
             String appErrTxt = "Error processing response: " + e.getMessage() +
                     "\n\nThis is an application error. Please report this issue with the steps to reproduce it.";
-            getSelectedTab().setPrettyResponseText(appErrTxt);
+            tab.setPrettyResponseText(appErrTxt);
         }
     }
 }
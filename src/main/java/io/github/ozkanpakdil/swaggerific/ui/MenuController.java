@@ -65,6 +65,12 @@ public class MenuController {
         }
     }
 
+    public void menuRequestNewWebSocket(ActionEvent event) {
+        if (mainController != null) {
+            mainController.openWebSocket();
+        }
+    }
+
     public void setMainController(MainController mainController) {
         this.mainController = mainController;
     }
@@ -2,8 +2,23 @@ package io.github.ozkanpakdil.swaggerific.ui;
 
 import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
 import io.github.ozkanpakdil.swaggerific.tools.HttpUtility;
+import io.github.ozkanpakdil.swaggerific.tools.http.CancellationGroup;
+import io.github.ozkanpakdil.swaggerific.tools.http.DownloadProgress;
+import io.github.ozkanpakdil.swaggerific.tools.http.Headers;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestBody;
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestExecutor;
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestTiming;
+import io.github.ozkanpakdil.swaggerific.tools.http.ResponseCache;
+import io.github.ozkanpakdil.swaggerific.tools.http.StreamListener;
+import io.github.ozkanpakdil.swaggerific.tools.http.UploadProgress;
+import io.github.ozkanpakdil.swaggerific.tools.load.LoadGenerator;
+import io.github.ozkanpakdil.swaggerific.ui.component.LargeResponseViewer;
+import io.github.ozkanpakdil.swaggerific.ui.component.LoadTestPane;
+import io.github.ozkanpakdil.swaggerific.ui.component.StreamView;
+import io.github.ozkanpakdil.swaggerific.ui.component.RequestBodyPane;
 import io.github.ozkanpakdil.swaggerific.ui.component.STextField;
+import io.github.ozkanpakdil.swaggerific.ui.component.TimingWaterfall;
 import io.github.ozkanpakdil.swaggerific.ui.component.TreeItemOperationLeaf;
 import io.github.ozkanpakdil.swaggerific.ui.edit.AuthorizationController;
 import io.github.ozkanpakdil.swaggerific.ui.edit.PreRequestScriptController;
@@ -20,6 +35,8 @@ import io.swagger.v3.oas.models.parameters.Parameter;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -35,6 +52,7 @@ import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
@@ -53,18 +71,28 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import org.apache.commons.lang3.StringUtils;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
 
+import java.io.File;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
 
 public class TabRequestController extends TabPane implements TabRequestControllerBase {
     private volatile boolean dirty = false;
@@ -77,9 +105,21 @@ public class TabRequestController extends TabPane implements TabRequestControlle
     public ComboBox cmbHttpMethod;
     @FXML
     Button btnSend;
+    @FXML
+    Button btnDownload;
+    @FXML
+    Button btnCancel;
+    @FXML
+    ProgressIndicator progressSend;
     MainController mainController;
     private CodeArea codeJsonRequest;
     private CustomCodeArea codeJsonResponse;
+    private LargeResponseViewer largeResponseViewer;
+    /**
+     * The send running in this tab, {@code null} when there is none. Only used on the FX thread.
+     */
+    private CancellationGroup pendingSend;
+    private final ReadOnlyBooleanWrapper sending = new ReadOnlyBooleanWrapper(this, "sending");
     @FXML
     TextArea codeRawJsonResponse;
     @FXML
@@ -99,6 +139,8 @@ public class TabRequestController extends TabPane implements TabRequestControlle
     @FXML
     StackPane codeRequestContainer;
     @FXML
+    RequestBodyPane requestBodyPane;
+    @FXML
     StackPane responsePrettyContainer;
 
     @FXML
@@ -113,6 +155,21 @@ public class TabRequestController extends TabPane implements TabRequestControlle
     @FXML
     TableView<TestResult> tableTestResults;
 
+    @FXML
+    TimingWaterfall timingWaterfall;
+
+    @FXML
+    Label lblResponseSummary;
+
+    @FXML
+    LoadTestPane loadTestPane;
+
+    @FXML
+    Tab tabStream;
+
+    @FXML
+    StreamView streamView;
+
     JsonColorize jsonColorize = new JsonColorize();
 
     private String getRequestText() {
@@ -127,11 +184,28 @@ public class TabRequestController extends TabPane implements TabRequestControlle
     }
 
     public void setPrettyResponseText(String text) {
+        if (largeResponseViewer != null) {
+            // Back to the regular editor, the previous body file is no longer needed
+            largeResponseViewer.release();
+            largeResponseViewer = null;
+            responsePrettyContainer.getChildren().setAll(new VirtualizedScrollPane<>(codeJsonResponse));
+        }
         if (codeJsonResponse != null) {
             codeJsonResponse.replaceText(text);
         }
     }
 
+    /**
+     * Shows a response body that was saved to disk in a paged viewer instead of the editor.
+     */
+    public void setPrettyResponseFile(Path file, Charset charset) {
+        if (largeResponseViewer == null) {
+            largeResponseViewer = new LargeResponseViewer();
+            responsePrettyContainer.getChildren().setAll(largeResponseViewer);
+        }
+        largeResponseViewer.open(file, charset);
+    }
+
     /**
      * Apply XML styling to the Pretty response editor if RichTextFX is available.
      * In native mode (TextArea), styling is skipped but content is still shown.
@@ -285,256 +359,475 @@ public class TabRequestController extends TabPane implements TabRequestControlle
     }
 
     public void btnSendRequest(ActionEvent actionEvent) {
-        btnSend.setDisable(true);
+        sendFromTab(null);
+    }
+
+    /**
+     * Sends the request and saves the response body to a chosen file instead of showing it.
+     */
+    public void btnSendAndDownload(ActionEvent actionEvent) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save response body");
+        chooser.setInitialFileName(downloadFileName(txtAddress.getText()));
+        File chosen = chooser.showSaveDialog(txtAddress.getScene() == null ? null : txtAddress.getScene().getWindow());
+        if (chosen != null) {
+            sendFromTab(chosen.toPath());
+        }
+    }
+
+    /**
+     * @return the last path segment of the address, used as the suggested download file name
+     */
+    static String downloadFileName(String address) {
+        String path = address == null ? "" : address.replaceFirst("[?#].*$", "");
+        String name = path.substring(path.lastIndexOf('/') + 1).replaceAll("[\\\\:*?\"<>|{}]", "_");
+        return name.isBlank() ? "response.bin" : name;
+    }
+
+    /**
+     * @param downloadTo file the response body is saved to, {@code null} to show it in the response pane
+     */
+    private void sendFromTab(Path downloadTo) {
+        if (pendingSend != null) {
+            return;
+        }
         TreeItem<String> selectedItem = mainController.treePaths.getSelectionModel().getSelectedItem();
         String targetUri = txtAddress.getText();
-        mainController.setIsOnloading();
 
         if (selectedItem instanceof TreeItemOperationLeaf) {
-            HttpUtility httpUtility = mainController.getHttpUtility();
-            new Thread(() -> {
-                try {
-                    // Get the server port from the original URI
-                    int serverPort = -1;
-                    try {
-                        URI originalUri = URI.create(targetUri);
-                        serverPort = originalUri.getPort();
-                    } catch (Exception e) {
-                        log.warn("Error parsing original URI: {}", e.getMessage());
-                    }
+            // The send belongs to this tab: the window stays usable and the response is shown here even when another
+            // tab is selected by the time it arrives
+            CancellationGroup send = new CancellationGroup();
+            pendingSend = send;
+            sending.set(true);
+            mainController.updateRequestStatus();
+            // Shown in this tab, which deletes a spilled body when the response is replaced or the tab closes
+            HttpUtility httpUtility = mainController.getHttpUtility().interactive();
+            UploadProgress uploadProgress = requestBodyPane != null && !requestBodyPane.isRaw()
+                    ? requestBodyPane.startUpload() : null;
+            DownloadProgress downloadProgress = downloadTo != null ? startDownload() : null;
+            StreamListener events = downloadTo == null && streamView != null ? streamView.listener() : null;
+            send.add(RequestExecutor.shared().supply(() -> prepareRequest(targetUri)))
+                    .thenCompose(prepared -> send.add(downloadTo != null
+                            ? httpUtility.downloadAsync(prepared.targetUri(), prepared.method(), prepared.headers(),
+                            prepared.body(), prepared.content(), prepared.queryParams(), prepared.pathParams(),
+                            downloadTo, downloadProgress)
+                            : send(httpUtility, prepared, uploadProgress, events))
+                            .thenApply(response -> {
+                                saveHistory(prepared, response);
+                                return new SendResult(prepared, response);
+                            }))
+                    .whenComplete((result, error) -> Platform.runLater(() -> {
+                        if (send.isCancelled()) {
+                            return; // the tab was reset when it was cancelled
+                        }
+                        try {
+                            if (error != null) {
+                                log.error("Error sending request: {}", error.getMessage(), error);
+                                mainController.processResponse(this, new HttpResponse.Builder()
+                                        .statusCode(500)
+                                        .error(error.getMessage())
+                                        .build());
+                            } else {
+                                onResponse(result.prepared().method(), result.response());
+                            }
+                        } finally {
+                            finishSend();
+                        }
+                    }));
+        } else {
+            mainController.showAlert("Please choose leaf", "", "Please choose a leaf GET,POST,....");
+        }
+    }
 
-                    // Resolve environment variables in the request URL
-                    String resolvedUri = targetUri;
-                    if (preRequestScriptController != null) {
-                        resolvedUri = preRequestScriptController.resolveEnvironmentVariables(targetUri);
-                        log.info("Resolved URI: {}", resolvedUri);
-                    }
+    /**
+     * @return whether a request sent from this tab is still running
+     */
+    public ReadOnlyBooleanProperty sendingProperty() {
+        return sending.getReadOnlyProperty();
+    }
 
-                    // Force the port for localhost URIs
-                    if (resolvedUri.contains("127.0.0.1") || resolvedUri.contains("localhost")) {
-                        // First try to use the port from the original URI
-                        int portToUse = serverPort;
+    public void btnCancelRequest(ActionEvent actionEvent) {
+        cancelSend();
+    }
 
-                        // If no port was found, use a fixed port for testing
-                        if (portToUse == -1) {
-                            portToUse = 8765; // Fixed port used in the test
-                            log.info("Using fixed port 8765 for localhost");
-                        }
+    /**
+     * Cancels the send running in this tab, if any, and resets the tab right away. The exchange is aborted, so its
+     * connection is freed instead of waiting for the request timeout.
+     */
+    void cancelSend() {
+        CancellationGroup send = pendingSend;
+        if (send == null) {
+            return;
+        }
+        send.cancel();
+        finishSend();
+        if (lblResponseSummary != null) {
+            lblResponseSummary.getStyleClass().removeAll("status-ok", "status-error");
+            lblResponseSummary.setText("Cancelled");
+        }
+    }
 
-                        // Replace any occurrence of localhost or 127.0.0.1 without port
-                        if (resolvedUri.contains("127.0.0.1/")) {
-                            resolvedUri = resolvedUri.replace("127.0.0.1/", "127.0.0.1:" + portToUse + "/");
-                            log.info("Fixed localhost URI with port: {}", resolvedUri);
-                        } else if (resolvedUri.contains("localhost/")) {
-                            resolvedUri = resolvedUri.replace("localhost/", "localhost:" + portToUse + "/");
-                            log.info("Fixed localhost URI with port: {}", resolvedUri);
-                        }
+    private void finishSend() {
+        pendingSend = null;
+        sending.set(false);
+        if (streamView != null) {
+            streamView.finish();
+        }
+        if (requestBodyPane != null) {
+            requestBodyPane.finishUpload();
+        }
+        mainController.updateRequestStatus();
+    }
+
+    /**
+     * Shows bytes received, throughput and time left in the status line while a download runs.
+     *
+     * @return a listener that updates the status line, at most once per frame
+     */
+    private DownloadProgress startDownload() {
+        long startedAt = System.nanoTime();
+        AtomicLong received = new AtomicLong();
+        AtomicLong total = new AtomicLong(-1);
+        AtomicBoolean refreshQueued = new AtomicBoolean();
+        lblResponseSummary.getStyleClass().removeAll("status-ok", "status-error");
+        lblResponseSummary.setText("Downloading...");
+        return (receivedBytes, totalBytes) -> {
+            received.set(receivedBytes);
+            total.set(totalBytes);
+            if (refreshQueued.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    refreshQueued.set(false);
+                    // The final summary replaces the progress once the response is shown
+                    if (!sending.get()) {
+                        return;
                     }
+                    lblResponseSummary.setText("Downloading " + TimingWaterfall.formatDownload(received.get(),
+                            total.get(), Duration.ofNanos(System.nanoTime() - startedAt)));
+                });
+            }
+        };
+    }
 
-                    // Extract query and path parameters from UI components
-                    Map<String, String> queryParams = new HashMap<>();
-                    Map<String, String> pathParams = new HashMap<>();
-
-                    // Process STextField query parameters
-                    boxRequestParams.getChildren().stream()
-                            .filter(n -> n instanceof STextField)
-                            .forEach(n -> {
-                                STextField node = (STextField) n;
-                                String paramValue = node.getText();
-                                // Resolve environment variables in parameter value
-                                if (preRequestScriptController != null) {
-                                    paramValue = preRequestScriptController.resolveEnvironmentVariables(paramValue);
-                                }
+    /**
+     * Updates the status line and the Timing tab for the response.
+     */
+    void showResponseSummary(HttpResponse response) {
+        if (lblResponseSummary == null || timingWaterfall == null) {
+            return;
+        }
+        lblResponseSummary.getStyleClass().removeAll("status-ok", "status-error");
+        RequestTiming timing = response.timing();
+        timingWaterfall.show(timing);
+        String cache = response.headers().get(ResponseCache.CACHE_HEADER);
+        if (ResponseCache.HIT.equals(cache)) {
+            lblResponseSummary.setText("%d · from cache".formatted(response.statusCode()));
+            lblResponseSummary.getStyleClass().add(response.statusCode() < 400 ? "status-ok" : "status-error");
+            return;
+        }
+        if (response.isError() || timing == null) {
+            lblResponseSummary.setText(response.isError() ? "Error" : String.valueOf(response.statusCode()));
+            lblResponseSummary.getStyleClass().add("status-error");
+            return;
+        }
+        lblResponseSummary.setText("%d · %s · %s · %s%s".formatted(response.statusCode(), timing.protocol(),
+                TimingWaterfall.formatBodySize(timing.last()), TimingWaterfall.format(timing.total()),
+                ResponseCache.REVALIDATED.equals(cache) ? " · revalidated from cache" : ""));
+        lblResponseSummary.getStyleClass().add(response.statusCode() < 400 ? "status-ok" : "status-error");
+    }
 
-                                if ("query".equals(node.getIn())) {
-                                    queryParams.put(node.getParamName(), paramValue);
-                                } else if ("path".equals(node.getIn())) {
-                                    pathParams.put(node.getParamName(), paramValue);
-                                }
-                            });
+    /**
+     * Request values collected from the tab, with environment variables, authentication and pre-request script applied.
+     */
+    record PreparedRequest(String targetUri, PathItem.HttpMethod method, Map<String, String> headers, String body,
+                           RequestBody content, Map<String, String> queryParams, Map<String, String> pathParams) {
+    }
 
-                    // Process ComboBox query parameters
-                    boxRequestParams.getChildren().stream()
-                            .filter(n -> n instanceof ComboBox && n.getUserData() instanceof STextField)
-                            .forEach(n -> {
-                                ComboBox<?> comboBox = (ComboBox<?>) n;
-                                STextField paramInfo = (STextField) comboBox.getUserData();
-
-                                if (comboBox.getValue() != null) {
-                                    String paramValue = comboBox.getValue().toString();
-                                    // Resolve environment variables in parameter value
-                                    if (preRequestScriptController != null) {
-                                        paramValue = preRequestScriptController.resolveEnvironmentVariables(paramValue);
-                                    }
+    private record SendResult(PreparedRequest prepared, HttpResponse response) {
+    }
 
-                                    if ("query".equals(paramInfo.getIn())) {
-                                        queryParams.put(paramInfo.getParamName(), paramValue);
-                                    } else if ("path".equals(paramInfo.getIn())) {
-                                        pathParams.put(paramInfo.getParamName(), paramValue);
-                                    }
-                                }
-                            });
+    /**
+     * Collects the request from the UI components. Runs on a {@link RequestExecutor} worker because pre-request scripts
+     * may block.
+     */
+    private PreparedRequest prepareRequest(String targetUri) {
+        // Get the server port from the original URI
+        int serverPort = -1;
+        try {
+            URI originalUri = URI.create(targetUri);
+            serverPort = originalUri.getPort();
+        } catch (Exception e) {
+            log.warn("Error parsing original URI: {}", e.getMessage());
+        }
 
-                    // Extract headers from UI components
-                    Map<String, String> headers = new HashMap<>();
-                    tableHeaders.getItems().forEach(item -> {
-                        if (item instanceof RequestHeader header) {
-                            if (Boolean.TRUE.equals(header.getChecked()) &&
-                                    header.getName() != null && !header.getName().isEmpty()) {
-                                String headerName = header.getName();
-                                String headerValue = header.getValue();
-
-                                // Resolve environment variables in header name and value
-                                if (preRequestScriptController != null) {
-                                    headerName = preRequestScriptController.resolveEnvironmentVariables(headerName);
-                                    headerValue = preRequestScriptController.resolveEnvironmentVariables(headerValue);
-                                }
+        // Resolve environment variables in the request URL
+        String resolvedUri = targetUri;
+        if (preRequestScriptController != null) {
+            resolvedUri = preRequestScriptController.resolveEnvironmentVariables(targetUri);
+            log.info("Resolved URI: {}", resolvedUri);
+        }
 
-                                headers.put(headerName, headerValue);
-                            }
-                        }
-                    });
+        // Force the port for localhost URIs
+        if (resolvedUri.contains("127.0.0.1") || resolvedUri.contains("localhost")) {
+            // First try to use the port from the original URI
+            int portToUse = serverPort;
 
-                    log.info("Headers before applying authentication: {}", headers);
+            // If no port was found, use a fixed port for testing
+            if (portToUse == -1) {
+                portToUse = 8765; // Fixed port used in the test
+                log.info("Using fixed port 8765 for localhost");
+            }
 
-                    // Apply authentication headers if available
-                    if (authorizationController != null) {
-                        authorizationController.applyAuthHeaders(headers);
-                        log.info("Headers after applying authentication: {}", headers);
-                    } else {
-                        log.warn("Authorization controller is null, skipping authentication");
-                    }
+            // Replace any occurrence of localhost or 127.0.0.1 without port
+            if (resolvedUri.contains("127.0.0.1/")) {
+                resolvedUri = resolvedUri.replace("127.0.0.1/", "127.0.0.1:" + portToUse + "/");
+                log.info("Fixed localhost URI with port: {}", resolvedUri);
+            } else if (resolvedUri.contains("localhost/")) {
+                resolvedUri = resolvedUri.replace("localhost/", "localhost:" + portToUse + "/");
+                log.info("Fixed localhost URI with port: {}", resolvedUri);
+            }
+        }
 
-                    // Execute pre-request script if available
+        // Extract query and path parameters from UI components
+        Map<String, String> queryParams = new HashMap<>();
+        Map<String, String> pathParams = new HashMap<>();
+
+        // Process STextField query parameters
+        boxRequestParams.getChildren().stream()
+                .filter(n -> n instanceof STextField)
+                .forEach(n -> {
+                    STextField node = (STextField) n;
+                    String paramValue = node.getText();
+                    // Resolve environment variables in parameter value
                     if (preRequestScriptController != null) {
-                        try {
-                            log.info("Executing pre-request script");
-                            // Execute script and wait for it to complete
-                            if (preRequestScriptController.getScript() != null && !preRequestScriptController.getScript()
-                                    .isEmpty())
-                                preRequestScriptController.executeScript(headers).get();
-                            log.info("Headers after executing pre-request script: {}", headers);
-                        } catch (Exception e) {
-                            log.error("Error executing pre-request script: {}", e.getMessage());
-                            // Continue with the request even if the script fails
-                        }
-                    } else {
-                        log.warn("Pre-request script controller is null, skipping script execution");
+                        paramValue = preRequestScriptController.resolveEnvironmentVariables(paramValue);
                     }
 
-                    // Get request body and resolve environment variables
-                    String body = getRequestText();
-                    if (preRequestScriptController != null) {
-                        body = preRequestScriptController.resolveEnvironmentVariables(body);
-                        log.info("Resolved request body with environment variables");
+                    if ("query".equals(node.getIn())) {
+                        queryParams.put(node.getParamName(), paramValue);
+                    } else if ("path".equals(node.getIn())) {
+                        pathParams.put(node.getParamName(), paramValue);
                     }
-                    // Apply trimming preference for request body
-                    var prefs = java.util.prefs.Preferences.userNodeForPackage(io.github.ozkanpakdil.swaggerific.SwaggerApplication.class);
-                    if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_TRIM_BODY, false)) {
-                        if (body != null) {
-                            body = body.trim();
+                });
+
+        // Process ComboBox query parameters
+        boxRequestParams.getChildren().stream()
+                .filter(n -> n instanceof ComboBox && n.getUserData() instanceof STextField)
+                .forEach(n -> {
+                    ComboBox<?> comboBox = (ComboBox<?>) n;
+                    STextField paramInfo = (STextField) comboBox.getUserData();
+
+                    if (comboBox.getValue() != null) {
+                        String paramValue = comboBox.getValue().toString();
+                        // Resolve environment variables in parameter value
+                        if (preRequestScriptController != null) {
+                            paramValue = preRequestScriptController.resolveEnvironmentVariables(paramValue);
                         }
-                    }
 
-                    // Inject default headers based on preferences
-                    if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_NO_CACHE, false)) {
-                        headers.putIfAbsent("Cache-Control", "no-cache, no-store, must-revalidate");
-                        headers.putIfAbsent("Pragma", "no-cache");
-                        headers.putIfAbsent("Expires", "0");
+                        if ("query".equals(paramInfo.getIn())) {
+                            queryParams.put(paramInfo.getParamName(), paramValue);
+                        } else if ("path".equals(paramInfo.getIn())) {
+                            pathParams.put(paramInfo.getParamName(), paramValue);
+                        }
                     }
-                    if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_SWAGGER_TOKEN, false)) {
-                        headers.putIfAbsent("X-Swagger-Token", "true");
+                });
+
+        // Extract headers from UI components; names are case-insensitive, so defaults below never duplicate them
+        Map<String, String> headers = new Headers();
+        tableHeaders.getItems().forEach(item -> {
+            if (item instanceof RequestHeader header) {
+                if (Boolean.TRUE.equals(header.getChecked()) &&
+                        header.getName() != null && !header.getName().isEmpty()) {
+                    String headerName = header.getName();
+                    String headerValue = header.getValue();
+
+                    // Resolve environment variables in header name and value
+                    if (preRequestScriptController != null) {
+                        headerName = preRequestScriptController.resolveEnvironmentVariables(headerName);
+                        headerValue = preRequestScriptController.resolveEnvironmentVariables(headerValue);
                     }
 
-                    // Get HTTP method
-                    PathItem.HttpMethod httpMethod = PathItem.HttpMethod.valueOf(
-                            cmbHttpMethod.getSelectionModel().getSelectedItem().toString());
-
-                    // Send request and get response
-                    HttpResponse response = httpUtility.sendRequest(
-                            targetUri, httpMethod, headers, body, queryParams, pathParams);
-
-                    // Save history entry (if enabled) and then process response
-                    try {
-                        java.net.URI finalUri = mainController.getHttpUtility().buildUri(targetUri, queryParams, pathParams);
-                        io.github.ozkanpakdil.swaggerific.tools.history.HistoryService.save(
-                                httpMethod.name(), finalUri, headers, body, response);
-                    } catch (Exception ex) {
-                        log.warn("Failed to save history: {}", ex.getMessage());
-                    }
+                    headers.put(headerName, headerValue);
+                }
+            }
+        });
 
-                    // Process response in the UI thread
-                    Platform.runLater(() -> {
-                        // First process the response in the UI
-                        mainController.processResponse(response);
-                        // Mark as not dirty after a successful send
-                        dirty = false;
+        log.info("Headers before applying authentication: {}", headers);
 
-                        // Fire anonymous telemetry for completed request (opt-in, no PII)
-                        try {
-                            var tprefs = java.util.prefs.Preferences.userNodeForPackage(io.github.ozkanpakdil.swaggerific.SwaggerApplication.class);
-                            io.github.ozkanpakdil.swaggerific.tools.telemetry.TelemetryService telemetry =
-                                    new io.github.ozkanpakdil.swaggerific.tools.telemetry.TelemetryService(tprefs);
-                            telemetry.sendRequestAsync(httpMethod.name(), response.statusCode());
-                        } catch (Exception ignored) {
-                        }
+        // Apply authentication headers if available
+        if (authorizationController != null) {
+            authorizationController.applyAuthHeaders(headers);
+            log.info("Headers after applying authentication: {}", headers);
+        } else {
+            log.warn("Authorization controller is null, skipping authentication");
+        }
 
-                        // Then execute response test script if available
-                        if (responseTestScriptController != null && responseTestScriptController.getScript() != null &&
-                                !responseTestScriptController.getScript().isEmpty()) {
-                            try {
-                                log.info("Executing response test script");
+        // Execute pre-request script if available
+        if (preRequestScriptController != null) {
+            try {
+                log.info("Executing pre-request script");
+                // Execute script and wait for it to complete
+                if (preRequestScriptController.getScript() != null && !preRequestScriptController.getScript()
+                        .isEmpty())
+                    preRequestScriptController.executeScript(headers).get();
+                log.info("Headers after executing pre-request script: {}", headers);
+            } catch (Exception e) {
+                log.error("Error executing pre-request script: {}", e.getMessage());
+                // Continue with the request even if the script fails
+            }
+        } else {
+            log.warn("Pre-request script controller is null, skipping script execution");
+        }
 
-                                // Clear previous test results
-                                if (tableTestResults != null) {
-                                    tableTestResults.getItems().clear();
-                                }
+        // Get request body and resolve environment variables
+        String body = getRequestText();
+        if (preRequestScriptController != null) {
+            body = preRequestScriptController.resolveEnvironmentVariables(body);
+            log.info("Resolved request body with environment variables");
+        }
+        // Apply trimming preference for request body
+        var prefs = java.util.prefs.Preferences.userNodeForPackage(io.github.ozkanpakdil.swaggerific.SwaggerApplication.class);
+        if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_TRIM_BODY, false)) {
+            if (body != null) {
+                body = body.trim();
+            }
+        }
 
-                                if (!responseTestScriptController.getScript().isEmpty())
-                                    responseTestScriptController.executeScript(response)
-                                            .thenAccept(results -> {
-                                                // Update test results table
-                                                if (tableTestResults != null && results != null) {
-                                                    // Convert assertion results to TestResult objects
-                                                    ObservableList<TestResult> testResults = FXCollections.observableArrayList();
-                                                    results.forEach(result ->
-                                                            testResults.add(new TestResult(result.passed(), result.message()))
-                                                    );
-
-                                                    // Update the table in the UI thread
-                                                    Platform.runLater(() -> {
-                                                        tableTestResults.setItems(testResults);
-
-                                                        // Count passed and failed tests
-                                                        long passedCount = testResults.stream()
-                                                                .filter(TestResult::isPassed)
-                                                                .count();
-
-                                                        log.info("Test results: {} passed, {} failed",
-                                                                passedCount, testResults.size() - passedCount);
-                                                    });
-                                                }
-                                            })
-                                            .exceptionally(e -> {
-                                                log.error("Error executing response test script: {}", e.getMessage());
-                                                return null;
-                                            });
-                            } catch (Exception e) {
-                                log.error("Error executing response test script: {}", e.getMessage());
-                            }
-                        }
-                    });
-                } finally {
-                    Platform.runLater(() -> {
-                        mainController.setIsOffloading();
-                        btnSend.setDisable(false);
-                    });
+        // Inject default headers based on preferences
+        if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_NO_CACHE, false)) {
+            headers.putIfAbsent("Cache-Control", "no-cache, no-store, must-revalidate");
+            headers.putIfAbsent("Pragma", "no-cache");
+            headers.putIfAbsent("Expires", "0");
+        }
+        if (prefs.getBoolean(io.github.ozkanpakdil.swaggerific.ui.edit.General.KEY_SWAGGER_TOKEN, false)) {
+            headers.putIfAbsent("X-Swagger-Token", "true");
+        }
+
+        // Get HTTP method
+        PathItem.HttpMethod httpMethod = PathItem.HttpMethod.valueOf(
+                cmbHttpMethod.getSelectionModel().getSelectedItem().toString());
+
+        // A file or form body replaces the editor text
+        RequestBody content = null;
+        if (requestBodyPane != null && !requestBodyPane.isRaw()) {
+            content = requestBodyPane.requestBody(preRequestScriptController != null
+                    ? preRequestScriptController::resolveEnvironmentVariables : UnaryOperator.identity());
+            body = null;
+        }
+
+        return new PreparedRequest(targetUri, httpMethod, headers, body, content, queryParams, pathParams);
+    }
+
+    private static CompletableFuture<HttpResponse> send(HttpUtility httpUtility, PreparedRequest prepared,
+                                                        UploadProgress uploadProgress, StreamListener events) {
+        if (prepared.content() != null) {
+            return httpUtility.sendRequestAsync(prepared.targetUri(), prepared.method(), prepared.headers(),
+                    prepared.content(), uploadProgress, prepared.queryParams(), prepared.pathParams(), events);
+        }
+        return httpUtility.sendRequestAsync(prepared.targetUri(), prepared.method(), prepared.headers(),
+                prepared.body(), prepared.queryParams(), prepared.pathParams(), events);
+    }
+
+    private CompletableFuture<LoadGenerator.Target> loadTestTarget() {
+        String targetUri = txtAddress.getText();
+        HttpUtility httpUtility = mainController.getHttpUtility().bulk();
+        return RequestExecutor.shared().supply(() -> prepareRequest(targetUri))
+                .thenApply(prepared -> () -> send(httpUtility, prepared, null, null));
+    }
+
+    /**
+     * @return whether the method selected in this tab is the given one
+     */
+    boolean isMethod(String method) {
+        Object selected = cmbHttpMethod.getSelectionModel().getSelectedItem();
+        return selected != null && selected.toString().equals(method);
+    }
+
+    /**
+     * Runs this tab's response test script against a response that was sent elsewhere, e.g. by the collection runner.
+     * Must be called on the FX thread.
+     *
+     * @return the assertion results, empty when the tab has no script
+     */
+    CompletableFuture<List<ResponseTestScriptController.AssertionResult>> runResponseTests(HttpResponse response) {
+        if (responseTestScriptController == null || StringUtils.isBlank(responseTestScriptController.getScript())) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return responseTestScriptController.executeScript(response);
+    }
+
+    private void saveHistory(PreparedRequest prepared, HttpResponse response) {
+        // Save history entry (if enabled)
+        try {
+            java.net.URI finalUri = mainController.getHttpUtility()
+                    .buildUri(prepared.targetUri(), prepared.queryParams(), prepared.pathParams());
+            io.github.ozkanpakdil.swaggerific.tools.history.HistoryService.save(
+                    prepared.method().name(), finalUri, prepared.headers(),
+                    prepared.content() != null ? prepared.content().describe() : prepared.body(), response);
+        } catch (Exception ex) {
+            log.warn("Failed to save history: {}", ex.getMessage());
+        }
+    }
+
+    private void onResponse(PathItem.HttpMethod httpMethod, HttpResponse response) {
+        // First process the response in the UI
+        mainController.processResponse(this, response);
+        showResponseSummary(response);
+        // Mark as not dirty after a successful send
+        dirty = false;
+
+        // Fire anonymous telemetry for completed request (opt-in, no PII)
+        try {
+            var tprefs = java.util.prefs.Preferences.userNodeForPackage(io.github.ozkanpakdil.swaggerific.SwaggerApplication.class);
+            io.github.ozkanpakdil.swaggerific.tools.telemetry.TelemetryService telemetry =
+                    new io.github.ozkanpakdil.swaggerific.tools.telemetry.TelemetryService(tprefs);
+            telemetry.sendRequestAsync(httpMethod.name(), response.statusCode());
+        } catch (Exception ignored) {
+        }
+
+        // Then execute response test script if available
+        if (responseTestScriptController != null && responseTestScriptController.getScript() != null &&
+                !responseTestScriptController.getScript().isEmpty()) {
+            try {
+                log.info("Executing response test script");
+
+                // Clear previous test results
+                if (tableTestResults != null) {
+                    tableTestResults.getItems().clear();
                 }
-            }).start();
-        } else {
-            mainController.showAlert("Please choose leaf", "", "Please choose a leaf GET,POST,....");
-            mainController.setIsOffloading();
-            btnSend.setDisable(false);
+
+                if (!responseTestScriptController.getScript().isEmpty())
+                    responseTestScriptController.executeScript(response)
+                            .thenAccept(results -> {
+                                // Update test results table
+                                if (tableTestResults != null && results != null) {
+                                    // Convert assertion results to TestResult objects
+                                    ObservableList<TestResult> testResults = FXCollections.observableArrayList();
+                                    results.forEach(result ->
+                                            testResults.add(new TestResult(result.passed(), result.message()))
+                                    );
+
+                                    // Update the table in the UI thread
+                                    Platform.runLater(() -> {
+                                        tableTestResults.setItems(testResults);
+
+                                        // Count passed and failed tests
+                                        long passedCount = testResults.stream()
+                                                .filter(TestResult::isPassed)
+                                                .count();
+
+                                        log.info("Test results: {} passed, {} failed",
+                                                passedCount, testResults.size() - passedCount);
+                                    });
+                                }
+                            })
+                            .exceptionally(e -> {
+                                log.error("Error executing response test script: {}", e.getMessage());
+                                return null;
+                            });
+            } catch (Exception e) {
+                log.error("Error executing response test script: {}", e.getMessage());
+            }
         }
     }
 
@@ -547,6 +840,22 @@ public class TabRequestController extends TabPane implements TabRequestControlle
         codeJsonRequest.setWrapText(true);
         codeJsonRequest.setId("codeJsonRequest");
         codeRequestContainer.getChildren().setAll(new VirtualizedScrollPane<>(codeJsonRequest));
+        if (requestBodyPane != null) {
+            // The editor is only the body in raw mode; files and forms are streamed instead
+            codeRequestContainer.visibleProperty().bind(requestBodyPane.rawProperty());
+            codeRequestContainer.managedProperty().bind(codeRequestContainer.visibleProperty());
+        }
+        // Only one send per tab at a time, other tabs can send meanwhile
+        btnSend.disableProperty().bind(sending);
+        if (btnDownload != null) {
+            btnDownload.disableProperty().bind(sending);
+        }
+        if (btnCancel != null) {
+            btnCancel.visibleProperty().bind(sending);
+        }
+        if (progressSend != null) {
+            progressSend.visibleProperty().bind(sending);
+        }
         codeJsonResponse = new CustomCodeArea();
         codeJsonResponse.setId("codeJsonResponse");
         responsePrettyContainer.getChildren().setAll(new VirtualizedScrollPane<>(codeJsonResponse));
@@ -584,6 +893,16 @@ public class TabRequestController extends TabPane implements TabRequestControlle
             log.info("Set environment manager in response test script controller");
         }
 
+        // The load test prepares the request once and sends it through the same pipeline as the Send button
+        if (loadTestPane != null) {
+            loadTestPane.setTargetFactory(this::loadTestTarget);
+        }
+
+        // Streamed responses never end on their own, their events are shown while they arrive
+        if (streamView != null && tabStream != null) {
+            streamView.setOnOpen(() -> tabStream.getTabPane().getSelectionModel().select(tabStream));
+        }
+
         // Initialize test results table
         if (tableTestResults != null) {
             tableTestResults.setItems(FXCollections.observableArrayList());
@@ -0,0 +1,227 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import io.github.ozkanpakdil.swaggerific.tools.load.AdaptiveLimit;
+import io.github.ozkanpakdil.swaggerific.tools.runner.CollectionRunner;
+import io.github.ozkanpakdil.swaggerific.ui.edit.General;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.prefs.Preferences;
+
+/**
+ * Runs a list of operations with {@link CollectionRunner} and streams the results into a table.
+ * <p>
+ * Results arrive on HTTP threads and are queued; the table is updated in batches a few times per second so a fast run
+ * does not flood the FX thread.
+ * <p>
+ * In adaptive mode the concurrency is the most requests in flight; the run starts with one and follows an
+ * {@link AdaptiveLimit}, whose timeline is charted above the results.
+ */
+public class CollectionRunnerView extends VBox {
+    private static final int MAX_CONCURRENCY = 64;
+
+    private final List<CollectionRunner.Request> requests;
+    private final ObservableList<Row> rows = FXCollections.observableArrayList();
+    private final Queue<CollectionRunner.Result> pending = new ConcurrentLinkedQueue<>();
+    private final Spinner<Integer> spConcurrency;
+    private final CheckBox chkAdaptive = new CheckBox("Adaptive");
+    private final LimitTimeline limitTimeline = new LimitTimeline();
+    private final Button btnRun = new Button("Run");
+    private final Label lblSummary = new Label();
+    private final Timeline drain = new Timeline(new KeyFrame(Duration.millis(200), e -> drain()));
+    private final Preferences prefs = Preferences.userNodeForPackage(SwaggerApplication.class);
+
+    private Function<CollectionRunner.Result, CompletableFuture<String>> testRunner =
+            r -> CompletableFuture.completedFuture("");
+    private CollectionRunner running;
+    private int done;
+    private int failed;
+
+    public CollectionRunnerView(List<CollectionRunner.Request> requests) {
+        this.requests = List.copyOf(requests);
+        setId("collectionRunnerView");
+        setSpacing(6);
+        setPadding(new Insets(6));
+
+        spConcurrency = new Spinner<>(1, MAX_CONCURRENCY,
+                Math.max(1, Math.min(MAX_CONCURRENCY, prefs.getInt(General.KEY_RUNNER_CONCURRENCY, 4))));
+        spConcurrency.setEditable(true);
+        spConcurrency.setPrefWidth(80);
+        spConcurrency.valueProperty().addListener((obs, o, n) -> prefs.putInt(General.KEY_RUNNER_CONCURRENCY, n));
+        chkAdaptive.setSelected(prefs.getBoolean(General.KEY_RUNNER_ADAPTIVE, false));
+        chkAdaptive.selectedProperty().addListener((obs, o, n) -> prefs.putBoolean(General.KEY_RUNNER_ADAPTIVE, n));
+        chkAdaptive.setTooltip(new Tooltip("Start with one request in flight and raise the concurrency up to the "
+                + "number set while latency stays flat; back off when it or the 429/5xx rate climbs"));
+        limitTimeline.setVisible(false);
+        limitTimeline.managedProperty().bind(limitTimeline.visibleProperty());
+        btnRun.setId("btnRunCollection");
+        btnRun.setOnAction(e -> {
+            if (running == null) {
+                start();
+            } else {
+                running.cancel();
+                btnRun.setDisable(true);
+            }
+        });
+        HBox controls = new HBox(8, new Label(requests.size() + " operations"), new Label("Concurrency"),
+                spConcurrency, chkAdaptive, btnRun, lblSummary);
+        controls.setAlignment(Pos.CENTER_LEFT);
+
+        TableView<Row> table = new TableView<>(rows);
+        table.setId("tableRunResults");
+        table.getColumns().addAll(List.of(
+                column("#", 50, r -> r.index),
+                column("Method", 70, r -> r.method),
+                column("URI", 380, r -> r.uri),
+                column("Status", 70, r -> r.status),
+                column("Time", 80, r -> r.time),
+                column("Size", 80, r -> r.size),
+                column("Tests", 200, r -> r.tests)));
+        VBox.setVgrow(table, Priority.ALWAYS);
+        getChildren().addAll(controls, limitTimeline, table);
+
+        drain.setCycleCount(Animation.INDEFINITE);
+        resetRows();
+    }
+
+    /**
+     * Sets what runs the response tests of a result. Called on the FX thread; the returned text goes in the Tests
+     * column.
+     */
+    public void setTestRunner(Function<CollectionRunner.Result, CompletableFuture<String>> testRunner) {
+        this.testRunner = testRunner;
+    }
+
+    /**
+     * Starts the run with the concurrency from the spinner.
+     */
+    public void start() {
+        resetRows();
+        done = 0;
+        failed = 0;
+        CollectionRunner runner = chkAdaptive.isSelected()
+                ? new CollectionRunner(requests, new AdaptiveLimit(1, spConcurrency.getValue()))
+                : new CollectionRunner(requests, spConcurrency.getValue());
+        running = runner;
+        btnRun.setText("Stop");
+        spConcurrency.setDisable(true);
+        chkAdaptive.setDisable(true);
+        limitTimeline.setVisible(runner.adaptiveLimit() != null);
+        limitTimeline.show(List.of());
+        drain.play();
+        runner.start(pending::add).whenComplete((summary, error) -> Platform.runLater(() -> {
+            drain.stop();
+            drain();
+            running = null;
+            btnRun.setText("Run");
+            btnRun.setDisable(false);
+            spConcurrency.setDisable(false);
+            chkAdaptive.setDisable(false);
+            if (summary != null) {
+                String text = String.format(Locale.ROOT, "%s: %d of %d done, %d failed in %.1f s",
+                        summary.cancelled() ? "Stopped" : "Finished", summary.completed(), summary.total(),
+                        summary.failed(), summary.elapsed().toMillis() / 1000d);
+                if (!summary.limits().isEmpty()) {
+                    limitTimeline.show(summary.limits());
+                    text += ", concurrency limit ended at " + LimitTimeline.last(summary.limits());
+                }
+                lblSummary.setText(text + " · " + summary.connections().summary());
+            }
+        }));
+    }
+
+    /**
+     * Aborts a run in progress and stops updating the table, for when the tab closes.
+     */
+    public void stop() {
+        CollectionRunner runner = running;
+        if (runner != null) {
+            runner.cancel();
+        }
+        drain.stop();
+    }
+
+    private void resetRows() {
+        pending.clear();
+        rows.setAll(requests.stream().map(Row::new).toList());
+        lblSummary.setText("");
+    }
+
+    private void drain() {
+        CollectionRunner.Result result;
+        while ((result = pending.poll()) != null) {
+            Row row = rows.get(result.request().index());
+            done++;
+            if (result.failed()) {
+                failed++;
+            }
+            row.status.set(result.response().isError() ? "Error" : String.valueOf(result.response().statusCode()));
+            row.time.set(TimingWaterfall.format(result.latency()));
+            row.size.set(TimingWaterfall.formatBytes(result.size()));
+            if (result.response().isError()) {
+                row.tests.set(result.response().errorMessage());
+                continue;
+            }
+            testRunner.apply(result).whenComplete((text, error) -> Platform.runLater(() ->
+                    row.tests.set(error != null ? "Script error: " + error.getMessage() : text)));
+        }
+        if (running != null) {
+            AdaptiveLimit limit = running.adaptiveLimit();
+            String text = "%d of %d done, %d failed".formatted(done, requests.size(), failed);
+            if (limit != null) {
+                limitTimeline.show(limit.timeline());
+                text += ", concurrency limit " + limit.limit();
+            }
+            lblSummary.setText(text);
+        }
+    }
+
+    private static TableColumn<Row, String> column(String title, double width,
+                                                   Function<Row, SimpleStringProperty> property) {
+        TableColumn<Row, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(c -> property.apply(c.getValue()));
+        return column;
+    }
+
+    private static final class Row {
+        final SimpleStringProperty index;
+        final SimpleStringProperty method;
+        final SimpleStringProperty uri;
+        final SimpleStringProperty status = new SimpleStringProperty("queued");
+        final SimpleStringProperty time = new SimpleStringProperty("");
+        final SimpleStringProperty size = new SimpleStringProperty("");
+        final SimpleStringProperty tests = new SimpleStringProperty("");
+
+        Row(CollectionRunner.Request request) {
+            index = new SimpleStringProperty(String.valueOf(request.index() + 1));
+            method = new SimpleStringProperty(request.method());
+            uri = new SimpleStringProperty(request.uri());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestExecutor;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Read-only viewer for response bodies that were written to disk.
+ * <p>
+ * The file is memory mapped and indexed in the background; the list only decodes the rows that are visible, so the
+ * size of the body does not matter for heap usage.
+ */
+public class LargeResponseViewer extends ListView<String> {
+    private static final Logger log = LoggerFactory.getLogger(LargeResponseViewer.class);
+
+    private final Label placeholder = new Label("Indexing response...");
+    private MappedTextFile file;
+
+    public LargeResponseViewer() {
+        setId("largeResponseViewer");
+        getStyleClass().add("large-response-viewer");
+        setPlaceholder(placeholder);
+        setFixedCellSize(18);
+        getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : item);
+            }
+        });
+    }
+
+    /**
+     * Shows the given file, releasing the previously shown one.
+     */
+    public void open(Path path, Charset charset) {
+        release();
+        setItems(FXCollections.emptyObservableList());
+        placeholder.setText("Indexing response...");
+        try {
+            MappedTextFile opened = new MappedTextFile(path, charset);
+            file = opened;
+            RequestExecutor.shared().run(() -> opened.buildIndex(p ->
+                            Platform.runLater(() -> placeholder.setText("Indexing response... %d%%".formatted((int) (p * 100))))))
+                    .whenComplete((ignored, error) -> Platform.runLater(() -> {
+                        if (file != opened) {
+                            return; // replaced while indexing
+                        }
+                        if (error != null) {
+                            log.error("Failed to index response file {}", path, error);
+                            placeholder.setText("Failed to index response: " + error.getMessage());
+                        } else {
+                            log.info("Indexed {} rows of {} bytes from {}", opened.rowCount(), opened.size(), path);
+                            setItems(FXCollections.observableList(opened.rows()));
+                        }
+                    }));
+        } catch (IOException e) {
+            log.error("Failed to open response file {}", path, e);
+            placeholder.setText("Failed to open response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the mapped file and deletes it.
+     */
+    public void release() {
+        if (file == null) {
+            return;
+        }
+        MappedTextFile previous = file;
+        file = null;
+        setItems(FXCollections.emptyObservableList());
+        try {
+            previous.close();
+            Files.deleteIfExists(previous.path());
+        } catch (IOException e) {
+            // On Windows the mapping may still hold the file until it is garbage collected, deleteOnExit covers it
+            log.debug("Could not delete response file {}: {}", previous.path(), e.getMessage());
+        }
+    }
+}
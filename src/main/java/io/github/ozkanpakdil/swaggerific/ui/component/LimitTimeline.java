@@ -0,0 +1,57 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.load.AdaptiveLimit;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chart of an adaptive concurrency limit over a run, with the average latency of each window on the same time axis.
+ * The limit the line settles on is the highest concurrency the target handled without slowing down.
+ */
+public class LimitTimeline extends LineChart<Number, Number> {
+    private final XYChart.Series<Number, Number> limit = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> latency = new XYChart.Series<>();
+
+    public LimitTimeline() {
+        super(new NumberAxis(), new NumberAxis());
+        getStyleClass().add("limit-timeline");
+        getXAxis().setLabel("Seconds");
+        getYAxis().setLabel("Concurrency limit / latency (ms)");
+        limit.setName("Concurrency limit");
+        latency.setName("Window latency (ms)");
+        getData().addAll(List.of(limit, latency));
+        setCreateSymbols(false);
+        setAnimated(false);
+        setPrefHeight(180);
+        setMinHeight(140);
+    }
+
+    /**
+     * Replaces the chart with the given points.
+     */
+    public void show(List<AdaptiveLimit.Point> points) {
+        List<XYChart.Data<Number, Number>> limits = new ArrayList<>(points.size());
+        List<XYChart.Data<Number, Number>> latencies = new ArrayList<>(points.size());
+        for (AdaptiveLimit.Point point : points) {
+            double seconds = point.at().toMillis() / 1000d;
+            limits.add(new XYChart.Data<>(seconds, point.limit()));
+            // The first point is the starting limit, no latency was measured yet
+            if (!point.latency().isZero()) {
+                latencies.add(new XYChart.Data<>(seconds, point.latency().toNanos() / 1e6));
+            }
+        }
+        limit.getData().setAll(limits);
+        latency.getData().setAll(latencies);
+    }
+
+    /**
+     * @return the last limit in the chart, or 0 when it is empty
+     */
+    public static int last(List<AdaptiveLimit.Point> points) {
+        return points.isEmpty() ? 0 : points.get(points.size() - 1).limit();
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HostRateLimiter;
+import io.github.ozkanpakdil.swaggerific.tools.load.ConstantRateLoadTest;
+import io.github.ozkanpakdil.swaggerific.tools.load.LoadGenerator;
+import io.github.ozkanpakdil.swaggerific.tools.load.LoadReport;
+import io.github.ozkanpakdil.swaggerific.tools.load.LoadTest;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the request of a tab as a load test and shows latency percentiles, throughput, error rate and the status code
+ * breakdown, refreshed while the test runs.
+ * <p>
+ * The closed model runs a number of virtual users that wait for each response; the open model sends at a fixed arrival
+ * rate and also shows the service time next to the coordinated-omission corrected latency. The closed model can also
+ * adapt the number of users to the target and chart the concurrency limit it found.
+ */
+public class LoadTestPane extends VBox {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestPane.class);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final int MAX_CONCURRENCY = 256;
+    private static final String CLOSED_MODEL = "Virtual users (closed)";
+    private static final String OPEN_MODEL = "Arrival rate (open)";
+
+    private final ComboBox<String> cmbModel = new ComboBox<>();
+    private final RadioButton rbRequests = new RadioButton("Requests");
+    private final RadioButton rbDuration = new RadioButton("Duration (s)");
+    private final Spinner<Integer> spRequests = new Spinner<>(1, 1_000_000, 100);
+    private final Spinner<Integer> spDuration = new Spinner<>(1, 3600, 10);
+    private final Spinner<Integer> spConcurrency = new Spinner<>(1, MAX_CONCURRENCY, 10);
+    private final CheckBox chkAdaptive = new CheckBox("Adaptive");
+    private final Spinner<Integer> spRate = new Spinner<>(1, 100_000, 100);
+    private final Spinner<Integer> spStartRate = new Spinner<>(1, 100_000, 10);
+    private final Spinner<Integer> spRampUp = new Spinner<>(0, 3600, 0);
+    private final Spinner<Integer> spRateDuration = new Spinner<>(1, 3600, 10);
+    private final Spinner<Integer> spMaxInFlight = new Spinner<>(1, 10_000, 1000);
+    private final Button btnRun = new Button("Run");
+    private final Label lblStatus = new Label("Sends the current request repeatedly and measures the latency.");
+    private final GridPane results = new GridPane();
+    private final LimitTimeline limitTimeline = new LimitTimeline();
+    private final Timeline refresh = new Timeline(new KeyFrame(Duration.millis(500), e -> refresh()));
+
+    private Supplier<CompletableFuture<LoadGenerator.Target>> targetFactory;
+    private LoadGenerator running;
+
+    public LoadTestPane() {
+        setId("loadTestPane");
+        getStyleClass().add("load-test-pane");
+        setSpacing(8);
+        setPadding(new Insets(6));
+
+        ToggleGroup mode = new ToggleGroup();
+        rbRequests.setToggleGroup(mode);
+        rbDuration.setToggleGroup(mode);
+        rbRequests.setSelected(true);
+        spRequests.disableProperty().bind(rbDuration.selectedProperty());
+        spDuration.disableProperty().bind(rbRequests.selectedProperty());
+        spStartRate.disableProperty().bind(spRampUp.valueProperty().isEqualTo(0));
+        for (Spinner<Integer> spinner : new Spinner[]{spRequests, spDuration, spConcurrency, spRate, spStartRate,
+                spRampUp, spRateDuration, spMaxInFlight}) {
+            spinner.setEditable(true);
+            spinner.setPrefWidth(100);
+        }
+        btnRun.setId("btnRunLoadTest");
+        btnRun.setOnAction(e -> {
+            if ("Run".equals(btnRun.getText())) {
+                start();
+            } else if (running != null) {
+                running.stop();
+                btnRun.setDisable(true);
+            }
+        });
+
+        HBox closedControls = new HBox(8, rbRequests, spRequests, rbDuration, spDuration,
+                new Label("Concurrency"), spConcurrency, chkAdaptive);
+        chkAdaptive.setTooltip(new Tooltip("Start with one user and add users up to the concurrency while latency "
+                + "stays flat; remove them when it or the 429/5xx rate climbs"));
+        limitTimeline.setVisible(false);
+        limitTimeline.managedProperty().bind(limitTimeline.visibleProperty());
+        HBox openControls = new HBox(8, new Label("Rate (req/s)"), spRate, new Label("Ramp-up (s)"), spRampUp,
+                new Label("from (req/s)"), spStartRate, new Label("Duration (s)"), spRateDuration,
+                new Label("Max in flight"), spMaxInFlight);
+        cmbModel.getItems().setAll(CLOSED_MODEL, OPEN_MODEL);
+        cmbModel.getSelectionModel().select(CLOSED_MODEL);
+        for (HBox box : new HBox[]{closedControls, openControls}) {
+            box.setAlignment(Pos.CENTER_LEFT);
+            box.managedProperty().bind(box.visibleProperty());
+        }
+        closedControls.visibleProperty().bind(cmbModel.valueProperty().isEqualTo(CLOSED_MODEL));
+        openControls.visibleProperty().bind(cmbModel.valueProperty().isEqualTo(OPEN_MODEL));
+        cmbModel.disableProperty().bind(btnRun.textProperty().isNotEqualTo("Run"));
+        HBox controls = new HBox(8, new Label("Model"), cmbModel, btnRun);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        results.setHgap(16);
+        results.setVgap(4);
+        refresh.setCycleCount(Animation.INDEFINITE);
+        getChildren().addAll(controls, closedControls, openControls, lblStatus, results, limitTimeline);
+    }
+
+    /**
+     * Sets how the request is prepared. The factory is called once per run, and the returned target once per request.
+     */
+    public void setTargetFactory(Supplier<CompletableFuture<LoadGenerator.Target>> targetFactory) {
+        this.targetFactory = targetFactory;
+    }
+
+    private void start() {
+        if (targetFactory == null) {
+            return;
+        }
+        Function<LoadGenerator.Target, LoadGenerator> generator;
+        try {
+            generator = generatorFactory();
+        } catch (IllegalArgumentException e) {
+            lblStatus.setText(e.getMessage());
+            return;
+        }
+        btnRun.setText("Stop");
+        lblStatus.setText("Preparing request...");
+        results.getChildren().clear();
+        limitTimeline.setVisible(false);
+        targetFactory.get()
+                .thenCompose(target -> {
+                    LoadGenerator test = generator.apply(target);
+                    Platform.runLater(() -> {
+                        running = test;
+                        refresh.play();
+                    });
+                    return test.start();
+                })
+                .whenComplete((report, error) -> Platform.runLater(() -> {
+                    refresh.stop();
+                    running = null;
+                    btnRun.setText("Run");
+                    btnRun.setDisable(false);
+                    if (error != null) {
+                        log.error("Load test failed: {}", error.getMessage(), error);
+                        lblStatus.setText("Load test failed: " + error.getMessage());
+                    } else {
+                        show(report);
+                    }
+                }));
+    }
+
+    private Function<LoadGenerator.Target, LoadGenerator> generatorFactory() {
+        if (OPEN_MODEL.equals(cmbModel.getValue())) {
+            ConstantRateLoadTest.Options options = ConstantRateLoadTest.Options.ramped(spStartRate.getValue(),
+                    spRate.getValue(), java.time.Duration.ofSeconds(spRampUp.getValue()),
+                    java.time.Duration.ofSeconds(spRateDuration.getValue()), spMaxInFlight.getValue());
+            return target -> new ConstantRateLoadTest(options, target);
+        }
+        LoadTest.Options options = rbRequests.isSelected()
+                ? LoadTest.Options.ofRequests(spRequests.getValue(), spConcurrency.getValue())
+                : LoadTest.Options.ofDuration(java.time.Duration.ofSeconds(spDuration.getValue()), spConcurrency.getValue());
+        LoadTest.Options closed = chkAdaptive.isSelected() ? options.adaptively() : options;
+        return target -> new LoadTest(closed, target);
+    }
+
+    private void refresh() {
+        if (running != null) {
+            show(running.snapshot());
+        }
+    }
+
+    private void show(LoadReport report) {
+        lblStatus.setText((report.finished() ? "Finished: " : "Running: ") + report.summary());
+        results.getChildren().clear();
+        boolean open = OPEN_MODEL.equals(cmbModel.getValue());
+        int row = 0;
+        if (open) {
+            results.addRow(row++, new Label(""), new Label("Latency"), new Label("Service time"));
+        }
+        for (double percentile : PERCENTILES) {
+            Label latency = value(TimingWaterfall.format(report.percentile(percentile)));
+            if (open) {
+                results.addRow(row++, new Label("p" + trim(percentile)), latency,
+                        value(TimingWaterfall.format(report.servicePercentile(percentile))));
+            } else {
+                results.addRow(row++, new Label("p" + trim(percentile)), latency);
+            }
+        }
+        results.addRow(row++, new Label("Min / mean / max"), value(TimingWaterfall.format(report.min()) + " / "
+                + TimingWaterfall.format(report.mean()) + " / " + TimingWaterfall.format(report.max())));
+        results.addRow(row++, new Label("Throughput"), value(String.format(Locale.ROOT, "%.1f req/s", report.throughput())));
+        results.addRow(row++, new Label("Errors"), value(String.format(Locale.ROOT, "%d (%.2f%%)", report.errors(),
+                report.errorRate() * 100)));
+        if (open) {
+            results.addRow(row++, new Label("Dropped / late"), value(report.dropped() + " / " + report.late()));
+        }
+        int rateLimited = HostRateLimiter.shared().waiting();
+        if (!report.finished() && rateLimited > 0) {
+            // Sends from other tabs and runners to the same hosts share the limit and are counted as well
+            results.addRow(row++, new Label("Waiting for rate limit"), value(String.valueOf(rateLimited)));
+        }
+        for (Map.Entry<Integer, Long> status : report.statusCodes().entrySet()) {
+            results.addRow(row++, new Label("Status " + status.getKey()), value(String.valueOf(status.getValue())));
+        }
+        results.addRow(row++, new Label("Connections"), value(report.connections().summary()));
+        if (!report.limits().isEmpty()) {
+            results.addRow(row++, new Label("Concurrency limit"), value(String.valueOf(LimitTimeline.last(report.limits()))));
+            limitTimeline.show(report.limits());
+            limitTimeline.setVisible(true);
+        }
+    }
+
+    private static Label value(String text) {
+        Label label = new Label(text);
+        label.getStyleClass().add("load-test-value");
+        return label;
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
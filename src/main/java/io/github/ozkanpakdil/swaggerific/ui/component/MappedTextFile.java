@@ -0,0 +1,166 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Read-only, memory-mapped view of a text file split into rows.
+ * <p>
+ * The file is mapped in segments so files larger than 2 GB work, and nothing is copied onto the heap except a
+ * {@code long[]} with the start offset of every row. A row ends at a line feed, or after {@link #MAX_ROW_BYTES} bytes
+ * so single-line payloads (minified JSON) are still paged. Rows are decoded on demand, which lets a virtualized control
+ * render only what is visible.
+ */
+public class MappedTextFile implements AutoCloseable {
+    static final int MAX_ROW_BYTES = 4096;
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final Path path;
+    private final Charset charset;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private long[] rowOffsets = new long[0];
+    private int rowCount;
+
+    public MappedTextFile(Path path, Charset charset) throws IOException {
+        this.path = path;
+        this.charset = charset;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        int count = (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        this.segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+        }
+    }
+
+    /**
+     * Scans the file once and records where each row starts. Meant to run off the FX thread.
+     *
+     * @param progress receives values between 0 and 1 while scanning, may be {@code null}
+     */
+    public void buildIndex(DoubleConsumer progress) {
+        long[] offsets = new long[1024];
+        int rows = 0;
+        long rowStart = 0;
+        long lastReport = 0;
+        if (size > 0) {
+            offsets[rows++] = 0;
+        }
+        for (long pos = 0; pos < size; pos++) {
+            byte b = byteAt(pos);
+            long next = pos + 1;
+            boolean lineEnd = b == '\n';
+            if (!lineEnd && next - rowStart >= MAX_ROW_BYTES && next < size) {
+                // Break long rows, but never inside a UTF-8 sequence
+                while (next > rowStart + 1 && (byteAt(next) & 0xC0) == 0x80) {
+                    next--;
+                }
+                pos = next - 1;
+                lineEnd = true;
+            }
+            if (lineEnd && next < size) {
+                if (rows == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[rows++] = next;
+                rowStart = next;
+            }
+            if (progress != null && pos - lastReport > SEGMENT_SIZE / 64) {
+                lastReport = pos;
+                progress.accept(pos / (double) size);
+            }
+        }
+        synchronized (this) {
+            rowOffsets = offsets;
+            rowCount = rows;
+        }
+        if (progress != null) {
+            progress.accept(1);
+        }
+    }
+
+    public synchronized int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Decodes a single row, without the trailing line break.
+     */
+    public String row(int index) {
+        long start;
+        long end;
+        synchronized (this) {
+            if (index < 0 || index >= rowCount) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            start = rowOffsets[index];
+            end = index + 1 < rowCount ? rowOffsets[index + 1] : size;
+        }
+        byte[] bytes = new byte[(int) (end - start)];
+        read(start, bytes);
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\n') {
+            length--;
+            if (length > 0 && bytes[length - 1] == '\r') {
+                length--;
+            }
+        }
+        return new String(bytes, 0, length, charset);
+    }
+
+    /**
+     * @return the rows as a list that decodes each element when it is read
+     */
+    public AbstractList<String> rows() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return row(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount();
+            }
+        };
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    private byte byteAt(long pos) {
+        return segments[(int) (pos / SEGMENT_SIZE)].get((int) (pos % SEGMENT_SIZE));
+    }
+
+    private void read(long pos, byte[] target) {
+        int done = 0;
+        while (done < target.length) {
+            long at = pos + done;
+            MappedByteBuffer segment = segments[(int) (at / SEGMENT_SIZE)];
+            int offset = (int) (at % SEGMENT_SIZE);
+            int length = Math.min(target.length - done, segment.limit() - offset);
+            segment.get(offset, target, done, length);
+            done += length;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestBody;
+import io.github.ozkanpakdil.swaggerific.tools.http.UploadProgress;
+import javafx.application.Platform;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Chooses how the request body is sent: the raw text of the editor, a file streamed from disk, or a multipart form of
+ * text and file fields. Also shows the upload progress of streamed bodies.
+ */
+public class RequestBodyPane extends VBox {
+    public static final String RAW = "Raw";
+    public static final String FILE = "File";
+    public static final String FORM_DATA = "Form data (multipart)";
+
+    private final ComboBox<String> cmbMode = new ComboBox<>();
+    private final Label lblFile = new Label("No file chosen");
+    private final TextField txtContentType = new TextField();
+    private final ObservableList<PartRow> parts = FXCollections.observableArrayList();
+    private final TableView<PartRow> partsTable = new TableView<>(parts);
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label lblProgress = new Label();
+    private final HBox progressBox = new HBox(8, progressBar, lblProgress);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong total = new AtomicLong(-1);
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private Path file;
+
+    public RequestBodyPane() {
+        setId("requestBodyPane");
+        setSpacing(6);
+        setPadding(new Insets(4));
+
+        cmbMode.setId("cmbBodyMode");
+        cmbMode.getItems().setAll(RAW, FILE, FORM_DATA);
+        cmbMode.getSelectionModel().select(RAW);
+        HBox modeBox = new HBox(8, new Label("Body"), cmbMode);
+        modeBox.setAlignment(Pos.CENTER_LEFT);
+
+        Button btnChooseFile = new Button("Choose file...");
+        btnChooseFile.setOnAction(e -> chooseFile().ifPresent(this::setFile));
+        txtContentType.setPromptText("Content type (detected from the file)");
+        txtContentType.setPrefWidth(260);
+        HBox fileBox = new HBox(8, btnChooseFile, lblFile, txtContentType);
+        fileBox.setAlignment(Pos.CENTER_LEFT);
+
+        setUpPartsTable();
+        VBox formBox = new VBox(6, partsTable, formButtons());
+
+        progressBar.setPrefWidth(200);
+        progressBox.setAlignment(Pos.CENTER_LEFT);
+
+        for (var box : List.of(fileBox, formBox, progressBox)) {
+            box.managedProperty().bind(box.visibleProperty());
+        }
+        fileBox.visibleProperty().bind(cmbMode.valueProperty().isEqualTo(FILE));
+        formBox.visibleProperty().bind(cmbMode.valueProperty().isEqualTo(FORM_DATA));
+        progressBox.setVisible(false);
+        VBox.setVgrow(formBox, Priority.ALWAYS);
+        getChildren().addAll(modeBox, fileBox, formBox, progressBox);
+    }
+
+    /**
+     * @return true while the raw editor is the body
+     */
+    public BooleanBinding rawProperty() {
+        return cmbMode.valueProperty().isEqualTo(RAW);
+    }
+
+    public boolean isRaw() {
+        return RAW.equals(cmbMode.getValue());
+    }
+
+    /**
+     * Builds the streamed body. Text fields are passed through {@code resolve}, so environment variables apply to them.
+     *
+     * @return the body, or {@code null} when the raw editor is used
+     * @throws IllegalStateException when no file was chosen
+     */
+    public RequestBody requestBody(UnaryOperator<String> resolve) {
+        if (FILE.equals(cmbMode.getValue())) {
+            if (file == null) {
+                throw new IllegalStateException("Choose a file to upload");
+            }
+            return new RequestBody.FileBody(file, txtContentType.getText());
+        }
+        if (FORM_DATA.equals(cmbMode.getValue())) {
+            List<RequestBody.Part> form = new ArrayList<>();
+            for (PartRow row : parts) {
+                String name = resolve.apply(row.name.get());
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                if (row.file.get() != null) {
+                    form.add(RequestBody.Part.file(name, row.file.get(), null));
+                } else {
+                    form.add(RequestBody.Part.text(name, resolve.apply(row.value.get())));
+                }
+            }
+            return new RequestBody.Multipart(form);
+        }
+        return null;
+    }
+
+    /**
+     * Resets the progress display for a new upload.
+     *
+     * @return a listener that updates the display, at most once per frame
+     */
+    public UploadProgress startUpload() {
+        sent.set(0);
+        total.set(-1);
+        progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        lblProgress.setText("Uploading...");
+        progressBox.setVisible(true);
+        return (sentBytes, totalBytes) -> {
+            sent.set(sentBytes);
+            total.set(totalBytes);
+            if (refreshQueued.compareAndSet(false, true)) {
+                Platform.runLater(this::refreshProgress);
+            }
+        };
+    }
+
+    /**
+     * Hides the progress display once the response arrived.
+     */
+    public void finishUpload() {
+        progressBox.setVisible(false);
+    }
+
+    private void refreshProgress() {
+        refreshQueued.set(false);
+        long s = sent.get();
+        long t = total.get();
+        if (t > 0) {
+            progressBar.setProgress(Math.min(1, s / (double) t));
+            lblProgress.setText("Uploaded " + TimingWaterfall.formatBytes(s) + " of " + TimingWaterfall.formatBytes(t));
+        } else {
+            lblProgress.setText("Uploaded " + TimingWaterfall.formatBytes(s));
+        }
+    }
+
+    private void setUpPartsTable() {
+        TableView<PartRow> table = partsTable;
+        table.setId("tableFormParts");
+        table.setEditable(true);
+        table.setPrefHeight(160);
+        TableColumn<PartRow, String> name = new TableColumn<>("Name");
+        name.setPrefWidth(180);
+        name.setCellValueFactory(c -> c.getValue().name);
+        name.setCellFactory(TextFieldTableCell.forTableColumn());
+        TableColumn<PartRow, String> value = new TableColumn<>("Value");
+        value.setPrefWidth(360);
+        value.setCellValueFactory(c -> c.getValue().value);
+        value.setCellFactory(TextFieldTableCell.forTableColumn());
+        value.setOnEditStart(e -> {
+            // The value of a file field is its path, chosen with the file chooser
+            if (e.getRowValue() != null && e.getRowValue().file.get() != null) {
+                e.getTableView().edit(-1, null);
+            }
+        });
+        table.getColumns().addAll(List.of(name, value));
+        VBox.setVgrow(table, Priority.ALWAYS);
+    }
+
+    private HBox formButtons() {
+        Button btnAddText = new Button("Add text field");
+        btnAddText.setOnAction(e -> parts.add(new PartRow("", "", null)));
+        Button btnAddFile = new Button("Add file...");
+        btnAddFile.setOnAction(e -> chooseFile().ifPresent(f ->
+                parts.add(new PartRow(String.valueOf(f.getFileName()), f.toString(), f))));
+        Button btnRemove = new Button("Remove");
+        btnRemove.setOnAction(e -> {
+            int selected = partsTable.getSelectionModel().getSelectedIndex();
+            if (selected >= 0) {
+                parts.remove(selected);
+            }
+        });
+        HBox buttons = new HBox(8, btnAddText, btnAddFile, btnRemove);
+        buttons.setAlignment(Pos.CENTER_LEFT);
+        return buttons;
+    }
+
+    private Optional<Path> chooseFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Choose file to upload");
+        File chosen = chooser.showOpenDialog(getScene() == null ? null : getScene().getWindow());
+        return Optional.ofNullable(chosen).map(File::toPath);
+    }
+
+    private void setFile(Path file) {
+        this.file = file;
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (Exception e) {
+            size = -1;
+        }
+        lblFile.setText(file.getFileName() + (size >= 0 ? " (" + TimingWaterfall.formatBytes(size) + ")" : ""));
+    }
+
+    private static final class PartRow {
+        final SimpleStringProperty name;
+        final SimpleStringProperty value;
+        final SimpleObjectProperty<Path> file;
+
+        PartRow(String name, String value, Path file) {
+            this.name = new SimpleStringProperty(name);
+            this.value = new SimpleStringProperty(value);
+            this.file = new SimpleObjectProperty<>(file);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.MessageLog;
+import io.github.ozkanpakdil.swaggerific.tools.http.StreamEvent;
+import io.github.ozkanpakdil.swaggerific.tools.http.StreamListener;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Shows the events of a server-sent event or NDJSON response while the response streams in, each with the time it
+ * arrived, and how many arrive per second.
+ * <p>
+ * Events arrive on HTTP threads and go to a {@link MessageLog}; the list takes whatever arrived once per frame and
+ * keeps the last {@value #MAX_ROWS} events, so a fast stream neither floods the FX thread nor grows without bound.
+ */
+public class StreamView extends VBox {
+    static final int MAX_ROWS = 10_000;
+    private static final int MAX_PENDING = 5_000;
+    private static final int PREVIEW_LENGTH = 300;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final ObservableList<StreamEvent> rows = FXCollections.observableArrayList();
+    private final ListView<StreamEvent> list = new ListView<>(rows);
+    private final TextArea txtDetail = new TextArea();
+    private final CheckBox chkFollow = new CheckBox("Follow");
+    private final Label lblStatus = new Label("Server-sent events and NDJSON responses are shown here as they arrive.");
+    private final Label lblRate = new Label();
+    private final AnimationTimer drain = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drain();
+        }
+    };
+    private MessageLog<StreamEvent> events;
+    private Runnable onOpen = () -> {
+    };
+
+    public StreamView() {
+        setId("streamView");
+        setSpacing(6);
+        setPadding(new Insets(6));
+
+        list.setId("listStreamEvents");
+        list.setCellFactory(v -> new EventCell());
+        list.getSelectionModel().selectedItemProperty().addListener((obs, o, event) ->
+                txtDetail.setText(event == null ? "" : event.data()));
+        txtDetail.setEditable(false);
+        txtDetail.setWrapText(true);
+        SplitPane split = new SplitPane(list, txtDetail);
+        split.setOrientation(Orientation.VERTICAL);
+        split.setDividerPositions(0.75);
+        VBox.setVgrow(split, Priority.ALWAYS);
+
+        chkFollow.setSelected(true);
+        Button btnClear = new Button("Clear");
+        btnClear.setOnAction(e -> rows.clear());
+        HBox status = new HBox(12, lblStatus, lblRate, chkFollow, btnClear);
+        status.setAlignment(Pos.CENTER_LEFT);
+        getChildren().addAll(status, split);
+    }
+
+    /**
+     * Sets what runs on the FX thread when a response turns out to be a stream, e.g. selecting the tab of this view.
+     */
+    public void setOnOpen(Runnable onOpen) {
+        this.onOpen = onOpen;
+    }
+
+    /**
+     * Prepares the view for a new request.
+     *
+     * @return the listener to pass with the request; its events show up in this view
+     */
+    public StreamListener listener() {
+        MessageLog<StreamEvent> log = new MessageLog<>(MAX_PENDING, StreamView::dropped);
+        events = log;
+        return new StreamListener() {
+            @Override
+            public void onOpen(int statusCode, String contentType) {
+                Platform.runLater(() -> {
+                    if (events != log) {
+                        return;
+                    }
+                    rows.clear();
+                    lblStatus.setText("Streaming " + contentType);
+                    drain.start();
+                    onOpen.run();
+                });
+            }
+
+            @Override
+            public void onEvent(StreamEvent event) {
+                log.add(event);
+            }
+        };
+    }
+
+    /**
+     * Shows the last events of the stream and stops refreshing, once the response ended or was cancelled.
+     */
+    public void finish() {
+        if (events == null) {
+            return;
+        }
+        drain();
+        drain.stop();
+        if (!rows.isEmpty()) {
+            lblStatus.setText("Stream ended");
+        }
+        events = null;
+    }
+
+    private void drain() {
+        MessageLog<StreamEvent> log = events;
+        if (log == null) {
+            return;
+        }
+        MessageLog.Batch<StreamEvent> batch = log.drain();
+        lblRate.setText(String.format(Locale.ROOT, "%,.0f events/s, %,d total", batch.perSecond(), batch.total()));
+        if (batch.messages().isEmpty()) {
+            return;
+        }
+        rows.addAll(batch.messages());
+        if (rows.size() > MAX_ROWS) {
+            rows.remove(0, rows.size() - MAX_ROWS);
+        }
+        if (chkFollow.isSelected()) {
+            list.scrollTo(rows.size() - 1);
+        }
+    }
+
+    private static StreamEvent dropped(long count) {
+        return new StreamEvent(Instant.now(), -1, "dropped", null,
+                count + " event(s) dropped, the view could not keep up");
+    }
+
+    private static final class EventCell extends ListCell<StreamEvent> {
+        @Override
+        protected void updateItem(StreamEvent event, boolean empty) {
+            super.updateItem(event, empty);
+            if (empty || event == null) {
+                setText(null);
+                return;
+            }
+            String data = event.data();
+            if (data.length() > PREVIEW_LENGTH) {
+                data = data.substring(0, PREVIEW_LENGTH) + "…";
+            }
+            StringBuilder text = new StringBuilder(TIME.format(event.at())).append(' ');
+            if (event.index() >= 0) {
+                text.append('#').append(event.index() + 1).append(' ');
+            }
+            if (event.type() != null) {
+                text.append('[').append(event.type()).append("] ");
+            }
+            setText(text.append(data.replace('\n', ' ')).toString());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.RequestTiming;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shows the phases of a request as a waterfall, one row per redirect hop, followed by the server reported timings.
+ * A request that was retried or hedged first gets one row per attempt.
+ */
+public class TimingWaterfall extends VBox {
+    private static final String[] PHASES = {"DNS", "Connect", "TLS", "Waiting", "Download"};
+    private static final String[] PHASE_STYLES = {"timing-dns", "timing-connect", "timing-tls", "timing-waiting",
+            "timing-download"};
+    private static final int TLS_PHASE = 2;
+
+    public TimingWaterfall() {
+        setId("timingWaterfall");
+        getStyleClass().add("timing-waterfall");
+        setSpacing(8);
+        setPadding(new Insets(6));
+        clear();
+    }
+
+    public void clear() {
+        getChildren().setAll(new Label("Send a request to see its timing."));
+    }
+
+    public void show(RequestTiming timing) {
+        if (timing == null || timing.hops().isEmpty()) {
+            clear();
+            return;
+        }
+        long total = Math.max(1, timing.total().toNanos());
+        for (RequestTiming.Attempt attempt : timing.attempts()) {
+            total = Math.max(total, attempt.end().toNanos());
+        }
+
+        GridPane hops = new GridPane();
+        hops.setHgap(8);
+        hops.setVgap(4);
+        int row = 0;
+        for (RequestTiming.Hop hop : timing.hops()) {
+            Label name = new Label(hop.statusCode() + "  " + hop.uri());
+            name.setMinWidth(200);
+            name.setMaxWidth(320);
+            name.setTooltip(new Tooltip(hop.uri().toString()));
+            Bar bar = new Bar(total);
+            Duration[] phases = phases(hop);
+            long offset = hop.start().toNanos();
+            for (int i = 0; i < phases.length; i++) {
+                String tip = PHASES[i] + " " + format(phases[i]);
+                if (i == TLS_PHASE && hop.resumedSession()) {
+                    tip += ", session resumed";
+                }
+                bar.add(offset, phases[i].toNanos(), PHASE_STYLES[i], tip);
+                offset += phases[i].toNanos();
+            }
+            GridPane.setHgrow(bar, Priority.ALWAYS);
+            hops.addRow(row++, name, bar, new Label(format(hop.total())));
+            hops.add(new Label(describe(hop)), 1, row++, 2, 1);
+        }
+
+        getChildren().setAll(hops, new Label("Total " + format(timing.total())
+                + (timing.hops().size() > 1 ? " over " + timing.hops().size() + " hops" : "")
+                + (timing.attempts().isEmpty() ? "" : " over " + timing.attempts().size() + " attempts")));
+
+        if (!timing.attempts().isEmpty()) {
+            GridPane attempts = new GridPane();
+            attempts.setHgap(8);
+            attempts.setVgap(4);
+            int attemptRow = 0;
+            for (RequestTiming.Attempt attempt : timing.attempts()) {
+                Bar bar = new Bar(total);
+                bar.add(attempt.start().toNanos(), attempt.duration().toNanos(),
+                        attempt.used() ? "timing-attempt-used" : "timing-attempt", attempt.outcome());
+                GridPane.setHgrow(bar, Priority.ALWAYS);
+                String name = "#" + attempt.number() + (attempt.hedge() ? " hedge" : "")
+                        + (attempt.statusCode() > 0 ? "  " + attempt.statusCode() : "");
+                attempts.addRow(attemptRow++, new Label(name), bar, new Label(format(attempt.duration())),
+                        new Label(attempt.outcome()));
+            }
+            // Above the hops, which belong to the attempt that was used
+            getChildren().add(0, new Label("Attempts"));
+            getChildren().add(1, attempts);
+        }
+
+        if (!timing.serverTimings().isEmpty()) {
+            GridPane server = new GridPane();
+            server.setHgap(8);
+            server.setVgap(4);
+            Duration longest = timing.serverTimings().stream()
+                    .map(RequestTiming.ServerTiming::duration)
+                    .filter(d -> d != null)
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+            int serverRow = 0;
+            for (RequestTiming.ServerTiming metric : timing.serverTimings()) {
+                Bar bar = new Bar(Math.max(1, longest.toNanos()));
+                if (metric.duration() != null) {
+                    bar.add(0, metric.duration().toNanos(), "timing-server", metric.name());
+                }
+                GridPane.setHgrow(bar, Priority.ALWAYS);
+                server.addRow(serverRow++, new Label(metric.name()), bar,
+                        new Label(metric.duration() == null ? "" : format(metric.duration())),
+                        new Label(metric.description()));
+            }
+            getChildren().addAll(new Label("Server-Timing"), server);
+        }
+    }
+
+    private static Duration[] phases(RequestTiming.Hop hop) {
+        return new Duration[]{hop.dns(), hop.connect(), hop.tls(), hop.waiting(), hop.download()};
+    }
+
+    private static String describe(RequestTiming.Hop hop) {
+        Duration[] phases = phases(hop);
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < phases.length; i++) {
+            String part = PHASES[i] + " " + format(phases[i]);
+            if (i == TLS_PHASE && !phases[i].isZero()) {
+                part += hop.resumedSession() ? " (session resumed)" : " (full handshake)";
+            }
+            parts.add(part);
+        }
+        parts.add(hop.protocol() + (hop.newConnection() ? ", new connection"
+                : hop.warmConnection() ? ", warm connection (opened when the tab opened)" : ", reused connection"));
+        parts.add(formatBodySize(hop));
+        return String.join(" · ", parts);
+    }
+
+    /**
+     * Formats the wire size of the body, with the decoded size next to it when the body was compressed.
+     */
+    public static String formatBodySize(RequestTiming.Hop hop) {
+        if (hop.decodedBytes() == hop.bodyBytes()) {
+            return formatBytes(hop.bodyBytes());
+        }
+        return formatBytes(hop.bodyBytes()) + " (" + formatBytes(hop.decodedBytes()) + " decoded)";
+    }
+
+    /**
+     * Formats a duration as milliseconds, with one decimal below 10 ms.
+     */
+    public static String format(Duration duration) {
+        double ms = duration.toNanos() / 1_000_000d;
+        return ms < 10 ? String.format(Locale.ROOT, "%.1f ms", ms) : String.format(Locale.ROOT, "%.0f ms", ms);
+    }
+
+    /**
+     * Formats the progress of a download as received bytes, throughput and, when the length is known, time left.
+     */
+    public static String formatDownload(long received, long total, Duration elapsed) {
+        StringBuilder text = new StringBuilder(formatBytes(received));
+        if (total > 0) {
+            text.append(" of ").append(formatBytes(total));
+        }
+        double seconds = elapsed.toNanos() / 1_000_000_000d;
+        if (seconds > 0 && received > 0) {
+            double perSecond = received / seconds;
+            text.append(" · ").append(formatBytes((long) perSecond)).append("/s");
+            if (total > received) {
+                long left = (long) Math.ceil((total - received) / perSecond);
+                text.append(" · ").append(left < 60 ? left + " s" : (left / 60) + " min " + (left % 60) + " s")
+                        .append(" left");
+            }
+        }
+        return text.toString();
+    }
+
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024d);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024d * 1024d));
+    }
+
+    /**
+     * Horizontal track with segments placed proportionally to a common time scale.
+     */
+    private static final class Bar extends Region {
+        private final long scale;
+        private final List<long[]> spans = new ArrayList<>();
+
+        Bar(long scale) {
+            this.scale = scale;
+            getStyleClass().add("timing-bar");
+            setMinHeight(12);
+            setPrefHeight(12);
+            setMinWidth(100);
+            setPrefWidth(400);
+        }
+
+        void add(long start, long length, String styleClass, String tooltip) {
+            if (length <= 0) {
+                return;
+            }
+            Region segment = new Region();
+            segment.getStyleClass().addAll("timing-segment", styleClass);
+            Tooltip.install(segment, new Tooltip(tooltip));
+            spans.add(new long[]{start, length});
+            getChildren().add(segment);
+        }
+
+        @Override
+        protected void layoutChildren() {
+            double width = getWidth() - snappedLeftInset() - snappedRightInset();
+            double height = getHeight() - snappedTopInset() - snappedBottomInset();
+            for (int i = 0; i < spans.size(); i++) {
+                long[] span = spans.get(i);
+                double x = snappedLeftInset() + width * span[0] / scale;
+                double w = Math.max(1, width * span[1] / scale);
+                getChildren().get(i).resizeRelocate(x, snappedTopInset(), w, height);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import io.github.ozkanpakdil.swaggerific.tools.MessageLog;
+import io.github.ozkanpakdil.swaggerific.tools.ws.WebSocketMessage;
+import io.github.ozkanpakdil.swaggerific.tools.ws.WebSocketSession;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.net.URI;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * WebSocket client: connects to a {@code ws://} or {@code wss://} URL, sends text or binary messages and logs what
+ * goes both ways with a timestamp.
+ * <p>
+ * Messages arrive on the socket thread and go to a {@link MessageLog}; the list is updated once per frame with
+ * whatever arrived since, and keeps the last {@value #MAX_ROWS} entries. Messages the log could not hand over in time
+ * show up as a single "dropped" entry, so thousands of messages per second do not stall the FX thread.
+ */
+public class WebSocketPane extends VBox {
+    static final int MAX_ROWS = 10_000;
+    private static final int MAX_PENDING = 5_000;
+    private static final int PREVIEW_LENGTH = 300;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final MessageLog<WebSocketMessage> messages = new MessageLog<>(MAX_PENDING, WebSocketMessage::dropped);
+    private final WebSocketSession session = new WebSocketSession(messages);
+    private final ObservableList<WebSocketMessage> rows = FXCollections.observableArrayList();
+    private final TextField txtUrl = new TextField();
+    private final TextArea txtHeaders = new TextArea();
+    private final Button btnConnect = new Button("Connect");
+    private final TextArea txtMessage = new TextArea();
+    private final Button btnSendText = new Button("Send text");
+    private final Button btnSendBinary = new Button("Send binary (hex)");
+    private final ListView<WebSocketMessage> list = new ListView<>(rows);
+    private final TextArea txtDetail = new TextArea();
+    private final CheckBox chkFollow = new CheckBox("Follow");
+    private final Label lblRate = new Label();
+    private final Label lblStatus = new Label("Not connected");
+    private final AnimationTimer drain = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drain();
+        }
+    };
+
+    public WebSocketPane(String url) {
+        setId("webSocketPane");
+        getStyleClass().add("web-socket-pane");
+        setSpacing(6);
+        setPadding(new Insets(6));
+
+        txtUrl.setId("txtWebSocketUrl");
+        txtUrl.setText(url);
+        txtUrl.setPromptText("wss://example.com/socket");
+        txtUrl.setOnAction(e -> connectOrClose());
+        HBox.setHgrow(txtUrl, Priority.ALWAYS);
+        btnConnect.setId("btnWebSocketConnect");
+        btnConnect.setOnAction(e -> connectOrClose());
+        HBox connection = new HBox(8, new Label("URL"), txtUrl, btnConnect);
+        connection.setAlignment(Pos.CENTER_LEFT);
+
+        txtHeaders.setPromptText("Handshake headers, one \"Name: value\" per line");
+        txtHeaders.setPrefRowCount(2);
+        txtMessage.setId("txtWebSocketMessage");
+        txtMessage.setPromptText("Message");
+        txtMessage.setPrefRowCount(3);
+        HBox.setHgrow(txtMessage, Priority.ALWAYS);
+        btnSendText.setOnAction(e -> send(false));
+        btnSendBinary.setOnAction(e -> send(true));
+        btnSendText.setMaxWidth(Double.MAX_VALUE);
+        btnSendBinary.setMaxWidth(Double.MAX_VALUE);
+        btnSendText.disableProperty().bind(btnConnect.textProperty().isEqualTo("Connect"));
+        btnSendBinary.disableProperty().bind(btnSendText.disableProperty());
+        HBox compose = new HBox(8, txtMessage, new VBox(4, btnSendText, btnSendBinary));
+
+        list.setId("listWebSocketMessages");
+        list.setCellFactory(v -> new MessageCell());
+        list.getSelectionModel().selectedItemProperty().addListener((obs, o, message) ->
+                txtDetail.setText(message == null ? "" : message.text()));
+        txtDetail.setEditable(false);
+        txtDetail.setWrapText(true);
+        SplitPane log = new SplitPane(list, txtDetail);
+        log.setOrientation(Orientation.VERTICAL);
+        log.setDividerPositions(0.75);
+        VBox.setVgrow(log, Priority.ALWAYS);
+
+        chkFollow.setSelected(true);
+        Button btnClear = new Button("Clear");
+        btnClear.setOnAction(e -> rows.clear());
+        HBox status = new HBox(12, lblStatus, lblRate, chkFollow, btnClear);
+        status.setAlignment(Pos.CENTER_LEFT);
+
+        getChildren().addAll(connection, txtHeaders, compose, status, log);
+    }
+
+    /**
+     * Closes the connection and stops updating the list, for when the tab closes.
+     */
+    public void close() {
+        session.close();
+        drain.stop();
+    }
+
+    private void connectOrClose() {
+        if (!"Connect".equals(btnConnect.getText())) {
+            session.close();
+            return;
+        }
+        URI uri;
+        try {
+            uri = URI.create(txtUrl.getText().trim());
+        } catch (IllegalArgumentException e) {
+            lblStatus.setText("Invalid URL: " + e.getMessage());
+            return;
+        }
+        btnConnect.setDisable(true);
+        lblStatus.setText("Connecting…");
+        drain.start();
+        CompletableFuture<Void> connected = session.connect(uri, headers(txtHeaders.getText()));
+        connected.whenComplete((v, e) -> Platform.runLater(() -> {
+            btnConnect.setDisable(false);
+            if (e == null) {
+                btnConnect.setText("Disconnect");
+                lblStatus.setText("Connected");
+            } else {
+                lblStatus.setText("Not connected");
+            }
+        }));
+    }
+
+    private void send(boolean binary) {
+        String text = txtMessage.getText();
+        try {
+            CompletableFuture<Void> sent = binary
+                    ? session.sendBinary(HexFormat.of().parseHex(text.replaceAll("\\s+", "")))
+                    : session.sendText(text);
+            sent.whenComplete((v, e) -> {
+                if (e != null) {
+                    messages.add(WebSocketMessage.event(WebSocketMessage.Kind.ERROR, "Send failed: " + e.getMessage()));
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            lblStatus.setText("Not valid hex: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            lblStatus.setText(e.getMessage());
+        }
+    }
+
+    private void drain() {
+        MessageLog.Batch<WebSocketMessage> batch = messages.drain();
+        lblRate.setText(String.format(Locale.ROOT, "%,.0f msg/s, %,d total", batch.perSecond(), batch.total()));
+        if (!session.isOpen() && !"Connect".equals(btnConnect.getText())) {
+            btnConnect.setText("Connect");
+            lblStatus.setText("Disconnected");
+        }
+        if (batch.messages().isEmpty()) {
+            return;
+        }
+        rows.addAll(batch.messages());
+        if (rows.size() > MAX_ROWS) {
+            rows.remove(0, rows.size() - MAX_ROWS);
+        }
+        if (chkFollow.isSelected()) {
+            list.scrollTo(rows.size() - 1);
+        }
+    }
+
+    /**
+     * Parses one {@code Name: value} header per line, skipping blank and malformed lines.
+     */
+    static Map<String, String> headers(String text) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (text == null) {
+            return headers;
+        }
+        for (String line : text.split("\\R")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static final class MessageCell extends ListCell<WebSocketMessage> {
+        @Override
+        protected void updateItem(WebSocketMessage message, boolean empty) {
+            super.updateItem(message, empty);
+            getStyleClass().removeAll("ws-in", "ws-out", "ws-event");
+            if (empty || message == null) {
+                setText(null);
+                return;
+            }
+            getStyleClass().add(switch (message.direction()) {
+                case IN -> "ws-in";
+                case OUT -> "ws-out";
+                case EVENT -> "ws-event";
+            });
+            String arrow = switch (message.direction()) {
+                case IN -> "←";
+                case OUT -> "→";
+                case EVENT -> "•";
+            };
+            String text = message.text();
+            if (text.length() > PREVIEW_LENGTH) {
+                text = text.substring(0, PREVIEW_LENGTH) + "…";
+            }
+            String size = message.kind() == WebSocketMessage.Kind.TEXT || message.kind() == WebSocketMessage.Kind.BINARY
+                    ? " (" + TimingWaterfall.formatBytes(message.size()) + ")" : "";
+            setText(TIME.format(message.at()) + " " + arrow + " " + message.kind() + size + " "
+                    + text.replace('\n', ' '));
+        }
+    }
+}
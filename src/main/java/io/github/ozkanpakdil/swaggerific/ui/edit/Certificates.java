@@ -1,20 +1,39 @@
 package io.github.ozkanpakdil.swaggerific.ui.edit;
 
+import io.github.ozkanpakdil.swaggerific.tools.ProxySettings;
+import io.github.ozkanpakdil.swaggerific.tools.http.ClientCertificate;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.ResourceBundle;
 import java.util.prefs.Preferences;
 
 public class Certificates implements Initializable {
     public static final String KEY_CA_BUNDLE_ENABLED = "certs.caBundleEnabled";
     public static final String KEY_CA_BUNDLE_PATH = "certs.caBundlePath";
+    public static final String KEY_CLIENT_CERT_ENABLED = "certs.clientCertEnabled";
+    public static final String KEY_CLIENT_CERT_PATH = "certs.clientCertPath";
+    public static final String KEY_CLIENT_KEY_PATH = "certs.clientKeyPath";
+    /** Stored encrypted, like the proxy password */
+    public static final String KEY_CLIENT_CERT_PASSWORD = "certs.clientCertPassword";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.systemDefault());
 
     @FXML private CheckBox chkEnableCaBundle;
     @FXML private TextField txtCaBundlePath;
+    @FXML private CheckBox chkEnableClientCert;
+    @FXML private TextField txtClientCertPath;
+    @FXML private TextField txtClientKeyPath;
+    @FXML private PasswordField txtClientCertPassword;
+    @FXML private Label lblClientCertStatus;
 
     private final Preferences prefs = Preferences.userNodeForPackage(io.github.ozkanpakdil.swaggerific.SwaggerApplication.class);
 
@@ -27,6 +46,22 @@ public class Certificates implements Initializable {
                 try { prefs.flush(); } catch (Exception ignored) {}
         });
         txtCaBundlePath.setText(prefs.get(KEY_CA_BUNDLE_PATH, ""));
+
+        chkEnableClientCert.setSelected(prefs.getBoolean(KEY_CLIENT_CERT_ENABLED, false));
+        chkEnableClientCert.selectedProperty().addListener((obs, oldV, newV) -> {
+            prefs.putBoolean(KEY_CLIENT_CERT_ENABLED, newV);
+            showClientCertificate();
+        });
+        txtClientCertPath.setText(prefs.get(KEY_CLIENT_CERT_PATH, ""));
+        txtClientKeyPath.setText(prefs.get(KEY_CLIENT_KEY_PATH, ""));
+        char[] password = ProxySettings.decryptSecret(prefs.get(KEY_CLIENT_CERT_PASSWORD, ""));
+        txtClientCertPassword.setText(new String(password));
+        Arrays.fill(password, '\0');
+        // Text fields also save when they lose focus, a typed path is easily left without pressing Enter
+        txtClientCertPath.focusedProperty().addListener((obs, was, focused) -> { if (!focused) onClientCertChanged(); });
+        txtClientKeyPath.focusedProperty().addListener((obs, was, focused) -> { if (!focused) onClientCertChanged(); });
+        txtClientCertPassword.focusedProperty().addListener((obs, was, focused) -> { if (!focused) onClientCertChanged(); });
+        showClientCertificate();
     }
 
     @FXML
@@ -39,4 +74,38 @@ public class Certificates implements Initializable {
         String path = txtCaBundlePath.getText() == null ? "" : txtCaBundlePath.getText().trim();
         prefs.put(KEY_CA_BUNDLE_PATH, path);
     }
+
+    @FXML
+    public void onClientCertChanged() {
+        prefs.put(KEY_CLIENT_CERT_PATH, trimmed(txtClientCertPath.getText()));
+        prefs.put(KEY_CLIENT_KEY_PATH, trimmed(txtClientKeyPath.getText()));
+        String password = txtClientCertPassword.getText();
+        prefs.put(KEY_CLIENT_CERT_PASSWORD, password == null || password.isEmpty() ? "" : ProxySettings.encryptSecret(password));
+        showClientCertificate();
+    }
+
+    /**
+     * Reads the configured certificate so a wrong path, password or key format shows here rather than as a failed
+     * handshake later.
+     */
+    private void showClientCertificate() {
+        String cert = trimmed(txtClientCertPath.getText());
+        if (!chkEnableClientCert.isSelected() || cert.isEmpty()) {
+            lblClientCertStatus.setText("");
+            return;
+        }
+        String key = trimmed(txtClientKeyPath.getText());
+        String password = txtClientCertPassword.getText();
+        try {
+            ClientCertificate certificate = ClientCertificate.describe(Path.of(cert), key.isEmpty() ? null : Path.of(key),
+                    password == null ? new char[0] : password.toCharArray());
+            lblClientCertStatus.setText(certificate.subject() + ", valid until " + DATE.format(certificate.notAfter()));
+        } catch (Exception e) {
+            lblClientCertStatus.setText("Cannot read the client certificate: " + e.getMessage());
+        }
+    }
+
+    private static String trimmed(String text) {
+        return text == null ? "" : text.trim();
+    }
 }
@@ -4,6 +4,9 @@ import ch.qos.logback.classic.Logger;
 import io.github.ozkanpakdil.swaggerific.data.Environment;
 import io.github.ozkanpakdil.swaggerific.data.EnvironmentManager;
 import io.github.ozkanpakdil.swaggerific.data.EnvironmentVariable;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpProtocol;
+import io.github.ozkanpakdil.swaggerific.tools.http.RateLimit;
+import io.github.ozkanpakdil.swaggerific.tools.http.RetryPolicy;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -42,6 +45,18 @@ public class EnvironmentController implements Initializable {
     @FXML
     private TextField txtEnvironmentDescription;
 
+    @FXML
+    private TextField txtRetryAttempts;
+
+    @FXML
+    private CheckBox chkHedge;
+
+    @FXML
+    private TextField txtRateLimit;
+
+    @FXML
+    private ComboBox<String> cmbProtocol;
+
     @FXML
     private TableView<EnvironmentVariable> tableVariables;
 
@@ -113,6 +128,8 @@ public class EnvironmentController implements Initializable {
 
         // Set up the variables table
         setupVariablesTable();
+        cmbProtocol.getItems().setAll(General.PROTOCOL_FROM_SETTINGS, HttpProtocol.HTTP_1_1.toString(),
+                HttpProtocol.HTTP_2.toString());
 
         // Set up initial UI state
         setEnvironmentEditMode(false);
@@ -196,6 +213,10 @@ public class EnvironmentController implements Initializable {
     private void setEnvironmentEditMode(boolean editing) {
         txtEnvironmentName.setDisable(!editing);
         txtEnvironmentDescription.setDisable(!editing);
+        txtRetryAttempts.setDisable(!editing);
+        chkHedge.setDisable(!editing);
+        txtRateLimit.setDisable(!editing);
+        cmbProtocol.setDisable(!editing);
         btnSaveEnvironment.setDisable(!editing);
         btnCancelEnvironment.setDisable(!editing);
         environmentSelector.setDisable(editing);
@@ -206,6 +227,10 @@ public class EnvironmentController implements Initializable {
         if (!editing) {
             txtEnvironmentName.clear();
             txtEnvironmentDescription.clear();
+            txtRetryAttempts.clear();
+            chkHedge.setSelected(false);
+            txtRateLimit.clear();
+            cmbProtocol.getSelectionModel().select(General.PROTOCOL_FROM_SETTINGS);
         }
     }
 
@@ -255,6 +280,13 @@ public class EnvironmentController implements Initializable {
         if (selectedEnvironment != null) {
             txtEnvironmentName.setText(selectedEnvironment.getName());
             txtEnvironmentDescription.setText(selectedEnvironment.getDescription());
+            RetryPolicy retryPolicy = selectedEnvironment.getRetryPolicy();
+            txtRetryAttempts.setText(retryPolicy == null ? "" : String.valueOf(retryPolicy.maxAttempts()));
+            chkHedge.setSelected(retryPolicy != null && retryPolicy.hedge());
+            RateLimit rateLimit = selectedEnvironment.getRateLimit();
+            txtRateLimit.setText(rateLimit == null ? "" : General.formatRate(rateLimit.permitsPerSecond()));
+            HttpProtocol protocol = selectedEnvironment.getProtocol();
+            cmbProtocol.getSelectionModel().select(protocol == null ? General.PROTOCOL_FROM_SETTINGS : protocol.toString());
             originalEnvironmentName = selectedEnvironment.getName();
             setEnvironmentEditMode(true);
         } else {
@@ -317,6 +349,40 @@ public class EnvironmentController implements Initializable {
             return;
         }
 
+        RetryPolicy retryPolicy = null;
+        String attempts = txtRetryAttempts.getText().trim();
+        if (!attempts.isEmpty() || chkHedge.isSelected()) {
+            try {
+                int maxAttempts = attempts.isEmpty() ? 1 : Integer.parseInt(attempts);
+                if (maxAttempts < 1 || maxAttempts > 10) {
+                    throw new NumberFormatException();
+                }
+                retryPolicy = RetryPolicy.builder().maxAttempts(maxAttempts).hedge(chkHedge.isSelected()).build();
+            } catch (NumberFormatException e) {
+                showAlert(Alert.AlertType.ERROR, "Invalid Retry Attempts",
+                        "Retry attempts must be a number from 1 to 10, or empty to use the settings.");
+                return;
+            }
+        }
+
+        RateLimit rateLimit = null;
+        String rate = txtRateLimit.getText().trim();
+        if (!rate.isEmpty()) {
+            try {
+                double perSecond = Double.parseDouble(rate);
+                if (perSecond < 0 || perSecond > 100_000) {
+                    throw new NumberFormatException();
+                }
+                rateLimit = perSecond == 0 ? RateLimit.NONE : RateLimit.perSecond(perSecond);
+            } catch (NumberFormatException e) {
+                showAlert(Alert.AlertType.ERROR, "Invalid Rate Limit",
+                        "Rate limit must be requests per second from 0 (no limit) to 100000, or empty to use the settings.");
+                return;
+            }
+        }
+
+        HttpProtocol protocol = HttpProtocol.parse(cmbProtocol.getValue());
+
         // Check if the name already exists (for new environments or renamed environments)
         if (originalEnvironmentName == null || !originalEnvironmentName.equals(name)) {
             Optional<Environment> existingEnv = environmentManager.getEnvironment(name);
@@ -330,6 +396,9 @@ public class EnvironmentController implements Initializable {
         if (originalEnvironmentName == null) {
             // Creating a new environment
             Environment newEnvironment = new Environment(name, description);
+            newEnvironment.setRetryPolicy(retryPolicy);
+            newEnvironment.setRateLimit(rateLimit);
+            newEnvironment.setProtocol(protocol);
             environmentManager.addEnvironment(newEnvironment);
             refreshEnvironmentSelector();
             environmentSelector.getSelectionModel().select(newEnvironment);
@@ -337,6 +406,9 @@ public class EnvironmentController implements Initializable {
         } else {
             // Updating an existing environment
             Environment updatedEnvironment = new Environment(name, description);
+            updatedEnvironment.setRetryPolicy(retryPolicy);
+            updatedEnvironment.setRateLimit(rateLimit);
+            updatedEnvironment.setProtocol(protocol);
             environmentManager.updateEnvironment(originalEnvironmentName, updatedEnvironment);
             refreshEnvironmentSelector();
             environmentSelector.getSelectionModel().select(updatedEnvironment);
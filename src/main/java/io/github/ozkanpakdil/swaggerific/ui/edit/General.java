@@ -2,12 +2,15 @@ package io.github.ozkanpakdil.swaggerific.ui.edit;
 
 import atlantafx.base.controls.ToggleSwitch;
 import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpProtocol;
 import io.github.ozkanpakdil.swaggerific.tools.http.HttpServiceImpl;
+import io.github.ozkanpakdil.swaggerific.tools.http.ResponseCache;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
@@ -37,12 +40,30 @@ public class General implements Initializable {
     public static final String KEY_SSL_VERIFY = "http.ssl.verify"; // true means verify enabled
     public static final String KEY_TIMEOUT_MS = "http.requestTimeoutMs";
     public static final String KEY_MAX_RESPONSE_SIZE = "http.maxResponseSizeBytes";
+    public static final String KEY_SPILL_LARGE_RESPONSES = "http.spillLargeResponses";
     public static final String KEY_NO_CACHE = "http.header.noCache";
     public static final String KEY_SWAGGER_TOKEN = "http.header.swaggerToken";
     public static final String KEY_FOLLOW_REDIRECTS = "http.followRedirects";
     public static final String KEY_OPEN_SIDEBAR_IN_NEW_TAB = "ui.sidebar.openInNewTab";
     public static final String KEY_ASK_WHEN_CLOSING_UNSAVED = "ui.askWhenClosingUnsaved";
     public static final String KEY_SEND_ANONYMOUS_USAGE = "analytics.sendAnonymousUsage";
+    public static final String KEY_RUNNER_CONCURRENCY = "runner.concurrency";
+    public static final String KEY_RUNNER_ADAPTIVE = "runner.adaptive";
+    public static final String KEY_CACHE_RESPONSES = "http.cache.enabled";
+    public static final String KEY_CACHE_ON_DISK = "http.cache.disk";
+    public static final String KEY_ACCEPT_COMPRESSED = "http.acceptCompressed";
+    public static final String KEY_GZIP_REQUEST_BODY = "http.gzipRequestBody";
+    public static final String KEY_RETRY_ATTEMPTS = "http.retry.maxAttempts";
+    public static final String KEY_RETRY_HEDGE = "http.retry.hedge";
+    public static final String KEY_RATE_LIMIT = "http.rateLimit.perSecond";
+    public static final String KEY_RATE_BURST = "http.rateLimit.burst";
+    public static final String KEY_HTTP_VERSION = "http.version";
+    public static final String KEY_PREWARM_CONNECTIONS = "http.prewarmConnections";
+
+    /**
+     * Choice of an environment that leaves the HTTP version to these settings.
+     */
+    static final String PROTOCOL_FROM_SETTINGS = "Settings";
 
     @FXML
     ComboBox cmbFonts;
@@ -61,6 +82,8 @@ public class General implements Initializable {
     @FXML
     private TextField txtMaxResponseSize;
     @FXML
+    private ToggleSwitch chkSpillLargeResponses;
+    @FXML
     private ToggleSwitch chkSendNoCacheHeader;
     @FXML
     private ToggleSwitch chkSendSwaggerTokenHeader;
@@ -72,6 +95,28 @@ public class General implements Initializable {
     private ToggleSwitch chkAlwaysAskWhenClosingUnsavedTabs;
     @FXML
     private ToggleSwitch chkSendAnonymousUsageData;
+    @FXML
+    private ToggleSwitch chkCacheResponses;
+    @FXML
+    private ToggleSwitch chkCacheOnDisk;
+    @FXML
+    private Label lblCacheStats;
+    @FXML
+    private ToggleSwitch chkAcceptCompressed;
+    @FXML
+    private ToggleSwitch chkGzipRequestBody;
+    @FXML
+    private TextField txtRetryAttempts;
+    @FXML
+    private ToggleSwitch chkHedgeRequests;
+    @FXML
+    private TextField txtRateLimit;
+    @FXML
+    private TextField txtRateBurst;
+    @FXML
+    private ComboBox<String> cmbHttpVersion;
+    @FXML
+    private ToggleSwitch chkPrewarmConnections;
 
     Preferences userPrefs = Preferences.userNodeForPackage(SwaggerApplication.class);
 
@@ -87,6 +132,7 @@ public class General implements Initializable {
         chkSSLVerification.setSelected(sslVerify);
         txtRequestTimeout.setText(String.valueOf(userPrefs.getInt(KEY_TIMEOUT_MS, 30000)));
         txtMaxResponseSize.setText(String.valueOf(userPrefs.getInt(KEY_MAX_RESPONSE_SIZE, 2_000_000)));
+        chkSpillLargeResponses.setSelected(userPrefs.getBoolean(KEY_SPILL_LARGE_RESPONSES, false));
         chkSendNoCacheHeader.setSelected(userPrefs.getBoolean(KEY_NO_CACHE, false));
         chkSendSwaggerTokenHeader.setSelected(userPrefs.getBoolean(KEY_SWAGGER_TOKEN, false));
         chkAutomaticallyFallowRedirects.setSelected(userPrefs.getBoolean(KEY_FOLLOW_REDIRECTS, true));
@@ -98,6 +144,20 @@ public class General implements Initializable {
             log.info("Always ask when closing unsaved tabs set to {}", newVal);
         });
         chkSendAnonymousUsageData.setSelected(userPrefs.getBoolean(KEY_SEND_ANONYMOUS_USAGE, false));
+        chkCacheResponses.setSelected(userPrefs.getBoolean(KEY_CACHE_RESPONSES, false));
+        chkCacheOnDisk.setSelected(userPrefs.getBoolean(KEY_CACHE_ON_DISK, false));
+        chkCacheOnDisk.disableProperty().bind(chkCacheResponses.selectedProperty().not());
+        chkAcceptCompressed.setSelected(userPrefs.getBoolean(KEY_ACCEPT_COMPRESSED, true));
+        chkGzipRequestBody.setSelected(userPrefs.getBoolean(KEY_GZIP_REQUEST_BODY, false));
+        txtRetryAttempts.setText(String.valueOf(userPrefs.getInt(KEY_RETRY_ATTEMPTS, 1)));
+        chkHedgeRequests.setSelected(userPrefs.getBoolean(KEY_RETRY_HEDGE, false));
+        txtRateLimit.setText(formatRate(userPrefs.getDouble(KEY_RATE_LIMIT, 0)));
+        txtRateBurst.setText(String.valueOf(userPrefs.getInt(KEY_RATE_BURST, 0)));
+        cmbHttpVersion.getItems().setAll(HttpProtocol.HTTP_2.toString(), HttpProtocol.HTTP_1_1.toString());
+        HttpProtocol protocol = HttpProtocol.parse(userPrefs.get(KEY_HTTP_VERSION, null));
+        cmbHttpVersion.getSelectionModel().select((protocol == null ? HttpProtocol.HTTP_2 : protocol).toString());
+        chkPrewarmConnections.setSelected(userPrefs.getBoolean(KEY_PREWARM_CONNECTIONS, false));
+        showCacheStats();
     }
 
     public void onChange(ActionEvent actionEvent) {
@@ -136,6 +196,8 @@ public class General implements Initializable {
         // Save numeric fields
         saveTimeout();
         saveMaxResponseSize();
+        saveRetryAttempts();
+        saveRateLimit();
     }
 
     public void btnRestoreClick(ActionEvent actionEvent) {
@@ -153,8 +215,19 @@ public class General implements Initializable {
         chkAlwayOpenSideBarItemInNewTab.setSelected(false);
         chkAlwaysAskWhenClosingUnsavedTabs.setSelected(true);
         chkSendAnonymousUsageData.setSelected(false);
+        chkSpillLargeResponses.setSelected(false);
+        chkCacheResponses.setSelected(false);
+        chkCacheOnDisk.setSelected(false);
+        chkAcceptCompressed.setSelected(true);
+        chkGzipRequestBody.setSelected(false);
+        chkHedgeRequests.setSelected(false);
         txtRequestTimeout.setText("30000");
+        txtRetryAttempts.setText("1");
+        txtRateLimit.setText("0");
+        txtRateBurst.setText("0");
         txtMaxResponseSize.setText("2000000");
+        cmbHttpVersion.getSelectionModel().select(HttpProtocol.HTTP_2.toString());
+        chkPrewarmConnections.setSelected(false);
 
         // Clear prefs
         userPrefs.putBoolean(KEY_TRIM_BODY, false);
@@ -167,6 +240,17 @@ public class General implements Initializable {
         userPrefs.putBoolean(KEY_SEND_ANONYMOUS_USAGE, false);
         userPrefs.putInt(KEY_TIMEOUT_MS, 30000);
         userPrefs.putInt(KEY_MAX_RESPONSE_SIZE, 2_000_000);
+        userPrefs.putBoolean(KEY_SPILL_LARGE_RESPONSES, false);
+        userPrefs.putBoolean(KEY_CACHE_RESPONSES, false);
+        userPrefs.putBoolean(KEY_CACHE_ON_DISK, false);
+        userPrefs.putBoolean(KEY_ACCEPT_COMPRESSED, true);
+        userPrefs.putBoolean(KEY_GZIP_REQUEST_BODY, false);
+        userPrefs.putInt(KEY_RETRY_ATTEMPTS, 1);
+        userPrefs.putBoolean(KEY_RETRY_HEDGE, false);
+        userPrefs.putDouble(KEY_RATE_LIMIT, 0);
+        userPrefs.putInt(KEY_RATE_BURST, 0);
+        userPrefs.remove(KEY_HTTP_VERSION);
+        userPrefs.putBoolean(KEY_PREWARM_CONNECTIONS, false);
 
         // Recreate clients to apply network changes
         HttpServiceImpl.recreateAllHttpClients();
@@ -189,6 +273,12 @@ public class General implements Initializable {
         HttpServiceImpl.recreateAllHttpClients();
     }
 
+    public void onChangeSpillLargeResponses(MouseEvent mouseEvent) {
+        boolean selected = chkSpillLargeResponses.isSelected();
+        userPrefs.putBoolean(KEY_SPILL_LARGE_RESPONSES, selected);
+        log.info("Save larger responses to disk set to {}", selected);
+    }
+
     public void onChangeSendNoCacheHeader(MouseEvent mouseEvent) {
         boolean selected = chkSendNoCacheHeader.isSelected();
         userPrefs.putBoolean(KEY_NO_CACHE, selected);
@@ -226,6 +316,48 @@ public class General implements Initializable {
         log.info("Send anonymous usage data set to {}", selected);
     }
 
+    public void onChangeCacheResponses(MouseEvent mouseEvent) {
+        boolean selected = chkCacheResponses.isSelected();
+        userPrefs.putBoolean(KEY_CACHE_RESPONSES, selected);
+        log.info("Cache GET responses set to {}", selected);
+    }
+
+    public void onChangeCacheOnDisk(MouseEvent mouseEvent) {
+        boolean selected = chkCacheOnDisk.isSelected();
+        userPrefs.putBoolean(KEY_CACHE_ON_DISK, selected);
+        log.info("Keep evicted cache entries on disk set to {}", selected);
+    }
+
+    public void onChangeAcceptCompressed(MouseEvent mouseEvent) {
+        boolean selected = chkAcceptCompressed.isSelected();
+        userPrefs.putBoolean(KEY_ACCEPT_COMPRESSED, selected);
+        log.info("Ask for compressed responses set to {}", selected);
+    }
+
+    public void onChangeGzipRequestBody(MouseEvent mouseEvent) {
+        boolean selected = chkGzipRequestBody.isSelected();
+        userPrefs.putBoolean(KEY_GZIP_REQUEST_BODY, selected);
+        log.info("Compress request bodies set to {}", selected);
+    }
+
+    public void onChangeHedgeRequests(MouseEvent mouseEvent) {
+        boolean selected = chkHedgeRequests.isSelected();
+        userPrefs.putBoolean(KEY_RETRY_HEDGE, selected);
+        log.info("Hedge slow requests set to {}", selected);
+    }
+
+    @FXML
+    public void onClearCache(ActionEvent ignored) {
+        ResponseCache.shared().clear();
+        showCacheStats();
+    }
+
+    private void showCacheStats() {
+        ResponseCache.Stats stats = ResponseCache.shared().stats();
+        lblCacheStats.setText("Cache: %d hits, %d misses, %d revalidated, %d entries (%d KB)".formatted(stats.hits(),
+                stats.misses(), stats.revalidations(), stats.entries(), stats.bytes() / 1024));
+    }
+
     @FXML
     public void onTimeoutChanged(ActionEvent ignored) {
         saveTimeout();
@@ -236,6 +368,31 @@ public class General implements Initializable {
         saveMaxResponseSize();
     }
 
+    @FXML
+    public void onRetryAttemptsChanged(ActionEvent ignored) {
+        saveRetryAttempts();
+    }
+
+    @FXML
+    public void onRateLimitChanged(ActionEvent ignored) {
+        saveRateLimit();
+    }
+
+    @FXML
+    public void onHttpVersionChanged(ActionEvent ignored) {
+        HttpProtocol protocol = HttpProtocol.parse(cmbHttpVersion.getValue());
+        if (protocol != null) {
+            userPrefs.put(KEY_HTTP_VERSION, protocol.name());
+            log.info("HTTP version set to {}", protocol);
+        }
+    }
+
+    public void onChangePrewarmConnections(MouseEvent mouseEvent) {
+        boolean selected = chkPrewarmConnections.isSelected();
+        userPrefs.putBoolean(KEY_PREWARM_CONNECTIONS, selected);
+        log.info("Warm up connections when a request tab opens set to {}", selected);
+    }
+
     private void saveTimeout() {
         try {
             int ms = Integer.parseInt(txtRequestTimeout.getText().trim());
@@ -256,4 +413,33 @@ public class General implements Initializable {
             log.warn("Invalid max response size: {}", txtMaxResponseSize.getText());
         }
     }
+
+    private void saveRetryAttempts() {
+        try {
+            int attempts = Integer.parseInt(txtRetryAttempts.getText().trim());
+            if (attempts < 1 || attempts > 10) throw new NumberFormatException();
+            userPrefs.putInt(KEY_RETRY_ATTEMPTS, attempts);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid retry attempts: {}", txtRetryAttempts.getText());
+        }
+    }
+
+    private void saveRateLimit() {
+        try {
+            double perSecond = Double.parseDouble(txtRateLimit.getText().trim());
+            int burst = Integer.parseInt(txtRateBurst.getText().trim());
+            if (perSecond < 0 || perSecond > 100_000 || burst < 0) throw new NumberFormatException();
+            userPrefs.putDouble(KEY_RATE_LIMIT, perSecond);
+            userPrefs.putInt(KEY_RATE_BURST, burst);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid rate limit: {} req/s, burst {}", txtRateLimit.getText(), txtRateBurst.getText());
+        }
+    }
+
+    /**
+     * @return requests per second without a fraction when it is a whole number
+     */
+    static String formatRate(double perSecond) {
+        return perSecond == Math.rint(perSecond) ? String.valueOf((long) perSecond) : String.valueOf(perSecond);
+    }
 }
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -177,10 +178,14 @@ public class ResponseTestScriptController implements Initializable {
         responseObj.put("headers", response.headers());
         responseObj.put("contentType", response.contentType());
 
-        // Add JSON parsing utility
+        // Add JSON parsing utility. The body is parsed once per response and converted once per script run.
+        AtomicReference<Object> json = new AtomicReference<>();
         responseObj.put("json", (Function<Void, Object>) v -> {
             try {
-                return Json.mapper().readValue(response.body(), Object.class);
+                if (json.get() == null) {
+                    json.set(Json.mapper().convertValue(response.content().json(), Object.class));
+                }
+                return json.get();
             } catch (Exception e) {
                 log.warn("Failed to parse response body as JSON: {}", e.getMessage());
                 return null;
@@ -307,8 +312,10 @@ public class ResponseTestScriptController implements Initializable {
             String message = args.length > 3 ? args[0].toString() :
                     "Header '" + headerName + "' should have value '" + expectedValue + "'";
 
+            // A repeated header such as Set-Cookie matches when one of its values does
             String actualValue = response.headers().get(headerName);
-            boolean result = actualValue != null && actualValue.equals(expectedValue);
+            boolean result = actualValue != null && (actualValue.equals(expectedValue)
+                    || response.headers().all(headerName).contains(expectedValue));
 
             addAssertionResult(result, message);
             return result;
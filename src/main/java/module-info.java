@@ -32,6 +32,7 @@ module swaggerific {
     requires org.jetbrains.annotations;
     requires java.scripting;
     requires jdk.httpserver;
+    requires HdrHistogram;
 
     // GraalVM JavaScript engine for script execution
 //    requires org.graalvm.sdk;
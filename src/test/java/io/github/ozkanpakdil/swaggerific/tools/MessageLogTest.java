@@ -0,0 +1,111 @@
+package io.github.ozkanpakdil.swaggerific.tools;
+
+import io.github.ozkanpakdil.swaggerific.tools.ws.WebSocketMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MessageLogTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static WebSocketMessage text(int i) {
+        return new WebSocketMessage(Instant.now(), WebSocketMessage.Direction.IN, WebSocketMessage.Kind.TEXT,
+                "m" + i, 2);
+    }
+
+    @Test
+    public void drain_belowCapacity_returnsAllInOrder() {
+        MessageLog<WebSocketMessage> log = new MessageLog<>(10, WebSocketMessage::dropped);
+        for (int i = 0; i < 5; i++) {
+            log.add(text(i));
+        }
+
+        MessageLog.Batch<WebSocketMessage> batch = log.drain(0);
+
+        Assertions.assertEquals(List.of("m0", "m1", "m2", "m3", "m4"),
+                batch.messages().stream().map(WebSocketMessage::text).toList());
+        Assertions.assertEquals(0, batch.dropped());
+        Assertions.assertEquals(5, batch.total());
+        Assertions.assertTrue(log.drain(MS).messages().isEmpty());
+    }
+
+    @Test
+    public void drain_beyondCapacity_keepsNewestAndSummarizesDropped() {
+        MessageLog<WebSocketMessage> log = new MessageLog<>(3, WebSocketMessage::dropped);
+        for (int i = 0; i < 10; i++) {
+            log.add(text(i));
+        }
+
+        MessageLog.Batch<WebSocketMessage> batch = log.drain(0);
+
+        Assertions.assertEquals(7, batch.dropped());
+        Assertions.assertEquals(10, batch.total());
+        Assertions.assertEquals(4, batch.messages().size());
+        WebSocketMessage summary = batch.messages().get(0);
+        Assertions.assertEquals(WebSocketMessage.Kind.DROPPED, summary.kind());
+        Assertions.assertEquals(7, summary.size());
+        Assertions.assertEquals(List.of("m7", "m8", "m9"),
+                batch.messages().subList(1, 4).stream().map(WebSocketMessage::text).toList());
+        Assertions.assertEquals(0, log.drain(MS).dropped());
+    }
+
+    @Test
+    public void drain_rate_overLastSecond() {
+        MessageLog<WebSocketMessage> log = new MessageLog<>(10_000, WebSocketMessage::dropped);
+        Assertions.assertEquals(0, log.drain(0).perSecond());
+
+        long now = 0;
+        double rate = 0;
+        // 100 messages every 100 ms
+        for (int tick = 0; tick < 30; tick++) {
+            for (int i = 0; i < 100; i++) {
+                log.add(text(i));
+            }
+            now += 100 * MS;
+            rate = log.drain(now).perSecond();
+        }
+        Assertions.assertEquals(1000, rate, 1);
+
+        // Idle for two seconds, the gauge falls back to zero
+        for (int tick = 0; tick < 20; tick++) {
+            now += 100 * MS;
+            rate = log.drain(now).perSecond();
+        }
+        Assertions.assertEquals(0, rate, 1e-9);
+    }
+
+    @Test
+    public void add_concurrentProducers_countsEveryMessage() throws Exception {
+        MessageLog<WebSocketMessage> log = new MessageLog<>(100, WebSocketMessage::dropped);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    log.add(text(i));
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        long kept = 0;
+        long dropped = 0;
+        while (producers.stream().anyMatch(Thread::isAlive)) {
+            MessageLog.Batch<WebSocketMessage> batch = log.drain();
+            dropped += batch.dropped();
+            kept += batch.messages().size() - (batch.dropped() > 0 ? 1 : 0);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        MessageLog.Batch<WebSocketMessage> last = log.drain();
+        dropped += last.dropped();
+        kept += last.messages().size() - (last.dropped() > 0 ? 1 : 0);
+
+        Assertions.assertEquals(40_000, kept + dropped);
+        Assertions.assertEquals(40_000, last.total());
+    }
+}
@@ -0,0 +1,217 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class BatchPublisherTest {
+
+    /**
+     * Sends nothing, the test completes the returned futures.
+     */
+    private static final class FakeSender {
+        final List<CompletableFuture<HttpResponse>> sent = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<HttpResponse> send(HttpRequest request) {
+            CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+            sent.add(response);
+            return response;
+        }
+
+        void complete(int index) {
+            sent.get(index).complete(new HttpResponse.Builder().statusCode(200).body(String.valueOf(index)).build());
+        }
+    }
+
+    private static final class Recorder implements Flow.Subscriber<BatchResult> {
+        final List<BatchResult> results = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long initialDemand;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(BatchResult item) {
+            results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        List<Integer> indexes() {
+            return results.stream().map(BatchResult::index).toList();
+        }
+    }
+
+    private static List<HttpRequest> requests(int count) {
+        List<HttpRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(HttpRequest.builder().uri(URI.create("http://example.test/" + i)).method("GET").build());
+        }
+        return requests;
+    }
+
+    @Test
+    public void unordered_resultsAsTheyComplete_concurrencyCapped() {
+        FakeSender sender = new FakeSender();
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BatchPublisher(requests(4), BatchOptions.unordered(2), sender::send).subscribe(recorder);
+        Assertions.assertEquals(2, sender.sent.size());
+        sender.complete(1);
+        Assertions.assertEquals(List.of(1), recorder.indexes());
+        Assertions.assertEquals(3, sender.sent.size());
+        sender.complete(2);
+        sender.complete(0);
+        sender.complete(3);
+
+        Assertions.assertEquals(List.of(1, 2, 0, 3), recorder.indexes());
+        Assertions.assertEquals(0, recorder.done.getCount());
+        Assertions.assertNull(recorder.error);
+    }
+
+    @Test
+    public void ordered_laterResultsWaitForEarlierOnes() {
+        FakeSender sender = new FakeSender();
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BatchPublisher(requests(3), BatchOptions.ordered(3), sender::send).subscribe(recorder);
+        sender.complete(2);
+        sender.complete(1);
+        Assertions.assertTrue(recorder.results.isEmpty());
+        sender.complete(0);
+
+        Assertions.assertEquals(List.of(0, 1, 2), recorder.indexes());
+        Assertions.assertEquals(0, recorder.done.getCount());
+    }
+
+    @Test
+    public void demand_undeliveredResultsHoldTheirSlots() {
+        FakeSender sender = new FakeSender();
+        Recorder recorder = new Recorder(1);
+
+        new BatchPublisher(requests(10), BatchOptions.unordered(2), sender::send).subscribe(recorder);
+        sender.complete(0);
+        sender.complete(1);
+        // Result 1 waits for demand, so only the slot of result 0 was refilled
+        Assertions.assertEquals(List.of(0), recorder.indexes());
+        Assertions.assertEquals(3, sender.sent.size());
+
+        recorder.subscription.request(1);
+        Assertions.assertEquals(List.of(0, 1), recorder.indexes());
+        Assertions.assertEquals(4, sender.sent.size());
+    }
+
+    @Test
+    public void cancel_stopsSendingAndAbortsInFlight() {
+        FakeSender sender = new FakeSender();
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BatchPublisher(requests(5), BatchOptions.unordered(2), sender::send).subscribe(recorder);
+        recorder.subscription.cancel();
+
+        Assertions.assertEquals(2, sender.sent.size());
+        Assertions.assertTrue(sender.sent.stream().allMatch(CompletableFuture::isCancelled));
+        Assertions.assertTrue(recorder.results.isEmpty());
+    }
+
+    @Test
+    public void failures_publishedAsErrorResponses() {
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BatchPublisher(requests(2), BatchOptions.unordered(2), request -> {
+            throw new IllegalStateException("boom");
+        }).subscribe(recorder);
+
+        Assertions.assertEquals(2, recorder.results.size());
+        Assertions.assertTrue(recorder.results.stream().allMatch(BatchResult::failed));
+        Assertions.assertNull(recorder.error);
+    }
+
+    @Test
+    public void emptyBatch_completesAndNonPositiveDemandFails() {
+        Recorder empty = new Recorder(Long.MAX_VALUE);
+        new BatchPublisher(List.of(), BatchOptions.unordered(1), new FakeSender()::send).subscribe(empty);
+        Assertions.assertEquals(0, empty.done.getCount());
+        Assertions.assertNull(empty.error);
+
+        Recorder invalid = new Recorder(0);
+        new BatchPublisher(requests(1), BatchOptions.unordered(1), new FakeSender()::send).subscribe(invalid);
+        Assertions.assertInstanceOf(IllegalArgumentException.class, invalid.error);
+    }
+
+    @Test
+    public void sendAll_overHttp_allResultsWithinConcurrency() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        server.setExecutor(pool);
+        server.createContext("/", exchange -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            byte[] body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            List<HttpRequest> requests = IntStream.range(0, 12)
+                    .mapToObj(i -> HttpRequest.builder().uri(URI.create(base + "/" + i)).method("GET").build())
+                    .toList();
+            Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+            new HttpServiceImpl().sendAll(requests, BatchOptions.ordered(3)).subscribe(recorder);
+
+            Assertions.assertTrue(recorder.done.await(20, TimeUnit.SECONDS));
+            Assertions.assertEquals(IntStream.range(0, 12).boxed().toList(), recorder.indexes());
+            for (BatchResult result : recorder.results) {
+                Assertions.assertEquals("/" + result.index(), result.response().body());
+            }
+            Assertions.assertTrue(maxActive.get() <= 3, "at most 3 requests in flight, saw " + maxActive.get());
+        } finally {
+            server.stop(0);
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+public class BoundedBodySubscriberTest {
+
+    @Test
+    public void onNext_overLimit_cancelsAndKeepsPrefix() throws Exception {
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(5, StandardCharsets.UTF_8);
+        AtomicBoolean cancelled = subscribe(subscriber);
+
+        subscriber.onNext(List.of(buffer("abc"), buffer("defgh")));
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        Assertions.assertTrue(cancelled.get());
+        Assertions.assertTrue(body.truncated());
+        Assertions.assertEquals("abcde", body.text());
+    }
+
+    @Test
+    public void onNext_cutInsideMultiByteChar_dropsPartialChar() throws Exception {
+        // "ü" is two bytes in UTF-8, a limit of 4 cuts it in half
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(4, StandardCharsets.UTF_8);
+        subscribe(subscriber);
+
+        subscriber.onNext(List.of(buffer("abcüd")));
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals("abc", body.text());
+    }
+
+    @Test
+    public void onComplete_exactlyAtLimit_notTruncated() throws Exception {
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(3, StandardCharsets.UTF_8);
+        AtomicBoolean cancelled = subscribe(subscriber);
+
+        subscriber.onNext(List.of(buffer("abc")));
+        subscriber.onComplete();
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        Assertions.assertFalse(cancelled.get());
+        Assertions.assertFalse(body.truncated());
+        Assertions.assertEquals("abc", body.text());
+        Assertions.assertEquals(3, body.receivedBytes());
+    }
+
+    @Test
+    public void onNext_overLimitWithSpillDir_writesWholeBodyToFile() throws Exception {
+        Path dir = Files.createTempDirectory("spill");
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(4, StandardCharsets.UTF_8, dir);
+        AtomicBoolean cancelled = subscribe(subscriber);
+
+        subscriber.onNext(List.of(buffer("abc"), buffer("defgh")));
+        subscriber.onNext(List.of(buffer("ijk")));
+        subscriber.onComplete();
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        try {
+            Assertions.assertFalse(cancelled.get());
+            Assertions.assertFalse(body.truncated());
+            Assertions.assertEquals(11, body.receivedBytes());
+            Assertions.assertEquals("abcdefghijk", Files.readString(body.file()));
+        } finally {
+            Files.deleteIfExists(body.file());
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void onNext_gzipInSmallChunks_decodesWhileStreaming() throws Exception {
+        String json = "{\"items\":[" + "{\"name\":\"doggie\",\"status\":\"available\"},".repeat(500) + "{}]}";
+        byte[] gzipped = HttpServiceImpl.gzip(json.getBytes(StandardCharsets.UTF_8));
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(1_000_000, StandardCharsets.UTF_8, null, "gzip");
+        subscribe(subscriber);
+
+        for (int i = 0; i < gzipped.length; i += 7) {
+            subscriber.onNext(List.of(ByteBuffer.wrap(gzipped, i, Math.min(7, gzipped.length - i))));
+        }
+        subscriber.onComplete();
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals(json, body.text());
+        Assertions.assertEquals(gzipped.length, body.receivedBytes());
+        Assertions.assertEquals(json.length(), body.decodedBytes());
+        Assertions.assertEquals("gzip", body.contentEncoding());
+    }
+
+    @Test
+    public void onComplete_deflateZlibAndRaw_decodesBoth() throws Exception {
+        byte[] data = "deflated body ".repeat(20).getBytes(StandardCharsets.UTF_8);
+        for (boolean raw : new boolean[]{false, true}) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+                deflate.write(data);
+            }
+            BoundedBodySubscriber subscriber = new BoundedBodySubscriber(0, StandardCharsets.UTF_8, null, "deflate");
+            subscribe(subscriber);
+
+            subscriber.onNext(List.of(ByteBuffer.wrap(out.toByteArray())));
+            subscriber.onComplete();
+
+            BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+            Assertions.assertEquals(new String(data, StandardCharsets.UTF_8), body.text(), "raw=" + raw);
+        }
+    }
+
+    @Test
+    public void onNext_gzipOverLimit_cutsDecodedBody() throws Exception {
+        byte[] gzipped = HttpServiceImpl.gzip("a".repeat(100_000).getBytes(StandardCharsets.UTF_8));
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(10, StandardCharsets.UTF_8, null, "gzip");
+        AtomicBoolean cancelled = subscribe(subscriber);
+
+        subscriber.onNext(List.of(ByteBuffer.wrap(gzipped)));
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        Assertions.assertTrue(cancelled.get());
+        Assertions.assertTrue(body.truncated());
+        Assertions.assertEquals("a".repeat(10), body.text());
+    }
+
+    @Test
+    public void onComplete_gzipCutShort_fails() throws Exception {
+        byte[] gzipped = HttpServiceImpl.gzip("complete body".getBytes(StandardCharsets.UTF_8));
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(0, StandardCharsets.UTF_8, null, "gzip");
+        subscribe(subscriber);
+
+        subscriber.onNext(List.of(ByteBuffer.wrap(gzipped, 0, gzipped.length - 4)));
+        subscriber.onComplete();
+
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class,
+                () -> subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(EOFException.class, error.getCause());
+    }
+
+    @Test
+    public void onComplete_unsupportedEncoding_keepsBodyAsReceived() throws Exception {
+        BoundedBodySubscriber subscriber = new BoundedBodySubscriber(0, StandardCharsets.UTF_8, null, "br");
+        subscribe(subscriber);
+
+        subscriber.onNext(List.of(buffer("raw")));
+        subscriber.onComplete();
+
+        BoundedBodySubscriber.Body body = subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals("raw", body.text());
+        Assertions.assertNull(body.contentEncoding());
+    }
+
+    private static AtomicBoolean subscribe(BoundedBodySubscriber subscriber) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        return cancelled;
+    }
+
+    private static ByteBuffer buffer(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
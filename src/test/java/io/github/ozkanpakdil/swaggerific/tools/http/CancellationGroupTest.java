@@ -0,0 +1,32 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class CancellationGroupTest {
+
+    @Test
+    public void cancel_pendingFutures_cancelled() {
+        CancellationGroup group = new CancellationGroup();
+        CompletableFuture<String> done = group.add(CompletableFuture.completedFuture("ok"));
+        CompletableFuture<String> pending = group.add(new CompletableFuture<>());
+
+        group.cancel();
+
+        Assertions.assertTrue(group.isCancelled());
+        Assertions.assertTrue(pending.isCancelled());
+        Assertions.assertEquals("ok", done.join());
+    }
+
+    @Test
+    public void add_afterCancel_cancelledRightAway() {
+        CancellationGroup group = new CancellationGroup();
+        group.cancel();
+
+        CompletableFuture<String> late = group.add(new CompletableFuture<>());
+
+        Assertions.assertTrue(late.isCancelled());
+    }
+}
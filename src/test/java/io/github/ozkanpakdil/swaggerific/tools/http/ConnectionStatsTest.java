@@ -0,0 +1,88 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionStatsTest {
+
+    private static HttpResponse response(String uri, HttpProtocol protocol, boolean newConnection) {
+        RequestTiming.Hop hop = new RequestTiming.Hop(URI.create(uri), 200, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                Duration.ZERO, Duration.ofMillis(5), Duration.ZERO, newConnection, false, false, protocol,
+                10, 10);
+        return new HttpResponse.Builder().statusCode(200).timing(new RequestTiming(List.of(hop), List.of())).build();
+    }
+
+    @Test
+    public void record_http2_countsStreamsPerConnection() {
+        ConnectionStats stats = new ConnectionStats();
+        for (int i = 0; i < 100; i++) {
+            stats.record(response("https://api.example.com/pets", HttpProtocol.HTTP_2, i == 0 || i == 50));
+        }
+
+        ConnectionStats.Snapshot snapshot = stats.snapshot();
+
+        Assertions.assertEquals(100, snapshot.exchanges(HttpProtocol.HTTP_2));
+        Assertions.assertEquals(2, snapshot.connections());
+        Assertions.assertEquals(50.0, snapshot.streamsPerConnection());
+        Assertions.assertEquals("HTTP/2 100, 2 connections, 50.0 streams per connection", snapshot.summary());
+    }
+
+    @Test
+    public void record_concurrentStreamsOverOneNewConnection_connectionCountedOnce() throws Exception {
+        ConnectionTracker tracker = new ConnectionTracker();
+        long from = System.nanoTime();
+        tracker.opened("api.example.com", 443);
+        long to = System.nanoTime();
+        ConnectionStats stats = new ConnectionStats();
+        int exchanges = 32;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int i = 0; i < exchanges; i++) {
+                done.add(pool.submit(() -> {
+                    go.await();
+                    // Every stream was sent before and answered after the connection was opened
+                    boolean claimed = tracker.claimOpenedBetween("api.example.com", 443, from, to).isPresent();
+                    stats.record(response("https://api.example.com/pets", HttpProtocol.HTTP_2, claimed));
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : done) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ConnectionStats.Snapshot snapshot = stats.snapshot();
+
+        Assertions.assertEquals(exchanges, snapshot.exchanges(HttpProtocol.HTTP_2));
+        Assertions.assertEquals(1, snapshot.connections());
+        Assertions.assertEquals(exchanges, snapshot.streamsPerConnection());
+    }
+
+    @Test
+    public void record_plainHttp_connectionsNotObserved() {
+        ConnectionStats stats = new ConnectionStats();
+        stats.record(response("http://localhost/pets", HttpProtocol.HTTP_1_1, false));
+        stats.record(new HttpResponse.Builder().statusCode(500).error("refused").build());
+
+        ConnectionStats.Snapshot snapshot = stats.snapshot();
+
+        Assertions.assertEquals(1, snapshot.exchanges(HttpProtocol.HTTP_1_1));
+        Assertions.assertEquals(0, snapshot.observed());
+        Assertions.assertEquals("HTTP/1.1 1, connections not observed over plain HTTP", snapshot.summary());
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DownloadBodySubscriberTest {
+    private static final byte[] DATA = new byte[2 * 1024 * 1024 + 17];
+
+    static {
+        new Random(42).nextBytes(DATA);
+    }
+
+    private HttpServer server;
+    private String base;
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/artifact.bin", exchange -> {
+            acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, DATA.length);
+            exchange.getResponseBody().write(DATA);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            byte[] body = "not found".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse download(String path, Path target, DownloadProgress progress) throws Exception {
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + path)).method("GET").build();
+        return new HttpServiceImpl().downloadAsync(request, target, progress).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void downloadAsync_binaryBody_savedByteForByte() throws Exception {
+        Path target = tempDir.resolve("artifact.bin");
+        AtomicLong lastReceived = new AtomicLong();
+        AtomicLong lastTotal = new AtomicLong();
+
+        HttpResponse response = download("/artifact.bin", target, (received, total) -> {
+            lastReceived.set(received);
+            lastTotal.set(total);
+        });
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertArrayEquals(DATA, Files.readAllBytes(target));
+        Assertions.assertEquals(target, response.bodyFile());
+        Assertions.assertEquals(target.toString(), response.headers().get(HttpService.DOWNLOAD_HEADER));
+        Assertions.assertEquals(DATA.length, lastReceived.get());
+        Assertions.assertEquals(DATA.length, lastTotal.get());
+        Assertions.assertEquals(DATA.length, response.timing().last().bodyBytes());
+        // The file keeps the bytes as served, so no compressed encoding is asked for
+        Assertions.assertNull(acceptEncoding.get());
+    }
+
+    @Test
+    public void downloadAsync_existingFile_replaced() throws Exception {
+        Path target = Files.write(tempDir.resolve("artifact.bin"), new byte[DATA.length * 2]);
+
+        download("/artifact.bin", target, null);
+
+        Assertions.assertEquals(DATA.length, Files.size(target));
+    }
+
+    @Test
+    public void downloadAsync_errorStatus_bodyReturnedAsText() throws Exception {
+        Path target = tempDir.resolve("missing.bin");
+
+        HttpResponse response = download("/missing", target, null);
+
+        Assertions.assertEquals(404, response.statusCode());
+        Assertions.assertEquals("not found", response.body());
+        Assertions.assertNull(response.headers().get(HttpService.DOWNLOAD_HEADER));
+        Assertions.assertFalse(Files.exists(target));
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class HeadersTest {
+
+    private static String name(Headers headers, String name) {
+        return headers.keySet().stream().filter(name::equals).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void get_anyCase_findsField() {
+        Headers headers = new Headers();
+        headers.put("Content-Type", "application/json");
+
+        Assertions.assertEquals("application/json", headers.get("content-type"));
+        Assertions.assertTrue(headers.containsKey("CONTENT-TYPE"));
+        Assertions.assertNull(headers.get("Accept"));
+    }
+
+    @Test
+    public void put_otherCase_replacesInPlace() {
+        Headers headers = new Headers();
+        headers.put("Accept", "*/*");
+        headers.put("X-Id", "1");
+
+        Assertions.assertEquals("*/*", headers.put("accept", "text/plain"));
+
+        Assertions.assertEquals(2, headers.size());
+        Assertions.assertEquals(List.of("Accept", "X-Id"), List.copyOf(headers.keySet()));
+        Assertions.assertEquals("text/plain", headers.get("Accept"));
+    }
+
+    @Test
+    public void add_repeatedField_keepsValuesInOrder() {
+        Headers headers = new Headers()
+                .add("Set-Cookie", "a=1; Path=/")
+                .add("set-cookie", "b=2, c; Path=/");
+
+        Assertions.assertEquals(List.of("a=1; Path=/", "b=2, c; Path=/"), headers.all("Set-Cookie"));
+        Assertions.assertEquals("a=1; Path=/", headers.first("SET-COOKIE"));
+        Assertions.assertEquals("a=1; Path=/, b=2, c; Path=/", headers.get("Set-Cookie"));
+        Assertions.assertEquals(1, headers.size());
+    }
+
+    @Test
+    public void remove_anyCase_removesAllValues() {
+        Headers headers = new Headers().add("Vary", "Accept").add("Vary", "Cookie");
+
+        Assertions.assertEquals("Accept, Cookie", headers.remove("vary"));
+        Assertions.assertTrue(headers.isEmpty());
+        Assertions.assertEquals(List.of(), headers.all("Vary"));
+    }
+
+    @Test
+    public void of_clientHeaders_keepsEveryValue() {
+        java.net.http.HttpHeaders client = java.net.http.HttpHeaders.of(Map.of(
+                "set-cookie", List.of("a=1", "b=2"),
+                "content-type", List.of("text/plain")), (name, value) -> true);
+
+        Headers headers = Headers.of(client);
+
+        Assertions.assertEquals(List.of("a=1", "b=2"), headers.all("Set-Cookie"));
+        Assertions.assertEquals(Map.of("set-cookie", List.of("a=1", "b=2"), "content-type", List.of("text/plain")),
+                headers.toMultimap());
+        // Well-known names share one instance across responses
+        Assertions.assertSame(name(headers, "content-type"), name(Headers.of(client), "content-type"));
+    }
+
+    @Test
+    public void readOnlyOf_readOnlyHeaders_sharedWithoutCopy() {
+        Headers headers = new Headers().add("Accept", "*/*").readOnly();
+
+        Assertions.assertSame(headers, Headers.readOnlyOf(headers));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> headers.put("Accept", "text/plain"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> headers.keySet().clear());
+        Assertions.assertFalse(headers.copy().isReadOnly());
+    }
+
+    @Test
+    public void httpRequest_builtOnce_headersNotCopiedAgain() {
+        HttpRequest request = HttpRequest.builder().uri(URI.create("http://localhost/"))
+                .method("GET").header("X-Id", "1").header("x-id", "2").build();
+
+        HttpRequest copy = new HttpRequest(request.uri(), request.method(), request.headers(), null, null, null);
+
+        Assertions.assertSame(request.headers(), copy.headers());
+        Assertions.assertEquals(List.of("1", "2"), copy.headers().all("X-ID"));
+    }
+
+    @Test
+    public void equals_namesDifferInCase_equalWithSameHashCode() {
+        Headers a = new Headers().add("Content-Type", "text/plain").add("Set-Cookie", "a=1").add("Set-Cookie", "b=2");
+        Headers b = new Headers().add("set-cookie", "a=1").add("set-cookie", "b=2").add("content-type", "text/plain");
+
+        Assertions.assertEquals(a, b);
+        Assertions.assertEquals(a.hashCode(), b.hashCode());
+        // Same combined value, but other separate values
+        Assertions.assertNotEquals(a, new Headers().add("Content-Type", "text/plain").add("Set-Cookie", "a=1, b=2"));
+        Assertions.assertNotEquals(new Headers().add("Accept", "*/*"), new HashMap<>(Map.of("Accept", "*/*")));
+    }
+
+    @Test
+    public void builder_headersFrozenOnBuild_reuseCopiesFirst() {
+        HttpRequest.Builder builder = HttpRequest.builder().uri(URI.create("http://localhost/")).method("GET")
+                .header("X-Id", "1");
+        HttpRequest first = builder.build();
+        HttpRequest second = builder.header("X-Id", "2").build();
+
+        Assertions.assertTrue(first.headers().isReadOnly());
+        Assertions.assertEquals(List.of("1"), first.headers().all("X-Id"));
+        Assertions.assertEquals(List.of("1", "2"), second.headers().all("X-Id"));
+    }
+
+    @Test
+    public void serialization_roundTrip_keepsValues() throws Exception {
+        Headers headers = new Headers().add("Set-Cookie", "a=1").add("Set-Cookie", "b=2").add("ETag", "\"v1\"");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(headers);
+        }
+
+        Headers read;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            read = (Headers) ois.readObject();
+        }
+
+        Assertions.assertEquals(headers.toMultimap(), read.toMultimap());
+        Assertions.assertEquals("\"v1\"", read.get("etag"));
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class HostRateLimiterTest {
+    private static final URI HOST_A = URI.create("https://a.example.test/pets");
+    private static final URI HOST_B = URI.create("https://b.example.test/pets");
+
+    private final HostRateLimiter limiter = new HostRateLimiter(ForkJoinPool.commonPool());
+
+    @Test
+    public void acquire_noLimit_permitsImmediately() {
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(limiter.acquire(HOST_A, null).isDone());
+            Assertions.assertTrue(limiter.acquire(HOST_A, RateLimit.NONE).isDone());
+        }
+        Assertions.assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    public void acquire_beyondBurst_waitsForNextSlot() throws Exception {
+        RateLimit limit = new RateLimit(10, 3);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(limiter.acquire(HOST_A, limit).isDone(), "burst permit " + i);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> fourth = limiter.acquire(HOST_A, limit);
+        Assertions.assertFalse(fourth.isDone());
+        Assertions.assertEquals(1, limiter.waiting());
+        Assertions.assertEquals(List.of(new HostRateLimiter.HostStats("a.example.test:443", 10, 1)),
+                limiter.stats().hosts());
+
+        fourth.get(2, TimeUnit.SECONDS);
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assertions.assertEquals(0, limiter.waiting());
+    }
+
+    @Test
+    public void acquire_otherHost_notLimited() {
+        RateLimit limit = new RateLimit(1, 1);
+
+        Assertions.assertTrue(limiter.acquire(HOST_A, limit).isDone());
+        Assertions.assertFalse(limiter.acquire(HOST_A, limit).isDone());
+        Assertions.assertTrue(limiter.acquire(HOST_B, limit).isDone());
+    }
+
+    @Test
+    public void tryAcquire_noFreePermit_refusedWithoutTakingASlot() throws Exception {
+        RateLimit limit = new RateLimit(5, 1);
+        Assertions.assertTrue(limiter.tryAcquire(HOST_A, null));
+        Assertions.assertTrue(limiter.tryAcquire(HOST_A, limit));
+        Assertions.assertFalse(limiter.tryAcquire(HOST_A, limit));
+        Assertions.assertEquals(0, limiter.waiting());
+
+        // The refused call left the next slot free, 200 ms after the first one
+        long start = System.nanoTime();
+        limiter.acquire(HOST_A, limit).get(2, TimeUnit.SECONDS);
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    public void acquire_cancelled_leavesQueue() {
+        RateLimit limit = new RateLimit(1, 1);
+        limiter.acquire(HOST_A, limit);
+        CompletableFuture<Void> queued = limiter.acquire(HOST_A, limit);
+        Assertions.assertEquals(1, limiter.waiting());
+
+        queued.cancel(true);
+
+        Assertions.assertEquals(0, limiter.waiting());
+        Assertions.assertTrue(limiter.stats().hosts().isEmpty());
+    }
+
+    @Test
+    public void acquire_concurrentCallers_neverExceedRate() throws Exception {
+        RateLimit limit = new RateLimit(1000, 1);
+        int threads = 8;
+        int perThread = 50;
+        List<CompletableFuture<Void>> permits = new ArrayList<>();
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> callers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread caller = new Thread(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    CompletableFuture<Void> permit = limiter.acquire(HOST_A, limit);
+                    synchronized (permits) {
+                        permits.add(permit);
+                    }
+                }
+            });
+            caller.start();
+            callers.add(caller);
+        }
+        long start = System.nanoTime();
+        ready.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        // Every caller got its own slot, 1 ms apart
+        CompletableFuture.allOf(permits.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        Assertions.assertEquals(threads * perThread, permits.size());
+        Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(threads * perThread - 20),
+                "elapsed " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+    }
+
+    @Test
+    public void rateLimit_invalid_rejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RateLimit(-1, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RateLimit(Double.NaN, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RateLimit(5, 0));
+        Assertions.assertEquals(new RateLimit(20, 20), RateLimit.perSecond(20));
+        Assertions.assertEquals(new RateLimit(0.5, 1), RateLimit.perSecond(0.5));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.prefs.Preferences;
+
+public class HttpClientRegistryTest {
+
+    private static HttpClientRegistry.TransportKey key(int timeoutMs) {
+        return new HttpClientRegistry.TransportKey(timeoutMs, HttpClientRegistry.SslMode.DEFAULT, "", true, "");
+    }
+
+    @Test
+    public void client_sameKey_reusesClient() {
+        HttpClientRegistry registry = new HttpClientRegistry();
+        HttpClient first = registry.client(key(1000));
+        HttpClient second = registry.client(key(1000));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, registry.stats().built());
+        Assertions.assertEquals(0.5, registry.stats().reuseRatio());
+    }
+
+    @Test
+    public void client_changedKey_buildsNewClient() {
+        HttpClientRegistry registry = new HttpClientRegistry();
+        HttpClient first = registry.client(key(1000));
+        HttpClient second = registry.client(key(2000));
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, registry.stats().clients());
+    }
+
+    @Test
+    public void invalidateAll_dropsClients() {
+        HttpClientRegistry registry = new HttpClientRegistry();
+        HttpClient first = registry.client(key(1000));
+        registry.invalidateAll();
+
+        Assertions.assertNotSame(first, registry.client(key(1000)));
+        Assertions.assertEquals(2, registry.stats().built());
+    }
+
+    @Test
+    public void currentKey_preferenceChanged_readAgain() throws Exception {
+        Preferences prefs = Preferences.userNodeForPackage(SwaggerApplication.class);
+        String timeout = prefs.get("http.requestTimeoutMs", null);
+        HttpClientRegistry registry = new HttpClientRegistry();
+        try {
+            prefs.putInt("http.requestTimeoutMs", 1234);
+            registry.invalidateAll();
+            Assertions.assertEquals(1234, registry.currentKey().timeoutMs());
+
+            prefs.putInt("http.requestTimeoutMs", 4321);
+            // Change events are delivered on their own thread
+            long deadline = System.currentTimeMillis() + 5000;
+            while (registry.currentKey().timeoutMs() != 4321 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(4321, registry.currentKey().timeoutMs());
+        } finally {
+            if (timeout == null) {
+                prefs.remove("http.requestTimeoutMs");
+            } else {
+                prefs.put("http.requestTimeoutMs", timeout);
+            }
+        }
+    }
+}
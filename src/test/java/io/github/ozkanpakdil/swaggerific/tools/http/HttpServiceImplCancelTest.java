@@ -0,0 +1,100 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class HttpServiceImplCancelTest {
+    private HttpServer server;
+    private String base;
+    private final CountDownLatch bodyStarted = new CountDownLatch(1);
+    private final CountDownLatch streamClosed = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        // Streams a body that never ends until the client goes away
+        server.createContext("/stream", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            byte[] chunk = new byte[1024];
+            try {
+                for (int i = 0; i < 1000; i++) {
+                    out.write(chunk);
+                    out.flush();
+                    bodyStarted.countDown();
+                    Thread.sleep(20);
+                }
+            } catch (IOException e) {
+                streamClosed.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private CompletableFuture<HttpResponse> send(String path) {
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + path)).method("GET").build();
+        return new HttpServiceImpl().sendRequestAsync(request);
+    }
+
+    @Test
+    public void cancel_whileBodyStreams_closesStream() throws Exception {
+        CompletableFuture<HttpResponse> response = send("/stream");
+        Assertions.assertTrue(bodyStarted.await(10, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(response.cancel(true));
+
+        Assertions.assertThrows(CancellationException.class, response::join);
+        // The server notices the closed connection long before the body would have ended
+        Assertions.assertTrue(streamClosed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancel_whileWaitingForHeaders_exchangeNoLongerInFlight() throws Exception {
+        int before = RequestExecutor.shared().inFlight();
+        CompletableFuture<HttpResponse> response = send("/slow");
+        Assertions.assertEquals(before + 1, RequestExecutor.shared().inFlight());
+
+        response.cancel(true);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (RequestExecutor.shared().inFlight() > before && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(before, RequestExecutor.shared().inFlight());
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class HttpServiceImplPrewarmTest {
+    private HttpServer server;
+    private String base;
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " "
+                    + exchange.getRequestHeaders().containsKey("Authorization"));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse get(HttpServiceImpl service) throws Exception {
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + "/pets/1")).method("GET")
+                .header("Authorization", "Bearer secret").protocol(HttpProtocol.HTTP_1_1).build();
+        return service.sendRequestAsync(request).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void prewarm_thenSend_firstExchangeReportsWarmConnection() throws Exception {
+        HttpServiceImpl service = new HttpServiceImpl();
+
+        service.prewarm(URI.create(base + "/pets/1?q=1"), HttpProtocol.HTTP_1_1, RateLimit.NONE)
+                .get(10, TimeUnit.SECONDS);
+        HttpResponse first = get(service);
+        HttpResponse second = get(service);
+
+        // Only the origin is touched and no credentials go with the warm-up
+        Assertions.assertEquals("HEAD / false", received.get(0));
+        Assertions.assertTrue(first.timing().last().warmConnection());
+        Assertions.assertFalse(second.timing().last().warmConnection());
+    }
+
+    @Test
+    public void prewarm_notHttp_doesNothing() throws Exception {
+        new HttpServiceImpl().prewarm(URI.create("ftp://127.0.0.1/file"), null, null).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void prewarm_rateLimitWithoutFreePermit_skipped() throws Exception {
+        RateLimit limit = new RateLimit(1, 1);
+        URI uri = URI.create(base + "/pets/1");
+        Assertions.assertTrue(HostRateLimiter.shared().acquire(uri, limit).isDone());
+
+        new HttpServiceImpl().prewarm(uri, HttpProtocol.HTTP_1_1, limit).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(received.isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class HttpServiceImplProtocolTest {
+    private HttpServer server;
+    private String base;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Answers with the upgrade the client offered; this server only speaks HTTP/1.1 and ignores it
+        server.createContext("/upgrade", exchange -> {
+            byte[] body = exchange.getRequestHeaders().getOrDefault("Upgrade", java.util.List.of("none")).get(0)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse send(HttpProtocol protocol) throws Exception {
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + "/upgrade")).method("GET")
+                .protocol(protocol).build();
+        return new HttpServiceImpl().sendRequestAsync(request).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void sendRequest_http11_sentWithoutUpgrade() throws Exception {
+        HttpResponse response = send(HttpProtocol.HTTP_1_1);
+
+        Assertions.assertEquals("none", response.body());
+        Assertions.assertEquals(HttpProtocol.HTTP_1_1, response.timing().protocol());
+    }
+
+    @Test
+    public void sendRequest_http2OverPlainHttp_offersH2cAndFallsBack() throws Exception {
+        HttpResponse response = send(HttpProtocol.HTTP_2);
+
+        Assertions.assertEquals("h2c", response.body());
+        Assertions.assertEquals(HttpProtocol.HTTP_1_1, response.timing().protocol());
+    }
+
+    @Test
+    public void parse_namesAndLabels() {
+        Assertions.assertEquals(HttpProtocol.HTTP_1_1, HttpProtocol.parse("HTTP_1_1"));
+        Assertions.assertEquals(HttpProtocol.HTTP_1_1, HttpProtocol.parse("http/1.1"));
+        Assertions.assertEquals(HttpProtocol.HTTP_2, HttpProtocol.parse("HTTP/2"));
+        Assertions.assertEquals(HttpProtocol.HTTP_2, HttpProtocol.parse("h2"));
+        Assertions.assertNull(HttpProtocol.parse("Settings"));
+        Assertions.assertNull(HttpProtocol.parse(null));
+    }
+}
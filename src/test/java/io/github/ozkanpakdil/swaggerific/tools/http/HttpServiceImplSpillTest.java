@@ -0,0 +1,85 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.Preferences;
+
+public class HttpServiceImplSpillTest {
+    private static final byte[] BODY = "x".repeat(4096).getBytes();
+
+    private final Preferences prefs = Preferences.userNodeForPackage(SwaggerApplication.class);
+    private HttpServer server;
+    private String base;
+    private String spill;
+    private String maxBytes;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        spill = prefs.get("http.spillLargeResponses", null);
+        maxBytes = prefs.get("http.maxResponseSizeBytes", null);
+        prefs.putBoolean("http.spillLargeResponses", true);
+        prefs.putInt("http.maxResponseSizeBytes", 1024);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        restore("http.spillLargeResponses", spill);
+        restore("http.maxResponseSizeBytes", maxBytes);
+    }
+
+    private void restore(String key, String value) {
+        if (value == null) {
+            prefs.remove(key);
+        } else {
+            prefs.put(key, value);
+        }
+    }
+
+    private HttpResponse get(boolean spillLargeResponse) throws Exception {
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + "/large")).method("GET")
+                .spillLargeResponse(spillLargeResponse).build();
+        return new HttpServiceImpl().sendRequestAsync(request).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void largeResponse_requestAllowsSpill_bodyInTempFile() throws Exception {
+        HttpResponse response = get(true);
+
+        try {
+            Assertions.assertNotNull(response.bodyFile());
+            Assertions.assertEquals(BODY.length, Files.size(response.bodyFile()));
+        } finally {
+            Files.deleteIfExists(response.bodyFile());
+        }
+    }
+
+    @Test
+    public void largeResponse_requestWithoutSpill_truncatedInMemory() throws Exception {
+        HttpResponse response = get(false);
+
+        Assertions.assertNull(response.bodyFile());
+        Assertions.assertTrue(response.truncated());
+        // The kept bytes as received, the notice about the cut is added by the UI
+        Assertions.assertEquals(1024, response.content().size());
+        Assertions.assertEquals("x".repeat(1024), response.body());
+    }
+}
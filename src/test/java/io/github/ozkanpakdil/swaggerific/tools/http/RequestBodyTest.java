@@ -0,0 +1,135 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RequestBodyTest {
+    private HttpServer server;
+    private String base;
+    private final AtomicReference<byte[]> received = new AtomicReference<>();
+    private final AtomicReference<String> receivedType = new AtomicReference<>();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/upload", exchange -> {
+            received.set(exchange.getRequestBody().readAllBytes());
+            receivedType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            byte[] body = String.valueOf(received.get().length).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpResponse upload(RequestBody content, UploadProgress progress) {
+        HttpRequest request = HttpRequest.builder()
+                .uri(URI.create(base + "/upload"))
+                .method("POST")
+                .body(content)
+                .uploadProgress(progress)
+                .build();
+        return new HttpServiceImpl().sendRequest(request);
+    }
+
+    @Test
+    public void send_fileBody_streamsFileAndReportsProgress() throws Exception {
+        byte[] data = new byte[3 * 1024 * 1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Path file = Files.write(tempDir.resolve("data.bin"), data);
+        AtomicLong lastSent = new AtomicLong();
+        AtomicLong lastTotal = new AtomicLong();
+
+        HttpResponse response = upload(RequestBody.ofFile(file), (sent, total) -> {
+            lastSent.set(sent);
+            lastTotal.set(total);
+        });
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertArrayEquals(data, received.get());
+        Assertions.assertEquals("application/octet-stream", receivedType.get());
+        Assertions.assertEquals(data.length, lastSent.get());
+        Assertions.assertEquals(data.length, lastTotal.get());
+    }
+
+    @Test
+    public void send_multipart_writesPartsAndBoundary() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("note.txt"), "file content");
+        RequestBody.Multipart form = new RequestBody.Multipart(List.of(
+                RequestBody.Part.text("title", "hello"),
+                RequestBody.Part.file("attachment", file, "text/plain")), "XyZ");
+
+        HttpResponse response = upload(form, null);
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("multipart/form-data; boundary=XyZ", receivedType.get());
+        String expected = """
+                --XyZ\r
+                Content-Disposition: form-data; name="title"\r
+                \r
+                hello\r
+                --XyZ\r
+                Content-Disposition: form-data; name="attachment"; filename="note.txt"\r
+                Content-Type: text/plain\r
+                \r
+                file content\r
+                --XyZ--\r
+                """;
+        Assertions.assertEquals(expected, new String(received.get(), StandardCharsets.UTF_8));
+        Assertions.assertEquals(expected.length(), form.length());
+    }
+
+    @Test
+    public void send_source_opensStreamForEverySend() {
+        byte[] data = "from a stream".getBytes(StandardCharsets.UTF_8);
+        RequestBody.Source source = new RequestBody.Source(() -> new ByteArrayInputStream(data), data.length,
+                "text/plain");
+
+        Assertions.assertEquals(200, upload(source, null).statusCode());
+        Assertions.assertEquals(200, upload(source, null).statusCode());
+        Assertions.assertArrayEquals(data, received.get());
+        Assertions.assertEquals("text/plain", receivedType.get());
+    }
+
+    @Test
+    public void send_explicitContentType_keptForFileBody() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("data.json"), "{}");
+        HttpRequest request = HttpRequest.builder()
+                .uri(URI.create(base + "/upload"))
+                .method("PUT")
+                .headers(Map.of("Content-Type", "application/vnd.api+json"))
+                .body(RequestBody.ofFile(file))
+                .build();
+
+        new HttpServiceImpl().sendRequest(request);
+
+        Assertions.assertEquals("application/vnd.api+json", receivedType.get());
+    }
+}
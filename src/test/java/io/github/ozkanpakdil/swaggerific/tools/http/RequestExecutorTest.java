@@ -0,0 +1,97 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class RequestExecutorTest {
+
+    @Test
+    public void supply_fullQueue_completesExceptionally() throws Exception {
+        RequestExecutor executor = new RequestExecutor("test", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = executor.run(() -> {
+            started.countDown();
+            await(release);
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> waiting = executor.run(() -> { });
+        CompletableFuture<Void> rejected = executor.run(() -> { });
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void supply_cancelledWhileQueued_doesNotRun() throws Exception {
+        RequestExecutor executor = new RequestExecutor("test", 1, 4);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Void> running = executor.run(() -> {
+            started.countDown();
+            await(release);
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = executor.run(() -> ran.set(true));
+
+        Assertions.assertEquals(1, executor.stats().queued());
+        queued.cancel(true);
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        executor.run(() -> { }).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertFalse(ran.get());
+        Assertions.assertEquals(0, executor.stats().queued());
+    }
+
+    @Test
+    public void executor_fullQueue_continuationStillRuns() throws Exception {
+        RequestExecutor executor = new RequestExecutor("test", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = executor.run(() -> {
+            started.countDown();
+            await(release);
+        });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> waiting = executor.run(() -> { });
+
+        CountDownLatch continued = new CountDownLatch(1);
+        executor.executor().execute(continued::countDown);
+
+        Assertions.assertTrue(continued.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void track_countsInFlightUntilComplete() {
+        RequestExecutor executor = new RequestExecutor("test", 1, 4);
+        CompletableFuture<String> exchange = executor.track(new CompletableFuture<>());
+        Assertions.assertEquals(1, executor.inFlight());
+
+        exchange.complete("done");
+        Assertions.assertEquals(0, executor.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
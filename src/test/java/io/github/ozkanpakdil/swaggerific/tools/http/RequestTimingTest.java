@@ -0,0 +1,34 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+public class RequestTimingTest {
+
+    @Test
+    public void parse_serverTimingHeaders_readsNameDurationAndDescription() {
+        List<RequestTiming.ServerTiming> timings = RequestTiming.ServerTiming.parse(List.of(
+                "db;dur=53.2;desc=\"Query, cached\", cache;desc=miss",
+                "app;dur=47"));
+
+        Assertions.assertEquals(3, timings.size());
+        Assertions.assertEquals("db", timings.get(0).name());
+        Assertions.assertEquals(Duration.ofNanos(53_200_000), timings.get(0).duration());
+        Assertions.assertEquals("Query, cached", timings.get(0).description());
+        Assertions.assertNull(timings.get(1).duration());
+        Assertions.assertEquals("miss", timings.get(1).description());
+        Assertions.assertEquals(Duration.ofMillis(47), timings.get(2).duration());
+    }
+
+    @Test
+    public void parse_malformedEntries_skipped() {
+        List<RequestTiming.ServerTiming> timings = RequestTiming.ServerTiming.parse(List.of(", ;dur=1, total;dur=abc"));
+
+        Assertions.assertEquals(1, timings.size());
+        Assertions.assertEquals("total", timings.get(0).name());
+        Assertions.assertNull(timings.get(0).duration());
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ResponseBodyTest {
+
+    private static ResponseBody utf8(String text) {
+        return ResponseBody.of(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void text_decodedOnce() {
+        ResponseBody body = utf8("héllo");
+
+        String first = body.text();
+
+        Assertions.assertEquals("héllo", first);
+        Assertions.assertSame(first, body.text());
+        Assertions.assertEquals(6, body.size());
+    }
+
+    @Test
+    public void text_cutBody_dropsIncompleteCharacter() {
+        byte[] bytes = "abé".getBytes(StandardCharsets.UTF_8);
+        ResponseBody body = ResponseBody.of(ByteBuffer.wrap(bytes, 0, bytes.length - 1), StandardCharsets.UTF_8, true);
+
+        Assertions.assertEquals("ab", body.text());
+    }
+
+    @Test
+    public void json_parsedOnceFromBytes() throws Exception {
+        ResponseBody body = utf8("{\"id\":1,\"tags\":[\"a\"]}");
+
+        Assertions.assertEquals(1, body.json().get("id").asInt());
+        Assertions.assertSame(body.json(), body.json());
+    }
+
+    @Test
+    public void json_notJson_throws() {
+        Assertions.assertThrows(JsonProcessingException.class, () -> utf8("not json").json());
+    }
+
+    @Test
+    public void kind_sniffsFirstBytes() {
+        Assertions.assertEquals(ResponseBody.Kind.JSON, utf8("  \n[1, 2]").kind());
+        Assertions.assertEquals(ResponseBody.Kind.JSON, utf8("\uFEFF{}").kind());
+        Assertions.assertEquals(ResponseBody.Kind.XML, utf8("<?xml version=\"1.0\"?><a/>").kind());
+        Assertions.assertEquals(ResponseBody.Kind.TEXT, utf8("plain text").kind());
+        Assertions.assertEquals(ResponseBody.Kind.EMPTY, utf8("").kind());
+        Assertions.assertEquals(ResponseBody.Kind.EMPTY, ResponseBody.ofText(null).kind());
+    }
+
+    @Test
+    public void kind_binary_detected() {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d, 'I', 'H', 'D', 'R'};
+
+        Assertions.assertEquals(ResponseBody.Kind.BINARY, ResponseBody.of(png, StandardCharsets.UTF_8).kind());
+    }
+
+    @Test
+    public void kind_largeBody_onlyPrefixDecoded() {
+        // The cut between two bytes of a character at the sniff limit is not counted as binary
+        String text = "{" + "é".repeat(ResponseBody.SNIFF_BYTES) + "}";
+
+        Assertions.assertEquals(ResponseBody.Kind.JSON, utf8(text).kind());
+    }
+
+    @Test
+    public void bytes_binaryKeptUnchanged() {
+        byte[] data = {0, (byte) 0xff, (byte) 0xfe, 1, 2};
+        ResponseBody body = ResponseBody.of(data, StandardCharsets.UTF_8);
+
+        Assertions.assertArrayEquals(data, body.toByteArray());
+        Assertions.assertTrue(body.bytes().isReadOnly());
+    }
+
+    @Test
+    public void ofText_bytesEncodedOnDemand() {
+        ResponseBody body = ResponseBody.ofText("abc");
+
+        Assertions.assertEquals(3, body.size());
+        Assertions.assertArrayEquals("abc".getBytes(StandardCharsets.UTF_8), body.toByteArray());
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ResponseCacheTest {
+
+    private static HttpRequest get(String path, Map<String, String> headers) {
+        return new HttpRequest(URI.create("http://localhost/api" + path), "GET", headers, null);
+    }
+
+    private static HttpResponse response(int status, String body, Map<String, String> headers) {
+        return new HttpResponse.Builder().statusCode(status).body(body).contentType("application/json")
+                .headers(new java.util.HashMap<>(headers)).build();
+    }
+
+    private static ResponseCache cache() {
+        return new ResponseCache(10, 1024 * 1024, null, 0);
+    }
+
+    @Test
+    public void lookup_freshEntry_servesWithoutRequest() {
+        ResponseCache cache = cache();
+        cache.lookup(get("/pets", Map.of())).complete(response(200, "[1]", Map.of("Cache-Control", "max-age=60")));
+
+        HttpResponse cached = cache.lookup(get("/pets", Map.of())).fresh();
+
+        Assertions.assertNotNull(cached);
+        Assertions.assertEquals("[1]", cached.body());
+        Assertions.assertEquals(ResponseCache.HIT, cached.headers().get(ResponseCache.CACHE_HEADER));
+        Assertions.assertEquals(new ResponseCache.Stats(1, 1, 0, 1, 3), cache.stats());
+    }
+
+    @Test
+    public void lookup_binaryBody_servedByteForByte() {
+        ResponseCache cache = cache();
+        byte[] data = {0, (byte) 0x89, 'P', 'N', 'G', (byte) 0xff};
+        cache.lookup(get("/image", Map.of())).complete(new HttpResponse.Builder().statusCode(200)
+                .body(ResponseBody.of(data, java.nio.charset.StandardCharsets.UTF_8)).contentType("image/png")
+                .headers(new java.util.HashMap<>(Map.of("Cache-Control", "max-age=60"))).build());
+
+        HttpResponse cached = cache.lookup(get("/image", Map.of())).fresh();
+
+        Assertions.assertArrayEquals(data, cached.content().toByteArray());
+        Assertions.assertEquals(data.length, cache.stats().bytes());
+    }
+
+    @Test
+    public void lookup_staleEntry_revalidatesWithValidators() {
+        ResponseCache cache = cache();
+        cache.lookup(get("/pets", Map.of())).complete(response(200, "[1]",
+                Map.of("ETag", "\"v1\"", "Last-Modified", "Mon, 05 Oct 2026 10:00:00 GMT", "Cache-Control", "no-cache")));
+
+        ResponseCache.Lookup lookup = cache.lookup(get("/pets", Map.of()));
+        Assertions.assertNull(lookup.fresh());
+        HttpRequest conditional = lookup.request();
+        Assertions.assertEquals("\"v1\"", conditional.headers().get("If-None-Match"));
+        Assertions.assertEquals("Mon, 05 Oct 2026 10:00:00 GMT", conditional.headers().get("If-Modified-Since"));
+
+        HttpResponse revalidated = lookup.complete(response(304, null, Map.of("ETag", "\"v1\"", "X-Request", "2")));
+
+        Assertions.assertEquals(200, revalidated.statusCode());
+        Assertions.assertEquals("[1]", revalidated.body());
+        Assertions.assertEquals("2", revalidated.headers().get("X-Request"));
+        Assertions.assertEquals(ResponseCache.REVALIDATED, revalidated.headers().get(ResponseCache.CACHE_HEADER));
+        Assertions.assertEquals(1, cache.stats().revalidations());
+    }
+
+    @Test
+    public void lookup_requestNoCache_forcesRevalidation() {
+        ResponseCache cache = cache();
+        cache.lookup(get("/pets", Map.of())).complete(response(200, "[1]",
+                Map.of("Cache-Control", "max-age=60", "ETag", "\"v1\"")));
+
+        ResponseCache.Lookup lookup = cache.lookup(get("/pets", Map.of("Cache-Control", "no-cache")));
+
+        Assertions.assertNull(lookup.fresh());
+        Assertions.assertEquals("\"v1\"", lookup.request().headers().get("If-None-Match"));
+    }
+
+    @Test
+    public void lookup_uncacheable_bypassesOrSkipsStoring() {
+        ResponseCache cache = cache();
+        Assertions.assertNull(cache.lookup(new HttpRequest(URI.create("http://localhost/api/pets"), "POST", Map.of(), "{}")));
+        Assertions.assertNull(cache.lookup(get("/pets", Map.of("If-None-Match", "\"v0\""))));
+        Assertions.assertNull(cache.lookup(get("/pets", Map.of("Cache-Control", "no-store"))));
+
+        cache.lookup(get("/a", Map.of())).complete(response(200, "a", Map.of("Cache-Control", "no-store, max-age=60")));
+        cache.lookup(get("/b", Map.of())).complete(response(200, "b", Map.of()));
+        cache.lookup(get("/c", Map.of())).complete(response(500, "c", Map.of("Cache-Control", "max-age=60")));
+        cache.lookup(get("/d", Map.of())).complete(response(200, "d", Map.of("Cache-Control", "max-age=60", "Vary", "*")));
+
+        Assertions.assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    public void lookup_varyHeaderDiffers_misses() {
+        ResponseCache cache = cache();
+        cache.lookup(get("/pets", Map.of("Accept-Language", "en"))).complete(response(200, "en",
+                Map.of("Cache-Control", "max-age=60", "Vary", "Accept-Language")));
+
+        Assertions.assertNotNull(cache.lookup(get("/pets", Map.of("accept-language", "en"))).fresh());
+        Assertions.assertNull(cache.lookup(get("/pets", Map.of("Accept-Language", "de"))).fresh());
+    }
+
+    @Test
+    public void complete_overLimits_evictsLeastRecentlyUsed() {
+        ResponseCache cache = new ResponseCache(2, 10, null, 0);
+        Map<String, String> fresh = Map.of("Cache-Control", "max-age=60");
+        cache.lookup(get("/1", Map.of())).complete(response(200, "1111", fresh));
+        cache.lookup(get("/2", Map.of())).complete(response(200, "2222", fresh));
+        cache.lookup(get("/1", Map.of())).fresh();
+        cache.lookup(get("/3", Map.of())).complete(response(200, "3333", fresh));
+
+        Assertions.assertNotNull(cache.lookup(get("/1", Map.of())).fresh());
+        Assertions.assertNull(cache.lookup(get("/2", Map.of())).fresh());
+        Assertions.assertNotNull(cache.lookup(get("/3", Map.of())).fresh());
+
+        cache.lookup(get("/4", Map.of())).complete(response(200, "444444444", fresh));
+        Assertions.assertEquals(1, cache.stats().entries());
+        Assertions.assertEquals(9, cache.stats().bytes());
+    }
+
+    @Test
+    public void lookup_evictedWithDiskTier_promotesFromDisk(@TempDir Path dir) {
+        ResponseCache cache = new ResponseCache(1, 1024, dir, 1024 * 1024);
+        cache.setDiskEnabled(true);
+        Map<String, String> fresh = Map.of("Cache-Control", "max-age=60");
+        cache.lookup(get("/1", Map.of())).complete(response(200, "one", fresh));
+        cache.lookup(get("/2", Map.of())).complete(response(200, "two", fresh));
+
+        HttpResponse promoted = cache.lookup(get("/1", Map.of())).fresh();
+
+        Assertions.assertNotNull(promoted);
+        Assertions.assertEquals("one", promoted.body());
+        Assertions.assertEquals("two", cache.lookup(get("/2", Map.of())).fresh().body());
+        cache.clear();
+        Assertions.assertNull(cache.lookup(get("/1", Map.of())).fresh());
+    }
+
+    @Test
+    public void diskTier_credentialsOfRequestAndResponse_notWrittenInPlain(@TempDir Path dir) throws Exception {
+        ResponseCache cache = new ResponseCache(1, 1024, dir, 1024 * 1024);
+        cache.setDiskEnabled(true);
+        Map<String, String> auth = Map.of("Authorization", "Bearer s3cret-token", "Cookie", "session=c00kie");
+        Map<String, String> fresh = Map.of("Cache-Control", "max-age=60", "Vary", "Authorization",
+                "Set-Cookie", "session=s3ssion-id", "Set-Cookie2", "old=s3ssion-id",
+                "Authentication-Info", "nextnonce=\"n0nce\"");
+        cache.lookup(get("/1", auth)).complete(response(200, "one", fresh));
+        cache.lookup(get("/2", Map.of())).complete(response(200, "two", fresh));
+
+        List<Path> files;
+        try (var list = Files.list(dir)) {
+            files = list.toList();
+        }
+        Assertions.assertEquals(1, files.size());
+        String written = new String(Files.readAllBytes(files.get(0)), StandardCharsets.ISO_8859_1);
+        Assertions.assertFalse(written.contains("s3cret-token"));
+        Assertions.assertFalse(written.contains("c00kie"));
+        Assertions.assertFalse(written.contains("s3ssion-id"));
+        Assertions.assertFalse(written.contains("n0nce"));
+        HttpResponse promoted = cache.lookup(get("/1", auth)).fresh();
+        Assertions.assertEquals("one", promoted.body());
+        Assertions.assertNull(promoted.headers().get("Set-Cookie"));
+        Assertions.assertNull(cache.lookup(get("/1", Map.of())).fresh());
+    }
+
+    @Test
+    public void diskTier_fileWithOtherClasses_rejectedAndDeleted(@TempDir Path dir) throws Exception {
+        ResponseCache cache = new ResponseCache(1, 1024, dir, 1024 * 1024);
+        cache.setDiskEnabled(true);
+        Map<String, String> fresh = Map.of("Cache-Control", "max-age=60");
+        cache.lookup(get("/1", Map.of())).complete(response(200, "one", fresh));
+        cache.lookup(get("/2", Map.of())).complete(response(200, "two", fresh));
+        Path file;
+        try (var list = Files.list(dir)) {
+            file = list.findFirst().orElseThrow();
+        }
+        try (OutputStream out = Files.newOutputStream(file); ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(new TreeMap<>(Map.of("a", "b")));
+        }
+
+        Assertions.assertNull(cache.lookup(get("/1", Map.of())).fresh());
+        Assertions.assertFalse(Files.exists(file));
+    }
+}
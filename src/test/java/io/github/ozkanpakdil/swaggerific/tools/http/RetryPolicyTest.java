@@ -0,0 +1,61 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void backoff_growsExponentiallyUpToMax() {
+        RetryPolicy policy = RetryPolicy.builder().maxAttempts(10)
+                .initialBackoff(Duration.ofMillis(100)).maxBackoff(Duration.ofMillis(350)).build();
+
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertTrue(policy.backoff(1).toMillis() <= 100);
+            Assertions.assertTrue(policy.backoff(2).toMillis() <= 200);
+            Assertions.assertTrue(policy.backoff(3).toMillis() <= 350);
+            Assertions.assertTrue(policy.backoff(30).toMillis() <= 350);
+        }
+    }
+
+    @Test
+    public void backoff_jittered() {
+        RetryPolicy policy = RetryPolicy.builder().initialBackoff(Duration.ofSeconds(1)).build();
+
+        long distinct = java.util.stream.IntStream.range(0, 20)
+                .mapToObj(i -> policy.backoff(1))
+                .distinct()
+                .count();
+
+        Assertions.assertTrue(distinct > 1);
+    }
+
+    @Test
+    public void retryAfter_secondsOrDate() {
+        Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+        Assertions.assertEquals(Duration.ofSeconds(3), RetryPolicy.retryAfter(" 3 ", now));
+        Assertions.assertEquals(Duration.ofSeconds(90),
+                RetryPolicy.retryAfter("Wed, 01 May 2024 10:01:30 GMT", now));
+        Assertions.assertEquals(Duration.ZERO, RetryPolicy.retryAfter("Wed, 01 May 2024 09:00:00 GMT", now));
+        Assertions.assertNull(RetryPolicy.retryAfter("soon", now));
+        Assertions.assertNull(RetryPolicy.retryAfter("-1", now));
+        Assertions.assertNull(RetryPolicy.retryAfter(null, now));
+    }
+
+    @Test
+    public void allowsRepeat_onlyIdempotentOrWithKey() {
+        RetryPolicy policy = RetryPolicy.builder().maxAttempts(3).build();
+
+        Assertions.assertTrue(policy.allowsRepeat("GET", Map.of()));
+        Assertions.assertTrue(policy.allowsRepeat("PUT", Map.of()));
+        Assertions.assertFalse(policy.allowsRepeat("POST", Map.of()));
+        Assertions.assertFalse(policy.allowsRepeat("PATCH", new Headers()));
+        Assertions.assertTrue(policy.allowsRepeat("POST", new Headers().add("idempotency-key", "k1")));
+        Assertions.assertTrue(policy.toBuilder().retryNonIdempotent(true).build().allowsRepeat("POST", Map.of()));
+    }
+}
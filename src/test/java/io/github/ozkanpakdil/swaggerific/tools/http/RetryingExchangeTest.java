@@ -0,0 +1,209 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RetryingExchangeTest {
+    private static final RetryPolicy RETRY = RetryPolicy.builder().maxAttempts(3)
+            .initialBackoff(Duration.ofMillis(10)).maxBackoff(Duration.ofSeconds(2)).build();
+
+    private HttpServer server;
+    private String base;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        // Unavailable twice, then fine
+        server.createContext("/flaky", exchange -> {
+            int call = calls.incrementAndGet();
+            byte[] body = ("call " + call).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(call < 3 ? 503 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/later", exchange -> {
+            calls.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "120");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+        // The first call hangs, later ones answer right away
+        server.createContext("/stuck", exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private RetryingExchange exchange(RetryPolicy policy, String uri, LatencyTracker latencies) {
+        return exchange(policy, uri, latencies, RateLimit.NONE);
+    }
+
+    private RetryingExchange exchange(RetryPolicy policy, String uri, LatencyTracker latencies, RateLimit limit) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        HostRateLimiter limiter = new HostRateLimiter(Runnable::run);
+        return new RetryingExchange(policy, policy.maxAttempts(), policy.hedge(),
+                origin -> new TimedExchange(client, new ConnectionTracker(), BoundedBodySubscriber.handler(1000), true,
+                        Runnable::run, origin),
+                () -> limiter.acquire(request.uri(), limit), request, latencies, Runnable::run);
+    }
+
+    private TimedExchange.Result send(RetryPolicy policy, String path) throws Exception {
+        return exchange(policy, base + path, new LatencyTracker()).send().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void send_retryableStatus_retriedUntilSuccess() throws Exception {
+        TimedExchange.Result result = send(RETRY, "/flaky");
+
+        Assertions.assertEquals(200, result.response().statusCode());
+        Assertions.assertEquals("call 3", result.response().body().text());
+        List<RequestTiming.Attempt> attempts = result.timing().attempts();
+        Assertions.assertEquals(3, attempts.size());
+        Assertions.assertEquals(503, attempts.get(0).statusCode());
+        Assertions.assertTrue(attempts.get(0).outcome().startsWith("retried after"));
+        Assertions.assertFalse(attempts.get(1).used());
+        Assertions.assertTrue(attempts.get(2).used());
+        // The hops of the used attempt are placed after the earlier attempts
+        Assertions.assertTrue(result.timing().last().start().compareTo(attempts.get(1).end()) >= 0);
+    }
+
+    @Test
+    public void send_rateLimited_everyAttemptTakesAPermit() throws Exception {
+        long start = System.nanoTime();
+        TimedExchange.Result result = exchange(RETRY, base + "/flaky", new LatencyTracker(), new RateLimit(5, 1))
+                .send().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(200, result.response().statusCode());
+        // The first attempt goes right away, the two retries wait 200 ms each for their slot
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(380));
+        Assertions.assertTrue(result.timing().attempts().get(2).start().toMillis() >= 380);
+    }
+
+    @Test
+    public void send_attemptsExhausted_lastResponseReturned() throws Exception {
+        TimedExchange.Result result = send(RETRY.toBuilder().maxAttempts(2).build(), "/flaky");
+
+        Assertions.assertEquals(503, result.response().statusCode());
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertTrue(result.timing().attempts().get(1).used());
+    }
+
+    @Test
+    public void send_singleAttempt_noAttemptsRecorded() throws Exception {
+        TimedExchange.Result result = send(RetryPolicy.NONE, "/flaky");
+
+        Assertions.assertEquals(503, result.response().statusCode());
+        Assertions.assertTrue(result.timing().attempts().isEmpty());
+    }
+
+    @Test
+    public void send_retryAfterLongerThanMaxBackoff_notRetried() throws Exception {
+        TimedExchange.Result result = send(RETRY, "/later");
+
+        Assertions.assertEquals(429, result.response().statusCode());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void send_connectionRefused_retriedThenFails() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        CompletableFuture<TimedExchange.Result> result =
+                exchange(RETRY, "http://127.0.0.1:" + port + "/", new LatencyTracker()).send();
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(ConnectException.class, e.getCause());
+    }
+
+    @Test
+    public void send_attemptFailsAfterPermitWait_resultCompletesExceptionally() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/flaky")).GET().build();
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        CompletableFuture<TimedExchange.Result> result = new RetryingExchange(RETRY, RETRY.maxAttempts(), false,
+                origin -> {
+                    throw new RejectedExecutionException("queue full");
+                }, () -> permit, request, new LatencyTracker(), Runnable::run).send();
+
+        permit.complete(null);
+
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        Assertions.assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void send_slowerThanP95_hedgedAttemptWins() throws Exception {
+        LatencyTracker latencies = new LatencyTracker();
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            latencies.record(URI.create(base + "/"), Duration.ofMillis(50));
+        }
+        RetryPolicy hedged = RetryPolicy.builder().hedge(true).build();
+
+        long start = System.nanoTime();
+        TimedExchange.Result result = exchange(hedged, base + "/stuck", latencies).send().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(204, result.response().statusCode());
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+        List<RequestTiming.Attempt> attempts = result.timing().attempts();
+        Assertions.assertEquals(2, attempts.size());
+        Assertions.assertFalse(attempts.get(0).used());
+        Assertions.assertTrue(attempts.get(0).outcome().startsWith("cancelled"));
+        Assertions.assertTrue(attempts.get(1).hedge());
+        Assertions.assertTrue(attempts.get(1).used());
+    }
+
+    @Test
+    public void p95_fewSamples_noHedgeDelay() {
+        LatencyTracker latencies = new LatencyTracker();
+        URI uri = URI.create("http://example.test/a");
+        for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+            latencies.record(uri, Duration.ofMillis(i));
+        }
+        Assertions.assertNull(latencies.p95(uri));
+
+        URI other = URI.create("http://example.test/b");
+        for (int i = 1; i <= 100; i++) {
+            latencies.record(other, Duration.ofMillis(i));
+        }
+        // Only the last 64 samples (37..100 ms) count
+        Assertions.assertEquals(Duration.ofMillis(97), latencies.p95(other));
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class StreamBodySubscriberTest {
+    private HttpServer server;
+    private String base;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/events", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write("event: greeting\ndata: hello\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                // The stream stays open until the test saw the first event
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.write("data: bye\n\n".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.createContext("/plain", exchange -> {
+            byte[] body = "{\"a\":1}\n{\"a\":2}\n".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private static final class Recorder implements StreamListener {
+        final List<StreamEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch first = new CountDownLatch(1);
+        volatile String contentType;
+
+        @Override
+        public void onOpen(int statusCode, String contentType) {
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void onEvent(StreamEvent event) {
+            events.add(event);
+            first.countDown();
+        }
+    }
+
+    /**
+     * Feeds the chunks to a subscriber and returns the kept body.
+     */
+    private static BoundedBodySubscriber.Body feed(StreamBodySubscriber subscriber, String... chunks) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (String chunk : chunks) {
+            subscriber.onNext(List.of(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        }
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    @Test
+    public void sendRequestAsync_eventStream_eventsArriveBeforeStreamEnds() throws Exception {
+        Recorder recorder = new Recorder();
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + "/events")).method("GET").build();
+
+        CompletableFuture<HttpResponse> response = new HttpServiceImpl().sendRequestAsync(request, recorder);
+
+        Assertions.assertTrue(recorder.first.await(5, TimeUnit.SECONDS), "first event before the stream ended");
+        Assertions.assertFalse(response.isDone());
+        Assertions.assertEquals("text/event-stream; charset=utf-8", recorder.contentType);
+        StreamEvent first = recorder.events.get(0);
+        Assertions.assertEquals("greeting", first.type());
+        Assertions.assertEquals("hello", first.data());
+
+        release.countDown();
+        HttpResponse done = response.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(200, done.statusCode());
+        Assertions.assertEquals(2, recorder.events.size());
+        Assertions.assertEquals("bye", recorder.events.get(1).data());
+        Assertions.assertNull(recorder.events.get(1).type());
+        Assertions.assertEquals("event: greeting\ndata: hello\n\ndata: bye\n\n", done.body());
+    }
+
+    @Test
+    public void sendRequestAsync_notAStream_readAsUsual() throws Exception {
+        Recorder recorder = new Recorder();
+        HttpRequest request = HttpRequest.builder().uri(URI.create(base + "/plain")).method("GET").build();
+
+        HttpResponse response = new HttpServiceImpl().sendRequestAsync(request, recorder).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals("{\"a\":1}\n{\"a\":2}\n", response.body());
+        Assertions.assertTrue(recorder.events.isEmpty());
+        Assertions.assertNull(recorder.contentType);
+    }
+
+    @Test
+    public void sse_multilineDataIdsAndComments_parsedPerSpec() {
+        Recorder recorder = new Recorder();
+        StreamBodySubscriber subscriber = new StreamBodySubscriber(StreamBodySubscriber.Format.SSE, recorder, 0,
+                StandardCharsets.UTF_8, null);
+
+        feed(subscriber, ": keep-alive\r\nid: 7\r\ndata: first\r\nda", "ta:second\r\nretry: 1000\r\n\r\n",
+                "event: update\ndata\n\n", "data: unfinished");
+
+        Assertions.assertEquals(2, recorder.events.size());
+        StreamEvent first = recorder.events.get(0);
+        Assertions.assertEquals(0, first.index());
+        Assertions.assertEquals("7", first.id());
+        Assertions.assertEquals("first\nsecond", first.data());
+        StreamEvent second = recorder.events.get(1);
+        Assertions.assertEquals("update", second.type());
+        Assertions.assertEquals("", second.data());
+        // The last id applies until the server sends another
+        Assertions.assertEquals("7", second.id());
+    }
+
+    @Test
+    public void ndjson_linesSplitAcrossChunks_oneEventPerLine() {
+        Recorder recorder = new Recorder();
+        StreamBodySubscriber subscriber = new StreamBodySubscriber(StreamBodySubscriber.Format.NDJSON, recorder, 0,
+                StandardCharsets.UTF_8, null);
+
+        feed(subscriber, "{\"n\":1}\n{\"n\"", ":2}\r\n\n{\"n\":\"é\"}");
+
+        Assertions.assertEquals(List.of("{\"n\":1}", "{\"n\":2}", "{\"n\":\"é\"}"),
+                recorder.events.stream().map(StreamEvent::data).toList());
+    }
+
+    @Test
+    public void body_beyondCap_keepsPrefixAndStillEmitsEvents() {
+        Recorder recorder = new Recorder();
+        StreamBodySubscriber subscriber = new StreamBodySubscriber(StreamBodySubscriber.Format.NDJSON, recorder, 10,
+                StandardCharsets.UTF_8, null);
+
+        BoundedBodySubscriber.Body body = feed(subscriber, "1\n2\n3\n4\n5\n6\n7\n8\n9\n");
+
+        Assertions.assertEquals(9, recorder.events.size());
+        Assertions.assertTrue(body.truncated());
+        Assertions.assertEquals("1\n2\n3\n4\n5\n", body.text());
+        Assertions.assertEquals(18, body.receivedBytes());
+    }
+
+    @Test
+    public void formatOf_mediaTypes() {
+        Assertions.assertEquals(StreamBodySubscriber.Format.SSE, StreamBodySubscriber.formatOf("text/event-stream"));
+        Assertions.assertEquals(StreamBodySubscriber.Format.NDJSON,
+                StreamBodySubscriber.formatOf("application/x-ndjson; charset=UTF-8"));
+        Assertions.assertNull(StreamBodySubscriber.formatOf("application/json"));
+        Assertions.assertNull(StreamBodySubscriber.formatOf(null));
+    }
+}
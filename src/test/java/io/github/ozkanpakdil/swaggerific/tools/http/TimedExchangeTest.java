@@ -0,0 +1,93 @@
+package io.github.ozkanpakdil.swaggerific.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class TimedExchangeTest {
+    private HttpServer server;
+    private String base;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/old", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/new");
+            exchange.sendResponseHeaders(303, -1);
+            exchange.close();
+        });
+        server.createContext("/new", exchange -> {
+            byte[] body = exchange.getRequestMethod().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Server-Timing", "db;dur=12");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/gzip", exchange -> {
+            byte[] body = HttpServiceImpl.gzip("compressed ".repeat(50).getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private TimedExchange.Result send(String path, boolean followRedirects) throws Exception {
+        HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                .POST(HttpRequest.BodyPublishers.ofString("payload"))
+                .build();
+        return new TimedExchange(client, new ConnectionTracker(), BoundedBodySubscriber.handler(1000),
+                followRedirects, Runnable::run).send(request).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void send_redirect_timesEveryHop() throws Exception {
+        TimedExchange.Result result = send("/old", true);
+
+        Assertions.assertEquals(200, result.response().statusCode());
+        // 303 continues as GET
+        Assertions.assertEquals("GET", result.response().body().text());
+        RequestTiming timing = result.timing();
+        Assertions.assertEquals(2, timing.hops().size());
+        Assertions.assertEquals(303, timing.hops().get(0).statusCode());
+        Assertions.assertEquals(URI.create(base + "/new"), timing.last().uri());
+        Assertions.assertEquals(3, timing.last().bodyBytes());
+        Assertions.assertFalse(timing.last().start().isNegative());
+        Assertions.assertEquals("db", timing.serverTimings().get(0).name());
+    }
+
+    @Test
+    public void send_gzipBody_reportsWireAndDecodedSize() throws Exception {
+        TimedExchange.Result result = send("/gzip", true);
+
+        Assertions.assertEquals("compressed ".repeat(50), result.response().body().text());
+        RequestTiming.Hop hop = result.timing().last();
+        Assertions.assertEquals(550, hop.decodedBytes());
+        Assertions.assertTrue(hop.bodyBytes() < 100, "wire bytes " + hop.bodyBytes());
+    }
+
+    @Test
+    public void send_redirectsDisabled_returnsRedirect() throws Exception {
+        TimedExchange.Result result = send("/old", false);
+
+        Assertions.assertEquals(303, result.response().statusCode());
+        Assertions.assertEquals(1, result.timing().hops().size());
+    }
+}
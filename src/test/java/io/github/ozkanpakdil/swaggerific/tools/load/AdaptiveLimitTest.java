@@ -0,0 +1,100 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveLimitTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Records one full window at the current limit.
+     */
+    private static void window(AdaptiveLimit limit, long latencyNanos, int overloaded) {
+        int size = Math.max(AdaptiveLimit.MIN_WINDOW, limit.limit());
+        for (int i = 0; i < size; i++) {
+            limit.record(latencyNanos, i < overloaded);
+        }
+    }
+
+    @Test
+    public void record_flatLatency_doublesUpToMax() {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 20);
+
+        window(limit, 10 * MS, 0);
+        Assertions.assertEquals(2, limit.limit());
+        window(limit, 10 * MS, 0);
+        window(limit, 10 * MS, 0);
+        window(limit, 10 * MS, 0);
+        Assertions.assertEquals(16, limit.limit());
+        window(limit, 10 * MS, 0);
+        Assertions.assertEquals(20, limit.limit());
+        window(limit, 10 * MS, 0);
+        Assertions.assertEquals(20, limit.limit());
+    }
+
+    @Test
+    public void record_latencyClimbs_backsOffThenGrowsByOne() {
+        AdaptiveLimit limit = new AdaptiveLimit(16, 64);
+        window(limit, 10 * MS, 0);
+        Assertions.assertEquals(32, limit.limit());
+
+        window(limit, 40 * MS, 0);
+        Assertions.assertEquals(24, limit.limit());
+
+        // Out of slow start, latency back to normal
+        window(limit, 10 * MS, 0);
+        Assertions.assertEquals(25, limit.limit());
+    }
+
+    @Test
+    public void record_overloadResponses_backOff() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 20);
+
+        window(limit, 10 * MS, 2);
+
+        Assertions.assertEquals(15, limit.limit());
+        List<AdaptiveLimit.Point> timeline = limit.timeline();
+        Assertions.assertEquals(2, timeline.size());
+        Assertions.assertEquals(20, timeline.get(0).limit());
+        Assertions.assertEquals(15, timeline.get(1).limit());
+        Assertions.assertEquals(0.1, timeline.get(1).overloadRate(), 1e-9);
+    }
+
+    @Test
+    public void record_subMillisecondJitter_notTakenForQueueing() {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 8);
+
+        window(limit, 50_000, 0);
+        window(limit, 400_000, 0);
+
+        Assertions.assertEquals(4, limit.limit());
+    }
+
+    @Test
+    public void record_neverBelowOne() {
+        AdaptiveLimit limit = new AdaptiveLimit(1, 8);
+
+        for (int i = 0; i < 5; i++) {
+            window(limit, 10 * MS, AdaptiveLimit.MIN_WINDOW);
+        }
+
+        Assertions.assertEquals(1, limit.limit());
+    }
+
+    @Test
+    public void record_responses_429And5xxAndErrorsAreOverload() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 4);
+        HttpResponse ok = new HttpResponse.Builder().statusCode(200).build();
+        HttpResponse tooMany = new HttpResponse.Builder().statusCode(429).build();
+        for (int i = 0; i < AdaptiveLimit.MIN_WINDOW - 1; i++) {
+            limit.record(MS, ok, null);
+        }
+        limit.record(MS, tooMany, null);
+
+        Assertions.assertEquals(3, limit.limit());
+    }
+}
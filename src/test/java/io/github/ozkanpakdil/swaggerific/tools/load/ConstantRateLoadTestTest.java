@@ -0,0 +1,108 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConstantRateLoadTestTest {
+
+    private static CompletableFuture<HttpResponse> ok() {
+        return CompletableFuture.completedFuture(new HttpResponse.Builder().statusCode(200).build());
+    }
+
+    @Test
+    public void start_fixedRate_sendsOnSchedule() throws Exception {
+        ConstantRateLoadTest test = new ConstantRateLoadTest(
+                ConstantRateLoadTest.Options.of(500, Duration.ofMillis(400), 100), ConstantRateLoadTestTest::ok);
+
+        LoadReport report = test.start().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(200, report.requests(), 2);
+        Assertions.assertEquals(0, report.dropped());
+        Assertions.assertTrue(report.finished());
+    }
+
+    @Test
+    public void start_stalledSend_latencyMeasuredFromIntendedStart() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        ConstantRateLoadTest test = new ConstantRateLoadTest(
+                ConstantRateLoadTest.Options.of(200, Duration.ofMillis(500), 1000), () -> {
+            if (sent.incrementAndGet() == 10) {
+                // The generator is held up, the requests scheduled meanwhile go out late
+                sleep(200);
+            }
+            return ok();
+        });
+
+        LoadReport report = test.start().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(report.late() > 20, "late: " + report.late());
+        Assertions.assertTrue(report.max().compareTo(Duration.ofMillis(150)) >= 0, "max: " + report.max());
+        Assertions.assertTrue(report.percentile(90).compareTo(report.servicePercentile(90)) > 0);
+        Assertions.assertTrue(report.servicePercentile(50).compareTo(Duration.ofMillis(10)) < 0);
+    }
+
+    @Test
+    public void start_maxInFlightReached_dropsScheduledRequests() throws Exception {
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        ConstantRateLoadTest test = new ConstantRateLoadTest(
+                ConstantRateLoadTest.Options.of(1000, Duration.ofMillis(100), 1), () -> pending);
+
+        CompletableFuture<LoadReport> result = test.start();
+        sleep(200);
+        Assertions.assertFalse(result.isDone());
+        Assertions.assertEquals(1, test.inFlight());
+        pending.complete(new HttpResponse.Builder().statusCode(200).build());
+
+        LoadReport report = result.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(1, report.requests());
+        Assertions.assertTrue(report.dropped() > 50, "dropped: " + report.dropped());
+    }
+
+    @Test
+    public void stop_running_finishesEarly() throws Exception {
+        ConstantRateLoadTest test = new ConstantRateLoadTest(
+                ConstantRateLoadTest.Options.of(100, Duration.ofMinutes(10), 100), ConstantRateLoadTestTest::ok);
+
+        CompletableFuture<LoadReport> result = test.start();
+        sleep(100);
+        test.stop();
+
+        Assertions.assertTrue(result.get(5, TimeUnit.SECONDS).requests() > 0);
+    }
+
+    @Test
+    public void rateAt_rampUp_interpolatesLinearly() {
+        ConstantRateLoadTest.Options options = ConstantRateLoadTest.Options.ramped(10, 110, Duration.ofSeconds(10),
+                Duration.ofSeconds(20), 100);
+
+        Assertions.assertEquals(10, options.rateAt(0), 1e-9);
+        Assertions.assertEquals(60, options.rateAt(Duration.ofSeconds(5).toNanos()), 1e-9);
+        Assertions.assertEquals(110, options.rateAt(Duration.ofSeconds(15).toNanos()), 1e-9);
+    }
+
+    @Test
+    public void options_invalid_rejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConstantRateLoadTest.Options.of(0, Duration.ofSeconds(1), 1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConstantRateLoadTest.Options.of(10, Duration.ZERO, 1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConstantRateLoadTest.Options.of(10, Duration.ofSeconds(1), 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ConstantRateLoadTest.Options.ramped(1, 10, Duration.ofSeconds(2), Duration.ofSeconds(1), 1));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
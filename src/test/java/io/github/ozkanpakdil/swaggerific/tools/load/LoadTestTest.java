@@ -0,0 +1,190 @@
+package io.github.ozkanpakdil.swaggerific.tools.load;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.ozkanpakdil.swaggerific.SwaggerApplication;
+import io.github.ozkanpakdil.swaggerific.tools.HttpUtility;
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import io.swagger.v3.oas.models.PathItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.prefs.Preferences;
+
+public class LoadTestTest {
+
+    private static CompletableFuture<HttpResponse> response(int status) {
+        return CompletableFuture.completedFuture(new HttpResponse.Builder().statusCode(status).build());
+    }
+
+    @Test
+    public void start_requestCount_sendsExactlyThatMany() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        LoadTest test = new LoadTest(LoadTest.Options.ofRequests(10_000, 8), () -> {
+            sent.incrementAndGet();
+            return response(200);
+        });
+
+        LoadReport report = test.start().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(10_000, sent.get());
+        Assertions.assertEquals(10_000, report.requests());
+        Assertions.assertEquals(10_000, report.latencies().getTotalCount());
+        Assertions.assertEquals(0, report.errors());
+        Assertions.assertTrue(report.finished());
+    }
+
+    @Test
+    public void start_adaptive_sendsExactlyRequestCountWithinMax() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        try {
+            LoadTest test = new LoadTest(LoadTest.Options.ofRequests(2_000, 16).adaptively(), () -> {
+                sent.incrementAndGet();
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                scheduler.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    future.complete(new HttpResponse.Builder().statusCode(200).build());
+                }, 1, TimeUnit.MILLISECONDS);
+                return future;
+            });
+
+            LoadReport report = test.start().get(30, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(2_000, sent.get());
+            Assertions.assertEquals(2_000, report.requests());
+            Assertions.assertTrue(maxInFlight.get() <= 16, "max in flight " + maxInFlight.get());
+            Assertions.assertTrue(maxInFlight.get() > 1, "users were never added");
+            Assertions.assertEquals(1, report.limits().get(0).limit());
+            Assertions.assertTrue(report.limits().size() > 1);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_mixedOutcomes_countsStatusCodesAndErrors() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        LoadTest test = new LoadTest(LoadTest.Options.ofRequests(100, 4), () -> switch (sent.incrementAndGet() % 4) {
+            case 0 -> response(500);
+            case 1 -> CompletableFuture.completedFuture(new HttpResponse.Builder().statusCode(500).error("refused").build());
+            case 2 -> CompletableFuture.failedFuture(new IllegalStateException("boom"));
+            default -> response(200);
+        });
+
+        LoadReport report = test.start().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(100, report.requests());
+        Assertions.assertEquals(75, report.errors());
+        Assertions.assertEquals(0.75, report.errorRate(), 1e-9);
+        Assertions.assertEquals(25L, report.statusCodes().get(200));
+        Assertions.assertEquals(25L, report.statusCodes().get(500));
+    }
+
+    @Test
+    public void start_concurrency_limitsRequestsInFlight() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        try {
+            LoadTest test = new LoadTest(LoadTest.Options.ofRequests(60, 3), () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                scheduler.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    future.complete(new HttpResponse.Builder().statusCode(200).build());
+                }, 2, TimeUnit.MILLISECONDS);
+                return future;
+            });
+
+            LoadReport report = test.start().get(10, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(60, report.requests());
+            Assertions.assertEquals(3, maxInFlight.get());
+            Assertions.assertTrue(report.percentile(50).compareTo(Duration.ofMillis(1)) >= 0);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_duration_stopsAfterDeadline() throws Exception {
+        LoadTest test = new LoadTest(LoadTest.Options.ofDuration(Duration.ofMillis(200), 2), () -> response(204));
+
+        LoadReport report = test.start().get(10, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(report.requests() > 0);
+        Assertions.assertTrue(report.elapsed().compareTo(Duration.ofMillis(200)) >= 0);
+        Assertions.assertEquals(report.requests(), report.statusCodes().get(204));
+    }
+
+    @Test
+    public void stop_running_finishesInFlightRequests() throws Exception {
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        LoadTest test = new LoadTest(LoadTest.Options.ofRequests(1000, 1), () -> pending);
+
+        CompletableFuture<LoadReport> result = test.start();
+        test.stop();
+        Assertions.assertFalse(result.isDone());
+        pending.complete(new HttpResponse.Builder().statusCode(200).build());
+
+        Assertions.assertEquals(1, result.get(10, TimeUnit.SECONDS).requests());
+    }
+
+    @Test
+    public void options_invalid_rejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadTest.Options.ofRequests(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadTest.Options.ofRequests(1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadTest.Options.ofDuration(Duration.ZERO, 1));
+    }
+
+    @Test
+    public void start_cacheEnabled_everyRequestReachesServer() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            received.incrementAndGet();
+            byte[] body = "[1]".getBytes();
+            exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        Preferences prefs = Preferences.userNodeForPackage(SwaggerApplication.class);
+        String cacheEnabled = prefs.get("http.cache.enabled", null);
+        prefs.putBoolean("http.cache.enabled", true);
+        try {
+            String uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/pets";
+            HttpUtility httpUtility = new HttpUtility();
+            // The response is cacheable, an interactive send is answered from the cache the second time
+            httpUtility.sendRequestAsync(uri, PathItem.HttpMethod.GET).get(10, TimeUnit.SECONDS);
+            httpUtility.sendRequestAsync(uri, PathItem.HttpMethod.GET).get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(1, received.get());
+
+            HttpUtility bulk = httpUtility.bulk();
+            LoadReport report = new LoadTest(LoadTest.Options.ofRequests(20, 4),
+                    () -> bulk.sendRequestAsync(uri, PathItem.HttpMethod.GET)).start().get(30, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(20, report.requests());
+            Assertions.assertEquals(0, report.errors());
+            Assertions.assertEquals(21, received.get());
+        } finally {
+            if (cacheEnabled == null) {
+                prefs.remove("http.cache.enabled");
+            } else {
+                prefs.put("http.cache.enabled", cacheEnabled);
+            }
+            server.stop(0);
+        }
+    }
+}
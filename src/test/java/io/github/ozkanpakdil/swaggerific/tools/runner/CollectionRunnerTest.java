@@ -0,0 +1,198 @@
+package io.github.ozkanpakdil.swaggerific.tools.runner;
+
+import io.github.ozkanpakdil.swaggerific.tools.http.HttpResponse;
+import io.github.ozkanpakdil.swaggerific.tools.load.AdaptiveLimit;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class CollectionRunnerTest {
+
+    private static List<CollectionRunner.Request> requests(int count, Supplier<CompletableFuture<HttpResponse>> send) {
+        List<CollectionRunner.Request> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new CollectionRunner.Request(i, "GET", "/item/" + i, send));
+        }
+        return requests;
+    }
+
+    private static CompletableFuture<HttpResponse> response(int status) {
+        return CompletableFuture.completedFuture(new HttpResponse.Builder().statusCode(status).body("ok").build());
+    }
+
+    @Test
+    public void start_slowResponses_keepsConcurrencyBounded() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        try {
+            CollectionRunner runner = new CollectionRunner(requests(40, () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                scheduler.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    future.complete(new HttpResponse.Builder().statusCode(200).build());
+                }, 5, TimeUnit.MILLISECONDS);
+                return future;
+            }), 3);
+
+            CollectionRunner.Summary summary = runner.start(r -> {
+            }).get(10, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(40, summary.completed());
+            Assertions.assertTrue(maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_adaptive_settlesBelowOverloadPoint() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        try {
+            // The service answers 503 once more than 6 requests are in flight
+            CollectionRunner runner = new CollectionRunner(requests(600, () -> {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                scheduler.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    future.complete(new HttpResponse.Builder().statusCode(current > 6 ? 503 : 200).build());
+                }, 2, TimeUnit.MILLISECONDS);
+                return future;
+            }), new AdaptiveLimit(1, 32));
+
+            CollectionRunner.Summary summary = runner.start(r -> {
+            }).get(30, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(600, summary.completed());
+            Assertions.assertTrue(maxInFlight.get() <= 32, "max in flight " + maxInFlight.get());
+            List<AdaptiveLimit.Point> limits = summary.limits();
+            Assertions.assertEquals(1, limits.get(0).limit());
+            Assertions.assertTrue(limits.stream().anyMatch(p -> p.limit() > 6), "never grew: " + limits);
+            Assertions.assertTrue(limits.get(limits.size() - 1).limit() <= 12, "did not back off: " + limits);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void start_fixedConcurrency_noLimitTimeline() throws Exception {
+        CollectionRunner.Summary summary = new CollectionRunner(requests(3, () -> response(200)), 2)
+                .start(r -> {
+                }).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(summary.limits().isEmpty());
+    }
+
+    @Test
+    public void start_manyRequests_reportsEachOnce() throws Exception {
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger reported = new AtomicInteger();
+        CollectionRunner runner = new CollectionRunner(requests(5_000, () -> response(200)), 8);
+
+        CollectionRunner.Summary summary = runner.start(r -> {
+            reported.incrementAndGet();
+            seen.add(r.request().index());
+        }).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(5_000, reported.get());
+        Assertions.assertEquals(5_000, seen.size());
+        Assertions.assertEquals(5_000, summary.completed());
+        Assertions.assertEquals(0, summary.failed());
+        Assertions.assertFalse(summary.cancelled());
+    }
+
+    @Test
+    public void start_failures_reportsErrorResponses() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        List<CollectionRunner.Result> results = new ArrayList<>();
+        CollectionRunner runner = new CollectionRunner(requests(4, () -> switch (sent.incrementAndGet()) {
+            case 1 -> CompletableFuture.failedFuture(new IllegalStateException("refused"));
+            case 2 -> throw new IllegalArgumentException("bad uri");
+            case 3 -> response(404);
+            default -> response(200);
+        }), 1);
+
+        CollectionRunner.Summary summary = runner.start(results::add).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(4, summary.completed());
+        Assertions.assertEquals(3, summary.failed());
+        Assertions.assertTrue(results.get(0).response().isError());
+        Assertions.assertTrue(results.get(0).response().errorMessage().contains("refused"));
+        Assertions.assertTrue(results.get(1).response().isError());
+        Assertions.assertFalse(results.get(3).failed());
+        Assertions.assertEquals(2, results.get(3).size());
+    }
+
+    @Test
+    public void cancel_duringRun_stopsStartingRequests() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        CollectionRunner[] runner = new CollectionRunner[1];
+        runner[0] = new CollectionRunner(requests(100, () -> {
+            if (sent.incrementAndGet() == 10) {
+                runner[0].cancel();
+            }
+            return response(200);
+        }), 1);
+
+        CollectionRunner.Summary summary = runner[0].start(r -> {
+        }).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(10, sent.get());
+        Assertions.assertEquals(10, summary.completed());
+        Assertions.assertTrue(summary.cancelled());
+    }
+
+    @Test
+    public void cancel_requestsInFlight_abortedAndNotReported() throws Exception {
+        List<CompletableFuture<HttpResponse>> sent = new ArrayList<>();
+        List<CollectionRunner.Result> results = new ArrayList<>();
+        CollectionRunner runner = new CollectionRunner(requests(10, () -> {
+            CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+            sent.add(response);
+            return response;
+        }), 3);
+        CompletableFuture<CollectionRunner.Summary> done = runner.start(results::add);
+        Assertions.assertEquals(3, sent.size());
+
+        runner.cancel();
+
+        CollectionRunner.Summary summary = done.get(10, TimeUnit.SECONDS);
+        Assertions.assertTrue(sent.stream().allMatch(CompletableFuture::isCancelled));
+        Assertions.assertTrue(results.isEmpty());
+        Assertions.assertEquals(0, summary.completed());
+        Assertions.assertTrue(summary.cancelled());
+    }
+
+    @Test
+    public void of_parameters_usesExamplesAndPlaceholders() {
+        Parameter id = new Parameter().in("path").name("id").schema(new IntegerSchema());
+        Parameter status = new Parameter().in("query").name("status")
+                .schema(new StringSchema()._enum(List.of("available", "sold")));
+        Parameter page = new Parameter().in("query").name("page").schema(new IntegerSchema());
+        Parameter key = new Parameter().in("header").name("X-Key").required(true).example("abc");
+
+        OperationDefaults defaults = OperationDefaults.of(List.of(id, status, page, key));
+
+        Assertions.assertEquals(Map.of("id", "1"), defaults.path());
+        Assertions.assertEquals(Map.of("status", "available"), defaults.query());
+        Assertions.assertEquals(Map.of("X-Key", "abc"), defaults.headers());
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.ozkanpakdil.swaggerific.tools.ws;
+
+import io.github.ozkanpakdil.swaggerific.tools.MessageLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class WebSocketSessionTest {
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private ServerSocket server;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Starts a server that accepts one WebSocket handshake and sends {@code count} text frames right away.
+     */
+    private URI serve(int count) throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(() -> {
+            try (Socket socket = server.accept()) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                        StandardCharsets.ISO_8859_1));
+                String key = null;
+                String line;
+                while ((line = in.readLine()) != null && !line.isEmpty()) {
+                    if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+                        key = line.substring(line.indexOf(':') + 1).trim();
+                    }
+                }
+                String accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                        .digest((key + GUID).getBytes(StandardCharsets.ISO_8859_1)));
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                        + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                for (int i = 0; i < count; i++) {
+                    byte[] payload = ("m" + i).getBytes(StandardCharsets.UTF_8);
+                    out.write(new byte[]{(byte) 0x81, (byte) payload.length});
+                    out.write(payload);
+                }
+                out.flush();
+                // Keep the connection open until the client goes away
+                socket.getInputStream().transferTo(OutputStream.nullOutputStream());
+            } catch (Exception ignored) {
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return URI.create("ws://127.0.0.1:" + server.getLocalPort() + "/socket");
+    }
+
+    private static List<WebSocketMessage> drainUntil(MessageLog<WebSocketMessage> log, int count) throws InterruptedException {
+        List<WebSocketMessage> messages = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (messages.size() < count && System.nanoTime() < deadline) {
+            messages.addAll(log.drain().messages());
+            Thread.sleep(5);
+        }
+        return messages;
+    }
+
+    @Test
+    public void connect_burstOfMessages_allLoggedInOrder() throws Exception {
+        URI uri = serve(2000);
+        MessageLog<WebSocketMessage> log = new MessageLog<>(10_000, WebSocketMessage::dropped);
+        WebSocketSession session = new WebSocketSession(log);
+
+        session.connect(HttpClient.newHttpClient(), uri, Map.of("X-Test", "1")).get(5, TimeUnit.SECONDS);
+        List<WebSocketMessage> messages = drainUntil(log, 2001);
+        session.close();
+
+        Assertions.assertEquals(2001, messages.size());
+        Assertions.assertEquals(WebSocketMessage.Kind.OPEN, messages.get(0).kind());
+        for (int i = 0; i < 2000; i++) {
+            WebSocketMessage message = messages.get(i + 1);
+            Assertions.assertEquals(WebSocketMessage.Direction.IN, message.direction());
+            Assertions.assertEquals("m" + i, message.text());
+        }
+    }
+
+    @Test
+    public void sendText_loggedAsOutgoing() throws Exception {
+        URI uri = serve(0);
+        MessageLog<WebSocketMessage> log = new MessageLog<>(100, WebSocketMessage::dropped);
+        WebSocketSession session = new WebSocketSession(log);
+        session.connect(HttpClient.newHttpClient(), uri, Map.of()).get(5, TimeUnit.SECONDS);
+
+        session.sendText("hello").get(5, TimeUnit.SECONDS);
+        session.sendBinary(new byte[]{1, 2, (byte) 0xff}).get(5, TimeUnit.SECONDS);
+        List<WebSocketMessage> messages = drainUntil(log, 3);
+        session.close();
+
+        Assertions.assertEquals(WebSocketMessage.Direction.OUT, messages.get(1).direction());
+        Assertions.assertEquals("hello", messages.get(1).text());
+        Assertions.assertEquals(WebSocketMessage.Kind.BINARY, messages.get(2).kind());
+        Assertions.assertEquals("01 02 ff", messages.get(2).text());
+        Assertions.assertEquals(3, messages.get(2).size());
+    }
+
+    @Test
+    public void connect_httpUrl_rejected() {
+        WebSocketSession session = new WebSocketSession(new MessageLog<>(10, WebSocketMessage::dropped));
+
+        CompletableFuture<Void> connected = session.connect(HttpClient.newHttpClient(),
+                URI.create("http://localhost/socket"), Map.of());
+
+        Assertions.assertTrue(connected.isCompletedExceptionally());
+        Assertions.assertThrows(IllegalStateException.class, () -> session.sendText("x"));
+    }
+
+    @Test
+    public void listener_fragments_joinedIntoOneMessage() {
+        MessageLog<WebSocketMessage> log = new MessageLog<>(10, WebSocketMessage::dropped);
+        WebSocketSession.Listener listener = new WebSocketSession.Listener(log);
+        byte[] large = new byte[WebSocketSession.BINARY_PREVIEW + 10];
+
+        listener.onText(new NoOpSocket(), "hel", false);
+        listener.onText(new NoOpSocket(), "lo", true);
+        listener.onBinary(new NoOpSocket(), ByteBuffer.wrap(large, 0, 40), false);
+        listener.onBinary(new NoOpSocket(), ByteBuffer.wrap(large, 40, large.length - 40), true);
+
+        List<WebSocketMessage> messages = log.drain().messages();
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertEquals("hello", messages.get(0).text());
+        Assertions.assertEquals(5, messages.get(0).size());
+        Assertions.assertEquals(large.length, messages.get(1).size());
+        Assertions.assertTrue(messages.get(1).text().endsWith(" …"));
+        Assertions.assertEquals(WebSocketSession.BINARY_PREVIEW * 3 - 1 + 2, messages.get(1).text().length());
+    }
+
+    private static final class NoOpSocket implements WebSocket {
+        @Override
+        public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendBinary(ByteBuffer data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPing(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPong(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public String getSubprotocol() {
+            return "";
+        }
+
+        @Override
+        public boolean isOutputClosed() {
+            return false;
+        }
+
+        @Override
+        public boolean isInputClosed() {
+            return false;
+        }
+
+        @Override
+        public void abort() {
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.ozkanpakdil.swaggerific.ui.component;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedTextFileTest {
+
+    @Test
+    public void buildIndex_lines_rowsWithoutLineBreaks() throws Exception {
+        Path file = Files.createTempFile("mapped", ".txt");
+        Files.writeString(file, "first\r\nsecond\n\nlast");
+        try (MappedTextFile text = new MappedTextFile(file, StandardCharsets.UTF_8)) {
+            text.buildIndex(null);
+            Assertions.assertEquals(4, text.rowCount());
+            Assertions.assertEquals("first", text.row(0));
+            Assertions.assertEquals("second", text.row(1));
+            Assertions.assertEquals("", text.row(2));
+            Assertions.assertEquals("last", text.row(3));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void buildIndex_longLine_splitOnCharacterBoundary() throws Exception {
+        // One line of two-byte characters, longer than a row
+        String line = "ü".repeat(MappedTextFile.MAX_ROW_BYTES);
+        Path file = Files.createTempFile("mapped", ".txt");
+        Files.writeString(file, line);
+        try (MappedTextFile text = new MappedTextFile(file, StandardCharsets.UTF_8)) {
+            text.buildIndex(null);
+            Assertions.assertEquals(2, text.rowCount());
+            Assertions.assertEquals(line, text.row(0) + text.row(1));
+            Assertions.assertFalse(text.row(0).contains("�"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}